@@ -5,6 +5,13 @@ plugins {
 group = "com.tavla"
 version = "1.0-SNAPSHOT"
 
+java {
+    // Oda mailbox'ları virtual thread kullanıyor (Java 21+)
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    }
+}
+
 repositories {
     mavenCentral()
 }
@@ -23,4 +30,60 @@ dependencies {
 
 tasks.test {
     useJUnitPlatform()
-}
\ No newline at end of file
+}
+// Yük testi: ./gradlew loadTest -PloadArgs="2000 2" (URL verilmezse sunucu aynı JVM'de başlatılır)
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Sunucuya eşzamanlı oyunlar oynatıp gecikme/throughput raporlar"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.tavla.server.loadtest.LoadGenerator")
+    args = (findProperty("loadArgs") as String? ?: "1000 1").split(" ")
+}
+
+// Bot turnuvası: ./gradlew tournament -PtournamentArgs="round-robin random,pip,eval,eval-cube 10000"
+tasks.register<JavaExec>("tournament") {
+    group = "verification"
+    description = "Bot stratejilerini tüm çekirdeklerde soketsiz karşılaştırır"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.tavla.server.tournament.Tournament")
+    args = (findProperty("tournamentArgs") as String? ?: "round-robin random,pip,eval,eval-cube 1000").split(" ")
+}
+
+// Hile analizi: ./gradlew cheatDetection -PanalysisArgs="data" (sunucu kapalıyken ya da arşivin kopyasında)
+tasks.register<JavaExec>("cheatDetection") {
+    group = "verification"
+    description = "Arşivdeki oyunlarda hamleleri motorla karşılaştırıp şüpheli hesapları raporlar"
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass.set("com.tavla.server.analysis.CheatDetection")
+    args = (findProperty("analysisArgs") as String? ?: "data").split(" ")
+}
+
+// Hızlı açılış: ./gradlew appCdsArchive eğitim çalıştırmasından (TrainingRun) build/cds/tavla.jsa üretir,
+// ./gradlew fastStart -PserverArgs="8080" sunucuyu bu arşivle açar. CDS sadece jar'lardaki sınıfları
+// arşivler ve arşiv aynı classpath ile açılmalıdır; iki görev de jar + bağımlılıklarla çalışır.
+val cdsArchive = layout.buildDirectory.file("cds/tavla.jsa")
+val cdsClasspath = files(tasks.jar) + configurations["runtimeClasspath"]
+
+tasks.register<JavaExec>("appCdsArchive") {
+    group = "build"
+    description = "Sunucuyu kendine karşı kısa bir yük testiyle çalıştırıp AppCDS arşivi üretir"
+    classpath = cdsClasspath
+    mainClass.set("com.tavla.server.startup.TrainingRun")
+    args = (findProperty("trainingArgs") as String? ?: "20 2").split(" ")
+    // Eğitimde yüklenen proxy/JFR sınıfları arşive girmez; bunlar için her sınıfa bir uyarı basılmasın
+    jvmArgs("-XX:ArchiveClassesAtExit=" + cdsArchive.get().asFile.absolutePath, "-Xlog:cds=error")
+    outputs.file(cdsArchive)
+    doFirst {
+        cdsArchive.get().asFile.parentFile.mkdirs()
+    }
+}
+
+tasks.register<JavaExec>("fastStart") {
+    group = "application"
+    description = "Sunucuyu AppCDS arşiviyle ve açılış ısınmasıyla başlatır"
+    dependsOn("appCdsArchive")
+    classpath = cdsClasspath
+    mainClass.set("com.tavla.server.ws.TavlaWebSocketServer")
+    args = (findProperty("serverArgs") as String? ?: "8080").split(" ")
+    jvmArgs("-XX:SharedArchiveFile=" + cdsArchive.get().asFile.absolutePath)
+}
@@ -18,10 +18,17 @@ export class TavlaGame {
         this.onState = null;   // (state) => void
         this.onError = null;   // (message) => void
         this.onInfo = null;    // (message) => void
+        this.onReplay = null;  // ({gameId, step, steps, state}) => void
+        this.onHint = null;    // ({moves, equity, book, cube, cubefulEquity}) => void
+        this.onLeaderboard = null; // ({players}) => void; players: [{rank, playerId, rating, rd, games, wins}]
+        this.onRank = null;        // ({playerId, rank, players}) => void
+        this.onRating = null;      // ({playerId, rating, change, rank}) => void
+        this.onImportOffered = null; // ({player, positionId, matchId}) => void
 
         // Oda bilgisi
         this.roomId = null;
         this.player = null; // "WHITE" / "BLACK"
+        this.token = null;  // resume için session token
     }
 
     // ---------- Connection ----------
@@ -33,7 +40,11 @@ export class TavlaGame {
         this.ws = new WebSocket(this.url);
 
         this.ws.onopen = () => {
-            // bağlandı
+            // bağlandı; daha önce bir odadaysak koltuğumuzu geri al
+            if (this.token && this._resumeOnOpen) {
+                this._resumeOnOpen = false;
+                this.resume();
+            }
         };
 
         this.ws.onmessage = (e) => {
@@ -49,13 +60,80 @@ export class TavlaGame {
                     return;
                 }
 
-                if (msg.type === "room_created" || msg.type === "room_joined") {
+                if (msg.type === "room_created" || msg.type === "room_joined" || msg.type === "resumed"
+                    || msg.type === "match_found") {
                     this.roomId = msg.payload.roomId;
                     this.player = msg.payload.player; // "WHITE"/"BLACK"
+                    this.token = msg.payload.token;
                     // UI isterse bu bilgiyi kullanabilir
                     return;
                 }
 
+                if (msg.type === "room_closed") {
+                    this.token = null;
+                    if (this.onInfo) this.onInfo(msg.payload?.reason ?? "Oda kapandı.");
+                    return;
+                }
+
+                if (msg.type === "turn_timeout") {
+                    // ardından gelen state'te gameOver/winner zaten set edilmiş olur
+                    if (this.onInfo) this.onInfo(msg.payload.player + " süre aşımı nedeniyle kaybetti.");
+                    return;
+                }
+
+                if (msg.type === "replay_state") {
+                    const p = msg.payload;
+                    if (this.onReplay) {
+                        this.onReplay({ gameId: p.gameId, step: p.step, steps: p.steps,
+                            state: this._mapServerStateToSnapshot(p.state) });
+                    }
+                    return;
+                }
+
+                if (msg.type === "hint") {
+                    if (this.onHint) this.onHint(msg.payload);
+                    return;
+                }
+
+                if (msg.type === "import_offered") {
+                    // Rakip pozisyon yüklemek istiyor: acceptImport() / declineImport()
+                    if (this.onImportOffered) this.onImportOffered(msg.payload);
+                    return;
+                }
+
+                if (msg.type === "import_declined") {
+                    if (this.onInfo) this.onInfo("Rakip pozisyon teklifini reddetti.");
+                    return;
+                }
+
+                if (msg.type === "leaderboard") {
+                    if (this.onLeaderboard) this.onLeaderboard(msg.payload);
+                    return;
+                }
+
+                if (msg.type === "rank") {
+                    if (this.onRank) this.onRank(msg.payload);
+                    return;
+                }
+
+                if (msg.type === "rating_updated") {
+                    // Biten oyundan sonra (iki oyuncu da playerId'liyse) yeni rating
+                    if (this.onRating) this.onRating(msg.payload);
+                    return;
+                }
+
+                if (msg.type === "game_archived") {
+                    // Biten oyunun arşivdeki numarası (tekrar izleme / paylaşma için)
+                    this.lastGameId = msg.payload.gameId;
+                    return;
+                }
+
+                if (msg.type === "redirect") {
+                    // Oda cluster'da başka bir node'da: oraya bağlanıp tekrar katıl
+                    this._redirect(msg.payload.url, msg.payload.roomId, msg.payload.retry);
+                    return;
+                }
+
                 if (msg.type === "error") {
                     if (this.onError) this.onError(msg.payload?.message ?? "Unknown error");
                     return;
@@ -76,17 +154,41 @@ export class TavlaGame {
         };
 
         this.ws.onclose = () => {
-            // bağlantı kapandı
+            // bağlantı koptu: odadaysak kısa bir süre sonra yeniden bağlanıp resume et
+            if (this.token) {
+                this._resumeOnOpen = true;
+                setTimeout(() => this.connect(), 1000);
+            }
         };
     }
 
     // ---------- Room ----------
-    createRoom() {
-        this._send({ type: "create_room" });
+    // matchLength > 0 ise o kadar puanlık maç, 0 ise para oyunu
+    createRoom(matchLength = 0) {
+        if (matchLength > 0) {
+            this._send({ type: "create_room", payload: { matchLength } });
+        } else {
+            this._send({ type: "create_room" });
+        }
     }
 
-    joinRoom(roomId) {
-        this._send({ type: "join_room", payload: { roomId } });
+    joinRoom(roomId, hops = 0) {
+        this._joinHops = hops;
+        this._send({ type: "join_room", payload: { roomId, hops } });
+    }
+
+    // rating'e göre rakip ara; eşleşince match_found gelir
+    findMatch(rating = 1500, playerId = null) {
+        this._send({ type: "find_match", payload: { rating, playerId } });
+    }
+
+    cancelMatch() {
+        this._send({ type: "cancel_match" });
+    }
+
+    resume(hops = 0) {
+        this._joinHops = hops;
+        this._send({ type: "resume", payload: { token: this.token, hops } });
     }
 
     // ---------- Game actions (mock ile aynı isimler) ----------
@@ -106,6 +208,68 @@ export class TavlaGame {
         return true;
     }
 
+    // Turun tüm hamleleri tek mesajda: [{from, to, step}, ...]
+    // Biri bile geçersizse sunucu turu hiç uygulamaz ve error döner.
+    playTurn(moves) {
+        this._send({
+            type: "play",
+            payload: { moves: moves.map(m => ({ from: m.from, to: m.to, step: m.step })) }
+        });
+        return true;
+    }
+
+    // GNU BG position ID (+ opsiyonel match ID) ile pozisyon yüklemeyi önerir.
+    // Sunucu sadece oyun açılış pozisyonundayken, ilk zar atılmadan kabul eder;
+    // pozisyon rakip acceptImport() ile kabul edince yüklenir.
+    importPosition(positionId, matchId = null) {
+        this._send({ type: "import_position", payload: { positionId, matchId } });
+    }
+
+    // Rakibin pozisyon teklifine (onImportOffered) cevap.
+    acceptImport() {
+        this._send({ type: "accept_import" });
+    }
+
+    declineImport() {
+        this._send({ type: "decline_import" });
+    }
+
+    // Arşivdeki oyunu izle: speed saniyede adım (0 = sadece step'teki state, seek için).
+    // Yeni bir replay çağrısı öncekini durdurur.
+    replay(gameId, step = 0, speed = 0) {
+        this._send({ type: "replay", payload: { gameId, step, speed } });
+    }
+
+    // Sırası gelmiş ve zarını atmışken botun önerdiği hamle dizisini ister (onHint ile döner).
+    hint() {
+        this._send({ type: "hint" });
+    }
+
+    // ---------- Sıralama ----------
+    // İlk limit oyuncu (en fazla 100); onLeaderboard ile döner.
+    leaderboard(limit = 10) {
+        this._send({ type: "leaderboard", payload: { limit } });
+    }
+
+    // Oyuncunun sırası ve üstündeki/altındaki around oyuncu; onRank ile döner.
+    rank(playerId, around = 5) {
+        this._send({ type: "rank", payload: { playerId, around } });
+    }
+
+    // ---------- Küp ----------
+    // Zar atmadan önce küpü çevirir; rakip take() ya da drop() ile cevap verir.
+    doubleCube() {
+        this._send({ type: "double" });
+    }
+
+    take() {
+        this._send({ type: "take" });
+    }
+
+    drop() {
+        this._send({ type: "drop" });
+    }
+
     // ---------- UI'nin beklediği snapshot ----------
     getBoardSnapshot() {
         // mock: {points, whiteBar, blackBar, whiteOff, blackOff, dice, winner}
@@ -138,6 +302,21 @@ export class TavlaGame {
     }
 
     // ---------- Internals ----------
+    _redirect(url, roomId, retry) {
+        const hops = (this._joinHops ?? 0) + 1;
+        if (this.ws) {
+            this.ws.onclose = null;
+            this.ws.close();
+            this.ws = null;
+        }
+        this.url = url;
+        if (retry === "resume") {
+            this.resume(hops);
+        } else {
+            this.joinRoom(roomId, hops);
+        }
+    }
+
     _send(obj) {
         if (!this.ws || this.ws.readyState !== WebSocket.OPEN) {
             // bağlantı yoksa otomatik bağlanmayı deneyelim
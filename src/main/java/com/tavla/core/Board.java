@@ -84,6 +84,29 @@ public class Board { //comment
         }
     }
 
+    /**
+     * Tahtayı verilen dizilime getirir (kayıttan geri yükleme için).
+     * @param counts her nokta için taş sayısı; WHITE pozitif, BLACK negatif
+     */
+    public void setPosition(int[] counts, int whiteBar, int blackBar, int whiteBornOff, int blackBornOff) {
+        if (counts.length != 24) {
+            throw new IllegalArgumentException("24 nokta bekleniyordu: " + counts.length);
+        }
+        for (int i = 0; i < 24; i++) {
+            Point p = points[i];
+            while (!p.isEmpty()) {
+                p.removeChecker(p.getOwner());
+            }
+            int c = counts[i];
+            Player owner = c > 0 ? Player.WHITE : Player.BLACK;
+            addCheckers(i, owner, Math.abs(c));
+        }
+        this.whiteBar = whiteBar;
+        this.blackBar = blackBar;
+        this.whiteBornOff = whiteBornOff;
+        this.blackBornOff = blackBornOff;
+    }
+
     public void bearOff(Player player) {
         if (player == Player.WHITE) {
             whiteBornOff++;
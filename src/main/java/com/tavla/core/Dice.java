@@ -2,7 +2,7 @@ package com.tavla.core;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Tavla oyunundaki iki zarı temsil eder.
@@ -22,15 +22,25 @@ public class Dice {
     // Zar atıldı mı? (true → hamle yapılabilir, false → önce zar atılmalı)
     private boolean rolled = false;
 
-    private final Random random = new Random();
-
     /**
      * Zarları atar ve remainingSteps listesini günceller.
      * Çift durumda 4 hak verir, aksi halde 2 hak verir.
+     * Her zar kendi Random nesnesini taşımasın diye thread'in ortak üreteci kullanılır.
      */
     public void roll() {
-        die1 = random.nextInt(6) + 1;
-        die2 = random.nextInt(6) + 1;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        roll(random.nextInt(1, 7), random.nextInt(1, 7));
+    }
+
+    /**
+     * Zarları verilen değerlerle atar (kayıttan tekrar oynatma / replay için).
+     */
+    public void roll(int die1, int die2) {
+        if (die1 < 1 || die1 > 6 || die2 < 1 || die2 > 6) {
+            throw new IllegalArgumentException("Zar değeri 1-6 arası olmalı: " + die1 + "-" + die2);
+        }
+        this.die1 = die1;
+        this.die2 = die2;
 
         remainingSteps.clear();
 
@@ -78,6 +88,28 @@ public class Dice {
         }
     }
 
+    /**
+     * Kalan adımları siler (oynanabilecek hamle kalmadığında tur bu şekilde biter).
+     */
+    public void clearSteps() {
+        remainingSteps.clear();
+        rolled = false;
+    }
+
+    /**
+     * Zarları kayıttaki haline getirir (kayıttan geri yükleme için).
+     * Kalan adım yoksa zar atılmamış sayılır.
+     */
+    public void restore(int die1, int die2, int[] steps) {
+        this.die1 = die1;
+        this.die2 = die2;
+        remainingSteps.clear();
+        for (int s : steps) {
+            remainingSteps.add(s);
+        }
+        rolled = !remainingSteps.isEmpty();
+    }
+
     public int getDie1() {
         return die1;
     }
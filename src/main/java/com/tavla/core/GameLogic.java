@@ -1,6 +1,11 @@
 package com.tavla.core;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Tavla oyun kurallarını içeren sınıftır.
@@ -21,6 +26,9 @@ public class GameLogic {
      * Zar atar ve verilen GameState içindeki Dice nesnesini günceller.
      */
     public void rollDice(GameState state) {
+        if (state.isCubeOffered()) {
+            throw new IllegalStateException("Küp teklifine cevap bekleniyor.");
+        }
         state.getDice().roll();
     }
 
@@ -143,6 +151,256 @@ public class GameLogic {
         return true;
     }
 
+    /**
+     * Mevcut oyuncunun kalan zar adımlarıyla yapabileceği tüm tekil (tek adımlık) geçerli hamleleri döndürür.
+     * Aynı değerdeki adımlar (ör: çift zar) bir kez denenir.
+     */
+    public List<Move> legalMoves(GameState state) {
+        List<Move> moves = new ArrayList<>();
+        if (state.isGameOver() || !state.getDice().isRolled()) {
+            return moves;
+        }
+
+        Player current = state.getCurrentPlayer();
+        boolean[] seen = new boolean[7];
+        for (int step : state.getDice().getRemainingSteps()) {
+            if (seen[step]) {
+                continue;
+            }
+            seen[step] = true;
+
+            if (hasCheckerOnBar(state.getBoard(), current)) {
+                Move move = new Move(Move.BAR_INDEX, targetIndex(current, Move.BAR_INDEX, step), step);
+                if (isMoveLegal(state, move)) {
+                    moves.add(move);
+                }
+                continue;
+            }
+
+            for (int from = 0; from < 24; from++) {
+                Move move = new Move(from, targetIndex(current, from, step), step);
+                if (isMoveLegal(state, move)) {
+                    moves.add(move);
+                }
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * from (ya da BAR_INDEX) ve zar adımından hamlenin hedefini hesaplar; tahtanın dışına
+     * çıkan hedef BEAR_OFF_INDEX olur. Hamlenin geçerli olup olmadığına bakmaz.
+     * Kayıtlı oyunlar (from, step) olarak saklandığı için replay'de hedef buradan bulunur.
+     */
+    public int targetIndex(Player player, int from, int step) {
+        if (from == Move.BAR_INDEX) {
+            return entryPointFromBar(player, step);
+        }
+        int to = computeToIndexForStep(player, from, step);
+        return isIndexOnBoard(to) ? to : Move.BEAR_OFF_INDEX;
+    }
+
+    /**
+     * Zar atılmışsa, kalan adımlardan en az biriyle oynanabilecek bir hamle var mı?
+     */
+    public boolean hasAnyLegalMove(GameState state) {
+        return !legalMoves(state).isEmpty();
+    }
+
+    /**
+     * Zarla en fazla kaç adım oynanabilir? (Tavla kuralı: oynanabildiği kadar zar oynanmalıdır.)
+     * State'in kopyası üzerinde derinlik öncelikli arar; tüm adımları kullanan bir dizi
+     * bulunduğu anda durur.
+     */
+    public int maxPlayableSteps(GameState state) {
+        return maxPlayable(state, state.getDice().getRemainingSteps().size());
+    }
+
+    private int maxPlayable(GameState state, int limit) {
+        if (limit == 0) {
+            return 0;
+        }
+        int best = 0;
+        for (Move move : legalMoves(state)) {
+            GameState next = state.copy();
+            applyMove(next, move);
+            int played = 1 + (next.isGameOver() ? 0 : maxPlayable(next, limit - 1));
+            if (played > best) {
+                best = played;
+                if (best == limit) {
+                    break;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Bir turun tüm hamle dizisini (play) atomik olarak doğrular; state'i değiştirmez.
+     *
+     * - Her hamle sırayla, öncekiler uygulanmış tahtada geçerli olmalı
+     * - Dizi, oynanabilecek en fazla adım sayısı kadar uzun olmalı
+     * - Çift olmayan zarda sadece bir zar oynanabiliyorsa ve ikisi de ayrı ayrı oynanabiliyorsa büyük zar oynanmalı
+     * - Oyun dizi ortasında biterse (son taş toplandı) kalan hamleler kabul edilmez
+     *
+     * @return geçerliyse null, değilse Türkçe açıklama
+     */
+    public String validatePlay(GameState state, List<Move> moves) {
+        if (state.isGameOver()) {
+            return "Oyun bitti.";
+        }
+        if (!state.getDice().isRolled()) {
+            return "Önce zar atılmalı.";
+        }
+        if (moves.isEmpty()) {
+            return "Hamle listesi boş.";
+        }
+
+        GameState trial = state.copy();
+        for (int i = 0; i < moves.size(); i++) {
+            Move move = moves.get(i);
+            if (trial.isGameOver() || trial.getCurrentPlayer() != state.getCurrentPlayer()
+                    || !isMoveLegal(trial, move)) {
+                return (i + 1) + ". hamle geçersiz: " + move;
+            }
+            applyMove(trial, move);
+        }
+
+        if (trial.isGameOver()) {
+            return null; // son taş toplandı; kalan zarlar önemsiz
+        }
+
+        List<Integer> steps = state.getDice().getRemainingSteps();
+        if (moves.size() == steps.size()) {
+            return null; // tüm zar oynandı, arama gereksiz
+        }
+
+        int max = maxPlayableSteps(state);
+        if (moves.size() < max) {
+            return "Zarın tamamı oynanmalı: " + max + " hamle oynanabilir, " + moves.size() + " gönderildi.";
+        }
+
+        if (max == 1 && steps.size() == 2 && !steps.get(0).equals(steps.get(1))) {
+            int larger = Math.max(steps.get(0), steps.get(1));
+            if (moves.get(0).getStep() != larger) {
+                for (Move m : legalMoves(state)) {
+                    if (m.getStep() == larger) {
+                        return "Tek zar oynanabiliyorsa büyük zar (" + larger + ") oynanmalı.";
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Turu tek tek oynanan hamlelerle (move) tamamlayan için validatePlay'in adım adım karşılığı;
+     * state'i değiştirmez. Hamle geçerli olmalı ve oynanabilecek adımı birden fazla azaltmamalı:
+     * hamleden sonra kalan en fazla adım, öncekinin bir eksiği olmalı (ilk zarla ikincisini
+     * kapatan hamle reddedilir). Sadece bir adım oynanabiliyorsa büyük zar kuralı aynen uygulanır.
+     * Böylece tek tek kabul edilen hamleler, birlikte play olarak da kabul edilir.
+     *
+     * @return geçerliyse null, değilse Türkçe açıklama
+     */
+    public String validateMove(GameState state, Move move) {
+        if (!isMoveLegal(state, move)) {
+            return "Geçersiz hamle.";
+        }
+
+        GameState trial = state.copy();
+        applyMove(trial, move);
+        if (trial.isGameOver()) {
+            return null;
+        }
+
+        List<Integer> steps = state.getDice().getRemainingSteps();
+        int max = maxPlayableSteps(state);
+        int left = trial.getCurrentPlayer() != state.getCurrentPlayer() ? 0 : maxPlayableSteps(trial);
+        if (1 + left < max) {
+            return "Zarın tamamı oynanmalı: bu hamleyle " + max + " yerine " + (1 + left) + " adım oynanabilir.";
+        }
+
+        if (max == 1 && steps.size() == 2 && !steps.get(0).equals(steps.get(1))) {
+            int larger = Math.max(steps.get(0), steps.get(1));
+            if (move.getStep() != larger) {
+                for (Move m : legalMoves(state)) {
+                    if (m.getStep() == larger) {
+                        return "Tek zar oynanabiliyorsa büyük zar (" + larger + ") oynanmalı.";
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+
+    /**
+     * Zarla oynanabilecek tüm tam hamle dizileri (play); state'i değiştirmez.
+     * Kurallar validatePlay ile aynıdır: oynanabildiği kadar adım oynanır, tek zar oynanabiliyorsa
+     * büyük zar oynanır. Aynı tahtaya varan diziler (ör: 6-5 ile 24/18/13 ve 24/13) bir kez döner;
+     * çift zarda ara pozisyonlar da birleştirildiği için arama dört kat iç içe döngüye dönüşmez.
+     * Bot gibi bütün adayları değerlendirmesi gerekenler içindir.
+     */
+    public List<List<Move>> legalPlays(GameState state) {
+        List<List<Move>> plays = new ArrayList<>();
+        if (state.isGameOver() || !state.getDice().isRolled()) {
+            return plays;
+        }
+        int max = maxPlayableSteps(state);
+        if (max == 0) {
+            return plays;
+        }
+
+        Map<List<Integer>, Set<PositionId.Key>> seen = new HashMap<>();
+        collectPlays(state, state.getCurrentPlayer(), max, new ArrayList<>(), seen, plays);
+
+        List<Integer> steps = state.getDice().getRemainingSteps();
+        if (max == 1 && steps.size() == 2 && !steps.get(0).equals(steps.get(1))) {
+            // Aynı tahtaya varan küçük ve büyük zar (ör: aynı taşı toplamak) tekilleştirmede
+            // küçük zarla kalmış olabilir; büyük zarla oynanabiliyorsa listeyi ondan kur
+            int larger = Math.max(steps.get(0), steps.get(1));
+            List<Move> largerMoves = new ArrayList<>();
+            for (Move move : legalMoves(state)) {
+                if (move.getStep() == larger) {
+                    largerMoves.add(move);
+                }
+            }
+            if (!largerMoves.isEmpty()) {
+                plays.clear();
+                Set<PositionId.Key> results = new HashSet<>();
+                for (Move move : largerMoves) {
+                    GameState next = state.copy();
+                    applyMove(next, move);
+                    if (results.add(PositionId.key(next.getBoard(), state.getCurrentPlayer()))) {
+                        plays.add(List.of(move));
+                    }
+                }
+            }
+        }
+        return plays;
+    }
+
+    private void collectPlays(GameState state, Player mover, int remaining, List<Move> prefix,
+                              Map<List<Integer>, Set<PositionId.Key>> seen, List<List<Move>> out) {
+        // Aynı tahtaya aynı zarlar kalarak ikinci kez gelindiyse devamı zaten üretildi (kalan zarın
+        // değeri de önemli: 6-4'te aynı taşı 6 ile ya da 4 ile toplamak farklı devam ettirir)
+        Set<PositionId.Key> boards = seen.computeIfAbsent(List.copyOf(state.getDice().getRemainingSteps()),
+                steps -> new HashSet<>());
+        if (!boards.add(PositionId.key(state.getBoard(), mover))) {
+            return;
+        }
+        if (remaining == 0 || state.isGameOver()) {
+            out.add(List.copyOf(prefix));
+            return;
+        }
+        for (Move move : legalMoves(state)) {
+            GameState next = state.copy();
+            applyMove(next, move);
+            prefix.add(move);
+            collectPlays(next, mover, remaining - 1, prefix, seen, out);
+            prefix.remove(prefix.size() - 1);
+        }
+    }
 
     // Barda taş olup olmadığını kontrol eder
     private boolean hasCheckerOnBar(Board board, Player player) {
@@ -162,6 +420,84 @@ public class GameLogic {
      */
 
 
+    /**
+     * Son taşını toplayan winner için sonuç türü:
+     * - rakip en az bir taş topladıysa tek oyun
+     * - hiç toplamadıysa gammon (mars)
+     * - hiç toplamadı ve bar'da ya da winner'ın evinde taşı varsa backgammon
+     */
+    public int resultKind(Board board, Player winner) {
+        Player loser = winner.opponent();
+        int loserOff = loser == Player.WHITE ? board.getWhiteBornOff() : board.getBlackBornOff();
+        if (loserOff > 0) {
+            return GameState.RESULT_SINGLE;
+        }
+        if (hasCheckerOnBar(board, loser)) {
+            return GameState.RESULT_BACKGAMMON;
+        }
+        for (int i = 0; i < 24; i++) {
+            Point p = board.getPoint(i);
+            if (!p.isEmpty() && p.getOwner() == loser && isInHomeBoard(winner, i)) {
+                return GameState.RESULT_BACKGAMMON;
+            }
+        }
+        return GameState.RESULT_GAMMON;
+    }
+
+    // --- Küp ---
+
+    /**
+     * Sıradaki oyuncu küp çevirebilir mi? Zar atmadan önce, küp ortadaysa ya da kendisindeyse
+     * ve en yüksek değere ulaşmadıysa çevrilebilir. Maç skoruna bağlı kural (Crawford) burada
+     * değil, maçı yöneten tarafta kontrol edilir.
+     * @return çevrilebiliyorsa null, değilse Türkçe açıklama
+     */
+    public String validateDouble(GameState state) {
+        if (state.isGameOver()) {
+            return "Oyun bitti.";
+        }
+        if (state.isCubeOffered()) {
+            return "Küp zaten teklif edildi.";
+        }
+        if (state.getDice().isRolled()) {
+            return "Küp zar atmadan önce çevrilir.";
+        }
+        if (state.getCubeOwner() == state.getCurrentPlayer().opponent()) {
+            return "Küp rakipte.";
+        }
+        if (state.getCubeValue() >= GameState.MAX_CUBE) {
+            return "Küp en yüksek değerde (" + GameState.MAX_CUBE + ").";
+        }
+        return null;
+    }
+
+    /** Sıradaki oyuncu küpü çevirir; validateDouble geçmiyorsa IllegalStateException. */
+    public void offerDouble(GameState state) {
+        String error = validateDouble(state);
+        if (error != null) {
+            throw new IllegalStateException(error);
+        }
+        state.setCube(state.getCubeValue(), state.getCubeOwner(), true);
+    }
+
+    /** Rakip teklifi kabul eder: küp iki katına çıkar ve kabul edene geçer, sıra değişmez. */
+    public void takeDouble(GameState state) {
+        requireOffer(state);
+        state.setCube(state.getCubeValue() * 2, state.getCurrentPlayer().opponent(), false);
+    }
+
+    /** Rakip teklifi reddeder: küpü çeviren, küpün teklif öncesi değerini tek oyun olarak kazanır. */
+    public void dropDouble(GameState state) {
+        requireOffer(state);
+        state.endGame(state.getCurrentPlayer(), GameState.RESULT_SINGLE);
+    }
+
+    private void requireOffer(GameState state) {
+        if (state.isGameOver() || !state.isCubeOffered()) {
+            throw new IllegalStateException("Bekleyen küp teklifi yok.");
+        }
+    }
+
     // bardan çıkış için giriş noktası hesaplar
     private int entryPointFromBar(Player player, int step) {
         if (player == Player.WHITE) {
@@ -196,9 +532,9 @@ public class GameLogic {
 
             // Kazandı mı? (15 taş topladıysa)
             if (current == Player.WHITE && board.getWhiteBornOff() == 15) {
-                state.endGame(current);
+                state.endGame(current, resultKind(board, current));
             } else if (current == Player.BLACK && board.getBlackBornOff() == 15) {
-                state.endGame(current);
+                state.endGame(current, resultKind(board, current));
             }
 
             // Zar hakları bittiyse ve oyun bitmediyse sırayı değiştir
@@ -0,0 +1,272 @@
+package com.tavla.core;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Bir oyunun kompakt hamle kaydı: her zar atışı ve her taş hamlesi tek byte.
+ *
+ * Byte kodları:
+ *  0..149     hamle: from * 6 + (step - 1); bar'dan girişte from = 24
+ *  0xC0..0xE3 zar: 0xC0 + (zar1 - 1) * 6 + (zar2 - 1)
+ *  0xE4..0xE6 küp: sıradaki oyuncu çevirdi / rakip kabul etti / rakip reddetti
+ *  0xF0/0xF1  WHITE/BLACK süre aşımıyla hükmen kaybetti
+ *
+ * Hamlenin hedefi kaydedilmez; sıradaki oyuncu ve zar adımından hesaplanır (bkz.
+ * GameLogic.targetIndex). Tur geçişleri de kaydedilmez: replay her zar ve hamleden sonra
+ * passIfBlocked çağırır, sunucu ve journal replay'i de aynısını yapar.
+ *
+ * TavlaGame kaydediciye sahipse kendi kaydını tutar. Kayıt sadece sona eklenir; freeze()
+ * ile alınan kopya aynı diziyi paylaşır ama kendi uzunluğunun ötesini görmez, bu yüzden
+ * başka bir thread'e (ör: snapshot) kopyalamadan verilebilir.
+ */
+public final class GameRecorder {
+
+    public static final int BAR_CODE = 24;
+    public static final int ROLL_BASE = 0xC0;
+    public static final int DOUBLE = 0xE4;
+    public static final int TAKE = 0xE5;
+    public static final int DROP = 0xE6;
+    public static final int FORFEIT_BASE = 0xF0;
+
+    private static final int MAX_MOVE_CODE = BAR_CODE * 6 + 5;
+
+    public final long startedAt;               // epoch ms
+    public final String whitePlayer;           // null olabilir (ör: create_room ile açılan oda)
+    public final String blackPlayer;
+    public final PositionId.Key startPosition;  // standart açılışsa null
+    public final Player startPlayer;            // startPosition varken sıradaki oyuncu
+    public final int startDie1;                 // startPosition varken atılmış zar, yoksa 0
+    public final int startDie2;
+
+    private byte[] log;
+    private int length;
+    private final boolean frozen;
+
+    public GameRecorder(long startedAt, String whitePlayer, String blackPlayer) {
+        this(startedAt, whitePlayer, blackPlayer, null, Player.WHITE, 0, 0, new byte[64], 0, false);
+    }
+
+    private GameRecorder(long startedAt, String whitePlayer, String blackPlayer,
+                         PositionId.Key startPosition, Player startPlayer, int startDie1, int startDie2,
+                         byte[] log, int length, boolean frozen) {
+        this.startedAt = startedAt;
+        this.whitePlayer = whitePlayer;
+        this.blackPlayer = blackPlayer;
+        this.startPosition = startPosition;
+        this.startPlayer = startPlayer;
+        this.startDie1 = startDie1;
+        this.startDie2 = startDie2;
+        this.log = log;
+        this.length = length;
+        this.frozen = frozen;
+    }
+
+    /** Kayıtlı bilgilerle (arşivden ya da snapshot'tan okunan) değişmez bir kayıt kurar. */
+    public static GameRecorder of(long startedAt, String whitePlayer, String blackPlayer,
+                                  PositionId.Key startPosition, Player startPlayer, int startDie1, int startDie2,
+                                  byte[] log) {
+        return new GameRecorder(startedAt, whitePlayer, blackPlayer, startPosition,
+                startPosition == null ? Player.WHITE : startPlayer, startDie1, startDie2, log, log.length, true);
+    }
+
+    /**
+     * Aynı oyuncular için, oyun verilen state'ten başlıyormuş gibi boş bir kayıt açar
+     * (ör: pozisyon import edildiğinde).
+     */
+    public GameRecorder restartFrom(GameState state) {
+        Dice dice = state.getDice();
+        boolean rolled = dice.isRolled();
+        return new GameRecorder(startedAt, whitePlayer, blackPlayer, PositionId.key(state),
+                state.getCurrentPlayer(), rolled ? dice.getDie1() : 0, rolled ? dice.getDie2() : 0,
+                new byte[64], 0, false);
+    }
+
+    // ---------------- kaydetme (TavlaGame çağırır) ----------------
+
+    void roll(int die1, int die2) {
+        append(ROLL_BASE + (die1 - 1) * 6 + (die2 - 1));
+    }
+
+    void move(int from, int step) {
+        append((from == Move.BAR_INDEX ? BAR_CODE : from) * 6 + (step - 1));
+    }
+
+    void cube(int code) {
+        append(code);
+    }
+
+    void forfeit(Player loser) {
+        append(FORFEIT_BASE + loser.ordinal());
+    }
+
+    private void append(int code) {
+        if (frozen) {
+            throw new IllegalStateException("Dondurulmuş kayda yazılamaz");
+        }
+        if (length == log.length) {
+            log = Arrays.copyOf(log, log.length * 2);
+        }
+        log[length++] = (byte) code;
+    }
+
+    /** Şu ana kadarki kaydın değişmez görünümü (diziyi kopyalamaz). */
+    public GameRecorder freeze() {
+        if (frozen) {
+            return this;
+        }
+        return new GameRecorder(startedAt, whitePlayer, blackPlayer, startPosition, startPlayer,
+                startDie1, startDie2, log, length, true);
+    }
+
+    /** Kayıttaki byte sayısı (zar + hamle + küp + hükmen). */
+    public int length() {
+        return length;
+    }
+
+    /** Oyun süre aşımıyla hükmen mi bitti (son kod hükmen kodu)? */
+    public boolean isForfeit() {
+        return length > 0 && (log[length - 1] & 0xff) >= FORFEIT_BASE;
+    }
+
+    public int codeAt(int i) {
+        if (i >= length) {
+            throw new IndexOutOfBoundsException(i);
+        }
+        return log[i] & 0xff;
+    }
+
+    public void copyLog(ByteBuffer out) {
+        out.put(log, 0, length);
+    }
+
+    // ---------------- replay ----------------
+
+    /** Kaydın başlangıç pozisyonunda, kaydı tutulmayan yeni bir oyun. */
+    public TavlaGame newGame() {
+        if (startPosition == null) {
+            return new TavlaGame();
+        }
+        return new TavlaGame(PositionId.toGameState(startPosition, startPlayer, startDie1, startDie2));
+    }
+
+    /**
+     * Tek bir kodu oyuna uygular; sunucudaki gibi ardından passIfBlocked çağrılır.
+     * Kod geçersizse ya da oyuna uymuyorsa IllegalStateException / IllegalArgumentException.
+     */
+    public static void apply(TavlaGame game, int code) {
+        if (code >= FORFEIT_BASE) {
+            if (code > FORFEIT_BASE + 1) {
+                throw new IllegalArgumentException("Geçersiz kayıt kodu: " + code);
+            }
+            game.forfeit(Player.values()[code - FORFEIT_BASE]);
+            return;
+        }
+        if (code >= DOUBLE) {
+            switch (code) {
+                case DOUBLE -> game.offerDouble();
+                case TAKE -> game.takeDouble();
+                case DROP -> game.dropDouble();
+                default -> throw new IllegalArgumentException("Geçersiz kayıt kodu: " + code);
+            }
+            return;
+        }
+        if (code >= ROLL_BASE) {
+            int dice = code - ROLL_BASE;
+            if (dice >= 36) {
+                throw new IllegalArgumentException("Geçersiz kayıt kodu: " + code);
+            }
+            game.applyRoll(dice / 6 + 1, dice % 6 + 1);
+        } else {
+            if (code > MAX_MOVE_CODE) {
+                throw new IllegalArgumentException("Geçersiz kayıt kodu: " + code);
+            }
+            int from = code / 6 == BAR_CODE ? Move.BAR_INDEX : code / 6;
+            int step = code % 6 + 1;
+            game.applyMove(from, game.targetIndex(from, step), step);
+        }
+        game.passIfBlocked();
+    }
+
+    /** Kaydın tamamını baştan oynatır ve ortaya çıkan oyunu döndürür. */
+    public TavlaGame replay() {
+        TavlaGame game = newGame();
+        game.passIfBlocked();
+        for (int i = 0; i < length; i++) {
+            apply(game, log[i] & 0xff);
+        }
+        return game;
+    }
+
+    // ---------------- binary (snapshot) ----------------
+
+    /** writeTo'nun yazacağı byte sayısı. */
+    public int encodedSize() {
+        return 8 + 1 + utf8(whitePlayer).length + 1 + utf8(blackPlayer).length + 1
+                + (startPosition == null ? 0 : PositionId.KEY_BYTES + 3) + 4 + length;
+    }
+
+    /**
+     * long startedAt, oyuncu(W), oyuncu(B) (byte uzunluk + UTF-8, 0 = yok),
+     * byte hasStart [key, byte oyuncu, byte zar1, byte zar2], int uzunluk, kayıt
+     */
+    public void writeTo(ByteBuffer out) {
+        out.putLong(startedAt);
+        writeName(out, whitePlayer);
+        writeName(out, blackPlayer);
+        if (startPosition == null) {
+            out.put((byte) 0);
+        } else {
+            out.put((byte) 1);
+            startPosition.writeTo(out);
+            out.put((byte) startPlayer.ordinal()).put((byte) startDie1).put((byte) startDie2);
+        }
+        out.putInt(length);
+        out.put(log, 0, length);
+    }
+
+    /** writeTo ile yazılmış kaydı okur; dönen kayda yazmaya devam edilebilir. */
+    public static GameRecorder read(ByteBuffer in) {
+        long startedAt = in.getLong();
+        String white = readName(in);
+        String black = readName(in);
+        PositionId.Key start = null;
+        Player startPlayer = Player.WHITE;
+        int die1 = 0, die2 = 0;
+        if (in.get() == 1) {
+            start = PositionId.Key.read(in);
+            startPlayer = Player.values()[in.get()];
+            die1 = in.get();
+            die2 = in.get();
+        }
+        int length = in.getInt();
+        byte[] log = new byte[Math.max(64, length)];
+        in.get(log, 0, length);
+        return new GameRecorder(startedAt, white, black, start, startPlayer, die1, die2, log, length, false);
+    }
+
+    /** Oyuncu adları en fazla 255 byte (UTF-8) saklanır. */
+    public static byte[] utf8(String s) {
+        if (s == null) {
+            return new byte[0];
+        }
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        return bytes.length <= 255 ? bytes : Arrays.copyOf(bytes, 255);
+    }
+
+    private static void writeName(ByteBuffer out, String name) {
+        byte[] bytes = utf8(name);
+        out.put((byte) bytes.length).put(bytes);
+    }
+
+    private static String readName(ByteBuffer in) {
+        int len = in.get() & 0xff;
+        if (len == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[len];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,143 @@
+package com.tavla.core;
+
+import java.nio.ByteBuffer;
+
+/**
+ * GameState'in değişmez (immutable), kompakt bir kopyası.
+ *
+ * İçeride sadece GameStateCodec'in ENCODED_BYTES'lık hali tutulur; alanlar okunurken
+ * çözülür. Yaratıldıktan sonra hiç değişmediği için farklı thread'ler kilitsiz okuyabilir
+ * (ör: oda her komuttan sonra yenisini volatile bir referansla yayınlar).
+ */
+public final class GameSnapshot {
+
+    // GameStateCodec düzeni
+    private static final int BARS = 24;
+    private static final int DICE = 28;
+    private static final int STEP_COUNT = 29;
+    private static final int STEPS = 30;
+    private static final int FLAGS = 32;
+
+    private final byte[] encoded;
+
+    private GameSnapshot(byte[] encoded) {
+        this.encoded = encoded;
+    }
+
+    /** State'in o anki halini kopyalar. State'in sahibi thread'den çağrılmalıdır. */
+    public static GameSnapshot of(GameState state) {
+        ByteBuffer buf = ByteBuffer.allocate(GameStateCodec.ENCODED_BYTES);
+        GameStateCodec.encode(state, buf);
+        return new GameSnapshot(buf.array());
+    }
+
+    /** Buffer'ın o anki pozisyonundaki binary hali kopyalar (ENCODED_BYTES byte ilerler). */
+    public static GameSnapshot read(ByteBuffer in) {
+        byte[] encoded = new byte[GameStateCodec.ENCODED_BYTES];
+        in.get(encoded);
+        return new GameSnapshot(encoded);
+    }
+
+    /** Noktadaki taş sayısı: WHITE pozitif, BLACK negatif, boşsa 0. */
+    public int getCount(int index) {
+        return encoded[index];
+    }
+
+    public Player getOwner(int index) {
+        int c = encoded[index];
+        return c == 0 ? null : (c > 0 ? Player.WHITE : Player.BLACK);
+    }
+
+    public int getWhiteBar() {
+        return encoded[BARS];
+    }
+
+    public int getBlackBar() {
+        return encoded[BARS + 1];
+    }
+
+    public int getWhiteBornOff() {
+        return encoded[BARS + 2];
+    }
+
+    public int getBlackBornOff() {
+        return encoded[BARS + 3];
+    }
+
+    public int getDie1() {
+        return (encoded[DICE] & 0xff) >>> 4;
+    }
+
+    public int getDie2() {
+        return encoded[DICE] & 0x0f;
+    }
+
+    /** Kalan zar adımları (her çağrıda yeni dizi). */
+    public int[] getRemainingSteps() {
+        int count = encoded[STEP_COUNT] & GameStateCodec.STEP_COUNT_MASK;
+        int packed = (encoded[STEPS] & 0xff) << 8 | (encoded[STEPS + 1] & 0xff);
+        int[] steps = new int[count];
+        for (int i = 0; i < count; i++) {
+            steps[i] = (packed >>> (3 * i)) & 0b111;
+        }
+        return steps;
+    }
+
+    public boolean isRolled() {
+        return (encoded[STEP_COUNT] & GameStateCodec.STEP_COUNT_MASK) > 0;
+    }
+
+    public int getCubeValue() {
+        return 1 << ((encoded[STEP_COUNT] >>> GameStateCodec.CUBE_SHIFT) & 0b111);
+    }
+
+    /** Küpün sahibi; ortadaysa null. */
+    public Player getCubeOwner() {
+        return GameStateCodec.cubeOwner(encoded[STEP_COUNT]);
+    }
+
+    public boolean isCubeOffered() {
+        return (encoded[FLAGS] & GameStateCodec.FLAG_CUBE_OFFERED) != 0;
+    }
+
+    /** Karar sırası kimde: küp teklif edildiyse rakipte, değilse sıradaki oyuncuda. */
+    public Player getPlayerToAct() {
+        return isCubeOffered() ? getCurrentPlayer().opponent() : getCurrentPlayer();
+    }
+
+    public Player getCurrentPlayer() {
+        return (encoded[FLAGS] & GameStateCodec.FLAG_BLACK_TO_MOVE) != 0 ? Player.BLACK : Player.WHITE;
+    }
+
+    public boolean isGameOver() {
+        return (encoded[FLAGS] & GameStateCodec.FLAG_GAME_OVER) != 0;
+    }
+
+    /** Kazanan; yoksa null. */
+    public Player getWinner() {
+        if ((encoded[FLAGS] & GameStateCodec.FLAG_HAS_WINNER) == 0) {
+            return null;
+        }
+        return (encoded[FLAGS] & GameStateCodec.FLAG_WINNER_BLACK) != 0 ? Player.BLACK : Player.WHITE;
+    }
+
+    /** GameState.RESULT_*; oyun bitmediyse 0. */
+    public int getResultKind() {
+        return (encoded[FLAGS] >>> GameStateCodec.RESULT_SHIFT) & 0b11;
+    }
+
+    /** Kazananın aldığı puan (küp × sonuç türü); oyun bitmediyse 0. */
+    public int getResultPoints() {
+        return getCubeValue() * getResultKind();
+    }
+
+    /** Binary hali buffer'a yazar (ENCODED_BYTES byte). */
+    public void writeTo(ByteBuffer out) {
+        out.put(encoded);
+    }
+
+    /** Üzerinde oynanabilecek yeni, bağımsız bir GameState kurar. */
+    public GameState toGameState() {
+        return GameStateCodec.decode(ByteBuffer.wrap(encoded));
+    }
+}
@@ -1,19 +1,35 @@
 package com.tavla.core;
 
+import java.util.List;
+
 /**
  * Tavla oyunundaki o anki tam durumu temsil eder.
  * - Tahta (Board)
  * - Zarlar (Dice)
  * - Sıra kimde (currentPlayer)
- * - Oyun bitti mi, kazanan kim
+ * - Oyun bitti mi, kazanan kim, kaç katlık (tek / gammon / backgammon)
+ * - Küp: değeri, sahibi, teklif edilmiş mi
  */
 public class GameState {
 
+    // Oyun sonucu türleri; kazananın aldığı puan = küp × tür
+    public static final int RESULT_NONE = 0;
+    public static final int RESULT_SINGLE = 1;
+    public static final int RESULT_GAMMON = 2;
+    public static final int RESULT_BACKGAMMON = 3;
+
+    /** Küpün çıkabileceği en yüksek değer. */
+    public static final int MAX_CUBE = 64;
+
     private final Board board;
     private final Dice dice;
     private Player currentPlayer;
     private boolean gameOver;
     private Player winner;
+    private int resultKind;
+    private int cubeValue = 1;
+    private Player cubeOwner;      // ortadaysa null
+    private boolean cubeOffered;   // sıradaki oyuncu küp çevirdi, rakibin cevabı bekleniyor
 
     public GameState() {
         this.board = new Board();
@@ -43,6 +59,41 @@ public class GameState {
         return winner;
     }
 
+    /** RESULT_NONE (oyun sürüyor), RESULT_SINGLE, RESULT_GAMMON ya da RESULT_BACKGAMMON. */
+    public int getResultKind() {
+        return resultKind;
+    }
+
+    /** Kazananın aldığı puan (küp × sonuç türü); oyun bitmediyse 0. */
+    public int getResultPoints() {
+        return cubeValue * resultKind;
+    }
+
+    public int getCubeValue() {
+        return cubeValue;
+    }
+
+    /** Küpün sahibi; ortadaysa null. */
+    public Player getCubeOwner() {
+        return cubeOwner;
+    }
+
+    public boolean isCubeOffered() {
+        return cubeOffered;
+    }
+
+    /** Karar sırası kimde: küp teklif edildiyse rakipte, değilse sıradaki oyuncuda. */
+    public Player getPlayerToAct() {
+        return cubeOffered ? currentPlayer.opponent() : currentPlayer;
+    }
+
+    /** Küp bilgisini set eder (GameLogic'in küp işlemleri ve kayıttan geri yükleme için). */
+    public void setCube(int value, Player owner, boolean offered) {
+        this.cubeValue = value;
+        this.cubeOwner = owner;
+        this.cubeOffered = offered;
+    }
+
     /**
      * Sırayı diğer oyuncuya geçirir.
      */
@@ -51,11 +102,59 @@ public class GameState {
     }
 
     /**
-     * Oyunu bitirir ve kazananı set eder.
+     * Oyunu bitirir ve kazananı set eder (tek oyun).
      */
     public void endGame(Player winner) {
+        endGame(winner, RESULT_SINGLE);
+    }
+
+    /** Oyunu verilen sonuç türüyle bitirir; bekleyen küp teklifi düşer. */
+    public void endGame(Player winner, int resultKind) {
         this.gameOver = true;
         this.winner = winner;
+        this.resultKind = resultKind;
+        this.cubeOffered = false;
+    }
+
+    /**
+     * Sıra ve oyun sonu bilgisini kayıttaki haline getirir (kayıttan geri yükleme için).
+     * Kazanan varsa sonuç tek oyun sayılır; türü biliniyorsa restoreResult ile verilir.
+     */
+    public void restore(Player currentPlayer, boolean gameOver, Player winner) {
+        this.currentPlayer = currentPlayer;
+        this.gameOver = gameOver;
+        this.winner = winner;
+        this.resultKind = winner == null ? RESULT_NONE : RESULT_SINGLE;
+    }
+
+    public void restoreResult(int resultKind) {
+        this.resultKind = resultKind;
+    }
+
+    /**
+     * Tahta, zar ve sıra bilgisinin bağımsız bir kopyası (hamle dizilerini gerçek state'i
+     * bozmadan denemek için).
+     */
+    public GameState copy() {
+        GameState c = new GameState();
+        int[] counts = new int[24];
+        for (int i = 0; i < 24; i++) {
+            Point p = board.getPoint(i);
+            counts[i] = p.getOwner() == Player.BLACK ? -p.getCount() : p.getCount();
+        }
+        c.board.setPosition(counts, board.getWhiteBar(), board.getBlackBar(),
+                board.getWhiteBornOff(), board.getBlackBornOff());
+
+        List<Integer> remaining = dice.getRemainingSteps();
+        int[] steps = new int[remaining.size()];
+        for (int i = 0; i < steps.length; i++) {
+            steps[i] = remaining.get(i);
+        }
+        c.dice.restore(dice.getDie1(), dice.getDie2(), steps);
+        c.restore(currentPlayer, gameOver, winner);
+        c.resultKind = resultKind;
+        c.setCube(cubeValue, cubeOwner, cubeOffered);
+        return c;
     }
 
     @Override
@@ -66,6 +165,8 @@ public class GameState {
                 ", currentPlayer=" + currentPlayer +
                 ", gameOver=" + gameOver +
                 ", winner=" + winner +
+                ", resultKind=" + resultKind +
+                ", cube=" + cubeValue + (cubeOwner == null ? "" : "/" + cubeOwner) + (cubeOffered ? " teklif" : "") +
                 '}';
     }
 }
@@ -0,0 +1,122 @@
+package com.tavla.core;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * GameState'in sabit boyutlu (ENCODED_BYTES) binary hali.
+ * Snapshot dosyaları gibi kalıcı kayıtlar için kullanılır.
+ *
+ * Düzen:
+ *  0..23  her nokta için taş sayısı (WHITE pozitif, BLACK negatif)
+ *  24..27 whiteBar, blackBar, whiteBornOff, blackBornOff
+ *  28     die1 << 4 | die2
+ *  29     bit0..2 kalan adım sayısı (0..4), bit3..5 küp değerinin log2'si,
+ *         bit6..7 küpün sahibi (0 ortada, 1 WHITE, 2 BLACK)
+ *  30..31 kalan adımlar, her biri 3 bit
+ *  32     bayraklar: bit0 sıra BLACK'te, bit1 oyun bitti, bit2 kazanan var, bit3 kazanan BLACK,
+ *         bit4 küp teklif edildi, bit5..6 sonuç türü (GameState.RESULT_*; oyun bitmediyse 0)
+ */
+public final class GameStateCodec {
+
+    public static final int ENCODED_BYTES = 33;
+
+    static final int FLAG_BLACK_TO_MOVE = 1;
+    static final int FLAG_GAME_OVER = 1 << 1;
+    static final int FLAG_HAS_WINNER = 1 << 2;
+    static final int FLAG_WINNER_BLACK = 1 << 3;
+    static final int FLAG_CUBE_OFFERED = 1 << 4;
+    static final int RESULT_SHIFT = 5;
+
+    static final int STEP_COUNT_MASK = 0b111;
+    static final int CUBE_SHIFT = 3;
+
+    private GameStateCodec() {}
+
+    /** State'i buffer'ın o anki pozisyonuna yazar (ENCODED_BYTES byte ilerler). */
+    public static void encode(GameState state, ByteBuffer out) {
+        Board board = state.getBoard();
+        for (int i = 0; i < 24; i++) {
+            Point p = board.getPoint(i);
+            int c = p.getCount();
+            out.put((byte) (p.getOwner() == Player.BLACK ? -c : c));
+        }
+        out.put((byte) board.getWhiteBar());
+        out.put((byte) board.getBlackBar());
+        out.put((byte) board.getWhiteBornOff());
+        out.put((byte) board.getBlackBornOff());
+
+        Dice dice = state.getDice();
+        out.put((byte) (dice.getDie1() << 4 | dice.getDie2()));
+
+        List<Integer> steps = dice.getRemainingSteps();
+        int packed = 0;
+        for (int i = 0; i < steps.size(); i++) {
+            packed |= steps.get(i) << (3 * i);
+        }
+        int cubeOwner = state.getCubeOwner() == null ? 0 : state.getCubeOwner().ordinal() + 1;
+        out.put((byte) (steps.size() | log2(state.getCubeValue()) << CUBE_SHIFT | cubeOwner << 6));
+        out.putShort((short) packed);
+
+        int flags = 0;
+        if (state.getCurrentPlayer() == Player.BLACK) flags |= FLAG_BLACK_TO_MOVE;
+        if (state.isGameOver()) flags |= FLAG_GAME_OVER;
+        if (state.getWinner() != null) {
+            flags |= FLAG_HAS_WINNER;
+            if (state.getWinner() == Player.BLACK) flags |= FLAG_WINNER_BLACK;
+        }
+        if (state.isCubeOffered()) flags |= FLAG_CUBE_OFFERED;
+        flags |= state.getResultKind() << RESULT_SHIFT;
+        out.put((byte) flags);
+    }
+
+    static int log2(int cubeValue) {
+        return 31 - Integer.numberOfLeadingZeros(cubeValue);
+    }
+
+    /** Byte 29'daki küp sahibi alanı; ortadaysa null. */
+    static Player cubeOwner(int stepByte) {
+        int owner = (stepByte & 0xff) >>> 6;
+        return owner == 0 ? null : Player.values()[owner - 1];
+    }
+
+    /** Buffer'ın o anki pozisyonundan bir state okur. */
+    public static GameState decode(ByteBuffer in) {
+        int[] counts = new int[24];
+        for (int i = 0; i < 24; i++) {
+            counts[i] = in.get();
+        }
+        int whiteBar = in.get();
+        int blackBar = in.get();
+        int whiteOff = in.get();
+        int blackOff = in.get();
+
+        int dice = in.get() & 0xff;
+        int stepByte = in.get();
+        int stepCount = stepByte & STEP_COUNT_MASK;
+        int packed = in.getShort() & 0xffff;
+        int[] steps = new int[stepCount];
+        for (int i = 0; i < stepCount; i++) {
+            steps[i] = (packed >>> (3 * i)) & 0b111;
+        }
+        int flags = in.get();
+
+        GameState state = new GameState();
+        state.getBoard().setPosition(counts, whiteBar, blackBar, whiteOff, blackOff);
+        state.getDice().restore(dice >>> 4, dice & 0xf, steps);
+
+        Player winner = null;
+        if ((flags & FLAG_HAS_WINNER) != 0) {
+            winner = (flags & FLAG_WINNER_BLACK) != 0 ? Player.BLACK : Player.WHITE;
+        }
+        state.restore((flags & FLAG_BLACK_TO_MOVE) != 0 ? Player.BLACK : Player.WHITE,
+                (flags & FLAG_GAME_OVER) != 0, winner);
+        int resultKind = (flags >>> RESULT_SHIFT) & 0b11;
+        if (resultKind != 0) {
+            state.restoreResult(resultKind);
+        }
+        state.setCube(1 << ((stepByte >>> CUBE_SHIFT) & 0b111), cubeOwner(stepByte),
+                (flags & FLAG_CUBE_OFFERED) != 0);
+        return state;
+    }
+}
@@ -0,0 +1,164 @@
+package com.tavla.core;
+
+/**
+ * GNU Backgammon uyumlu 66 bitlik maç kimliği (match ID): küp, sıra, zarlar ve skor.
+ *
+ * Bit düzeni (küçükten büyüğe, 9 byte'a dizilip dolgusuz base64 ile 12 karaktere çevrilir):
+ *  0..3   küp değerinin log2'si
+ *  4..5   küpün sahibi (0 WHITE, 1 BLACK, 3 ortada)
+ *  6      zarı atacak / atmış oyuncu
+ *  7      Crawford oyunu
+ *  8..10  oyun durumu (0 yok, 1 oynanıyor, 2 bitti, 3 pes edildi, 4 küp reddedildi)
+ *  11     sıradaki oyuncu
+ *  12     küp teklif edildi
+ *  13..14 pes teklifi (0 yok, 1 tek, 2 gammon, 3 backgammon)
+ *  15..17 zar 1, 18..20 zar 2 (atılmadıysa 0)
+ *  21..35 maç uzunluğu (0 = para oyunu)
+ *  36..50 WHITE skoru, 51..65 BLACK skoru
+ *
+ * GNU BG'deki oyuncu 0 burada WHITE, oyuncu 1 BLACK'tir. Zarlar turun başındaki değerlerdir;
+ * tur ortasında kullanılmış adımlar kimlikte yer almaz.
+ */
+public final class MatchId {
+
+    public static final int ID_LENGTH = 12;
+
+    public static final int NO_GAME = 0;
+    public static final int PLAYING = 1;
+    public static final int OVER = 2;
+    public static final int RESIGNED = 3;
+    public static final int DROPPED = 4;
+
+    public final int cubeLog2;
+    public final Player cubeOwner;     // ortadaysa null
+    public final Player diceOwner;
+    public final boolean crawford;
+    public final int gameState;
+    public final Player turn;
+    public final boolean doubleOffered;
+    public final int resignation;
+    public final int die1;             // atılmadıysa 0
+    public final int die2;
+    public final int matchLength;      // para oyununda 0
+    public final int whiteScore;
+    public final int blackScore;
+
+    public MatchId(int cubeLog2, Player cubeOwner, Player diceOwner, boolean crawford, int gameState,
+                   Player turn, boolean doubleOffered, int resignation, int die1, int die2,
+                   int matchLength, int whiteScore, int blackScore) {
+        this.cubeLog2 = cubeLog2;
+        this.cubeOwner = cubeOwner;
+        this.diceOwner = diceOwner;
+        this.crawford = crawford;
+        this.gameState = gameState;
+        this.turn = turn;
+        this.doubleOffered = doubleOffered;
+        this.resignation = resignation;
+        this.die1 = die1;
+        this.die2 = die2;
+        this.matchLength = matchLength;
+        this.whiteScore = whiteScore;
+        this.blackScore = blackScore;
+    }
+
+    /** Para oyunu: küp, sıra, zar ve oyun durumu state'ten alınır. */
+    public static MatchId of(GameState state) {
+        return of(state, MatchScore.MONEY);
+    }
+
+    /** Maçtaki oyun: küp, sıra, zar ve oyun durumu state'ten, uzunluk ve skor score'dan alınır. */
+    public static MatchId of(GameState state, MatchScore score) {
+        Dice dice = state.getDice();
+        boolean rolled = dice.isRolled();
+        return new MatchId(GameStateCodec.log2(state.getCubeValue()), state.getCubeOwner(),
+                state.getCurrentPlayer(), score.crawford, state.isGameOver() ? OVER : PLAYING,
+                state.getPlayerToAct(), state.isCubeOffered(), 0, rolled ? dice.getDie1() : 0, rolled ? dice.getDie2() : 0,
+                score.length, score.whiteScore, score.blackScore);
+    }
+
+    public int getCubeValue() {
+        return 1 << cubeLog2;
+    }
+
+    /** 12 karakterlik GNU BG match ID. */
+    public String encode() {
+        long bits = 0;
+        bits |= (long) (cubeLog2 & 0xf);
+        bits |= (long) (cubeOwner == null ? 3 : cubeOwner.ordinal()) << 4;
+        bits |= (long) diceOwner.ordinal() << 6;
+        bits |= (crawford ? 1L : 0L) << 7;
+        bits |= (long) (gameState & 0x7) << 8;
+        bits |= (long) turn.ordinal() << 11;
+        bits |= (doubleOffered ? 1L : 0L) << 12;
+        bits |= (long) (resignation & 0x3) << 13;
+        bits |= (long) (die1 & 0x7) << 15;
+        bits |= (long) (die2 & 0x7) << 18;
+        bits |= (long) (matchLength & 0x7fff) << 21;
+        bits |= (long) (whiteScore & 0x7fff) << 36;
+        bits |= (long) (blackScore & 0x7fff) << 51;
+        int hi = (blackScore & 0x7fff) >>> 13; // bit 64..65
+
+        char[] out = new char[ID_LENGTH];
+        for (int g = 0; g < 3; g++) {
+            int triple = byteAt(bits, hi, 3 * g) << 16 | byteAt(bits, hi, 3 * g + 1) << 8 | byteAt(bits, hi, 3 * g + 2);
+            out[4 * g] = PositionId.BASE64[triple >>> 18];
+            out[4 * g + 1] = PositionId.BASE64[(triple >>> 12) & 63];
+            out[4 * g + 2] = PositionId.BASE64[(triple >>> 6) & 63];
+            out[4 * g + 3] = PositionId.BASE64[triple & 63];
+        }
+        return new String(out);
+    }
+
+    /** 12 karakterlik ID'yi çözer. Biçim ya da değerler geçersizse IllegalArgumentException. */
+    public static MatchId parse(String id) {
+        if (id == null || id.length() != ID_LENGTH) {
+            throw new IllegalArgumentException("Match ID 12 karakter olmalı: " + id);
+        }
+        long bits = 0;
+        int hi = 0;
+        for (int g = 0; g < 3; g++) {
+            int triple = PositionId.sextet(id.charAt(4 * g)) << 18 | PositionId.sextet(id.charAt(4 * g + 1)) << 12
+                    | PositionId.sextet(id.charAt(4 * g + 2)) << 6 | PositionId.sextet(id.charAt(4 * g + 3));
+            for (int j = 0; j < 3; j++) {
+                long value = (triple >>> (16 - 8 * j)) & 0xff;
+                int byteIndex = 3 * g + j;
+                if (byteIndex < 8) bits |= value << (8 * byteIndex);
+                else hi = (int) value;
+            }
+        }
+        if ((hi & ~0x3) != 0) {
+            throw new IllegalArgumentException("Match ID geçersiz: " + id);
+        }
+
+        int owner = (int) (bits >>> 4) & 0x3;
+        int gameState = (int) (bits >>> 8) & 0x7;
+        int die1 = (int) (bits >>> 15) & 0x7;
+        int die2 = (int) (bits >>> 18) & 0x7;
+        if (owner == 2 || gameState > DROPPED || die1 > 6 || die2 > 6 || (die1 == 0) != (die2 == 0)) {
+            throw new IllegalArgumentException("Match ID geçersiz: " + id);
+        }
+        return new MatchId(
+                (int) bits & 0xf,
+                owner == 3 ? null : Player.values()[owner],
+                Player.values()[(int) (bits >>> 6) & 0x1],
+                ((bits >>> 7) & 1) != 0,
+                gameState,
+                Player.values()[(int) (bits >>> 11) & 0x1],
+                ((bits >>> 12) & 1) != 0,
+                (int) (bits >>> 13) & 0x3,
+                die1,
+                die2,
+                (int) (bits >>> 21) & 0x7fff,
+                (int) (bits >>> 36) & 0x7fff,
+                (int) (bits >>> 51) & 0x1fff | hi << 13);
+    }
+
+    private static int byteAt(long bits, int hi, int i) {
+        return i < 8 ? (int) (bits >>> (8 * i)) & 0xff : hi & 0xff;
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
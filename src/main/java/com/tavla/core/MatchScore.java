@@ -0,0 +1,127 @@
+package com.tavla.core;
+
+/**
+ * N puanlık bir maçın skoru (değişmez). length 0 ise para oyunu: tek oyun oynanır, skor tutulmaz.
+ *
+ * Crawford kuralı: bir oyuncu maçı bitirmeye 1 puan kala (length - 1) gelirse, hemen sonraki
+ * oyun (Crawford oyunu) küpsüz oynanır. Sonraki oyunlarda (post-Crawford) küp yine serbesttir.
+ * crawford alanı o an oynanan oyunun Crawford oyunu olup olmadığını tutar; post-Crawford durumu
+ * skordan çıkar (biri length - 1'de ve bu oyun Crawford değil).
+ */
+public final class MatchScore {
+
+    /** Desteklenen en uzun maç (maç equity tablosu bu boyuta kadar önceden hesaplanır). */
+    public static final int MAX_LENGTH = 25;
+
+    public static final MatchScore MONEY = new MatchScore(0, 0, 0, false);
+
+    public final int length;
+    public final int whiteScore;
+    public final int blackScore;
+    public final boolean crawford;
+
+    public MatchScore(int length, int whiteScore, int blackScore, boolean crawford) {
+        if (length < 0 || length > MAX_LENGTH || whiteScore < 0 || blackScore < 0) {
+            throw new IllegalArgumentException("Geçersiz maç skoru: " + length + " " + whiteScore + "-" + blackScore);
+        }
+        this.length = length;
+        this.whiteScore = whiteScore;
+        this.blackScore = blackScore;
+        this.crawford = crawford;
+    }
+
+    /** Yeni bir maç; length 0 ise para oyunu. */
+    public static MatchScore of(int length) {
+        return length == 0 ? MONEY : new MatchScore(length, 0, 0, false);
+    }
+
+    public boolean isMatch() {
+        return length > 0;
+    }
+
+    public int getScore(Player player) {
+        return player == Player.WHITE ? whiteScore : blackScore;
+    }
+
+    /** player'ın maçı kazanmak için gereken puan (para oyununda 0). */
+    public int getAway(Player player) {
+        return isMatch() ? Math.max(0, length - getScore(player)) : 0;
+    }
+
+    /** Maç bitti mi (biri length'e ulaştı)? Para oyununda hep false. */
+    public boolean isOver() {
+        return isMatch() && (whiteScore >= length || blackScore >= length);
+    }
+
+    /** Maçın kazananı; bitmediyse null. */
+    public Player getWinner() {
+        if (!isOver()) {
+            return null;
+        }
+        return whiteScore >= length ? Player.WHITE : Player.BLACK;
+    }
+
+    /** Crawford oyunundan sonraki oyunlar: biri 1 puan kala ve bu oyun Crawford değil. */
+    public boolean isPostCrawford() {
+        return isMatch() && !crawford && (getAway(Player.WHITE) == 1 || getAway(Player.BLACK) == 1);
+    }
+
+    /** Bu oyunda küp kullanılabilir mi (Crawford oyununda kullanılamaz). */
+    public boolean isCubeAllowed() {
+        return !crawford;
+    }
+
+    /**
+     * winner oyunu points puanla aldıktan sonraki skor. Sonraki oyun, bu oyundan önce kimse
+     * 1 puan kala değilken şimdi biri 1 puan kaldıysa Crawford oyunudur (maçta bir kez olur).
+     */
+    public MatchScore after(Player winner, int points) {
+        if (!isMatch()) {
+            return this;
+        }
+        boolean nobodyAtMatchPoint = getAway(Player.WHITE) > 1 && getAway(Player.BLACK) > 1;
+        int white = whiteScore + (winner == Player.WHITE ? points : 0);
+        int black = blackScore + (winner == Player.BLACK ? points : 0);
+        MatchScore next = new MatchScore(length, Math.min(white, length), Math.min(black, length), false);
+        boolean crawfordNext = nobodyAtMatchPoint && !next.isOver()
+                && (next.getAway(Player.WHITE) == 1 || next.getAway(Player.BLACK) == 1);
+        return crawfordNext ? new MatchScore(length, next.whiteScore, next.blackScore, true) : next;
+    }
+
+    /** Biten bir oyunun sonucunu ekler: hükmen bittiyse kaybeden maçı da kaybeder. */
+    public MatchScore afterGame(Player winner, int points, boolean forfeit) {
+        return forfeit ? forfeit(winner.opponent()) : after(winner, points);
+    }
+
+    /** loser maçı bırakır (ör: süre aşımı); rakip maçı kazanır. */
+    public MatchScore forfeit(Player loser) {
+        if (!isMatch()) {
+            return this;
+        }
+        return loser == Player.WHITE
+                ? new MatchScore(length, whiteScore, length, false)
+                : new MatchScore(length, length, blackScore, false);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof MatchScore m)) {
+            return false;
+        }
+        return length == m.length && whiteScore == m.whiteScore && blackScore == m.blackScore
+                && crawford == m.crawford;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((length * 31 + whiteScore) * 31 + blackScore) * 2 + (crawford ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        if (!isMatch()) {
+            return "para oyunu";
+        }
+        return length + " puanlık maç " + whiteScore + "-" + blackScore + (crawford ? " (Crawford)" : "");
+    }
+}
@@ -0,0 +1,257 @@
+package com.tavla.core;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * GNU Backgammon uyumlu 80 bitlik pozisyon kimliği (position ID).
+ *
+ * Her oyuncu için kendi bakış açısından 1..24. noktalar ve bar sırayla gezilir; her yerdeki
+ * taş sayısı kadar 1 biti ve ardından bir 0 biti yazılır (en fazla 15 + 15 taş + 50 ayraç = 80 bit).
+ * Önce sırası olmayan oyuncu, sonra sıradaki oyuncu yazılır (GNU BG düzeni). Bitler
+ * küçükten büyüğe 10 byte'a dizilir ve standart base64 ile (dolgusuz) 14 karaktere çevrilir.
+ * Başlangıç pozisyonu: "4HPwATDgc/ABMA".
+ *
+ * Tahta eşlemesi: WHITE'ın i. noktası index i-1, BLACK'in i. noktası index 24-i'dir.
+ * Toplanan taşlar kimlikte yoktur, 15'ten kalan olarak hesaplanır.
+ *
+ * Kodlama ara string/list üretmez; bitler iki long'da (lo 64 + hi 16 bit) tutulur.
+ * Key, cache ve açılış kitabı gibi yerlerde anahtar olarak kullanılabilir.
+ */
+public final class PositionId {
+
+    public static final String START = "4HPwATDgc/ABMA";
+
+    public static final int KEY_BYTES = 10;
+    public static final int ID_LENGTH = 14;
+
+    private static final int CHECKERS = 15;
+
+    static final char[] BASE64 =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/".toCharArray();
+    static final byte[] BASE64_VALUES = new byte[128];
+
+    static {
+        Arrays.fill(BASE64_VALUES, (byte) -1);
+        for (int i = 0; i < BASE64.length; i++) {
+            BASE64_VALUES[BASE64[i]] = (byte) i;
+        }
+    }
+
+    /** Başlangıç pozisyonunun anahtarı (sıra kimde olursa olsun aynıdır, dizilim simetrik). */
+    public static final Key START_KEY = parse(START);
+
+    private PositionId() {}
+
+    /** 80 bitlik pozisyon anahtarı (değişmez). */
+    public static final class Key {
+        public final long lo;  // bit 0..63
+        public final int hi;   // bit 64..79
+
+        public Key(long lo, int hi) {
+            this.lo = lo;
+            this.hi = hi & 0xffff;
+        }
+
+        /** 10 byte'lık binary hali (bit sırası küçükten büyüğe). */
+        public void writeTo(ByteBuffer out) {
+            for (int i = 0; i < 8; i++) {
+                out.put((byte) (lo >>> (8 * i)));
+            }
+            out.put((byte) hi);
+            out.put((byte) (hi >>> 8));
+        }
+
+        public static Key read(ByteBuffer in) {
+            long lo = 0;
+            for (int i = 0; i < 8; i++) {
+                lo |= (in.get() & 0xffL) << (8 * i);
+            }
+            int hi = (in.get() & 0xff) | (in.get() & 0xff) << 8;
+            return new Key(lo, hi);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key k && k.lo == lo && k.hi == hi;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(lo * 0x9E3779B97F4A7C15L) ^ hi;
+        }
+
+        /** 14 karakterlik GNU BG position ID. */
+        @Override
+        public String toString() {
+            char[] out = new char[ID_LENGTH];
+            int o = 0;
+            // 10 byte = 3 tam grup (3 byte → 4 karakter) + 1 byte (→ 2 karakter)
+            for (int g = 0; g < 3; g++) {
+                int triple = byteAt(3 * g) << 16 | byteAt(3 * g + 1) << 8 | byteAt(3 * g + 2);
+                out[o++] = BASE64[triple >>> 18];
+                out[o++] = BASE64[(triple >>> 12) & 63];
+                out[o++] = BASE64[(triple >>> 6) & 63];
+                out[o++] = BASE64[triple & 63];
+            }
+            int last = byteAt(9);
+            out[o++] = BASE64[last >>> 2];
+            out[o] = BASE64[(last & 3) << 4];
+            return new String(out);
+        }
+
+        private int byteAt(int i) {
+            return (int) ((i < 8 ? lo >>> (8 * i) : hi >>> (8 * (i - 8))) & 0xff);
+        }
+    }
+
+    // ---------------- kodlama ----------------
+
+    /** State'in sıradaki oyuncuya göre anahtarı. */
+    public static Key key(GameState state) {
+        return key(state.getBoard(), state.getCurrentPlayer());
+    }
+
+    public static Key key(Board board, Player onRoll) {
+        long lo = 0;
+        long hi = 0;
+        int bit = 0;
+        for (int side = 0; side < 2; side++) {
+            Player player = side == 0 ? onRoll.opponent() : onRoll;
+            for (int k = 0; k < 25; k++) {
+                int count;
+                if (k == 24) {
+                    count = player == Player.WHITE ? board.getWhiteBar() : board.getBlackBar();
+                } else {
+                    Point p = board.getPoint(player == Player.WHITE ? k : 23 - k);
+                    count = p.getOwner() == player ? p.getCount() : 0;
+                }
+                if (count > 0) {
+                    long ones = (1L << count) - 1;
+                    if (bit < 64) {
+                        lo |= ones << bit;
+                        if (bit + count > 64) {
+                            hi |= ones >>> (64 - bit);
+                        }
+                    } else {
+                        hi |= ones << (bit - 64);
+                    }
+                }
+                bit += count + 1;
+            }
+        }
+        if (bit > 80) {
+            throw new IllegalArgumentException("Tahtada 15'ten fazla taş var");
+        }
+        return new Key(lo, (int) hi);
+    }
+
+    /** State'in position ID'si (sıradaki oyuncuya göre). */
+    public static String encode(GameState state) {
+        return key(state).toString();
+    }
+
+    // ---------------- çözme ----------------
+
+    /** 14 karakterlik ID'yi anahtara çevirir. Biçim hatalıysa IllegalArgumentException. */
+    public static Key parse(String id) {
+        if (id == null || id.length() != ID_LENGTH) {
+            throw new IllegalArgumentException("Position ID 14 karakter olmalı: " + id);
+        }
+        long lo = 0;
+        long hi = 0;
+        for (int g = 0; g < 3; g++) {
+            int triple = sextet(id.charAt(4 * g)) << 18 | sextet(id.charAt(4 * g + 1)) << 12
+                    | sextet(id.charAt(4 * g + 2)) << 6 | sextet(id.charAt(4 * g + 3));
+            for (int j = 0; j < 3; j++) {
+                long value = (triple >>> (16 - 8 * j)) & 0xff;
+                int byteIndex = 3 * g + j;
+                if (byteIndex < 8) lo |= value << (8 * byteIndex);
+                else hi |= value;
+            }
+        }
+        int last = sextet(id.charAt(12));
+        int tail = sextet(id.charAt(13));
+        if ((tail & 15) != 0) {
+            throw new IllegalArgumentException("Position ID'nin son karakteri geçersiz: " + id);
+        }
+        hi |= (long) (last << 2 | tail >>> 4) << 8;
+        return new Key(lo, (int) hi);
+    }
+
+    /**
+     * Anahtardaki dizilimi tahtaya yazar; toplanan taşlar 15'ten kalan olarak ayarlanır.
+     * Dizilim geçersizse (15'ten fazla taş, aynı noktada iki renk) tahtaya dokunmadan
+     * IllegalArgumentException fırlatır.
+     */
+    public static void decodeInto(Key key, Player onRoll, Board board) {
+        int[] counts = new int[24];
+        int[] bars = new int[2];
+        int[] totals = new int[2];
+        long lo = key.lo;
+        long hi = key.hi;
+        int consumed = 0;
+        for (int side = 0; side < 2; side++) {
+            Player player = side == 0 ? onRoll.opponent() : onRoll;
+            for (int k = 0; k < 25; k++) {
+                int count = Long.numberOfTrailingZeros(~lo);
+                if (count > CHECKERS || consumed + count + 1 > 80) {
+                    throw new IllegalArgumentException("Position ID geçersiz: " + key);
+                }
+                int shift = count + 1;
+                lo = lo >>> shift | hi << (64 - shift);
+                hi >>>= shift;
+                consumed += shift;
+
+                totals[player.ordinal()] += count;
+                if (k == 24) {
+                    bars[player.ordinal()] = count;
+                } else if (count > 0) {
+                    int index = player == Player.WHITE ? k : 23 - k;
+                    if (counts[index] != 0) {
+                        throw new IllegalArgumentException("Aynı noktada iki oyuncunun taşı var: " + key);
+                    }
+                    counts[index] = player == Player.WHITE ? count : -count;
+                }
+            }
+        }
+        if (lo != 0 || hi != 0 || totals[0] > CHECKERS || totals[1] > CHECKERS) {
+            throw new IllegalArgumentException("Position ID geçersiz (taş sayısı): " + key);
+        }
+        int w = Player.WHITE.ordinal();
+        int b = Player.BLACK.ordinal();
+        board.setPosition(counts, bars[w], bars[b], CHECKERS - totals[w], CHECKERS - totals[b]);
+    }
+
+    /**
+     * Anahtar ve maç kimliğinden yeni bir GameState kurar: match null ise sıra WHITE'ta ve zar
+     * atılmamış sayılır; match'te zar varsa tur o zarla atılmış olarak başlar. 15 taşını toplamış
+     * oyuncu varsa oyun bitmiş olarak kurulur.
+     */
+    public static GameState decode(String positionId, MatchId match) {
+        return toGameState(parse(positionId), match == null ? Player.WHITE : match.turn,
+                match == null ? 0 : match.die1, match == null ? 0 : match.die2);
+    }
+
+    /** die1/die2 0 ise zar atılmamış sayılır. */
+    public static GameState toGameState(Key key, Player onRoll, int die1, int die2) {
+        GameState state = new GameState();
+        Board board = state.getBoard();
+        decodeInto(key, onRoll, board);
+        if (die1 > 0) {
+            state.getDice().roll(die1, die2);
+        }
+        Player winner = board.getWhiteBornOff() == CHECKERS ? Player.WHITE
+                : board.getBlackBornOff() == CHECKERS ? Player.BLACK : null;
+        state.restore(onRoll, winner != null, winner);
+        return state;
+    }
+
+    static int sextet(char c) {
+        int v = c < 128 ? BASE64_VALUES[c] : -1;
+        if (v < 0) {
+            throw new IllegalArgumentException("Geçersiz base64 karakteri: '" + c + "'");
+        }
+        return v;
+    }
+}
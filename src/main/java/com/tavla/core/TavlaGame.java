@@ -12,15 +12,34 @@ import java.util.List;
  * - hamle denemek için isMoveLegal/applyMove
  * - tahtayı çizmek için getBoardSnapshot()
  * gibi metodları kullanır.
+ *
+ * GameRecorder verilirse atılan zarlar ve oynanan hamleler kayda da yazılır (arşiv için).
  */
 public class TavlaGame {
 
     private final GameState state;
     private final GameLogic logic;
+    private final GameRecorder recorder; // null olabilir
 
     public TavlaGame() {
-        this.state = new GameState();
+        this(new GameState());
+    }
+
+    /** Hazır bir state üzerinden (ör: kayıttan geri yüklenmiş) oyun kurar. */
+    public TavlaGame(GameState state) {
+        this(state, null);
+    }
+
+    /** recorder null değilse oyunun zar ve hamleleri ona yazılır. */
+    public TavlaGame(GameState state, GameRecorder recorder) {
+        this.state = state;
         this.logic = new GameLogic();
+        this.recorder = recorder;
+    }
+
+    /** Oyunun kaydı; kayıt tutulmuyorsa null. */
+    public GameRecorder getRecorder() {
+        return recorder;
     }
 
     // --- Genel durum ---
@@ -42,6 +61,17 @@ public class TavlaGame {
     /** Zar atar ve Dice'ı günceller. */
     public void rollDice() {
         logic.rollDice(state);
+        if (recorder != null) {
+            recorder.roll(state.getDice().getDie1(), state.getDice().getDie2());
+        }
+    }
+
+    /** Kaydedilmiş zar değerlerini uygular (journal replay için). */
+    public void applyRoll(int die1, int die2) {
+        state.getDice().roll(die1, die2);
+        if (recorder != null) {
+            recorder.roll(die1, die2);
+        }
     }
 
     /** Gösterim için zar yüzlerini döndürür (ör: "5-3"). */
@@ -66,10 +96,128 @@ public class TavlaGame {
         return logic.isMoveLegal(state, move);
     }
 
+    /** Tek hamle turun kurallarına uygun mu (bkz. GameLogic.validateMove); null ise geçerli. */
+    public String validateMove(int fromIndex, int toIndex, int step) {
+        return logic.validateMove(state, new Move(fromIndex, toIndex, step));
+    }
+
     /** Geçerli olduğu bilinen bir hamleyi uygular. Geçersizse IllegalStateException fırlatır. */
     public void applyMove(int fromIndex, int toIndex, int step) {
         Move move = new Move(fromIndex, toIndex, step);
         logic.applyMove(state, move);
+        if (recorder != null) {
+            recorder.move(fromIndex, step);
+        }
+    }
+
+    /**
+     * Bir turun hamle dizisini atomik uygular: önce tamamı doğrulanır, geçersiz bir parça varsa
+     * hiçbiri uygulanmaz.
+     * @return geçerliyse null (hamleler uygulandı), değilse açıklama
+     */
+    public String applyPlay(List<Move> moves) {
+        String error = logic.validatePlay(state, moves);
+        if (error != null) {
+            return error;
+        }
+        applyValidatedPlay(moves);
+        return null;
+    }
+
+    /** Dizi bu turda oynanabilir mi (bkz. GameLogic.validatePlay); null ise geçerli. */
+    public String validatePlay(List<Move> moves) {
+        return logic.validatePlay(state, moves);
+    }
+
+    /** validatePlay'den null dönmüş diziyi tekrar doğrulamadan uygular. */
+    public void applyValidatedPlay(List<Move> moves) {
+        for (Move move : moves) {
+            logic.applyMove(state, move);
+            if (recorder != null) {
+                recorder.move(move.getFromIndex(), move.getStep());
+            }
+        }
+    }
+
+    /** Sıradaki oyuncu için from (ya da Move.BAR_INDEX) ve adımdan hamlenin hedefi. */
+    public int targetIndex(int fromIndex, int step) {
+        return logic.targetIndex(state.getCurrentPlayer(), fromIndex, step);
+    }
+
+    /** Mevcut oyuncunun kalan zar adımlarıyla yapabileceği tekil geçerli hamleler. */
+    public List<Move> getLegalMoves() {
+        return logic.legalMoves(state);
+    }
+
+    /** Zarla oynanabilecek tüm farklı tam hamle dizileri (bkz. GameLogic.legalPlays). */
+    public List<List<Move>> getLegalPlays() {
+        return logic.legalPlays(state);
+    }
+
+    /**
+     * Zar atılmış ama hiçbir adım oynanamıyorsa (ör: bar'dan giriş kapalı) kalan adımları
+     * siler ve sırayı rakibe geçirir. Tur geçtiyse true döner.
+     * Durumdan belirlendiği için journal replay'inde de aynı noktada tekrar çağrılır.
+     */
+    public boolean passIfBlocked() {
+        if (state.isGameOver() || !state.getDice().isRolled() || logic.hasAnyLegalMove(state)) {
+            return false;
+        }
+        state.getDice().clearSteps();
+        state.switchTurn();
+        return true;
+    }
+
+    /** Oyuncu oyunu bırakır (ör: süre aşımı); rakibi kazanır. Oyun zaten bittiyse etkisizdir. */
+    public void forfeit(Player loser) {
+        if (!state.isGameOver()) {
+            state.endGame(loser.opponent());
+            if (recorder != null) {
+                recorder.forfeit(loser);
+            }
+        }
+    }
+
+    // --- Küp ---
+
+    /** Sıradaki oyuncu küp çevirebiliyorsa null, değilse açıklama (bkz. GameLogic.validateDouble). */
+    public String validateDouble() {
+        return logic.validateDouble(state);
+    }
+
+    public void offerDouble() {
+        logic.offerDouble(state);
+        if (recorder != null) {
+            recorder.cube(GameRecorder.DOUBLE);
+        }
+    }
+
+    public void takeDouble() {
+        logic.takeDouble(state);
+        if (recorder != null) {
+            recorder.cube(GameRecorder.TAKE);
+        }
+    }
+
+    public void dropDouble() {
+        logic.dropDouble(state);
+        if (recorder != null) {
+            recorder.cube(GameRecorder.DROP);
+        }
+    }
+
+    public boolean isCubeOffered() {
+        return state.isCubeOffered();
+    }
+
+    /** Karar sırası kimde (küp teklif edildiyse cevap verecek rakip). */
+    public Player getPlayerToAct() {
+        return state.getPlayerToAct();
+    }
+
+    /** Kazananın aldığı puan; oyun bitmediyse 0. */
+    public int getResultPoints() {
+        return state.getResultPoints();
     }
 
     // --- Tahta görünümü (UI için read-only snapshot) ---
@@ -0,0 +1,340 @@
+package com.tavla.server.analysis;
+
+import com.tavla.server.archive.GameArchive;
+import com.tavla.server.archive.GameRecord;
+import com.tavla.server.bot.BotStrategy;
+import com.tavla.server.bot.PositionEvaluator;
+
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Arşivdeki oyunlarda oyuncuların hamlelerini motorun seçimleriyle karşılaştıran çevrimdışı iş;
+ * hata oranı insan için inanılmayacak kadar düşük olan hesapları işaretler.
+ *
+ * Oyunlar gameId sırasıyla CHUNK_GAMES'lik parçalara bölünür. Bekleyen parçalar tek bir
+ * ForkJoinPool görevine verilir: görev parça aralığını ikiye bölerek alt görevlere ayırır, boşta
+ * kalan thread'ler iş çalar. Her worker thread kendi DecisionAnalyzer'ını (ve önbelleklerini)
+ * kullanır; parçanın sonucu kendi haritasında birikir ve parça bitince genel birikime eklenir.
+ * Genel birikim ve parça ilerlemesi en fazla CHECKPOINT_INTERVAL_MS'de bir checkpoint dosyasına
+ * yazılır; iş kesilirse aynı dosyayla tekrar başlatıldığında bitmiş oyunları atlar. Arşive sonradan
+ * eklenen oyunlar da bir sonraki çalıştırmada işlenir.
+ *
+ * İşaretleme: en az MIN_DECISIONS kararı olan oyuncuların toplam hata oranı p'dir. Bir oyuncunun
+ * n kararda e hatası için z = (e - n·p) / √(n·p·(1-p)); z ≤ -FLAG_Z olanlar işaretlenir. Çok oyun
+ * oynamış iyi bir oyuncunun oranı da düşüktür ama bu kadar uçta olmaz; işaret kesin hüküm değil,
+ * incelenecek hesap listesidir.
+ *
+ * Arşiv açılırken yarım kalmış son kayıt kesildiği için iş, sunucu kapalıyken ya da arşivin bir
+ * kopyası üzerinde çalıştırılmalıdır.
+ *
+ * Kullanım:
+ *   java ... CheatDetection <data.dir> [checkpoint dosyası]
+ *   -Dtavla.analysis.threads (çekirdek sayısı)
+ */
+public class CheatDetection {
+
+    public static final int CHUNK_GAMES = 1024;
+    public static final int MIN_DECISIONS = 200;
+    public static final double FLAG_Z = 4.0;
+
+    private static final long CHECKPOINT_INTERVAL_MS = 10_000;
+
+    private final GameArchive archive;
+    private final Path checkpointFile; // null ise checkpoint tutulmaz
+    private final int parallelism;
+    private final int chunkGames;
+    private final BotStrategy.Evaluator evaluator;
+
+    // Genel birikim; parçalar bitince this üzerinde senkronize güncellenir
+    private Map<String, PlayerStats> players;
+    private int[] progress;
+    private long lastCheckpointAt;
+
+    private final AtomicLong decisions = new AtomicLong();
+    private final AtomicLong skippedGames = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong cacheMisses = new AtomicLong();
+
+    public CheatDetection(GameArchive archive, Path checkpointFile, int parallelism) {
+        this(archive, checkpointFile, parallelism, CHUNK_GAMES, PositionEvaluator::evaluate);
+    }
+
+    CheatDetection(GameArchive archive, Path checkpointFile, int parallelism, int chunkGames,
+                   BotStrategy.Evaluator evaluator) {
+        if (parallelism < 1 || chunkGames < 1) {
+            throw new IllegalArgumentException("parallelism ve chunkGames en az 1 olmalı");
+        }
+        this.archive = archive;
+        this.checkpointFile = checkpointFile;
+        this.parallelism = parallelism;
+        this.chunkGames = chunkGames;
+        this.evaluator = evaluator;
+    }
+
+    /** Bir oyuncunun sonucu; z, oyuncu MIN_DECISIONS'a ulaşmadıysa NaN. */
+    public static final class Verdict {
+        public final PlayerStats stats;
+        public final double z;
+        public final boolean flagged;
+
+        Verdict(PlayerStats stats, double z, boolean flagged) {
+            this.stats = stats;
+            this.z = z;
+            this.flagged = flagged;
+        }
+    }
+
+    public static class Result {
+        public final List<Verdict> players;   // z artan (en şüpheli önce), verisi yetersiz olanlar sonda
+        public final double populationErrorRate;
+        public final long gamesTotal;
+        public final long gamesPending;       // bu çalıştırmada işlenmeyen (maxChunks sınırı)
+        public final long decisions;          // bu çalıştırmada analiz edilen
+        public final long skippedGames;       // kaydı kurallara uymayan
+        public final double cacheHitRate;
+        public final long elapsedNanos;
+        public final int parallelism;
+
+        Result(List<Verdict> players, double populationErrorRate, long gamesTotal, long gamesPending,
+               long decisions, long skippedGames, double cacheHitRate, long elapsedNanos, int parallelism) {
+            this.players = players;
+            this.populationErrorRate = populationErrorRate;
+            this.gamesTotal = gamesTotal;
+            this.gamesPending = gamesPending;
+            this.decisions = decisions;
+            this.skippedGames = skippedGames;
+            this.cacheHitRate = cacheHitRate;
+            this.elapsedNanos = elapsedNanos;
+            this.parallelism = parallelism;
+        }
+
+        public double decisionsPerHour() {
+            return elapsedNanos == 0 ? 0 : decisions / (elapsedNanos / 3.6e12);
+        }
+
+        public List<Verdict> flagged() {
+            return players.stream().filter(v -> v.flagged).toList();
+        }
+
+        public Verdict get(String playerId) {
+            for (Verdict v : players) {
+                if (v.stats.playerId.equals(playerId)) {
+                    return v;
+                }
+            }
+            return null;
+        }
+
+        public void print(PrintStream out) {
+            out.printf(Locale.ROOT, "%d oyun (%d bekliyor, %d atlandı), bu çalıştırmada %d karar, %.1f s, %d thread"
+                            + " (%.2e karar/saat, karar önbelleği %%%.0f)%n",
+                    gamesTotal, gamesPending, skippedGames, decisions, elapsedNanos / 1e9, parallelism,
+                    decisionsPerHour(), 100 * cacheHitRate);
+            out.printf(Locale.ROOT, "Genel hata oranı %%%.2f (kayıp > %.2f); işaret: z ≤ -%.1f, en az %d karar%n",
+                    100 * populationErrorRate, DecisionAnalyzer.ERROR_LOSS, FLAG_Z, MIN_DECISIONS);
+            out.printf("%-3s %-20s %7s %9s %8s %8s %8s %10s %7s%n", "", "oyuncu", "oyun", "karar", "hata%",
+                    "büyük%", "en iyi%", "kayıp/kr", "z");
+            for (Verdict v : players) {
+                PlayerStats s = v.stats;
+                out.printf(Locale.ROOT, "%-3s %-20s %7d %9d %8.2f %8.2f %8.1f %10.4f %7s%n", v.flagged ? "!!" : "",
+                        s.playerId, s.games, s.decisions, 100 * s.errorRate(),
+                        s.decisions == 0 ? 0 : 100.0 * s.blunders / s.decisions, 100 * s.bestRate(), s.meanLoss(),
+                        Double.isNaN(v.z) ? "-" : String.format(Locale.ROOT, "%.1f", v.z));
+            }
+        }
+    }
+
+    public Result run() {
+        return run(Integer.MAX_VALUE);
+    }
+
+    /** En fazla maxChunks bekleyen parçayı işler (kalanlar checkpoint'le sonraki çalıştırmaya kalır). */
+    public Result run(int maxChunks) {
+        long total = archive.getGameCount();
+        int chunks = (int) ((total + chunkGames - 1) / chunkGames);
+        load(chunks);
+
+        List<Integer> pending = new ArrayList<>();
+        for (int c = 0; c < chunks && pending.size() < maxChunks; c++) {
+            if (progress[c] < chunkSize(c, total)) {
+                pending.add(c);
+            }
+        }
+
+        long start = System.nanoTime();
+        lastCheckpointAt = System.currentTimeMillis();
+        ThreadLocal<DecisionAnalyzer> analyzers = ThreadLocal.withInitial(() -> new DecisionAnalyzer(evaluator));
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new Batch(pending, 0, pending.size(), total, analyzers));
+        } finally {
+            pool.shutdown();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (checkpointFile != null) {
+            synchronized (this) {
+                checkpoint();
+            }
+        }
+
+        long remaining = 0;
+        for (int c = 0; c < chunks; c++) {
+            remaining += chunkSize(c, total) - progress[c];
+        }
+        long lookups = cacheHits.get() + cacheMisses.get();
+        return verdicts(total, remaining, lookups == 0 ? 0 : (double) cacheHits.get() / lookups, elapsed);
+    }
+
+    private int chunkSize(int chunk, long total) {
+        return (int) Math.min(chunkGames, total - (long) chunk * chunkGames);
+    }
+
+    private void load(int chunks) {
+        Checkpoint saved = checkpointFile == null ? null : Checkpoint.read(checkpointFile);
+        if (saved != null && saved.chunkGames == chunkGames && saved.progress.length <= chunks) {
+            players = saved.players;
+            progress = Arrays.copyOf(saved.progress, chunks);
+        } else {
+            if (saved != null) {
+                throw new IllegalStateException("Checkpoint bu arşive ait değil: " + checkpointFile);
+            }
+            players = new HashMap<>();
+            progress = new int[chunks];
+        }
+    }
+
+    /** [from, to) aralığındaki bekleyen parçalar. */
+    @SuppressWarnings("serial") // sadece ForkJoinPool içinde yaşar, serileştirilmez
+    private final class Batch extends RecursiveAction {
+        final List<Integer> chunks;
+        final int from;
+        final int to;
+        final long total;
+        final ThreadLocal<DecisionAnalyzer> analyzers;
+
+        Batch(List<Integer> chunks, int from, int to, long total, ThreadLocal<DecisionAnalyzer> analyzers) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+            this.total = total;
+            this.analyzers = analyzers;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 1) {
+                if (to > from) {
+                    analyzeChunk(chunks.get(from), total, analyzers.get());
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Batch(chunks, from, mid, total, analyzers), new Batch(chunks, mid, to, total, analyzers));
+        }
+    }
+
+    private void analyzeChunk(int chunk, long total, DecisionAnalyzer analyzer) {
+        int done;
+        synchronized (this) {
+            done = progress[chunk];
+        }
+        int size = chunkSize(chunk, total);
+        long first = (long) chunk * chunkGames + 1;
+        long hitsBefore = analyzer.getDecisionHits();
+        long missesBefore = analyzer.getDecisionMisses();
+
+        Map<String, PlayerStats> local = new HashMap<>();
+        long skipped = 0;
+        for (long gameId = first + done; gameId < first + size; gameId++) {
+            GameRecord record = archive.get(gameId);
+            if (record == null) {
+                skipped++;
+                continue;
+            }
+            try {
+                analyzer.analyze(record, local);
+            } catch (RuntimeException e) {
+                skipped++; // kural değişikliğinden önce kaydedilmiş ya da bozuk kayıt
+            }
+        }
+
+        long chunkDecisions = 0;
+        for (PlayerStats s : local.values()) {
+            chunkDecisions += s.decisions;
+        }
+        decisions.addAndGet(chunkDecisions);
+        skippedGames.addAndGet(skipped);
+        cacheHits.addAndGet(analyzer.getDecisionHits() - hitsBefore);
+        cacheMisses.addAndGet(analyzer.getDecisionMisses() - missesBefore);
+
+        synchronized (this) {
+            for (PlayerStats s : local.values()) {
+                players.computeIfAbsent(s.playerId, PlayerStats::new).merge(s);
+            }
+            progress[chunk] = size;
+            long now = System.currentTimeMillis();
+            if (checkpointFile != null && now - lastCheckpointAt >= CHECKPOINT_INTERVAL_MS) {
+                checkpoint();
+                lastCheckpointAt = now;
+            }
+        }
+    }
+
+    /** this üzerinde senkronize çağrılmalıdır. */
+    private void checkpoint() {
+        new Checkpoint(chunkGames, progress, players).write(checkpointFile);
+    }
+
+    private Result verdicts(long total, long remaining, double cacheHitRate, long elapsed) {
+        long qualifiedDecisions = 0;
+        long qualifiedErrors = 0;
+        for (PlayerStats s : players.values()) {
+            if (s.decisions >= MIN_DECISIONS) {
+                qualifiedDecisions += s.decisions;
+                qualifiedErrors += s.errors;
+            }
+        }
+        double p = qualifiedDecisions == 0 ? 0 : (double) qualifiedErrors / qualifiedDecisions;
+
+        List<Verdict> verdicts = new ArrayList<>(players.size());
+        for (PlayerStats s : players.values()) {
+            double z = Double.NaN;
+            if (s.decisions >= MIN_DECISIONS && p > 0 && p < 1) {
+                z = (s.errors - s.decisions * p) / Math.sqrt(s.decisions * p * (1 - p));
+            }
+            verdicts.add(new Verdict(s, z, !Double.isNaN(z) && z <= -FLAG_Z));
+        }
+        verdicts.sort(Comparator.comparingDouble((Verdict v) -> Double.isNaN(v.z) ? Double.MAX_VALUE : v.z)
+                .thenComparing(v -> v.stats.playerId));
+        return new Result(verdicts, p, total, remaining, decisions.get(), skippedGames.get(), cacheHitRate,
+                elapsed, parallelism);
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Kullanım: CheatDetection <data.dir> [checkpoint dosyası]");
+            System.exit(2);
+        }
+        Path dataDir = Path.of(args[0]);
+        Path checkpoint = args.length > 1 ? Path.of(args[1]) : dataDir.resolve("cheat-detection.ckpt");
+        int threads = Integer.getInteger("tavla.analysis.threads", Runtime.getRuntime().availableProcessors());
+
+        GameArchive archive = GameArchive.open(dataDir.resolve("archive"));
+        try {
+            new CheatDetection(archive, checkpoint, threads).run().print(System.out);
+        } finally {
+            archive.close();
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.tavla.server.analysis;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Analiz işinin kaldığı yer: parça başına analiz edilmiş oyun sayısı ve o ana kadarki oyuncu
+ * birikimleri. Yarıda kesilen iş aynı dosyayla tekrar başlatılınca sadece kalan oyunları işler.
+ *
+ * Format (big-endian): int MAGIC, int chunkGames, int parça sayısı, int[parça] analiz edilen oyun,
+ * int oyuncu sayısı, oyuncu başına (UTF playerId, int games, long decisions/best/errors/blunders/
+ * unmatched, double totalLoss), long crc32 (öncesindeki tüm byte'lar).
+ * Geçici dosyaya yazılıp atomik taşınır; yarım yazılmış checkpoint olmaz.
+ */
+final class Checkpoint {
+
+    private static final int MAGIC = 0x5456434B; // "TVCK"
+
+    final int chunkGames;
+    final int[] progress;                    // parça başına analiz edilmiş oyun
+    final Map<String, PlayerStats> players;
+
+    Checkpoint(int chunkGames, int[] progress, Map<String, PlayerStats> players) {
+        this.chunkGames = chunkGames;
+        this.progress = progress;
+        this.players = players;
+    }
+
+    /** Dosya yoksa null; bozuksa IllegalStateException (silinip baştan başlanmalı). */
+    static Checkpoint read(Path file) {
+        try (CheckedInputStream checked = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(file)), new CRC32());
+             DataInputStream in = new DataInputStream(checked)) {
+            if (in.readInt() != MAGIC) {
+                throw new IllegalStateException("Checkpoint dosyası değil: " + file);
+            }
+            int chunkGames = in.readInt();
+            int[] progress = new int[in.readInt()];
+            for (int i = 0; i < progress.length; i++) {
+                progress[i] = in.readInt();
+            }
+            int count = in.readInt();
+            Map<String, PlayerStats> players = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                PlayerStats s = new PlayerStats(in.readUTF());
+                s.games = in.readInt();
+                s.decisions = in.readLong();
+                s.best = in.readLong();
+                s.errors = in.readLong();
+                s.blunders = in.readLong();
+                s.unmatched = in.readLong();
+                s.totalLoss = in.readDouble();
+                players.put(s.playerId, s);
+            }
+            long crc = checked.getChecksum().getValue();
+            if (in.readLong() != crc) {
+                throw new IllegalStateException("Checkpoint bozuk (crc): " + file);
+            }
+            return new Checkpoint(chunkGames, progress, players);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Checkpoint okunamadı: " + file, e);
+        }
+    }
+
+    void write(Path file) {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (CheckedOutputStream checked = new CheckedOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp)), new CRC32());
+                 DataOutputStream out = new DataOutputStream(checked)) {
+                out.writeInt(MAGIC);
+                out.writeInt(chunkGames);
+                out.writeInt(progress.length);
+                for (int p : progress) {
+                    out.writeInt(p);
+                }
+                out.writeInt(players.size());
+                for (PlayerStats s : players.values()) {
+                    out.writeUTF(s.playerId);
+                    out.writeInt(s.games);
+                    out.writeLong(s.decisions);
+                    out.writeLong(s.best);
+                    out.writeLong(s.errors);
+                    out.writeLong(s.blunders);
+                    out.writeLong(s.unmatched);
+                    out.writeDouble(s.totalLoss);
+                }
+                out.writeLong(checked.getChecksum().getValue());
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Checkpoint yazılamadı: " + file, e);
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.tavla.server.analysis;
+
+import com.tavla.core.GameLogic;
+import com.tavla.core.GameRecorder;
+import com.tavla.core.GameState;
+import com.tavla.core.Move;
+import com.tavla.core.Player;
+import com.tavla.core.PositionId;
+import com.tavla.core.TavlaGame;
+import com.tavla.server.archive.GameRecord;
+import com.tavla.server.bot.BotPlayer;
+import com.tavla.server.bot.BotStrategy;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Arşivdeki bir oyunu kayıttan yeniden oynatıp oyuncuların her hamle kararını motorun seçimiyle
+ * karşılaştırır: oynanan dizinin yasal diziler arasındaki sırası ve en iyiye göre equity kaybı.
+ *
+ * Karar, zar atıldıktan sonra en az iki farklı sonuç pozisyonu veren tam hamle dizisi olduğunda
+ * sayılır (zorunlu hamleler sayılmaz). Değerlendirme botun 1-ply aramasıyla aynıdır.
+ *
+ * İki önbellek aynı işi tekrarlamayı önler (açılışlar ve sık pozisyonlar binlerce oyunda tekrar
+ * eder):
+ * - karar tablosu: (pozisyon, zar) için tüm dizilerin sonuç pozisyonları ve sıralı equity'leri
+ * - değerlendirme: sonuç pozisyonu -> equity; farklı kararlardan aynı pozisyona varılınca
+ * Bir karar için önce tüm sonuç pozisyonları üretilir, önbellekte olmayanlar tek geçişte
+ * değerlendirilir. Önbellekler sınıra gelince boşaltılır.
+ *
+ * Thread-safe değildir; her worker thread kendi örneğini kullanır.
+ */
+public final class DecisionAnalyzer {
+
+    /** Bu kadardan büyük equity kaybı hata sayılır (equity -1..1 ölçeğinde). */
+    public static final double ERROR_LOSS = 0.02;
+    public static final double BLUNDER_LOSS = 0.08;
+
+    private static final int DECISION_CACHE_LIMIT = 1 << 16;
+    private static final int EVALUATION_CACHE_LIMIT = 1 << 18;
+
+    /** Bir (pozisyon, zar) kararının değerlendirilmiş dizileri, en iyiden kötüye. */
+    private static final class Decision {
+        final PositionId.Key[] results; // sıradaki (rakip) oyuncuya göre sonuç pozisyonu
+        final double[] equities;        // hamleyi yapan için
+
+        Decision(PositionId.Key[] results, double[] equities) {
+            this.results = results;
+            this.equities = equities;
+        }
+    }
+
+    private static final class DecisionKey {
+        final PositionId.Key position;
+        final int dice; // küçük * 8 + büyük; zar sırası kararı değiştirmez
+
+        DecisionKey(PositionId.Key position, int dice) {
+            this.position = position;
+            this.dice = dice;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof DecisionKey k && k.dice == dice && k.position.equals(position);
+        }
+
+        @Override
+        public int hashCode() {
+            return position.hashCode() * 31 + dice;
+        }
+    }
+
+    private final GameLogic logic = new GameLogic();
+    private final BotStrategy.Evaluator evaluator;
+    private final Map<DecisionKey, Decision> decisions = new HashMap<>();
+    private final Map<PositionId.Key, Double> evaluations = new HashMap<>();
+
+    private long decisionHits;
+    private long decisionMisses;
+    private long evaluated;
+
+    public DecisionAnalyzer(BotStrategy.Evaluator evaluator) {
+        this.evaluator = evaluator;
+    }
+
+    /**
+     * Oyunun kimlikli oyuncularının kararlarını stats'a ekler (playerId -> birikim).
+     * Kayıt kurallara uymuyorsa IllegalStateException / IllegalArgumentException.
+     */
+    public void analyze(GameRecord record, Map<String, PlayerStats> stats) {
+        String white = record.getWhitePlayer();
+        String black = record.getBlackPlayer();
+        if (white == null && black == null) {
+            return;
+        }
+        PlayerStats whiteStats = white == null ? null : stats.computeIfAbsent(white, PlayerStats::new);
+        PlayerStats blackStats = black == null || black.equals(white) ? null
+                : stats.computeIfAbsent(black, PlayerStats::new);
+        if (whiteStats != null) whiteStats.games++;
+        if (blackStats != null) blackStats.games++;
+
+        GameRecorder moves = record.moves;
+        TavlaGame game = moves.newGame();
+        game.passIfBlocked();
+        int n = moves.length();
+        int i = 0;
+        while (i < n) {
+            int code = moves.codeAt(i++);
+            GameRecorder.apply(game, code);
+            if (code < GameRecorder.ROLL_BASE || code >= GameRecorder.DOUBLE || game.getRemainingSteps().isEmpty()) {
+                continue; // hamle, küp, hükmen ya da oynanamayan zar
+            }
+
+            Player mover = game.getCurrentPlayer();
+            PlayerStats player = mover == Player.WHITE ? whiteStats : blackStats;
+            GameState before = player == null ? null : game.getInternalState().copy();
+            while (i < n && moves.codeAt(i) < GameRecorder.ROLL_BASE) {
+                GameRecorder.apply(game, moves.codeAt(i++));
+            }
+            if (player != null) {
+                int dice = code - GameRecorder.ROLL_BASE;
+                score(player, before, dice / 6 + 1, dice % 6 + 1,
+                        PositionId.key(game.getInternalState().getBoard(), mover.opponent()));
+            }
+        }
+    }
+
+    private void score(PlayerStats player, GameState before, int die1, int die2, PositionId.Key played) {
+        Decision decision = decision(before, die1, die2);
+        if (decision.results.length < 2) {
+            return; // zorunlu hamle
+        }
+        int index = -1;
+        for (int k = 0; k < decision.results.length; k++) {
+            if (decision.results[k].equals(played)) {
+                index = k;
+                break;
+            }
+        }
+        if (index < 0) {
+            player.unmatched++;
+            return;
+        }
+        double loss = decision.equities[0] - decision.equities[index];
+        player.decisions++;
+        player.totalLoss += loss;
+        if (loss <= 0) player.best++;
+        if (loss > ERROR_LOSS) player.errors++;
+        if (loss > BLUNDER_LOSS) player.blunders++;
+    }
+
+    private Decision decision(GameState before, int die1, int die2) {
+        DecisionKey key = new DecisionKey(PositionId.key(before), Math.min(die1, die2) * 8 + Math.max(die1, die2));
+        Decision cached = decisions.get(key);
+        if (cached != null) {
+            decisionHits++;
+            return cached;
+        }
+        decisionMisses++;
+
+        Player mover = before.getCurrentPlayer();
+        List<List<Move>> plays = logic.legalPlays(before);
+        int count = plays.size();
+        GameState[] after = new GameState[count];
+        PositionId.Key[] results = new PositionId.Key[count];
+        double[] equities = new double[count];
+        for (int k = 0; k < count; k++) {
+            after[k] = BotPlayer.afterPlay(logic, before, plays.get(k));
+            results[k] = PositionId.key(after[k].getBoard(), mover.opponent());
+        }
+        if (evaluations.size() + count > EVALUATION_CACHE_LIMIT) {
+            evaluations.clear();
+        }
+        for (int k = 0; k < count; k++) {
+            Double e = evaluations.get(results[k]);
+            if (e == null) {
+                e = evaluator.evaluate(after[k], mover);
+                evaluations.put(results[k], e);
+                evaluated++;
+            }
+            equities[k] = e;
+        }
+
+        // En iyiden kötüye sırala (diziler küçük: insertion sort, ara nesne yok)
+        for (int a = 1; a < count; a++) {
+            double e = equities[a];
+            PositionId.Key r = results[a];
+            int b = a - 1;
+            while (b >= 0 && equities[b] < e) {
+                equities[b + 1] = equities[b];
+                results[b + 1] = results[b];
+                b--;
+            }
+            equities[b + 1] = e;
+            results[b + 1] = r;
+        }
+
+        Decision decision = new Decision(results, equities);
+        if (decisions.size() >= DECISION_CACHE_LIMIT) {
+            decisions.clear();
+        }
+        decisions.put(key, decision);
+        return decision;
+    }
+
+    public long getDecisionHits() {
+        return decisionHits;
+    }
+
+    public long getDecisionMisses() {
+        return decisionMisses;
+    }
+
+    /** Önbellekte bulunmayıp değerlendiriciye giden pozisyon sayısı. */
+    public long getEvaluated() {
+        return evaluated;
+    }
+}
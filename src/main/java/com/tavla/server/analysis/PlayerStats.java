@@ -0,0 +1,64 @@
+package com.tavla.server.analysis;
+
+/**
+ * Bir oyuncunun analiz edilen kararlarının birikimi. Tek thread'de doldurulur; parçaların
+ * sonuçları merge ile (dışarıdan sıralanarak) birleştirilir.
+ */
+public final class PlayerStats {
+
+    public final String playerId;
+    int games;
+    long decisions;   // en az iki farklı hamle dizisinin olduğu kararlar
+    long best;        // motorun en iyi bulduğu diziyle (eşit equity dahil) aynı
+    long errors;      // equity kaybı DecisionAnalyzer.ERROR_LOSS'tan büyük
+    long blunders;    // equity kaybı DecisionAnalyzer.BLUNDER_LOSS'tan büyük
+    long unmatched;   // oynanan dizi yasal diziler arasında bulunamadı (kural farkı); sayılmaz
+    double totalLoss;
+
+    public PlayerStats(String playerId) {
+        this.playerId = playerId;
+    }
+
+    void merge(PlayerStats other) {
+        games += other.games;
+        decisions += other.decisions;
+        best += other.best;
+        errors += other.errors;
+        blunders += other.blunders;
+        unmatched += other.unmatched;
+        totalLoss += other.totalLoss;
+    }
+
+    public int getGames() {
+        return games;
+    }
+
+    public long getDecisions() {
+        return decisions;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getBlunders() {
+        return blunders;
+    }
+
+    public long getUnmatched() {
+        return unmatched;
+    }
+
+    public double errorRate() {
+        return decisions == 0 ? 0 : (double) errors / decisions;
+    }
+
+    public double bestRate() {
+        return decisions == 0 ? 0 : (double) best / decisions;
+    }
+
+    /** Karar başına ortalama equity kaybı. */
+    public double meanLoss() {
+        return decisions == 0 ? 0 : totalLoss / decisions;
+    }
+}
@@ -0,0 +1,228 @@
+package com.tavla.server.analytics;
+
+import com.tavla.core.GameState;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Biten oyunlardan canlı toplamlar: dakikada oyun, ortalama oyun süresi ve uzunluğu, ilk oynayanın
+ * kazanma oranı, gammon/backgammon oranı, kopma ve yarım kalma oranı, saatlik eşzamanlı oyun.
+ *
+ * Olaylar odaların mailbox'larından (birçok thread'den) gelir ve kilitsiz sayaçlara yazılır:
+ * - dakika dilimli halka (son MINUTES dakika): her dilimde LongAdder'lar; rapor son 1/15/60
+ *   dakikanın dilimlerini toplar
+ * - saat dilimli halka (son HOURS saat): eşzamanlı oyun örneklerinin tepe değeri (LongAccumulator)
+ *   ve ortalaması için toplam/örnek sayısı
+ * - açılıştan beri toplamlar
+ * Ham olay saklanmaz; bellek sabittir. Rapor sadece sorgu anında hesaplanır.
+ */
+public class GameAnalytics {
+
+    public static final int MINUTES = 60;
+    public static final int HOURS = 24;
+
+    private static final int[] WINDOW_MINUTES = {1, 15, MINUTES};
+
+    /** Bir zaman diliminin (ya da açılıştan beri) sayaçları. */
+    static final class Counters {
+        final LongAdder started = new LongAdder();
+        final LongAdder finished = new LongAdder();
+        final LongAdder durationMillis = new LongAdder();
+        final LongAdder turns = new LongAdder();
+        final LongAdder firstMoverWins = new LongAdder();
+        final LongAdder gammons = new LongAdder();     // backgammon'lar dahil
+        final LongAdder backgammons = new LongAdder();
+        final LongAdder forfeits = new LongAdder();
+        final LongAdder disconnects = new LongAdder();
+        final LongAdder abandoned = new LongAdder();   // bitmeden kapanan oyun
+    }
+
+    /** Bir saatin eşzamanlı oyun örnekleri. */
+    static final class Concurrency {
+        final LongAccumulator peak = new LongAccumulator(Math::max, 0);
+        final LongAdder sum = new LongAdder();
+        final LongAdder samples = new LongAdder();
+    }
+
+    private final long createdAt;
+    private final Counters total = new Counters();
+    private final RollingWindow<Counters> minutes =
+            new RollingWindow<>(TimeUnit.MINUTES.toMillis(1), MINUTES, Counters::new);
+    private final RollingWindow<Concurrency> hours =
+            new RollingWindow<>(TimeUnit.HOURS.toMillis(1), HOURS, Concurrency::new);
+
+    public GameAnalytics(long createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public void gameStarted(long now) {
+        total.started.increment();
+        minutes.at(now).started.increment();
+    }
+
+    public void gameFinished(GameSummary game) {
+        record(total, game);
+        record(minutes.at(game.endedAt), game);
+    }
+
+    /** Başlamış, bitmemiş bir oyundan oyuncu koptu. */
+    public void disconnected(long now) {
+        total.disconnects.increment();
+        minutes.at(now).disconnects.increment();
+    }
+
+    /** Oyun bitmeden oda kapandı (oyuncu geri dönmedi ya da oda boşta kaldı). */
+    public void abandoned(long now) {
+        total.abandoned.increment();
+        minutes.at(now).abandoned.increment();
+    }
+
+    /** O anda devam eden oyun sayısı (periyodik örnek). */
+    public void sampleConcurrency(long now, long activeGames) {
+        Concurrency c = hours.at(now);
+        c.peak.accumulate(activeGames);
+        c.sum.add(activeGames);
+        c.samples.increment();
+    }
+
+    private static void record(Counters c, GameSummary game) {
+        c.finished.increment();
+        c.durationMillis.add(game.durationMillis);
+        c.turns.add(game.turns);
+        if (game.winner != null && game.winner == game.firstMover) {
+            c.firstMoverWins.increment();
+        }
+        if (game.resultKind >= GameState.RESULT_GAMMON) {
+            c.gammons.increment();
+        }
+        if (game.resultKind == GameState.RESULT_BACKGAMMON) {
+            c.backgammons.increment();
+        }
+        if (game.forfeit) {
+            c.forfeits.increment();
+        }
+    }
+
+    // ---------------- Rapor ----------------
+
+    /** Bir pencerenin toplamları ve oranları. Oran paydası 0 ise 0. */
+    public static final class Window {
+        public final String window;       // "1m", "15m", "60m" ya da "total"
+        public final double minutes;      // pencerenin gerçekten kapsadığı süre
+        public final long gamesStarted;
+        public final long gamesFinished;
+        public final double gamesPerMinute;
+        public final double avgDurationSeconds;
+        public final double avgTurns;
+        public final double firstMoverWinRate;
+        public final double gammonRate;
+        public final double backgammonRate;
+        public final double forfeitRate;
+        public final double disconnectsPerGame;  // başlayan oyun başına kopma
+        public final double abandonRate;         // başlayan oyunlardan bitmeden kapananlar
+
+        Window(String window, double minutes, long started, long finished, long durationMillis, long turns,
+               long firstMoverWins, long gammons, long backgammons, long forfeits, long disconnects,
+               long abandoned) {
+            this.window = window;
+            this.minutes = minutes;
+            this.gamesStarted = started;
+            this.gamesFinished = finished;
+            this.gamesPerMinute = ratio(finished, minutes);
+            this.avgDurationSeconds = ratio(durationMillis / 1000.0, finished);
+            this.avgTurns = ratio(turns, finished);
+            this.firstMoverWinRate = ratio(firstMoverWins, finished);
+            this.gammonRate = ratio(gammons, finished);
+            this.backgammonRate = ratio(backgammons, finished);
+            this.forfeitRate = ratio(forfeits, finished);
+            this.disconnectsPerGame = ratio(disconnects, started);
+            this.abandonRate = ratio(abandoned, started);
+        }
+
+        private static double ratio(double a, double b) {
+            return b <= 0 ? 0 : a / b;
+        }
+    }
+
+    /** Bir saatin eşzamanlı oyun sayısı. */
+    public static final class Hour {
+        public final long hourStart;  // epoch ms
+        public final long peak;
+        public final double average;
+
+        Hour(long hourStart, long peak, double average) {
+            this.hourStart = hourStart;
+            this.peak = peak;
+            this.average = average;
+        }
+    }
+
+    public static final class Report {
+        public final long at;
+        public final List<Window> windows;    // son 1, 15, 60 dakika ve açılıştan beri
+        public final List<Hour> concurrency;  // son HOURS saat, eskiden yeniye; örneği olmayan saatler yok
+
+        Report(long at, List<Window> windows, List<Hour> concurrency) {
+            this.at = at;
+            this.windows = windows;
+            this.concurrency = concurrency;
+        }
+    }
+
+    /** Son minutes dakikanın (şimdiki, yarım dakika dahil) toplamları. */
+    public Window window(long now, int minutes) {
+        long width = this.minutes.widthMillis();
+        // Şimdiki dilim yarım; pencere açılıştan eskiye de uzanamaz
+        double span = Math.min((minutes - 1) + (double) Math.floorMod(now, width) / width,
+                (double) Math.max(0, now - createdAt) / width);
+        long started = 0, finished = 0, duration = 0, turns = 0, firstMover = 0, gammons = 0,
+                backgammons = 0, forfeits = 0, disconnects = 0, abandoned = 0;
+        for (Counters c : this.minutes.recent(now, minutes)) {
+            if (c == null) continue;
+            started += c.started.sum();
+            finished += c.finished.sum();
+            duration += c.durationMillis.sum();
+            turns += c.turns.sum();
+            firstMover += c.firstMoverWins.sum();
+            gammons += c.gammons.sum();
+            backgammons += c.backgammons.sum();
+            forfeits += c.forfeits.sum();
+            disconnects += c.disconnects.sum();
+            abandoned += c.abandoned.sum();
+        }
+        return new Window(minutes + "m", span, started, finished, duration, turns, firstMover, gammons,
+                backgammons, forfeits, disconnects, abandoned);
+    }
+
+    /** Açılıştan beri toplamlar. */
+    public Window total(long now) {
+        Counters c = total;
+        return new Window("total", Math.max(0, now - createdAt) / 60_000.0, c.started.sum(), c.finished.sum(),
+                c.durationMillis.sum(), c.turns.sum(), c.firstMoverWins.sum(), c.gammons.sum(),
+                c.backgammons.sum(), c.forfeits.sum(), c.disconnects.sum(), c.abandoned.sum());
+    }
+
+    public Report report(long now) {
+        List<Window> windows = new ArrayList<>(WINDOW_MINUTES.length + 1);
+        for (int m : WINDOW_MINUTES) {
+            windows.add(window(now, m));
+        }
+        windows.add(total(now));
+
+        List<Hour> concurrency = new ArrayList<>(HOURS);
+        long width = hours.widthMillis();
+        long hourStart = Math.floorDiv(now, width) * width - (HOURS - 1) * width;
+        for (Concurrency c : hours.recent(now, HOURS)) {
+            long samples = (c == null) ? 0 : c.samples.sum();
+            if (samples > 0) {
+                concurrency.add(new Hour(hourStart, c.peak.get(), (double) c.sum.sum() / samples));
+            }
+            hourStart += width;
+        }
+        return new Report(now, windows, concurrency);
+    }
+}
@@ -0,0 +1,49 @@
+package com.tavla.server.analytics;
+
+import com.tavla.core.GameRecorder;
+import com.tavla.core.GameState;
+import com.tavla.core.Player;
+import com.tavla.core.TavlaGame;
+
+/**
+ * Biten bir oyunun analitik için gereken özeti; oyun bittiği anda odanın mailbox'ında kurulur.
+ */
+public final class GameSummary {
+
+    public final long endedAt;        // epoch ms
+    public final long durationMillis;
+    public final int turns;           // atılan zar sayısı
+    public final Player firstMover;   // ilk zarı atan
+    public final Player winner;
+    public final int resultKind;      // GameState.RESULT_SINGLE / GAMMON / BACKGAMMON
+    public final boolean forfeit;     // süre aşımıyla bitti
+
+    public GameSummary(long endedAt, long durationMillis, int turns, Player firstMover, Player winner,
+                       int resultKind, boolean forfeit) {
+        this.endedAt = endedAt;
+        this.durationMillis = durationMillis;
+        this.turns = turns;
+        this.firstMover = firstMover;
+        this.winner = winner;
+        this.resultKind = resultKind;
+        this.forfeit = forfeit;
+    }
+
+    /** Kaydı tutulan bitmiş oyundan özet; kayıt yoksa ya da oyun bitmediyse null. */
+    public static GameSummary of(TavlaGame game, long endedAt) {
+        GameRecorder recorder = game.getRecorder();
+        if (recorder == null || !game.isGameOver()) {
+            return null;
+        }
+        int turns = 0;
+        for (int i = 0, n = recorder.length(); i < n; i++) {
+            int code = recorder.codeAt(i);
+            if (code >= GameRecorder.ROLL_BASE && code < GameRecorder.DOUBLE) {
+                turns++;
+            }
+        }
+        GameState state = game.getInternalState();
+        return new GameSummary(endedAt, Math.max(0, endedAt - recorder.startedAt), turns, recorder.startPlayer,
+                game.getWinner(), state.getResultKind(), recorder.isForfeit());
+    }
+}
@@ -0,0 +1,79 @@
+package com.tavla.server.analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Zamanı eşit genişlikte dilimlere bölen, son N dilimi tutan kilitsiz halka.
+ *
+ * Her yuva, hangi dilime ait olduğunu bilen değişmez bir Slot tutar. Yazar yuvada eski bir dilim
+ * görürse yeni Slot'u compareAndSet ile koyar; kazanan yeni bucket'ı kurar, kaybeden onu kullanır.
+ * Bucket'ı sıfırlamak yerine değiştirmek, eski dilime o an yazan thread'le yarışmayı önler
+ * (geç kalan yazı sadece artık okunmayan eski bucket'a gider).
+ */
+final class RollingWindow<B> {
+
+    private static final class Slot<B> {
+        final long index; // epoch ms / width
+        final B bucket;
+
+        Slot(long index, B bucket) {
+            this.index = index;
+            this.bucket = bucket;
+        }
+    }
+
+    private final long widthMillis;
+    private final AtomicReferenceArray<Slot<B>> slots;
+    private final Supplier<B> factory;
+
+    RollingWindow(long widthMillis, int slotCount, Supplier<B> factory) {
+        this.widthMillis = widthMillis;
+        this.slots = new AtomicReferenceArray<>(slotCount);
+        this.factory = factory;
+    }
+
+    long widthMillis() {
+        return widthMillis;
+    }
+
+    int size() {
+        return slots.length();
+    }
+
+    /**
+     * now'ın dilimindeki bucket. Yuva bu arada daha yeni bir dilime geçmişse (saat geri gitti ya da
+     * thread çok bekledi) o yeni bucket döner; olay bir dilim ileride sayılır.
+     */
+    B at(long now) {
+        long index = Math.floorDiv(now, widthMillis);
+        int i = (int) Math.floorMod(index, (long) slots.length());
+        while (true) {
+            Slot<B> slot = slots.get(i);
+            if (slot != null && slot.index >= index) {
+                return slot.bucket;
+            }
+            Slot<B> fresh = new Slot<>(index, factory.get());
+            if (slots.compareAndSet(i, slot, fresh)) {
+                return fresh.bucket;
+            }
+        }
+    }
+
+    /**
+     * now'ın dilimi dahil son count dilimin bucket'ları, eskiden yeniye. Hiç olay olmayan dilimler
+     * null'dır.
+     */
+    List<B> recent(long now, int count) {
+        long index = Math.floorDiv(now, widthMillis);
+        int n = Math.min(count, slots.length());
+        List<B> out = new ArrayList<>(n);
+        for (long k = index - n + 1; k <= index; k++) {
+            Slot<B> slot = slots.get((int) Math.floorMod(k, (long) slots.length()));
+            out.add(slot != null && slot.index == k ? slot.bucket : null);
+        }
+        return out;
+    }
+}
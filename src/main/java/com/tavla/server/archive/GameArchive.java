@@ -0,0 +1,685 @@
+package com.tavla.server.archive;
+
+import com.tavla.core.GameRecorder;
+import com.tavla.server.log.Log;
+import com.tavla.server.log.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Bitmiş oyunların kalıcı arşivi: append-only, dönen (rolling) segment dosyaları ve segment
+ * başına sıralı bir index.
+ *
+ * Oyunlara arşive girdikleri sırayla 1'den başlayan gameId verilir. Her segment bir veri ve
+ * (segment kapanınca) bir index dosyasından oluşur; adları segmentin ilk gameId'sidir:
+ *
+ *  games-&lt;firstId&gt;.dat  kayıtlar arka arkaya: varint uzunluk + GameRecord gövdesi
+ *  games-&lt;firstId&gt;.idx  (big-endian)
+ *    int  MAGIC, long firstId, int count, int pairCount
+ *    int[count]      kaydın .dat içindeki offset'i   -> gameId ile O(1) erişim
+ *    int[count]      bitiş zamanı (epoch saniye, artan) -> tarih aralığı için ikili arama
+ *    long[pairCount] hash39(oyuncu) << 24 | sıra       -> oyuncuya göre ikili arama
+ *    int  crc32      -> öncesindeki tüm byte'lar
+ *
+ * Kapanmış segmentlerin iki dosyası da read-only memory-map edilir; sorgu tüm dosyayı taramaz,
+ * sadece index'te ikili arama yapar ve eşleşen kayıtları çözer. Yazılmakta olan (aktif) segmentin
+ * index'i bellekte tutulur; açılışta .dat taranarak yeniden kurulur, yarım kalmış son kayıt kesilir.
+ * Aktif segment de map edilerek okunur; map, okunmak istenen kayıt henüz kapsamında değilse
+ * dosyanın o anki boyutuna genişletilir.
+ *
+ * append çağıranı diske bekletmez: gameId hemen verilir, kayıt tek bir writer thread'inin
+ * kuyruğuna girer. Writer biriken kayıtları tek write ve tek fsync ile yazar.
+ * Çökme anında kuyrukta olan kayıtlar kaybolur.
+ */
+public class GameArchive {
+
+    private static final Logger LOG = Log.get("archive");
+
+    static final int INDEX_MAGIC = 0x54564931; // "TVI1"
+    private static final int INDEX_HEADER_BYTES = 4 + 8 + 4 + 4;
+
+    public static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+
+    // Oyuncu index'inde sıra 24 bite sığmalı
+    private static final int MAX_SEGMENT_GAMES = (1 << 24) - 1;
+    private static final int ORDINAL_BITS = 24;
+
+    private static final String PREFIX = "games-";
+    private static final String DATA_SUFFIX = ".dat";
+    private static final String INDEX_SUFFIX = ".idx";
+
+    private static final int BATCH_BYTES = 256 * 1024;
+
+    private final Path dir;
+    private final long maxSegmentBytes;
+
+    // Kapanmış segmentler (ilk gameId'ye göre) ve yazılmakta olan segment
+    private final ConcurrentSkipListMap<Long, SealedSegment> sealed = new ConcurrentSkipListMap<>();
+    private volatile ActiveSegment active;
+
+    // gameId verme ve kuyruğa ekleme aynı sırada olsun diye
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private long nextId;
+    private volatile long lastAssignedId;
+    private volatile long lastWrittenId;
+
+    private final BlockingQueue<GameRecord> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private GameArchive(Path dir, long maxSegmentBytes) throws IOException {
+        this.dir = dir;
+        this.maxSegmentBytes = Math.min(maxSegmentBytes, Integer.MAX_VALUE);
+        Files.createDirectories(dir);
+        load();
+        this.lastAssignedId = nextId - 1;
+        this.lastWrittenId = nextId - 1;
+
+        this.writer = new Thread(this::writerLoop, "archive-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public static GameArchive open(Path dir) {
+        return open(dir, DEFAULT_SEGMENT_BYTES);
+    }
+
+    public static GameArchive open(Path dir, long maxSegmentBytes) {
+        try {
+            return new GameArchive(dir, maxSegmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Arşiv açılamadı: " + dir, e);
+        }
+    }
+
+    // ---------------- yazma ----------------
+
+    /**
+     * Kaydı arşive ekler ve verilen gameId'yi döndürür; diske yazmayı beklemez.
+     * Kayıt writer yazana kadar sorgularda görünmez (bkz. flush).
+     */
+    public long append(GameRecord record) {
+        if (!running) {
+            throw new IllegalStateException("Arşiv kapalı");
+        }
+        appendLock.lock();
+        try {
+            long id = nextId++;
+            queue.offer(record.withId(id));
+            lastAssignedId = id;
+            return id;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /** Şu ana kadar verilen tüm gameId'ler yazılıp sorgulanabilir olana kadar bekler. */
+    public void flush() {
+        long target = lastAssignedId;
+        while (lastWrittenId < target && writer.isAlive()) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    private void writerLoop() {
+        ByteBuffer batch = ByteBuffer.allocate(BATCH_BYTES);
+        List<GameRecord> records = new ArrayList<>();
+        while (running || !queue.isEmpty()) {
+            try {
+                GameRecord first = queue.poll(50, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                records.add(first);
+                queue.drainTo(records);
+                writeBatch(records, batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (IOException | RuntimeException e) {
+                // Disk hatası oyunu durdurmamalı; bu kayıtları kaybederiz ama bildiririz
+                LOG.error("Arşiv yazma hatası", e, "games", records.size());
+                lastWrittenId = records.get(records.size() - 1).gameId;
+            } finally {
+                records.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<GameRecord> records, ByteBuffer batch) throws IOException {
+        ActiveSegment segment = active;
+        int[] offsets = new int[records.size()];
+        int n = 0;
+        for (GameRecord record : records) {
+            int size = record.encodedSize();
+            int total = Varint.size(size) + size;
+            if (batch.remaining() < total) {
+                segment.write(batch);
+                if (total > batch.capacity()) {
+                    batch = ByteBuffer.allocate(total);
+                }
+            }
+            offsets[n++] = (int) (segment.size + batch.position());
+            Varint.put(batch, size);
+            record.encode(batch);
+        }
+        segment.write(batch);
+        segment.channel.force(false); // batch başına tek fsync
+
+        for (int i = 0; i < n; i++) {
+            GameRecord record = records.get(i);
+            segment.add(offsets[i], record.endedAt, playerHash(record.getWhitePlayer()),
+                    playerHash(record.getBlackPlayer()));
+            lastWrittenId = record.gameId;
+        }
+        // Batch bölünmez: segment sınırı en fazla bir batch kadar aşılabilir
+        if (segment.size >= maxSegmentBytes || segment.count >= MAX_SEGMENT_GAMES) {
+            seal(segment);
+            active = ActiveSegment.create(dir, segment.firstId + segment.count);
+        }
+    }
+
+    /** Aktif segmenti kapatır: index dosyasını yazar ve iki dosyayı da map eder. */
+    private void seal(ActiveSegment segment) throws IOException {
+        segment.channel.force(true);
+        // Eski referansla okumaya devam eden okuyucu kapalı kanalı yeniden map etmek zorunda kalmasın
+        segment.mapTo(segment.size);
+        segment.channel.close();
+        writeIndex(segment);
+        sealed.put(segment.firstId, SealedSegment.open(dir, segment.firstId));
+        LOG.info("Arşiv segmenti kapandı", "firstId", segment.firstId, "games", segment.count,
+                "bytes", segment.size);
+    }
+
+    private void writeIndex(ActiveSegment segment) throws IOException {
+        int count = segment.count;
+        long[] pairs = new long[count * 2];
+        int pairCount = 0;
+        for (int i = 0; i < count; i++) {
+            for (int side = 0; side < 2; side++) {
+                long hash = segment.players[2 * i + side];
+                if (hash != 0) {
+                    pairs[pairCount++] = hash << ORDINAL_BITS | i;
+                }
+            }
+        }
+        Arrays.sort(pairs, 0, pairCount);
+
+        ByteBuffer buf = ByteBuffer.allocate(INDEX_HEADER_BYTES + 8 * count + 8 * pairCount + 4);
+        buf.putInt(INDEX_MAGIC).putLong(segment.firstId).putInt(count).putInt(pairCount);
+        for (int i = 0; i < count; i++) buf.putInt(segment.offsets[i]);
+        for (int i = 0; i < count; i++) buf.putInt(segment.times[i]);
+        for (int i = 0; i < pairCount; i++) buf.putLong(pairs[i]);
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), 0, buf.position());
+        buf.putInt((int) crc.getValue());
+
+        Path file = dir.resolve(fileName(segment.firstId, INDEX_SUFFIX));
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            buf.flip();
+            while (buf.hasRemaining()) {
+                ch.write(buf);
+            }
+            ch.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // ---------------- sorgular ----------------
+
+    /** gameId'li oyun; yoksa ya da henüz yazılmadıysa null. */
+    public GameRecord get(long gameId) {
+        ActiveSegment a = active;
+        if (gameId >= a.firstId) {
+            return a.read(gameId);
+        }
+        Map.Entry<Long, SealedSegment> e = sealed.floorEntry(gameId);
+        return (e == null) ? null : e.getValue().read(gameId);
+    }
+
+    /** Oyuncunun oyunları, en yeniden eskiye, en fazla limit tane. */
+    public List<GameRecord> findByPlayer(String playerId, int limit) {
+        List<GameRecord> out = new ArrayList<>();
+        long hash = playerHash(playerId);
+        if (hash == 0 || limit <= 0) {
+            return out;
+        }
+        byte[] name = GameRecorder.utf8(playerId);
+
+        ActiveSegment a = active;
+        a.findByPlayer(hash, name, limit, out);
+        for (SealedSegment s : sealed.headMap(a.firstId, false).descendingMap().values()) {
+            if (out.size() >= limit) break;
+            s.findByPlayer(hash, name, limit, out);
+        }
+        return out;
+    }
+
+    /** Bitiş zamanı [fromMs, toMs) aralığındaki oyunlar, eskiden yeniye, en fazla limit tane. */
+    public List<GameRecord> findByTime(long fromMs, long toMs, int limit) {
+        List<GameRecord> out = new ArrayList<>();
+        // Index saniye hassasiyetinde: sec * 1000 aralıkta ⇔ ceil(from) <= sec < ceil(to)
+        long fromSec = Math.ceilDiv(fromMs, 1000);
+        long toSec = Math.ceilDiv(toMs, 1000);
+        if (limit <= 0 || fromSec >= toSec) {
+            return out;
+        }
+
+        ActiveSegment a = active;
+        NavigableMap<Long, SealedSegment> older = sealed.headMap(a.firstId, false);
+        for (SealedSegment s : older.values()) {
+            if (out.size() >= limit) return out;
+            s.findByTime(fromSec, toSec, limit, out);
+        }
+        if (out.size() < limit) {
+            a.findByTime(fromSec, toSec, limit, out);
+        }
+        return out;
+    }
+
+    /** Yazılmış (sorgulanabilir) oyun sayısı. */
+    public long getGameCount() {
+        ActiveSegment a = active;
+        return a.firstId - 1 + a.count;
+    }
+
+    /** Veri dosyalarının toplam boyutu (index'ler hariç). */
+    public long getDataBytes() {
+        long total = active.size;
+        for (SealedSegment s : sealed.values()) {
+            total += s.data.capacity();
+        }
+        return total;
+    }
+
+    /** Bekleyen kayıtları yazar ve dosyaları kapatır. Aktif segment açık bırakılır, açılışta taranır. */
+    public void close() {
+        running = false;
+        try {
+            writer.join();
+            active.channel.force(true);
+            active.channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ---------------- açılış ----------------
+
+    private void load() throws IOException {
+        List<Long> firstIds = new ArrayList<>();
+        try (Stream<Path> files = Files.list(dir)) {
+            files.map(p -> p.getFileName().toString())
+                    .filter(n -> n.startsWith(PREFIX) && n.endsWith(DATA_SUFFIX))
+                    .map(n -> Long.parseLong(n.substring(PREFIX.length(), n.length() - DATA_SUFFIX.length())))
+                    .sorted()
+                    .forEach(firstIds::add);
+        }
+
+        long next = 1;
+        for (int i = 0; i < firstIds.size(); i++) {
+            long firstId = firstIds.get(i);
+            boolean last = i == firstIds.size() - 1;
+            SealedSegment s = Files.exists(dir.resolve(fileName(firstId, INDEX_SUFFIX)))
+                    ? SealedSegment.tryOpen(dir, firstId) : null;
+            if (s != null) {
+                sealed.put(firstId, s);
+                next = firstId + s.count;
+                continue;
+            }
+
+            // Index'i yok: ya aktif segment ya da kapatılırken kesilmiş
+            ActiveSegment scanned = ActiveSegment.scan(dir, firstId);
+            next = firstId + scanned.count;
+            if (last) {
+                active = scanned;
+            } else {
+                seal(scanned);
+            }
+        }
+        if (active == null) {
+            active = ActiveSegment.create(dir, next);
+        }
+        this.nextId = active.firstId + active.count;
+    }
+
+    // ---------------- yardımcılar ----------------
+
+    static String fileName(long firstId, String suffix) {
+        return String.format("%s%016d%s", PREFIX, firstId, suffix);
+    }
+
+    /**
+     * Oyuncu kimliğinin (kayıttaki UTF-8 byte'ları üzerinden) 39 bitlik FNV-1a hash'i; kimlik yoksa 0.
+     * 39 bit: sırayla birleşince long'un işaret bitine taşmaz, index işaretli sıralanabilir.
+     */
+    static long playerHash(String playerId) {
+        if (playerId == null || playerId.isEmpty()) {
+            return 0;
+        }
+        long h = 0xcbf29ce484222325L;
+        for (byte b : GameRecorder.utf8(playerId)) {
+            h ^= b & 0xff;
+            h *= 0x100000001b3L;
+        }
+        h >>>= 64 - 39;
+        return h == 0 ? 1 : h;
+    }
+
+    private static boolean playedBy(GameRecord record, byte[] name) {
+        return Arrays.equals(GameRecorder.utf8(record.getWhitePlayer()), name)
+                || Arrays.equals(GameRecorder.utf8(record.getBlackPlayer()), name);
+    }
+
+    private static GameRecord decodeAt(long gameId, ByteBuffer data, int offset, int end) {
+        ByteBuffer b = data.slice(offset, end - offset);
+        int length = (int) Varint.get(b);
+        return GameRecord.decode(gameId, b.slice(b.position(), length));
+    }
+
+    // ---------------- segmentler ----------------
+
+    /**
+     * Yazılmakta olan segment. Diziler sadece writer thread'inde büyür; yeni kayıt önce dizilere
+     * yazılır, sonra volatile count artırılır. Okuyucu önce count'u okuduğu için gördüğü her
+     * sıranın değerleri hazırdır.
+     */
+    private static final class ActiveSegment {
+        final long firstId;
+        final FileChannel channel;
+
+        int[] offsets = new int[1024];
+        int[] times = new int[1024];
+        long[] players = new long[2048]; // sıra başına WHITE, BLACK hash'i (yoksa 0)
+        volatile int count;
+        volatile long size;
+
+        // Okumalar için map (0..capacity); yeni kayıtlar okunurken büyütülür
+        private volatile MappedByteBuffer mapped;
+        private final ReentrantLock mapLock = new ReentrantLock();
+
+        private ActiveSegment(long firstId, FileChannel channel, long size) {
+            this.firstId = firstId;
+            this.channel = channel;
+            this.size = size;
+        }
+
+        static ActiveSegment create(Path dir, long firstId) throws IOException {
+            FileChannel ch = FileChannel.open(dir.resolve(fileName(firstId, DATA_SUFFIX)),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new ActiveSegment(firstId, ch, 0);
+        }
+
+        /** .dat'ı baştan okuyup bellek index'ini kurar; çözülemeyen son kısmı keser. */
+        static ActiveSegment scan(Path dir, long firstId) throws IOException {
+            FileChannel ch = FileChannel.open(dir.resolve(fileName(firstId, DATA_SUFFIX)),
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long fileSize = ch.size();
+            ActiveSegment segment = new ActiveSegment(firstId, ch, 0);
+            if (fileSize == 0) {
+                return segment;
+            }
+
+            MappedByteBuffer data = ch.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            int offset = 0;
+            while (offset < fileSize) {
+                GameRecord record;
+                int next;
+                try {
+                    ByteBuffer b = data.slice(offset, (int) fileSize - offset);
+                    int length = (int) Varint.get(b);
+                    if (length <= 0 || length > b.remaining()) {
+                        break;
+                    }
+                    record = GameRecord.decode(firstId + segment.count, b.slice(b.position(), length));
+                    next = offset + b.position() + length;
+                } catch (RuntimeException e) {
+                    break;
+                }
+                segment.add(offset, record.endedAt, playerHash(record.getWhitePlayer()),
+                        playerHash(record.getBlackPlayer()));
+                offset = next;
+            }
+            if (offset < fileSize) {
+                LOG.warn("Arşivde yarım kayıt, segment sonu kesildi", "firstId", firstId,
+                        "offset", offset, "bytes", fileSize - offset);
+                ch.truncate(offset);
+            } else {
+                segment.mapped = data;
+            }
+            segment.size = offset;
+            return segment;
+        }
+
+        void write(ByteBuffer batch) throws IOException {
+            batch.flip();
+            long position = size;
+            while (batch.hasRemaining()) {
+                position += channel.write(batch, position);
+            }
+            size = position;
+            batch.clear();
+        }
+
+        void add(int offset, long endedAtMs, long whiteHash, long blackHash) {
+            int i = count;
+            if (i == offsets.length) {
+                offsets = Arrays.copyOf(offsets, i * 2);
+                times = Arrays.copyOf(times, i * 2);
+                players = Arrays.copyOf(players, i * 4);
+            }
+            // Zaman index'i artan kalmalı (saat geri giderse bir öncekine eşitlenir)
+            int sec = (int) Math.min(endedAtMs / 1000, 0xffffffffL);
+            offsets[i] = offset;
+            times[i] = (i > 0 && Integer.compareUnsigned(sec, times[i - 1]) < 0) ? times[i - 1] : sec;
+            players[2 * i] = whiteHash;
+            players[2 * i + 1] = blackHash;
+            count = i + 1;
+        }
+
+        GameRecord read(long gameId) {
+            int n = count;
+            long ordinal = gameId - firstId;
+            if (ordinal < 0 || ordinal >= n) {
+                return null;
+            }
+            return readAt(gameId, (int) ordinal, n);
+        }
+
+        private GameRecord readAt(long gameId, int ordinal, int n) {
+            int[] offs = offsets;
+            int start = offs[ordinal];
+            int end = (int) ((ordinal + 1 < n) ? offs[ordinal + 1] : size);
+            try {
+                return decodeAt(gameId, mapTo(end), start, end);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Arşiv okunamadı: " + gameId, e);
+            }
+        }
+
+        /** En az end byte'ı kapsayan map; gerekiyorsa dosyanın şimdiki boyutuyla yeniden map eder. */
+        MappedByteBuffer mapTo(long end) throws IOException {
+            MappedByteBuffer m = mapped;
+            if (m != null && m.capacity() >= end) {
+                return m;
+            }
+            mapLock.lock();
+            try {
+                m = mapped;
+                if (m == null || m.capacity() < end) {
+                    m = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                    mapped = m;
+                }
+                return m;
+            } finally {
+                mapLock.unlock();
+            }
+        }
+
+        void findByPlayer(long hash, byte[] name, int limit, List<GameRecord> out) {
+            int n = count;
+            long[] p = players;
+            for (int i = n - 1; i >= 0 && out.size() < limit; i--) {
+                if (p[2 * i] == hash || p[2 * i + 1] == hash) {
+                    GameRecord record = readAt(firstId + i, i, n);
+                    if (playedBy(record, name)) out.add(record);
+                }
+            }
+        }
+
+        void findByTime(long fromSec, long toSec, int limit, List<GameRecord> out) {
+            int n = count;
+            int[] t = times;
+            int i = lowerBound(t, n, fromSec);
+            for (; i < n && Integer.toUnsignedLong(t[i]) < toSec && out.size() < limit; i++) {
+                out.add(readAt(firstId + i, i, n));
+            }
+        }
+
+        private static int lowerBound(int[] times, int n, long sec) {
+            int lo = 0, hi = n;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (Integer.toUnsignedLong(times[mid]) < sec) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+
+    /** Kapanmış, değişmeyen segment: veri ve index read-only map edilir. */
+    private static final class SealedSegment {
+        final long firstId;
+        final int count;
+        final int pairCount;
+        final MappedByteBuffer data;
+        final MappedByteBuffer index;
+
+        private SealedSegment(long firstId, int count, int pairCount, MappedByteBuffer data, MappedByteBuffer index) {
+            this.firstId = firstId;
+            this.count = count;
+            this.pairCount = pairCount;
+            this.data = data;
+            this.index = index;
+        }
+
+        static SealedSegment open(Path dir, long firstId) throws IOException {
+            SealedSegment s = tryOpen(dir, firstId);
+            if (s == null) {
+                throw new IOException("Arşiv index'i bozuk: " + fileName(firstId, INDEX_SUFFIX));
+            }
+            return s;
+        }
+
+        /** Index bozuksa null (segment taranıp index'i yeniden yazılır). */
+        static SealedSegment tryOpen(Path dir, long firstId) throws IOException {
+            MappedByteBuffer index = map(dir.resolve(fileName(firstId, INDEX_SUFFIX)));
+            int size = index.capacity();
+            if (size < INDEX_HEADER_BYTES + 4 || index.getInt(0) != INDEX_MAGIC || index.getLong(4) != firstId) {
+                return null;
+            }
+            CRC32 crc = new CRC32();
+            crc.update(index.slice(0, size - 4));
+            int count = index.getInt(12);
+            int pairCount = index.getInt(16);
+            if ((int) crc.getValue() != index.getInt(size - 4)
+                    || size != INDEX_HEADER_BYTES + 8L * count + 8L * pairCount + 4) {
+                LOG.warn("Arşiv index'i bozuk, segment yeniden taranacak", "firstId", firstId);
+                return null;
+            }
+            return new SealedSegment(firstId, count, pairCount, map(dir.resolve(fileName(firstId, DATA_SUFFIX))), index);
+        }
+
+        private static MappedByteBuffer map(Path file) throws IOException {
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+                return ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            }
+        }
+
+        private int offset(int ordinal) {
+            return index.getInt(INDEX_HEADER_BYTES + 4 * ordinal);
+        }
+
+        private long time(int ordinal) {
+            return Integer.toUnsignedLong(index.getInt(INDEX_HEADER_BYTES + 4 * count + 4 * ordinal));
+        }
+
+        private long pair(int i) {
+            return index.getLong(INDEX_HEADER_BYTES + 8 * count + 8 * i);
+        }
+
+        GameRecord read(long gameId) {
+            long ordinal = gameId - firstId;
+            if (ordinal < 0 || ordinal >= count) {
+                return null;
+            }
+            return readAt(gameId, (int) ordinal);
+        }
+
+        private GameRecord readAt(long gameId, int ordinal) {
+            int end = (ordinal + 1 < count) ? offset(ordinal + 1) : data.capacity();
+            return decodeAt(gameId, data, offset(ordinal), end);
+        }
+
+        void findByPlayer(long hash, byte[] name, int limit, List<GameRecord> out) {
+            // hash'in aralığı [hash << 24, (hash + 1) << 24); sıralar artan, sondan geziyoruz
+            int end = lowerBound((hash + 1) << ORDINAL_BITS);
+            int start = lowerBound(hash << ORDINAL_BITS);
+            for (int i = end - 1; i >= start && out.size() < limit; i--) {
+                int ordinal = (int) (pair(i) & MAX_SEGMENT_GAMES);
+                GameRecord record = readAt(firstId + ordinal, ordinal);
+                if (playedBy(record, name)) out.add(record);
+            }
+        }
+
+        private int lowerBound(long key) {
+            int lo = 0, hi = pairCount;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (pair(mid) < key) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        void findByTime(long fromSec, long toSec, int limit, List<GameRecord> out) {
+            if (count == 0 || time(count - 1) < fromSec || time(0) >= toSec) {
+                return;
+            }
+            int lo = 0, hi = count;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (time(mid) < fromSec) lo = mid + 1;
+                else hi = mid;
+            }
+            for (int i = lo; i < count && time(i) < toSec && out.size() < limit; i++) {
+                out.add(readAt(firstId + i, i));
+            }
+        }
+    }
+}
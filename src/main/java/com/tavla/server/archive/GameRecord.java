@@ -0,0 +1,165 @@
+package com.tavla.server.archive;
+
+import com.tavla.core.GameRecorder;
+import com.tavla.core.Player;
+import com.tavla.core.PositionId;
+import com.tavla.core.TavlaGame;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Arşivdeki tek bir bitmiş oyun.
+ *
+ * Binary gövde (GameArchive her kaydın önüne varint uzunluk yazar):
+ *  varint startedAt  -> epoch saniye
+ *  varint süre       -> saniye
+ *  byte uzunluk + roomId (ASCII)
+ *  oyuncu(W), oyuncu(B) -> byte uzunluk (0 = yok) + UTF-8
+ *  byte bayraklar    -> bit 0..1 kazanan (0 yok, 1 WHITE, 2 BLACK), bit 2 pozisyondan başladı,
+ *                       bit 3 hükmen
+ *  [pozisyondan başladıysa: 10 byte position key, byte sıra << 6 | zar1 << 3 | zar2]
+ *  varint kayıt uzunluğu, kayıt (bkz. GameRecorder: zar, küp ya da taş hamlesi başına 1 byte)
+ *
+ * Oyuncusuz tipik bir oyun ~15 byte başlık + ~120 byte kayıttır.
+ */
+public final class GameRecord {
+
+    public final long gameId;        // arşivin verdiği sıra numarası; henüz yazılmadıysa 0
+    public final String roomId;
+    public final long endedAt;       // epoch ms (arşivden okunduysa saniye hassasiyetinde)
+    public final Player winner;      // oyun bitmeden kaydedildiyse null
+    public final boolean forfeit;    // süre aşımıyla bitti
+    public final GameRecorder moves; // değişmez kayıt; oyuncular ve başlangıç da burada
+
+    public GameRecord(long gameId, String roomId, long endedAt, Player winner, boolean forfeit,
+                      GameRecorder moves) {
+        this.gameId = gameId;
+        this.roomId = roomId;
+        this.endedAt = endedAt;
+        this.winner = winner;
+        this.forfeit = forfeit;
+        this.moves = moves;
+    }
+
+    /** Kaydı tutulan oyundan arşiv kaydı kurar. Oyunun kaydı yoksa IllegalArgumentException. */
+    public static GameRecord of(String roomId, TavlaGame game, long endedAt) {
+        GameRecorder recorder = game.getRecorder();
+        if (recorder == null) {
+            throw new IllegalArgumentException("Oyunun hamle kaydı yok: " + roomId);
+        }
+        GameRecorder frozen = recorder.freeze();
+        return new GameRecord(0, roomId, endedAt, game.getWinner(), frozen.isForfeit(), frozen);
+    }
+
+    GameRecord withId(long id) {
+        return new GameRecord(id, roomId, endedAt, winner, forfeit, moves);
+    }
+
+    public long getStartedAt() {
+        return moves.startedAt;
+    }
+
+    public String getWhitePlayer() {
+        return moves.whitePlayer;
+    }
+
+    public String getBlackPlayer() {
+        return moves.blackPlayer;
+    }
+
+    /** Oyunu kayıttan baştan oynatır; dönen oyun bitmiş son haldedir. */
+    public TavlaGame replay() {
+        return moves.replay();
+    }
+
+    // ---------------- binary ----------------
+
+    int encodedSize() {
+        long started = moves.startedAt / 1000;
+        return Varint.size(started) + Varint.size(duration(started))
+                + 1 + roomId.length()
+                + 1 + GameRecorder.utf8(moves.whitePlayer).length
+                + 1 + GameRecorder.utf8(moves.blackPlayer).length
+                + 1 + (moves.startPosition == null ? 0 : PositionId.KEY_BYTES + 1)
+                + Varint.size(moves.length()) + moves.length();
+    }
+
+    void encode(ByteBuffer out) {
+        long started = moves.startedAt / 1000;
+        Varint.put(out, started);
+        Varint.put(out, duration(started));
+        byte[] id = roomId.getBytes(StandardCharsets.US_ASCII);
+        out.put((byte) id.length).put(id);
+        putName(out, moves.whitePlayer);
+        putName(out, moves.blackPlayer);
+
+        int flags = winner == null ? 0 : winner.ordinal() + 1;
+        if (moves.startPosition != null) flags |= 1 << 2;
+        if (forfeit) flags |= 1 << 3;
+        out.put((byte) flags);
+        if (moves.startPosition != null) {
+            moves.startPosition.writeTo(out);
+            out.put((byte) (moves.startPlayer.ordinal() << 6 | moves.startDie1 << 3 | moves.startDie2));
+        }
+        Varint.put(out, moves.length());
+        moves.copyLog(out);
+    }
+
+    static GameRecord decode(long gameId, ByteBuffer in) {
+        long started = Varint.get(in);
+        long ended = started + Varint.get(in);
+        byte[] id = new byte[in.get() & 0xff];
+        in.get(id);
+        String white = getName(in);
+        String black = getName(in);
+
+        int flags = in.get() & 0xff;
+        Player winner = (flags & 3) == 0 ? null : Player.values()[(flags & 3) - 1];
+        PositionId.Key start = null;
+        Player startPlayer = Player.WHITE;
+        int die1 = 0, die2 = 0;
+        if ((flags & 1 << 2) != 0) {
+            start = PositionId.Key.read(in);
+            int packed = in.get() & 0xff;
+            startPlayer = Player.values()[packed >>> 6];
+            die1 = packed >>> 3 & 7;
+            die2 = packed & 7;
+        }
+        byte[] log = new byte[(int) Varint.get(in)];
+        in.get(log);
+
+        GameRecorder moves = GameRecorder.of(started * 1000, white, black, start, startPlayer, die1, die2, log);
+        return new GameRecord(gameId, new String(id, StandardCharsets.US_ASCII), ended * 1000, winner,
+                (flags & 1 << 3) != 0, moves);
+    }
+
+    private long duration(long startedSec) {
+        return Math.max(0, endedAt / 1000 - startedSec);
+    }
+
+    private static void putName(ByteBuffer out, String name) {
+        byte[] bytes = GameRecorder.utf8(name);
+        out.put((byte) bytes.length).put(bytes);
+    }
+
+    private static String getName(ByteBuffer in) {
+        int len = in.get() & 0xff;
+        if (len == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[len];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return "GameRecord{" +
+                "gameId=" + gameId +
+                ", roomId=" + roomId +
+                ", winner=" + winner +
+                ", moves=" + moves.length() +
+                '}';
+    }
+}
@@ -0,0 +1,96 @@
+package com.tavla.server.archive;
+
+import com.tavla.core.GameRecorder;
+import com.tavla.core.GameSnapshot;
+import com.tavla.core.GameState;
+import com.tavla.core.GameStateCodec;
+import com.tavla.core.TavlaGame;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+
+/**
+ * Arşivdeki bir oyunun izlenmeye hazır hali: adım adım state'ler.
+ *
+ * Adım 0 başlangıç pozisyonu, adım i kaydın i. kodu (zar ya da taş hamlesi) uygulandıktan
+ * sonraki haldir; toplam getStepCount() adım vardır. Oyun bir kez baştan oynatılır ve her
+ * KEYFRAME_INTERVAL adımda bir state GameStateCodec haliyle (33 byte) saklanır; herhangi bir
+ * adıma atlamak en yakın önceki keyframe'den en fazla KEYFRAME_INTERVAL - 1 kod oynatmaktır.
+ *
+ * Değişmezdir; render edilmiş kareler (ör: JSON) ilk isteyende üretilip saklanır, aynı oyunu
+ * izleyen herkes aynı kareyi kullanır.
+ */
+public final class GameReplay {
+
+    public static final int KEYFRAME_INTERVAL = 16;
+
+    public final GameRecord record;
+
+    private final byte[] keyframes;
+    private final AtomicReferenceArray<String> rendered;
+
+    private GameReplay(GameRecord record, byte[] keyframes) {
+        this.record = record;
+        this.keyframes = keyframes;
+        this.rendered = new AtomicReferenceArray<>(getStepCount());
+    }
+
+    /** Kaydı baştan oynatıp keyframe'leri çıkarır. Kayıt oyuna uymuyorsa IllegalStateException. */
+    public static GameReplay build(GameRecord record) {
+        GameRecorder moves = record.moves;
+        int steps = moves.length() + 1;
+        ByteBuffer frames = ByteBuffer.allocate(((steps - 1) / KEYFRAME_INTERVAL + 1) * GameStateCodec.ENCODED_BYTES);
+
+        TavlaGame game = moves.newGame();
+        game.passIfBlocked();
+        for (int step = 0; step < steps; step++) {
+            if (step % KEYFRAME_INTERVAL == 0) {
+                GameStateCodec.encode(game.getInternalState(), frames);
+            }
+            if (step < moves.length()) {
+                GameRecorder.apply(game, moves.codeAt(step));
+            }
+        }
+        return new GameReplay(record, frames.array());
+    }
+
+    public int getStepCount() {
+        return record.moves.length() + 1;
+    }
+
+    /** step adımındaki state'in kopyası. */
+    public GameSnapshot snapshotAt(int step) {
+        return GameSnapshot.of(stateAt(step));
+    }
+
+    /** step adımındaki state; üzerinde değişiklik yapılabilir (kopyadır). */
+    public GameState stateAt(int step) {
+        if (step < 0 || step >= getStepCount()) {
+            throw new IndexOutOfBoundsException("Adım " + step + " / " + getStepCount());
+        }
+        int keyframe = step / KEYFRAME_INTERVAL;
+        GameState state = GameStateCodec.decode(
+                ByteBuffer.wrap(keyframes, keyframe * GameStateCodec.ENCODED_BYTES, GameStateCodec.ENCODED_BYTES));
+        TavlaGame game = new TavlaGame(state);
+        for (int i = keyframe * KEYFRAME_INTERVAL; i < step; i++) {
+            GameRecorder.apply(game, record.moves.codeAt(i));
+        }
+        return state;
+    }
+
+    /**
+     * step adımının render edilmiş hali; ilk çağrıda render ile üretilir, sonrakiler aynı nesneyi alır.
+     * Aynı anda iki çağıran ikisi de render edebilir, saklanan ilkidir.
+     */
+    public String frame(int step, Function<GameSnapshot, String> render) {
+        String frame = rendered.get(step);
+        if (frame == null) {
+            frame = render.apply(snapshotAt(step));
+            if (!rendered.compareAndSet(step, null, frame)) {
+                frame = rendered.get(step);
+            }
+        }
+        return frame;
+    }
+}
@@ -0,0 +1,82 @@
+package com.tavla.server.archive;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Arşivdeki oyunları izlemeye hazır (GameReplay) halde sunar ve son kullanılanları önbellekte tutar.
+ *
+ * Popüler bir oyunu aynı anda izleyen herkes aynı GameReplay'i (ve onun render edilmiş karelerini)
+ * kullanır; kayıt arşivden bir kez okunup bir kez oynatılır. Önbellek en son kullanılan
+ * capacity oyunu tutar (LRU). Kaçırılan bir oyun kilit dışında kurulur; aynı anda iki kez
+ * kurulursa önbelleğe giren ilkidir.
+ */
+public class ReplayService {
+
+    public static final int DEFAULT_CAPACITY = 128;
+
+    private final GameArchive archive;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Long, GameReplay> cache;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public ReplayService(GameArchive archive, int capacity) {
+        this.archive = archive;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, GameReplay> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /** gameId'li oyunun replay'i; arşivde yoksa null. Her thread'den çağrılabilir. */
+    public GameReplay get(long gameId) {
+        lock.lock();
+        try {
+            GameReplay cached = cache.get(gameId);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        misses.incrementAndGet();
+        GameRecord record = archive.get(gameId);
+        if (record == null) {
+            return null;
+        }
+        GameReplay built = GameReplay.build(record);
+
+        lock.lock();
+        try {
+            GameReplay existing = cache.putIfAbsent(gameId, built);
+            return existing != null ? existing : built;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getCachedCount() {
+        lock.lock();
+        try {
+            return cache.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+}
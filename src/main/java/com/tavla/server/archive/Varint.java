@@ -0,0 +1,43 @@
+package com.tavla.server.archive;
+
+import java.nio.ByteBuffer;
+
+/**
+ * İşaretsiz LEB128 varint: her byte'ın alt 7 biti değer, üst biti "devamı var".
+ * 0..127 tek byte, 128..16383 iki byte tutar.
+ */
+final class Varint {
+
+    static final int MAX_BYTES = 10;
+
+    private Varint() {}
+
+    static void put(ByteBuffer out, long value) {
+        while ((value & ~0x7fL) != 0) {
+            out.put((byte) ((value & 0x7f) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static long get(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint çok uzun");
+    }
+
+    static int size(long value) {
+        int size = 1;
+        while ((value & ~0x7fL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+}
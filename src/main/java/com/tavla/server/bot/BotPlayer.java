@@ -0,0 +1,205 @@
+package com.tavla.server.bot;
+
+import com.tavla.core.GameLogic;
+import com.tavla.core.GameState;
+import com.tavla.core.MatchScore;
+import com.tavla.core.Move;
+import com.tavla.core.Player;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Zar atılmış bir pozisyonda oynanacak hamle dizisini seçen bot.
+ *
+ * Önce açılış kitabına bakılır (varsa): kitapta olan pozisyon/zar için arama yapılmaz, kitabın
+ * rollout ile bulduğu hamle döner. Kitapta yoksa tüm tam hamle dizileri (GameLogic.legalPlays)
+ * oynanıp sonuç pozisyonları PositionEvaluator ile puanlanır (1-ply) ve en iyisi seçilir.
+ *
+ * Küp kararları (cubeAdvice) pozisyonun küpsüz kazanma olasılığını değerlendiriciden alır ve
+ * skora göre MatchEquity'nin önceden hesaplanmış tablolarından okur; arama yapılmaz.
+ *
+ * Durumsuzdur (sayaçlar hariç); aynı örnek birden çok thread'den kullanılabilir.
+ */
+public class BotPlayer {
+
+    /** Seçilen hamle dizisi ve oynayan oyuncu için tahmini equity. */
+    public static final class Choice {
+        public final List<Move> moves;   // boş olamaz
+        public final double equity;
+        public final boolean fromBook;
+
+        public Choice(List<Move> moves, double equity, boolean fromBook) {
+            this.moves = moves;
+            this.equity = equity;
+            this.fromBook = fromBook;
+        }
+
+        @Override
+        public String toString() {
+            return moves + " equity=" + String.format("%.3f", equity) + (fromBook ? " (kitap)" : "");
+        }
+    }
+
+    // Küp kararları
+    public static final String DOUBLE = "double";
+    public static final String NO_DOUBLE = "no_double";
+    public static final String TAKE = "take";
+    public static final String DROP = "drop";
+
+    /** Karar sırası gelen oyuncu için küp kararı ve küplü equity'si. */
+    public static final class CubeAdvice {
+        public final Player player;
+        public final String action;        // küp çevrilemiyorsa null
+        public final double equity;        // player için küpsüz (-1..1)
+        public final double cubefulEquity; // player için: maçta MWC, para oyununda puan
+
+        CubeAdvice(Player player, String action, double equity, double cubefulEquity) {
+            this.player = player;
+            this.action = action;
+            this.equity = equity;
+            this.cubefulEquity = cubefulEquity;
+        }
+
+        @Override
+        public String toString() {
+            return player + " " + action + String.format(" equity=%.3f küplü=%.4f", equity, cubefulEquity);
+        }
+    }
+
+    private final GameLogic logic = new GameLogic();
+    private final OpeningBook book; // null olabilir
+
+    private final AtomicLong bookHits = new AtomicLong();
+    private final AtomicLong searches = new AtomicLong();
+
+    public BotPlayer(OpeningBook book) {
+        this.book = book;
+    }
+
+    /**
+     * Sıradaki oyuncu için hamle seçer; state değişmez.
+     * Oyun bittiyse, zar atılmadıysa ya da oynanabilecek hamle yoksa null.
+     */
+    public Choice choose(GameState state) {
+        Choice choice = fromBook(state);
+        if (choice != null) {
+            return choice;
+        }
+        searches.incrementAndGet();
+        return search(logic, state);
+    }
+
+    /** Sadece kitaba bakar (ikili arama, hamle üretmez); kitapta yoksa null. */
+    public Choice fromBook(GameState state) {
+        if (book == null) {
+            return null;
+        }
+        OpeningBook.Entry entry = book.lookup(state);
+        if (entry == null) {
+            return null;
+        }
+        List<Move> moves = entry.toMoves(logic, state.getCurrentPlayer());
+        // Kitap başka kurallarla kurulmuş olabilir; geçmeyen kayıt aramaya düşer
+        if (logic.validatePlay(state, moves) != null) {
+            return null;
+        }
+        bookHits.incrementAndGet();
+        return new Choice(moves, entry.equity, true);
+    }
+
+    /**
+     * Zar atılmadan önceki küp kararı: küp teklif edilmediyse sıradaki oyuncu için çevirmeli mi,
+     * edildiyse rakip için kabul mü ret mi. Oyun bittiyse ya da zar atıldıysa null.
+     */
+    public CubeAdvice cubeAdvice(GameState state, MatchScore score) {
+        if (state.isGameOver() || state.getDice().isRolled()) {
+            return null;
+        }
+        Player doubler = state.getCurrentPlayer();
+        double equity = PositionEvaluator.evaluate(state, doubler);
+        double p = winningChance(equity);
+        MatchEquity.CubeDecision decision = MatchEquity.decide(score, state, p);
+
+        if (state.isCubeOffered()) {
+            // Teklif varken küp hâlâ teklif öncesi halinde; karar doubler açısından hesaplanır
+            Player taker = doubler.opponent();
+            double doublerValue = decision == null
+                    ? MatchEquity.cubefulEquity(score, state, doubler, p)
+                    : Math.min(decision.doubleTake, decision.doublePass);
+            String action = decision == null || decision.shouldTake ? TAKE : DROP;
+            return new CubeAdvice(taker, action, -equity, opponentValue(score, doublerValue));
+        }
+        if (decision == null) {
+            return new CubeAdvice(doubler, null, equity, MatchEquity.cubefulEquity(score, state, doubler, p));
+        }
+        return decision.shouldDouble
+                ? new CubeAdvice(doubler, DOUBLE, equity, Math.min(decision.doubleTake, decision.doublePass))
+                : new CubeAdvice(doubler, NO_DOUBLE, equity, decision.noDouble);
+    }
+
+    /** Hamle seçildikten sonra (sıra rakibe geçmiş) mover için küplü equity. */
+    public static double cubefulEquity(GameState state, MatchScore score, Player mover, double equity) {
+        return MatchEquity.cubefulEquity(score, state, mover, winningChance(equity));
+    }
+
+    /** Değerlendiricinin equity'sinden (-1..1) küpsüz kazanma olasılığı. */
+    public static double winningChance(double equity) {
+        return (equity + 1) / 2;
+    }
+
+    // Aynı değerin rakip açısından hali: maçta 1 - x, para oyununda -x
+    private static double opponentValue(MatchScore score, double value) {
+        return score.isMatch() ? 1 - value : -value;
+    }
+
+    /** Kitap yoksa null. */
+    public OpeningBook getBook() {
+        return book;
+    }
+
+    public long getBookHits() {
+        return bookHits.get();
+    }
+
+    public long getSearches() {
+        return searches.get();
+    }
+
+    /** Kitaba bakmadan 1-ply arama; rollout'lar her hamlede bunu kullanır. */
+    static Choice search(GameLogic logic, GameState state) {
+        return search(logic, state, PositionEvaluator::evaluate);
+    }
+
+    /** evaluator ile 1-ply arama (turnuvada değerlendirici sürümlerini karşılaştırmak için). */
+    static Choice search(GameLogic logic, GameState state, BotStrategy.Evaluator evaluator) {
+        Player mover = state.getCurrentPlayer();
+        List<Move> best = null;
+        double bestEquity = Double.NEGATIVE_INFINITY;
+        for (List<Move> play : logic.legalPlays(state)) {
+            double equity = evaluator.evaluate(afterPlay(logic, state, play), mover);
+            if (equity > bestEquity) {
+                bestEquity = equity;
+                best = play;
+            }
+        }
+        return best == null ? null : new Choice(best, bestEquity, false);
+    }
+
+    /**
+     * Hamle dizisi oynandıktan sonraki pozisyonun kopyası. Zarın bir kısmı oynanamadıysa tur
+     * TavlaGame.passIfBlocked'daki gibi rakibe geçirilir; yani dönen state'te sıra hep rakiptedir
+     * (oyun bitmediyse).
+     */
+    public static GameState afterPlay(GameLogic logic, GameState state, List<Move> play) {
+        GameState next = state.copy();
+        for (Move move : play) {
+            logic.applyMove(next, move);
+        }
+        if (!next.isGameOver() && next.getDice().isRolled()) {
+            next.getDice().clearSteps();
+            next.switchTurn();
+        }
+        return next;
+    }
+}
@@ -0,0 +1,127 @@
+package com.tavla.server.bot;
+
+import com.tavla.core.GameLogic;
+import com.tavla.core.GameState;
+import com.tavla.core.MatchScore;
+import com.tavla.core.Move;
+import com.tavla.core.Player;
+
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.function.Supplier;
+
+/**
+ * Turnuvada kullanılabilen hazır stratejiler. Adla seçilebilenler (byName):
+ *  random    - geçerli tam hamle dizilerinden rastgele biri
+ *  pip       - 1-ply, sadece pip farkına bakan değerlendirici
+ *  eval      - 1-ply, PositionEvaluator (BotPlayer'ın arama kısmı); küp çevirmez
+ *  eval-cube - eval + MatchEquity tablolarıyla küp kararları (BotPlayer.cubeAdvice ile aynı)
+ *
+ * Yeni bir değerlendirici sürümünü denemek için greedy(ad, değerlendirici) yeterlidir.
+ */
+public final class BotStrategies {
+
+    private static final Map<String, Supplier<BotStrategy>> BY_NAME = Map.of(
+            "random", BotStrategies::random,
+            "pip", () -> greedy("pip", BotStrategies::pipCount),
+            "eval", () -> greedy("eval", PositionEvaluator::evaluate),
+            "eval-cube", () -> withCube("eval-cube", PositionEvaluator::evaluate));
+
+    private BotStrategies() {}
+
+    /** Adla strateji; bilinmeyen adda IllegalArgumentException. */
+    public static BotStrategy byName(String name) {
+        Supplier<BotStrategy> factory = BY_NAME.get(name);
+        if (factory == null) {
+            throw new IllegalArgumentException("Bilinmeyen strateji: " + name + " (" + BY_NAME.keySet() + ")");
+        }
+        return factory.get();
+    }
+
+    public static BotStrategy random() {
+        return new BotStrategy() {
+            @Override
+            public String name() {
+                return "random";
+            }
+
+            @Override
+            public List<Move> choosePlay(GameLogic logic, GameState state, SplittableRandom random) {
+                List<List<Move>> plays = logic.legalPlays(state);
+                return plays.get(random.nextInt(plays.size()));
+            }
+        };
+    }
+
+    /** evaluator ile 1-ply arama; küp çevirmez, her teklifi kabul eder. */
+    public static BotStrategy greedy(String name, BotStrategy.Evaluator evaluator) {
+        return new BotStrategy() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public List<Move> choosePlay(GameLogic logic, GameState state, SplittableRandom random) {
+                return BotPlayer.search(logic, state, evaluator).moves;
+            }
+        };
+    }
+
+    /**
+     * greedy + küp: kazanma olasılığı evaluator'ın equity'sinden çıkarılır ve çevirme/kabul
+     * kararı MatchEquity.decide ile tablodan okunur.
+     */
+    public static BotStrategy withCube(String name, BotStrategy.Evaluator evaluator) {
+        BotStrategy base = greedy(name, evaluator);
+        return new BotStrategy() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public List<Move> choosePlay(GameLogic logic, GameState state, SplittableRandom random) {
+                return base.choosePlay(logic, state, random);
+            }
+
+            @Override
+            public boolean offerDouble(GameState state, MatchScore score) {
+                MatchEquity.CubeDecision decision = decide(state, score);
+                return decision != null && decision.shouldDouble;
+            }
+
+            @Override
+            public boolean acceptDouble(GameState state, MatchScore score) {
+                // Teklif varken küp teklif öncesi halinde; karar çevirenin açısından hesaplanır
+                MatchEquity.CubeDecision decision = decide(state, score);
+                return decision == null || decision.shouldTake;
+            }
+
+            private MatchEquity.CubeDecision decide(GameState state, MatchScore score) {
+                double equity = evaluator.evaluate(state, state.getCurrentPlayer());
+                return MatchEquity.decide(score, state, BotPlayer.winningChance(equity));
+            }
+        };
+    }
+
+    /** Sadece pip farkı (ve sıra) ile equity; değerlendirici karşılaştırmalarında taban çizgisi. */
+    static double pipCount(GameState state, Player player) {
+        if (state.isGameOver()) {
+            return state.getWinner() == player ? 1.0 : -1.0;
+        }
+        int lead = pips(state, player.opponent()) - pips(state, player)
+                + (state.getCurrentPlayer() == player ? 4 : -4);
+        return Math.tanh(lead / 30.0);
+    }
+
+    private static int pips(GameState state, Player player) {
+        int[] counts = PositionEvaluator.perspective(state.getBoard(), player);
+        int pips = 0;
+        for (int point = 1; point < counts.length; point++) {
+            pips += point * counts[point];
+        }
+        return pips;
+    }
+}
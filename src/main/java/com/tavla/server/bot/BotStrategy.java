@@ -0,0 +1,44 @@
+package com.tavla.server.bot;
+
+import com.tavla.core.GameLogic;
+import com.tavla.core.GameState;
+import com.tavla.core.MatchScore;
+import com.tavla.core.Move;
+import com.tavla.core.Player;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Turnuvada (bkz. com.tavla.server.tournament) oynayan bir bot stratejisi.
+ *
+ * Aynı örnek birçok thread'den aynı anda kullanılır; durum tutmamalıdır. Rastgelelik gerekiyorsa
+ * sadece verilen random kullanılır (oyunun zarlarıyla aynı kaynaktan gelir, sonuç tekrarlanabilir).
+ */
+public interface BotStrategy {
+
+    /** Pozisyonu player için -1..1 arasında puanlayan değerlendirici (ör: PositionEvaluator::evaluate). */
+    @FunctionalInterface
+    interface Evaluator {
+        double evaluate(GameState state, Player player);
+    }
+
+    /** Tablolarda görünen ad. */
+    String name();
+
+    /**
+     * Zar atılmış, en az bir hamlenin oynanabildiği pozisyonda oynanacak tam hamle dizisi.
+     * state değiştirilmemelidir.
+     */
+    List<Move> choosePlay(GameLogic logic, GameState state, SplittableRandom random);
+
+    /** Zar atmadan önce, küp çevrilebilirken: çevirsin mi? Varsayılan: hiç çevirmez. */
+    default boolean offerDouble(GameState state, MatchScore score) {
+        return false;
+    }
+
+    /** Rakip küpü çevirdi (state.isCubeOffered()): kabul etsin mi? Varsayılan: hep kabul. */
+    default boolean acceptDouble(GameState state, MatchScore score) {
+        return true;
+    }
+}
@@ -0,0 +1,360 @@
+package com.tavla.server.bot;
+
+import com.tavla.core.GameState;
+import com.tavla.core.MatchScore;
+import com.tavla.core.Player;
+
+import java.util.Arrays;
+
+/**
+ * Maç equity tablosu (MET) ve küplü (cubeful) equity.
+ *
+ * Sınıf yüklenirken MatchScore.MAX_LENGTH'e kadar bütün skorlar için önceden hesaplanır; sonrası
+ * sadece dizi okumasıdır. "Bu pozisyon bu skorda ne eder" sorusu (hint, bot) pozisyonun küpsüz
+ * kazanma olasılığı p verildiğinde sabit zamanda cevaplanır.
+ *
+ * Model:
+ * - Her oyunun kazananı GAMMON_RATE olasılıkla gammon alır (backgammon yok sayılır).
+ * - MET[a][b] (a puan kalan oyuncu, b puan kalan rakip; normal / Crawford / post-Crawford)
+ *   oyunun başında, küp ortadayken p = 0.5 için küplü equity'dir (hemen çevirmek doğru olan
+ *   taraf çevirmiş sayılır). Bir oyunun sonucu hep daha
+ *   küçük bir a + b'ye götürdüğü için tablo küçükten büyüğe (memo'lu özyineleme) dolar.
+ * - Küplü equity p'ye göre parçalı doğrusaldır: küpü canlı kabul eden (Janowski) kısım,
+ *   rakibin reddetme noktasına (nakit) kadar doğrusal artar; kalan kısım küpü ölü sayar.
+ *   İkisi CUBE_EFFICIENCY ile karıştırılır.
+ * - Nakit / kabul noktaları her (skor, küp değeri, küp sahibi) için bir kez çözülür: bir üst
+ *   küp değerinde rakibin kabul equity'si ile reddetme equity'sinin eşitlendiği p.
+ *
+ * Maç dışı (para oyunu) equity puan cinsindendir (küp değeri dahil); maçta maçı kazanma
+ * olasılığıdır (0..1). Aynı özyineleme ikisini de hesaplar.
+ */
+public final class MatchEquity {
+
+    /** Kazanılan oyunların gammon ile bitme oranı. */
+    public static final double GAMMON_RATE = 0.2;
+    /** Küpün canlı sayılan kısmı (Janowski x). */
+    public static final double CUBE_EFFICIENCY = 0.68;
+
+    private static final int N = MatchScore.MAX_LENGTH;
+    private static final int CUBE_LEVELS = 7; // 1..64
+
+    // küp sahibi, bakış açısındaki oyuncuya göre
+    private static final int CENTERED = 0;
+    private static final int OWN = 1;
+    private static final int OPPONENT = 2;
+
+    // maç durumu
+    private static final int NORMAL = 0;
+    private static final int CRAWFORD = 1;
+    private static final int POST_CRAWFORD = 2;
+
+    private static final int MONEY = 0;
+    private static final int STATES = 1 + 3 * (N + 1) * (N + 1);
+
+    private static final double[] MET = new double[STATES];
+    private static final double[] CASH = new double[STATES * CUBE_LEVELS * 3];  // bakılan oyuncu çevirir, rakip reddeder
+    private static final double[] DROP = new double[STATES * CUBE_LEVELS * 3];  // rakip çevirir, bakılan oyuncu reddeder
+
+    static {
+        Arrays.fill(MET, Double.NaN);
+        Arrays.fill(CASH, Double.NaN);
+        Arrays.fill(DROP, Double.NaN);
+        for (int total = 2; total <= 2 * N; total++) {
+            for (int a = 1; a <= N && a < total; a++) {
+                int b = total - a;
+                if (b > N) {
+                    continue;
+                }
+                for (int kind = NORMAL; kind <= POST_CRAWFORD; kind++) {
+                    if (valid(kind, a, b)) {
+                        fill(state(kind, a, b));
+                    }
+                }
+            }
+        }
+        fill(MONEY);
+    }
+
+    private MatchEquity() {}
+
+    /** Küp kararı; değerler küpü çevirecek oyuncunun (sıradaki oyuncu) bakış açısındandır. */
+    public static final class CubeDecision {
+        public final double noDouble;
+        public final double doubleTake;
+        public final double doublePass;
+        public final boolean shouldDouble;  // min(kabul, ret) > çevirmemek
+        public final boolean shouldTake;    // rakip için kabul, reddetmekten iyi
+
+        CubeDecision(double noDouble, double doubleTake, double doublePass) {
+            this.noDouble = noDouble;
+            this.doubleTake = doubleTake;
+            this.doublePass = doublePass;
+            this.shouldDouble = Math.min(doubleTake, doublePass) > noDouble;
+            this.shouldTake = doubleTake <= doublePass;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ND=%.4f DT=%.4f DP=%.4f %s, %s", noDouble, doubleTake, doublePass,
+                    shouldDouble ? "çevir" : "çevirme", shouldTake ? "kabul" : "ret");
+        }
+    }
+
+    /**
+     * score'da oyun başında (küp ortada) player'ın maçı kazanma olasılığı.
+     * Para oyununda 0.5, maç bittiyse 1 ya da 0.
+     */
+    public static double matchWinningChance(MatchScore score, Player player) {
+        if (!score.isMatch()) {
+            return 0.5;
+        }
+        if (score.isOver()) {
+            return score.getWinner() == player ? 1 : 0;
+        }
+        return MET[state(score, player)];
+    }
+
+    /**
+     * player oyunu küpsüz p olasılıkla kazanıyorsa, state'in küp durumunda player için küplü
+     * equity: maçta maçı kazanma olasılığı, para oyununda puan. Küp teklifi beklemede olsa da
+     * teklif öncesi küp durumuna göre hesaplanır.
+     */
+    public static double cubefulEquity(MatchScore score, GameState state, Player player, double p) {
+        if (score.isOver()) {
+            return score.getWinner() == player ? 1 : 0;
+        }
+        return equity(state(score, player), level(state), owner(state, player), clamp(p));
+    }
+
+    /**
+     * Sıradaki oyuncu oyunu küpsüz p olasılıkla kazanıyorsa küp kararı (çevirsin mi, rakip
+     * kabul etsin mi). Küp çevrilemiyorsa (Crawford, rakipte, en üst değerde) null.
+     */
+    public static CubeDecision decide(MatchScore score, GameState state, double p) {
+        Player player = state.getCurrentPlayer();
+        if (score.isOver() || state.isGameOver() || !score.isCubeAllowed()
+                || state.getCubeOwner() == player.opponent() || state.getCubeValue() >= GameState.MAX_CUBE) {
+            return null;
+        }
+        int s = state(score, player);
+        int level = level(state);
+        double q = clamp(p);
+        return new CubeDecision(equity(s, level, owner(state, player), q),
+                equity(s, level + 1, OPPONENT, q),
+                afterWin(s, 1 << level));
+    }
+
+    // ---------------- indeksler ----------------
+
+    private static int state(int kind, int a, int b) {
+        return 1 + (kind * (N + 1) + a) * (N + 1) + b;
+    }
+
+    private static int state(MatchScore score, Player player) {
+        if (!score.isMatch()) {
+            return MONEY;
+        }
+        int a = score.getAway(player);
+        int b = score.getAway(player.opponent());
+        int kind = score.crawford ? CRAWFORD : (a == 1 || b == 1 ? POST_CRAWFORD : NORMAL);
+        return state(kind, a, b);
+    }
+
+    private static boolean valid(int kind, int a, int b) {
+        return switch (kind) {
+            case NORMAL -> a > 1 && b > 1;
+            case CRAWFORD -> (a == 1) != (b == 1);
+            default -> a == 1 || b == 1;
+        };
+    }
+
+    private static int kind(int s) {
+        return (s - 1) / ((N + 1) * (N + 1));
+    }
+
+    private static int awayA(int s) {
+        return (s - 1) / (N + 1) % (N + 1);
+    }
+
+    private static int awayB(int s) {
+        return (s - 1) % (N + 1);
+    }
+
+    /** Aynı skorun rakibin bakış açısından hali. */
+    private static int mirror(int s) {
+        return s == MONEY ? MONEY : state(kind(s), awayB(s), awayA(s));
+    }
+
+    private static int slot(int s, int level, int owner) {
+        return (s * CUBE_LEVELS + level) * 3 + owner;
+    }
+
+    private static int level(GameState state) {
+        return 31 - Integer.numberOfLeadingZeros(state.getCubeValue());
+    }
+
+    private static int owner(GameState state, Player player) {
+        Player owner = state.getCubeOwner();
+        return owner == null ? CENTERED : (owner == player ? OWN : OPPONENT);
+    }
+
+    private static double clamp(double p) {
+        return Math.max(0, Math.min(1, p));
+    }
+
+    // ---------------- özyineleme ----------------
+
+    private static void fill(int s) {
+        met(s);
+        for (int level = 0; level < CUBE_LEVELS; level++) {
+            for (int owner = CENTERED; owner <= OPPONENT; owner++) {
+                cashPoint(s, level, owner);
+                dropPoint(s, level, owner);
+            }
+        }
+    }
+
+    private static double met(int s) {
+        if (Double.isNaN(MET[s])) {
+            MET[s] = s == MONEY ? 0 : initial(s);
+        }
+        return MET[s];
+    }
+
+    /**
+     * Oyun başındaki değer (p = 0.5). Bir taraf için hemen çevirmek doğruysa (ör: post-Crawford'da
+     * geride olan, kaybedecek bir şeyi olmadığı için ilk fırsatta çevirir) çevrilmiş hali alınır.
+     */
+    private static double initial(int s) {
+        double noDouble = equity(s, 0, CENTERED, 0.5);
+        if (canDouble(s, 0, CENTERED, true)) {
+            double doubled = Math.min(equity(s, 1, OPPONENT, 0.5), afterWin(s, 1));
+            if (doubled > noDouble) {
+                return doubled;
+            }
+        }
+        if (canDouble(s, 0, CENTERED, false)) {
+            int o = mirror(s);
+            double doubled = Math.min(equity(o, 1, OPPONENT, 0.5), afterWin(o, 1));
+            if (doubled > 1 - noDouble) {
+                return 1 - doubled;
+            }
+        }
+        return noDouble;
+    }
+
+    /** Bakılan oyuncu points puanlık oyun kazandıktan sonraki değer. */
+    private static double afterWin(int s, int points) {
+        if (s == MONEY) {
+            return points;
+        }
+        int a = awayA(s) - points;
+        int b = awayB(s);
+        if (a <= 0) {
+            return 1;
+        }
+        int kind = kind(s);
+        int next;
+        if (a == 1 || b == 1) {
+            next = kind == NORMAL ? CRAWFORD : POST_CRAWFORD;
+        } else {
+            next = NORMAL;
+        }
+        return met(state(next, a, b));
+    }
+
+    private static double afterLoss(int s, int points) {
+        return s == MONEY ? -points : 1 - afterWin(mirror(s), points);
+    }
+
+    /** Küp değeri cube iken oyunu kazanmanın ortalama değeri (gammon oranıyla). */
+    private static double winValue(int s, int cube) {
+        return (1 - GAMMON_RATE) * afterWin(s, cube) + GAMMON_RATE * afterWin(s, 2 * cube);
+    }
+
+    private static double lossValue(int s, int cube) {
+        return (1 - GAMMON_RATE) * afterLoss(s, cube) + GAMMON_RATE * afterLoss(s, 2 * cube);
+    }
+
+    private static boolean canDouble(int s, int level, int owner, boolean self) {
+        if (level + 1 >= CUBE_LEVELS || owner == (self ? OPPONENT : OWN)) {
+            return false;
+        }
+        if (s == MONEY) {
+            return true;
+        }
+        // Crawford oyununda küp yok; tek oyunla maçı zaten bitiren için küp ölüdür
+        return kind(s) != CRAWFORD && (self ? awayA(s) : awayB(s)) > (1 << level);
+    }
+
+    /** Bakılan oyuncunun çevirip rakibin reddettiği p; çeviremiyorsa 1. */
+    private static double cashPoint(int s, int level, int owner) {
+        int i = slot(s, level, owner);
+        if (Double.isNaN(CASH[i])) {
+            CASH[i] = canDouble(s, level, owner, true)
+                    ? solve(s, level + 1, OPPONENT, afterWin(s, 1 << level))
+                    : 1;
+        }
+        return CASH[i];
+    }
+
+    /** Rakibin çevirip bakılan oyuncunun reddettiği p; rakip çeviremiyorsa 0. */
+    private static double dropPoint(int s, int level, int owner) {
+        int i = slot(s, level, owner);
+        if (Double.isNaN(DROP[i])) {
+            DROP[i] = canDouble(s, level, owner, false)
+                    ? solve(s, level + 1, OWN, afterLoss(s, 1 << level))
+                    : 0;
+        }
+        return DROP[i];
+    }
+
+    /**
+     * Küp durumunda p için küplü equity: canlı ve ölü küp modellerinin karışımı. Canlı modelde
+     * nakit noktasının ötesinde rakip reddeder (tek oyun, küp değeri kadar); çeviremeyen taraf
+     * için uç değer oyunun sonudur (gammon oranıyla).
+     */
+    private static double equity(int s, int level, int owner, double p) {
+        int cube = 1 << level;
+        double win = winValue(s, cube);
+        double loss = lossValue(s, cube);
+        double dead = loss + (win - loss) * p;
+
+        double low = dropPoint(s, level, owner);
+        double high = cashPoint(s, level, owner);
+        double atLow = canDouble(s, level, owner, false) ? afterLoss(s, cube) : loss;
+        double atHigh = canDouble(s, level, owner, true) ? afterWin(s, cube) : win;
+        double live;
+        if (p <= low) {
+            live = atLow;
+        } else if (p >= high) {
+            live = atHigh;
+        } else {
+            live = atLow + (atHigh - atLow) * (p - low) / (high - low);
+        }
+        return CUBE_EFFICIENCY * live + (1 - CUBE_EFFICIENCY) * dead;
+    }
+
+    /**
+     * equity(s, level, owner, p) = target olan p. Fonksiyon p'de artan ve kırılma noktaları
+     * (ret ve nakit noktaları) arasında doğrusal olduğu için parça parça çözülür.
+     */
+    private static double solve(int s, int level, int owner, double target) {
+        double[] xs = {0, dropPoint(s, level, owner), cashPoint(s, level, owner), 1};
+        double x0 = xs[0];
+        double y0 = equity(s, level, owner, x0);
+        if (target <= y0) {
+            return 0;
+        }
+        for (int i = 1; i < xs.length; i++) {
+            double x1 = xs[i];
+            double y1 = equity(s, level, owner, x1);
+            if (target <= y1) {
+                return y1 == y0 ? x1 : x0 + (x1 - x0) * (target - y0) / (y1 - y0);
+            }
+            x0 = x1;
+            y0 = y1;
+        }
+        return 1;
+    }
+}
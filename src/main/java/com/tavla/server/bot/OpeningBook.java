@@ -0,0 +1,217 @@
+package com.tavla.server.bot;
+
+import com.tavla.core.GameLogic;
+import com.tavla.core.GameState;
+import com.tavla.core.Move;
+import com.tavla.core.Player;
+import com.tavla.core.PositionId;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Önceden hesaplanmış açılış kitabı: (pozisyon, zar) → en iyi hamle dizisi ve equity.
+ *
+ * Kitap OpeningBookBuilder ile çevrimdışı (rollout'larla) kurulur ve tek bir dosyaya sıralı,
+ * sabit boyutlu kayıtlar olarak yazılır. Sunucu dosyayı salt okunur map eder; arama, kayıtlar
+ * üzerinde ikili aramadır (heap'e bir şey yüklenmez, kitap büyüse de açılış anlık sürer).
+ * Map edilmiş buffer sadece mutlak konumlardan okunduğu için aramalar kilitsizdir.
+ *
+ * Dosya düzeni (big-endian):
+ *  int MAGIC ("TVB1"), int count, int plies, int trials
+ *  count × ENTRY_BYTES, (lo unsigned, hi, dice) sırasıyla:
+ *   long key.lo, short key.hi, byte dice, byte moveCount, 4 × byte hamle, float equity
+ *
+ * Anahtar sıradaki oyuncunun bakış açısından PositionId.Key'dir; WHITE ve BLACK aynı dizilimde
+ * aynı kaydı kullanır. Zar (büyük-1)*6 + (küçük-1) olarak saklanır. Hamleler de bakış açısına
+ * göredir: from noktası (0..23, bar 24) * 6 + (adım - 1), GameRecorder'daki gibi.
+ */
+public final class OpeningBook {
+
+    static final int MAGIC = 0x54564231; // "TVB1"
+    static final int HEADER_BYTES = 16;
+    static final int ENTRY_BYTES = 20;
+
+    private static final int MAX_MOVES = 4;
+    private static final int BAR_CODE = 24;
+
+    private final ByteBuffer entries;
+    private final int count;
+    public final int plies;
+    public final int trials;
+
+    private OpeningBook(ByteBuffer entries, int count, int plies, int trials) {
+        this.entries = entries;
+        this.count = count;
+        this.plies = plies;
+        this.trials = trials;
+    }
+
+    /** Kitapta bir (pozisyon, zar) kaydı. */
+    public static final class Entry {
+        public final PositionId.Key key;
+        public final int highDie;
+        public final int lowDie;
+        public final float equity;
+        private final byte[] codes;
+
+        Entry(PositionId.Key key, int highDie, int lowDie, byte[] codes, float equity) {
+            this.key = key;
+            this.highDie = highDie;
+            this.lowDie = lowDie;
+            this.codes = codes;
+            this.equity = equity;
+        }
+
+        /** mover'ın oynadığı hamle dizisinden kayıt. */
+        public static Entry of(PositionId.Key key, int die1, int die2, List<Move> moves, Player mover,
+                               double equity) {
+            if (moves.isEmpty() || moves.size() > MAX_MOVES) {
+                throw new IllegalArgumentException("Hamle sayısı 1-4 olmalı: " + moves);
+            }
+            byte[] codes = new byte[moves.size()];
+            for (int i = 0; i < codes.length; i++) {
+                Move move = moves.get(i);
+                int from = move.getFromIndex();
+                int point = from == Move.BAR_INDEX ? BAR_CODE : (mover == Player.WHITE ? from : 23 - from);
+                codes[i] = (byte) (point * 6 + move.getStep() - 1);
+            }
+            return new Entry(key, Math.max(die1, die2), Math.min(die1, die2), codes, (float) equity);
+        }
+
+        /** Hamleleri player'ın tahtadaki index'lerine çevirir. */
+        public List<Move> toMoves(GameLogic logic, Player player) {
+            List<Move> moves = new ArrayList<>(codes.length);
+            for (byte code : codes) {
+                int point = (code & 0xff) / 6;
+                int step = (code & 0xff) % 6 + 1;
+                int from = point == BAR_CODE ? Move.BAR_INDEX : (player == Player.WHITE ? point : 23 - point);
+                moves.add(new Move(from, logic.targetIndex(player, from, step), step));
+            }
+            return moves;
+        }
+
+        int dice() {
+            return (highDie - 1) * 6 + (lowDie - 1);
+        }
+
+        @Override
+        public String toString() {
+            return key + " " + highDie + "-" + lowDie + " " + codes.length + " hamle equity=" + equity;
+        }
+    }
+
+    /** Kitap dosyasını salt okunur map eder. Bozuksa IllegalStateException. */
+    public static OpeningBook open(Path file) {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            if (map.capacity() < HEADER_BYTES || map.getInt(0) != MAGIC) {
+                throw new IllegalStateException("Açılış kitabı değil: " + file);
+            }
+            int count = map.getInt(4);
+            if (count < 0 || map.capacity() != HEADER_BYTES + (long) count * ENTRY_BYTES) {
+                throw new IllegalStateException("Açılış kitabı bozuk: " + file);
+            }
+            ByteBuffer entries = map.slice(HEADER_BYTES, count * ENTRY_BYTES);
+            return new OpeningBook(entries, count, map.getInt(8), map.getInt(12));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Açılış kitabı açılamadı: " + file, e);
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Sıradaki oyuncunun bu zarla kitaptaki kaydı. Zar atılmamışsa ya da turun bir kısmı
+     * oynandıysa (kitap sadece turun başındaki pozisyonları tutar) ya da kayıt yoksa null.
+     */
+    public Entry lookup(GameState state) {
+        if (state.isGameOver() || !state.getDice().isRolled()) {
+            return null;
+        }
+        int die1 = state.getDice().getDie1();
+        int die2 = state.getDice().getDie2();
+        if (state.getDice().getRemainingSteps().size() != (die1 == die2 ? 4 : 2)) {
+            return null;
+        }
+        return lookup(PositionId.key(state), die1, die2);
+    }
+
+    public Entry lookup(PositionId.Key key, int die1, int die2) {
+        int dice = (Math.max(die1, die2) - 1) * 6 + (Math.min(die1, die2) - 1);
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int at = mid * ENTRY_BYTES;
+            int cmp = Long.compareUnsigned(entries.getLong(at), key.lo);
+            if (cmp == 0) {
+                cmp = Integer.compare(entries.getShort(at + 8) & 0xffff, key.hi);
+            }
+            if (cmp == 0) {
+                cmp = Integer.compare(entries.get(at + 10), dice);
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return read(at, key);
+            }
+        }
+        return null;
+    }
+
+    private Entry read(int at, PositionId.Key key) {
+        int dice = entries.get(at + 10);
+        byte[] codes = new byte[entries.get(at + 11)];
+        entries.get(at + 12, codes);
+        return new Entry(key, dice / 6 + 1, dice % 6 + 1, codes, entries.getFloat(at + 16));
+    }
+
+    /**
+     * Kayıtları sıralayıp dosyaya yazar (geçici dosya + atomik taşıma; açık kitaplar eski
+     * dosyayı map etmeye devam eder). Aynı (pozisyon, zar) iki kez verilmemelidir.
+     */
+    public static void write(Path file, Collection<Entry> entries, int plies, int trials) {
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.<Entry, Long>comparing(e -> e.key.lo, Long::compareUnsigned)
+                .thenComparingInt(e -> e.key.hi)
+                .thenComparingInt(Entry::dice));
+        ByteBuffer buf = ByteBuffer.allocate(HEADER_BYTES + sorted.size() * ENTRY_BYTES);
+        buf.putInt(MAGIC).putInt(sorted.size()).putInt(plies).putInt(trials);
+        for (Entry e : sorted) {
+            buf.putLong(e.key.lo).putShort((short) e.key.hi).put((byte) e.dice()).put((byte) e.codes.length);
+            buf.put(e.codes).put(new byte[MAX_MOVES - e.codes.length]);
+            buf.putFloat(e.equity);
+        }
+        buf.flip();
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                while (buf.hasRemaining()) {
+                    ch.write(buf);
+                }
+                ch.force(true);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Açılış kitabı yazılamadı: " + file, e);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.tavla.server.bot;
+
+import com.tavla.core.GameLogic;
+import com.tavla.core.GameState;
+import com.tavla.core.Move;
+import com.tavla.core.Player;
+import com.tavla.core.PositionId;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Açılış kitabını çevrimdışı kurar.
+ *
+ * Başlangıç pozisyonundan itibaren plies tur boyunca her pozisyon ve 21 zarın her biri için:
+ * - tüm tam hamle dizileri 1-ply değerlendirmeyle sıralanır, en iyi candidates tanesi kalır
+ * - kalanların her biri aynı zar dizileriyle (ortak seed) trials kez rollout edilir
+ * - rollout equity'si en yüksek dizi kitaba yazılır
+ * - sonraki tura, rollout'ta en iyi width dizinin vardığı pozisyonlar geçer (rakip sırada)
+ *
+ * Böylece kitap, botun kendi oynadığı açılışların yanında yakın alternatiflerini de kapsar.
+ * Varsayılanlarla (2 tur, genişlik 3) kitapta ~1300 kayıt olur; her kayıt candidates × trials
+ * rollout'tur ve pozisyonlar çekirdek sayısı kadar thread'e dağıtılır.
+ *
+ * Kullanım:
+ *   java ... OpeningBookBuilder <kitap dosyası> [tur] [trials] [genişlik]
+ *   -Dtavla.book.candidates (6), -Dtavla.book.horizon (kesilmiş rollout turu, 0 = oyun sonu; 24)
+ */
+public class OpeningBookBuilder {
+
+    public static final int DEFAULT_PLIES = 2;
+    public static final int DEFAULT_TRIALS = 72;
+    public static final int DEFAULT_WIDTH = 3;
+
+    private final int plies;
+    private final int trials;
+    private final int width;
+    private final int candidates;
+    private final int horizon;
+    private final int threads;
+
+    public OpeningBookBuilder(int plies, int trials, int width, int candidates, int horizon, int threads) {
+        if (plies < 1 || trials < 1 || width < 1 || candidates < 1 || horizon < 0 || threads < 1) {
+            throw new IllegalArgumentException("Geçersiz kitap parametreleri");
+        }
+        this.plies = plies;
+        this.trials = trials;
+        this.width = width;
+        this.candidates = candidates;
+        this.horizon = horizon;
+        this.threads = threads;
+    }
+
+    /** Bir pozisyon ve zar için kitap kaydı ve sonraki tura geçecek pozisyonlar. */
+    private static final class Analysis {
+        final OpeningBook.Entry entry;
+        final List<GameState> next;
+
+        Analysis(OpeningBook.Entry entry, List<GameState> next) {
+            this.entry = entry;
+            this.next = next;
+        }
+    }
+
+    /** Kitabın kayıtlarını hesaplar (sırasız). */
+    public List<OpeningBook.Entry> build() throws InterruptedException {
+        List<OpeningBook.Entry> entries = new ArrayList<>();
+        List<GameState> frontier = List.of(new GameState());
+        Set<PositionId.Key> seen = new HashSet<>();
+        seen.add(PositionId.key(frontier.get(0)));
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            for (int ply = 0; ply < plies && !frontier.isEmpty(); ply++) {
+                List<Future<Analysis>> futures = new ArrayList<>();
+                for (GameState position : frontier) {
+                    for (int high = 1; high <= 6; high++) {
+                        for (int low = 1; low <= high; low++) {
+                            int die1 = high;
+                            int die2 = low;
+                            futures.add(pool.submit(() -> analyse(position, die1, die2)));
+                        }
+                    }
+                }
+
+                List<GameState> next = new ArrayList<>();
+                for (Future<Analysis> future : futures) {
+                    Analysis analysis = future.get();
+                    if (analysis == null) {
+                        continue;
+                    }
+                    entries.add(analysis.entry);
+                    for (GameState state : analysis.next) {
+                        if (seen.add(PositionId.key(state))) {
+                            next.add(state);
+                        }
+                    }
+                }
+                frontier = next;
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Kitap kaydı hesaplanamadı", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return entries;
+    }
+
+    /** Hamle yoksa (ör: bar'dan giriş kapalı) null. */
+    private Analysis analyse(GameState position, int die1, int die2) {
+        GameLogic logic = new GameLogic();
+        GameState state = position.copy();
+        state.getDice().roll(die1, die2);
+        Player mover = state.getCurrentPlayer();
+
+        List<List<Move>> plays = logic.legalPlays(state);
+        if (plays.isEmpty()) {
+            return null;
+        }
+
+        // 1-ply ön eleme
+        List<Scored> scored = new ArrayList<>(plays.size());
+        for (List<Move> play : plays) {
+            GameState after = BotPlayer.afterPlay(logic, state, play);
+            scored.add(new Scored(play, after, PositionEvaluator.evaluate(after, mover)));
+        }
+        scored.sort(Comparator.comparingDouble((Scored s) -> s.equity).reversed());
+        List<Scored> shortlist = new ArrayList<>(scored.subList(0, Math.min(candidates, scored.size())));
+
+        // Aynı seed: adaylar aynı zar dizileriyle karşılaştırılır
+        long seed = PositionId.key(state).hashCode() * 31L + die1 * 7L + die2;
+        for (Scored s : shortlist) {
+            s.equity = Rollout.run(s.after, mover, trials, horizon, seed);
+        }
+        shortlist.sort(Comparator.comparingDouble((Scored s) -> s.equity).reversed());
+
+        Scored best = shortlist.get(0);
+        OpeningBook.Entry entry = OpeningBook.Entry.of(PositionId.key(state), die1, die2, best.play, mover,
+                best.equity);
+        List<GameState> next = new ArrayList<>();
+        for (Scored s : shortlist.subList(0, Math.min(width, shortlist.size()))) {
+            if (!s.after.isGameOver()) {
+                next.add(s.after);
+            }
+        }
+        return new Analysis(entry, next);
+    }
+
+    private static final class Scored {
+        final List<Move> play;
+        final GameState after;
+        double equity;
+
+        Scored(List<Move> play, GameState after, double equity) {
+            this.play = play;
+            this.after = after;
+            this.equity = equity;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Kullanım: OpeningBookBuilder <kitap dosyası> [tur] [trials] [genişlik]");
+            System.exit(2);
+        }
+        Path file = Path.of(args[0]);
+        int plies = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_PLIES;
+        int trials = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_TRIALS;
+        int width = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_WIDTH;
+        int candidates = Integer.getInteger("tavla.book.candidates", 6);
+        int horizon = Integer.getInteger("tavla.book.horizon", 24);
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        System.out.println("Açılış kitabı: " + plies + " tur, " + trials + " rollout, genişlik " + width
+                + ", " + candidates + " aday, ufuk " + horizon + ", " + threads + " thread");
+        long start = System.nanoTime();
+        List<OpeningBook.Entry> entries =
+                new OpeningBookBuilder(plies, trials, width, candidates, horizon, threads).build();
+        OpeningBook.write(file, entries, plies, trials);
+        System.out.printf("%d kayıt %s dosyasına yazıldı (%.1f sn)%n", entries.size(), file,
+                (System.nanoTime() - start) / 1e9);
+    }
+}
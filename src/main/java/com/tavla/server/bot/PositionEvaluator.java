@@ -0,0 +1,146 @@
+package com.tavla.server.bot;
+
+import com.tavla.core.Board;
+import com.tavla.core.GameState;
+import com.tavla.core.Player;
+
+/**
+ * Bir pozisyonun el ile ayarlanmış, hızlı (sinir ağı olmayan) değerlendirmesi.
+ *
+ * Sonuç, verilen oyuncu için -1 (kesin kayıp) ile +1 (kesin kazanç) arasında bir equity
+ * tahminidir. Temas kalmadıysa (yarış) sadece pip farkına ve sıranın kimde olduğuna bakılır;
+ * temas varsa pip farkına ek olarak yapılmış kapılar, prime uzunluğu, rakip evindeki çapalar,
+ * açık taşlar (blot) ve bar'daki taşlar puanlanır. Rollout'ların her hamlesinde çağrıldığı
+ * için ara nesne üretmez.
+ *
+ * Pozisyon her oyuncu için kendi bakış açısından okunur: 1. nokta taş toplamaya en yakın,
+ * 24. nokta en uzak noktadır, 25 bar'dır (PositionId ile aynı eşleme).
+ */
+public final class PositionEvaluator {
+
+    private static final int BAR = 25;
+
+    private PositionEvaluator() {}
+
+    /** player için equity; oyun bittiyse kesin sonuç (+1 / -1). */
+    public static double evaluate(GameState state, Player player) {
+        if (state.isGameOver()) {
+            return state.getWinner() == player ? 1.0 : -1.0;
+        }
+        Board board = state.getBoard();
+        int[] mine = perspective(board, player);
+        int[] theirs = perspective(board, player.opponent());
+
+        int myPips = pips(mine);
+        int theirPips = pips(theirs);
+        // sıradaki oyuncu yarım tur önde sayılır (ortalama zar ~8 pip)
+        double tempo = state.getCurrentPlayer() == player ? 4.0 : -4.0;
+
+        if (rearmost(mine) + rearmost(theirs) <= BAR) {
+            // Yarış: pip farkının etkisi, yarışın kalan uzunluğuyla orantılı olarak azalır
+            double lead = theirPips - myPips + tempo;
+            return Math.tanh(lead / (0.07 * (myPips + theirPips) / 2 + 2.5));
+        }
+
+        boolean myTurn = state.getCurrentPlayer() == player;
+        double score = (theirPips - myPips + tempo) / 40.0
+                + structure(mine, theirs, !myTurn)
+                - structure(theirs, mine, myTurn);
+        return Math.tanh(score);
+    }
+
+    /** Oyuncunun kendi bakış açısından taş sayıları: [1..24] noktalar, [25] bar, [0] toplanan. */
+    static int[] perspective(Board board, Player player) {
+        int[] counts = new int[BAR + 1];
+        for (int index = 0; index < 24; index++) {
+            if (board.getPoint(index).getOwner() == player) {
+                int point = player == Player.WHITE ? index + 1 : 24 - index;
+                counts[point] = board.getPoint(index).getCount();
+            }
+        }
+        counts[BAR] = player == Player.WHITE ? board.getWhiteBar() : board.getBlackBar();
+        counts[0] = player == Player.WHITE ? board.getWhiteBornOff() : board.getBlackBornOff();
+        return counts;
+    }
+
+    private static int pips(int[] counts) {
+        int pips = 0;
+        for (int point = 1; point <= BAR; point++) {
+            pips += point * counts[point];
+        }
+        return pips;
+    }
+
+    /** En geride kalan taşın noktası (taş yoksa 0). */
+    private static int rearmost(int[] counts) {
+        for (int point = BAR; point >= 1; point--) {
+            if (counts[point] > 0) {
+                return point;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Taş diziliminin puanı (pip farkı hariç).
+     * @param exposed rakip şimdi zar atacaksa true; açık taşlar o zaman tam cezalandırılır
+     */
+    private static double structure(int[] own, int[] opp, boolean exposed) {
+        double score = 0;
+
+        int run = 0;
+        int bestRun = 0;
+        for (int point = 1; point <= 24; point++) {
+            if (own[point] >= 2) {
+                run++;
+                bestRun = Math.max(bestRun, run);
+                if (point <= 6) {
+                    score += point >= 4 ? 0.10 : 0.07;  // ev kapıları; 4-5-6 en değerlisi
+                } else if (point == 7) {
+                    score += 0.07;                       // bar kapısı
+                } else if (point >= 19) {
+                    score += 0.06;                       // rakibin evinde çapa
+                } else {
+                    score += 0.02;
+                }
+            } else {
+                run = 0;
+            }
+        }
+        score += 0.015 * bestRun * bestRun;
+
+        // Rakibin evinde kapatılmış kapılar: bar'dan giriş zorlaşır
+        int oppHome = 0;
+        for (int point = 1; point <= 6; point++) {
+            if (opp[point] >= 2) {
+                oppHome++;
+            }
+        }
+        score -= own[BAR] * (0.10 + 0.04 * oppHome);
+
+        // Açık taşlar: rakibin arkasında (ona göre daha uzakta) taşı yoksa vurulamaz
+        int oppRear = rearmost(opp);
+        double blotPenalty = 0;
+        for (int point = 1; point <= 24; point++) {
+            if (own[point] != 1 || BAR - point >= oppRear) {
+                continue;
+            }
+            int distance = nearestHitter(opp, BAR - point);
+            double shot = distance <= 6 ? 0.33 : distance <= 12 ? 0.12 : 0.04;
+            // Geride vurulan taş daha çok pip kaybettirir
+            blotPenalty += shot * (0.10 + 0.012 * point);
+        }
+        score -= exposed ? blotPenalty : blotPenalty * 0.4;
+        return score;
+    }
+
+    /** Rakibin kendi bakışıyla target noktasındaki taşa en yakın, onu vurabilecek taşının uzaklığı. */
+    private static int nearestHitter(int[] opp, int target) {
+        for (int point = target + 1; point <= BAR; point++) {
+            if (opp[point] > 0) {
+                return point - target;
+            }
+        }
+        return BAR;
+    }
+}
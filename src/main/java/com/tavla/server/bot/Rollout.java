@@ -0,0 +1,58 @@
+package com.tavla.server.bot;
+
+import com.tavla.core.GameLogic;
+import com.tavla.core.GameState;
+import com.tavla.core.Player;
+
+import java.util.Random;
+
+/**
+ * Bir pozisyonun rollout ile değerlendirilmesi: pozisyondan itibaren oyun, iki taraf da
+ * BotPlayer'ın 1-ply aramasıyla oynayarak trials kez oynatılır ve sonuçların ortalaması alınır.
+ *
+ * - horizon tur sonra oyun bitmediyse kalan pozisyon PositionEvaluator ile puanlanır
+ *   (kesilmiş rollout); 0 verilirse oyun sonuna kadar oynanır.
+ * - İlk zar 36 kombinasyona sırayla dağıtılır (36'nın katı trials'ta ilk zarın şans etkisi sıfırlanır).
+ * - Aynı seed'le çağrılan rollout'lar aynı zar dizilerini kullanır; aynı zarlarla karşılaştırılan
+ *   aday hamleler arasındaki fark zardan değil hamleden gelir (ortak rastgele sayılar).
+ */
+public final class Rollout {
+
+    private Rollout() {}
+
+    /**
+     * @param state zar atılmamış, sırası gelen oyuncunun zar atacağı pozisyon
+     * @return player için ortalama equity (-1..1)
+     */
+    public static double run(GameState state, Player player, int trials, int horizon, long seed) {
+        GameLogic logic = new GameLogic();
+        double total = 0;
+        for (int trial = 0; trial < trials; trial++) {
+            total += play(logic, state, player, horizon, new Random(seed * 0x9E3779B97F4A7C15L + trial), trial % 36);
+        }
+        return total / trials;
+    }
+
+    private static double play(GameLogic logic, GameState start, Player player, int horizon, Random random,
+                               int firstRoll) {
+        GameState state = start.copy();
+        for (int turn = 0; horizon == 0 || turn < horizon; turn++) {
+            if (state.isGameOver()) {
+                break;
+            }
+            if (turn == 0) {
+                state.getDice().roll(firstRoll / 6 + 1, firstRoll % 6 + 1);
+            } else {
+                state.getDice().roll(random.nextInt(6) + 1, random.nextInt(6) + 1);
+            }
+            BotPlayer.Choice choice = BotPlayer.search(logic, state);
+            if (choice == null) {
+                state.getDice().clearSteps();
+                state.switchTurn();
+            } else {
+                state = BotPlayer.afterPlay(logic, state, choice.moves);
+            }
+        }
+        return PositionEvaluator.evaluate(state, player);
+    }
+}
@@ -0,0 +1,46 @@
+package com.tavla.server.cluster;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cluster ayarları. System property'lerden okunur:
+ *
+ *  -Dtavla.cluster.self=ws://localhost:8080
+ *  -Dtavla.cluster.nodes=ws://localhost:8080,ws://localhost:8081,ws://localhost:8082
+ *
+ * tavla.cluster.nodes verilmezse sunucu tek node modunda çalışır.
+ * Dış bir koordinasyon servisi yoktur; her node aynı listeyi bilir ve
+ * canlılığı kendisi yoklar.
+ */
+public class ClusterConfig {
+
+    public final String self;
+    public final List<String> nodes;
+
+    public ClusterConfig(String self, List<String> nodes) {
+        if (!nodes.contains(self)) {
+            throw new IllegalArgumentException("self node listede yok: " + self);
+        }
+        this.self = self;
+        this.nodes = List.copyOf(nodes);
+    }
+
+    /** Cluster ayarı yoksa null döner (tek node modu). */
+    public static ClusterConfig fromSystemProperties(int port) {
+        String nodesProp = System.getProperty("tavla.cluster.nodes");
+        if (nodesProp == null || nodesProp.isBlank()) {
+            return null;
+        }
+
+        List<String> nodes = new ArrayList<>();
+        for (String n : nodesProp.split(",")) {
+            if (!n.isBlank()) {
+                nodes.add(n.trim());
+            }
+        }
+
+        String self = System.getProperty("tavla.cluster.self", "ws://localhost:" + port);
+        return new ClusterConfig(self, nodes);
+    }
+}
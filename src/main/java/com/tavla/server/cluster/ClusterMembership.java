@@ -0,0 +1,132 @@
+package com.tavla.server.cluster;
+
+import com.tavla.server.log.Log;
+import com.tavla.server.log.Logger;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cluster üyeliğini ve odaların sahipliğini yönetir.
+ *
+ * - Her probe aralığında diğer node'ların portuna TCP bağlantısı denenir
+ * - Üst üste FAILURE_THRESHOLD kez ulaşılamayan node canlı halkadan çıkarılır,
+ *   tekrar ulaşılınca geri eklenir
+ *
+ * Odalar yaratıldıkları node'da kalır (sticky). Sahiplik canlı halkadan değil, yapılandırmadaki
+ * tüm node'larla kurulan ve hiç değişmeyen ev halkasından (home ring) okunur: bir node sadece ev
+ * halkasında kendisine düşen ID'lerle oda açar, böylece sahibi ID'nin kendisinde kayıtlıdır ve
+ * kaç kez üyelik değişirse değişsin her node aynı sahibi bulur. Sahibi ölmüş bir odaya o node
+ * geri gelene (ve kalıcılık açıksa odalarını journal'dan kurana) kadar ulaşılamaz; odalar
+ * node'lar arasında taşınmaz.
+ */
+public class ClusterMembership {
+
+    private static final Logger LOG = Log.get("cluster");
+
+    private static final long PROBE_INTERVAL_MS = 2000;
+    private static final int PROBE_TIMEOUT_MS = 500;
+    private static final int FAILURE_THRESHOLD = 2;
+
+    private final ClusterConfig config;
+    private final long probeIntervalMs;
+    private final Map<String, Integer> failures = new HashMap<>(); // sadece probe thread'i kullanır
+
+    private final HashRing homeRing; // tüm yapılandırılmış node'lar; oda sahipliği
+    private volatile HashRing ring;  // canlı node'lar
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "cluster-probe");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ClusterMembership(ClusterConfig config) {
+        this(config, PROBE_INTERVAL_MS);
+    }
+
+    public ClusterMembership(ClusterConfig config, long probeIntervalMs) {
+        this.config = config;
+        this.probeIntervalMs = probeIntervalMs;
+        this.homeRing = new HashRing(config.nodes);
+        // Başlangıçta tüm node'ları canlı varsay; ilk probe'lar ölüleri ayıklar
+        this.ring = homeRing;
+    }
+
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::probe, 0, probeIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    public String getSelf() {
+        return config.self;
+    }
+
+    public HashRing getRing() {
+        return ring;
+    }
+
+    /** Odayı açan node (ev halkasından; üyelik değişse de aynı kalır). */
+    public String ownerOf(String roomId) {
+        return homeRing.ownerOf(roomId);
+    }
+
+    /** Bu node, verilen roomId'nin sahibi mi? */
+    public boolean isLocalOwner(String roomId) {
+        return config.self.equals(homeRing.ownerOf(roomId));
+    }
+
+    public boolean isAlive(String node) {
+        return ring.contains(node);
+    }
+
+    // ---------------- Probe ----------------
+
+    private void probe() {
+        Set<String> alive = new TreeSet<>();
+        alive.add(config.self);
+
+        for (String node : config.nodes) {
+            if (node.equals(config.self)) continue;
+
+            if (isReachable(node)) {
+                failures.remove(node);
+                alive.add(node);
+            } else {
+                int count = failures.merge(node, 1, Integer::sum);
+                // Eşik aşılana kadar node'u halkada tut (anlık kopmalarda halka titremesin)
+                if (count < FAILURE_THRESHOLD && ring.contains(node)) {
+                    alive.add(node);
+                }
+            }
+        }
+
+        HashRing current = ring;
+        if (!alive.equals(new TreeSet<>(current.getNodes()))) {
+            ring = new HashRing(alive);
+            LOG.info("Cluster üyeliği değişti", "from", current.getNodes().toString(), "to", alive.toString());
+        }
+    }
+
+    private boolean isReachable(String node) {
+        URI uri = URI.create(node);
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(uri.getHost(), uri.getPort()), PROBE_TIMEOUT_MS);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
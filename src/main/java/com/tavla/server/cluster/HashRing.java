@@ -0,0 +1,100 @@
+package com.tavla.server.cluster;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Tutarlı hash (consistent hashing) halkası.
+ *
+ * - Her node halkaya VNODES kadar sanal nokta ile yerleşir (yükü dengelemek için)
+ * - Bir roomId'nin sahibi, hash'inden sonraki ilk sanal noktanın node'udur
+ * - Bir node eklenince/çıkınca sadece o node'un komşu aralıkları el değiştirir
+ *
+ * Sınıf immutable'dır; üyelik değişince yeni bir halka kurulur. Bu sayede
+ * lookup'lar kilitsiz yapılabilir (sıralı long[] üzerinde binary search).
+ */
+public final class HashRing {
+
+    public static final int VNODES = 128;
+
+    private final List<String> nodes;
+    private final long[] positions;
+    private final String[] owners;
+
+    public HashRing(Collection<String> nodeIds) {
+        if (nodeIds.isEmpty()) {
+            throw new IllegalArgumentException("Halkada en az bir node olmalı");
+        }
+        // Sıralı küme: aynı üyelik her node'da aynı halkayı üretsin
+        this.nodes = Collections.unmodifiableList(new ArrayList<>(new TreeSet<>(nodeIds)));
+
+        int size = nodes.size() * VNODES;
+        long[] pos = new long[size];
+        String[] own = new String[size];
+
+        // Önce (hash, node) çiftlerini üret, sonra hash'e göre sırala
+        long[][] pairs = new long[size][2];
+        int k = 0;
+        for (int n = 0; n < nodes.size(); n++) {
+            String node = nodes.get(n);
+            for (int v = 0; v < VNODES; v++) {
+                pairs[k][0] = hash(node + "#" + v);
+                pairs[k][1] = n;
+                k++;
+            }
+        }
+        Arrays.sort(pairs, (a, b) -> Long.compare(a[0], b[0]));
+        for (int i = 0; i < size; i++) {
+            pos[i] = pairs[i][0];
+            own[i] = nodes.get((int) pairs[i][1]);
+        }
+
+        this.positions = pos;
+        this.owners = own;
+    }
+
+    /** roomId'nin sahibi olan node. */
+    public String ownerOf(String key) {
+        long h = hash(key);
+        int idx = Arrays.binarySearch(positions, h);
+        if (idx < 0) {
+            idx = -idx - 1;
+        }
+        if (idx == positions.length) {
+            idx = 0; // halka başa sarar
+        }
+        return owners[idx];
+    }
+
+    public List<String> getNodes() {
+        return nodes;
+    }
+
+    public boolean contains(String node) {
+        return nodes.contains(node);
+    }
+
+    // FNV-1a 64 bit + son karıştırma (kısa ID'lerde dağılımı iyileştirir)
+    static long hash(String key) {
+        byte[] bytes = key.getBytes(StandardCharsets.UTF_8);
+        long h = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            h ^= (b & 0xff);
+            h *= 0x100000001b3L;
+        }
+        h ^= (h >>> 33);
+        h *= 0xff51afd7ed558ccdL;
+        h ^= (h >>> 33);
+        return h;
+    }
+
+    @Override
+    public String toString() {
+        return "HashRing{nodes=" + nodes + '}';
+    }
+}
@@ -0,0 +1,50 @@
+package com.tavla.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Oyun motoruna yapılan bir çağrı (isMoveLegal, applyMove, rollDice, hamle üretimi ...).
+ * Çağrıdan önce begin(), sonra finish(...) çağrılır; alanlar sadece olay yazılacaksa doldurulur.
+ */
+@Name("com.tavla.EngineCall")
+@Label("Engine Call")
+@Category({"Tavla", "Engine"})
+@StackTrace(false)
+public class EngineCallEvent extends Event {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Room ID")
+    public String roomId;
+
+    @Label("From")
+    public int from;
+
+    @Label("To")
+    public int to;
+
+    @Label("Step")
+    public int step;
+
+    @Label("Result")
+    public boolean result;
+
+    /** Çağrıyı bitirir; kayıt kapalıysa ya da süre eşiğin altındaysa alanlar doldurulmaz. */
+    public void finish(String operation, String roomId, int from, int to, int step, boolean result) {
+        end();
+        if (shouldCommit()) {
+            this.operation = operation;
+            this.roomId = roomId;
+            this.from = from;
+            this.to = to;
+            this.step = step;
+            this.result = result;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.tavla.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Odanın mailbox'ında çalışan tek bir komut (roll, move, join_room ...).
+ * Süre komutun kendisidir; mailbox'ta bekleme ayrıca queueWait'te tutulur.
+ */
+@Name("com.tavla.RoomCommand")
+@Label("Room Command")
+@Category({"Tavla", "Room"})
+@Description("Bir oda komutunun mailbox'ta çalışması")
+@StackTrace(false)
+public class RoomCommandEvent extends Event {
+
+    @Label("Room ID")
+    public String roomId;
+
+    @Label("Type")
+    public String type;
+
+    @Label("Outcome")
+    @Description("ok, rejected, noop veya error")
+    public String outcome;
+
+    @Label("Queue Wait")
+    @Timespan(Timespan.NANOSECONDS)
+    public long queueWait;
+}
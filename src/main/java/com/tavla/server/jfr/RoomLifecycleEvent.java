@@ -0,0 +1,47 @@
+package com.tavla.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Odanın yaşam döngüsündeki anlık olaylar (süresiz).
+ */
+@Name("com.tavla.RoomLifecycle")
+@Label("Room Lifecycle")
+@Category({"Tavla", "Room"})
+@StackTrace(false)
+public class RoomLifecycleEvent extends Event {
+
+    public static final String CREATED = "created";
+    public static final String JOINED = "joined";
+    public static final String STARTED = "started";
+    public static final String DISCONNECTED = "disconnected";
+    public static final String RESUMED = "resumed";
+    public static final String FORFEIT = "forfeit";
+    public static final String CLOSED = "closed";
+    public static final String RESTORED = "restored";
+
+    @Label("Room ID")
+    public String roomId;
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Detail")
+    public String detail;
+
+    /** Kayıt kapalıyken sadece isEnabled() kontrolüne mal olur. */
+    public static void emit(String roomId, String phase, String detail) {
+        RoomLifecycleEvent event = new RoomLifecycleEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+        event.roomId = roomId;
+        event.phase = phase;
+        event.detail = detail;
+        event.commit();
+    }
+}
@@ -0,0 +1,25 @@
+package com.tavla.server.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Giden bir mesajın JSON'a çevrilmesi.
+ */
+@Name("com.tavla.StateSerialization")
+@Label("State Serialization")
+@Category({"Tavla", "Network"})
+@StackTrace(false)
+public class StateSerializationEvent extends Event {
+
+    @Label("Message Type")
+    public String type;
+
+    @Label("Size")
+    @DataAmount
+    public long bytes;
+}
@@ -0,0 +1,259 @@
+package com.tavla.server.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tavla.core.GameLogic;
+import com.tavla.core.GameState;
+import com.tavla.core.Move;
+import com.tavla.core.Player;
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.handshake.ServerHandshake;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Yük testinde tek bir oyuncu bağlantısı.
+ *
+ * - Çiftin "creator" tarafı create_room gönderir, gelen roomId ile eşi join_room gönderir
+ * - Sıra kendisindeyse zar atar ya da gelen state'ten kurduğu tahtada rastgele bir geçerli hamle oynar
+ *   (wholeTurns modunda turun tamamını tek play mesajıyla gönderir)
+ * - Her istek için (aynı anda en fazla bir tane) gönderim anından yanıtın (state / room_* / error)
+ *   gelişine kadar geçen süre tip bazında ölçülür
+ * - Oyun bitince creator, kalan oyun sayısı kadar yeni oda açar
+ */
+class LoadClient extends WebSocketClient {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final GameLogic LOGIC = new GameLogic();
+
+    private final LoadGenerator generator;
+    private final boolean creator;
+    private LoadClient partner;
+
+    // Bekleyen istek: gönderen thread yazar, yanıtı okuma thread'i tamamlar
+    private volatile String pendingType;
+    private volatile long pendingSentAt;
+
+    private volatile Player color;
+    private int gamesLeft; // sadece creator'ın okuma thread'i
+
+    // Çiftin sonucu bir kez sayılsın (sadece creator'ınki kullanılır)
+    private final AtomicBoolean done = new AtomicBoolean();
+
+    LoadClient(URI uri, LoadGenerator generator, boolean creator, int games) {
+        super(uri);
+        this.generator = generator;
+        this.creator = creator;
+        this.gamesLeft = games;
+        // Sunucu ping atıyor; istemci tarafında ayrıca bağlantı kontrol thread'i açmayalım
+        setConnectionLostTimeout(0);
+    }
+
+    void setPartner(LoadClient partner) {
+        this.partner = partner;
+    }
+
+    /** İlk oyunu başlatır (sadece creator için). */
+    void startGame() {
+        request("create_room", "{\"type\":\"create_room\"}");
+    }
+
+    private void join(String roomId) {
+        request("join_room", "{\"type\":\"join_room\",\"payload\":{\"roomId\":\"" + roomId + "\"}}");
+    }
+
+    private void request(String type, String json) {
+        pendingType = type;
+        pendingSentAt = System.nanoTime();
+        send(json);
+    }
+
+    private void complete() {
+        String type = pendingType;
+        if (type != null) {
+            pendingType = null;
+            generator.record(type, System.nanoTime() - pendingSentAt);
+        }
+    }
+
+    boolean isPairOpen() {
+        return isOpen() && partner.isOpen();
+    }
+
+    @Override
+    public void onOpen(ServerHandshake handshake) {
+        // oyun, tüm bağlantılar açıldıktan sonra generator tarafından başlatılır
+    }
+
+    @Override
+    public void onMessage(String message) {
+        try {
+            JsonNode msg = MAPPER.readTree(message);
+            String type = msg.path("type").asText();
+            JsonNode payload = msg.path("payload");
+
+            switch (type) {
+                case "room_created" -> {
+                    complete();
+                    color = Player.WHITE;
+                    partner.join(payload.path("roomId").asText());
+                }
+                case "room_joined" -> {
+                    complete();
+                    color = Player.valueOf(payload.path("player").asText());
+                }
+                case "state" -> {
+                    complete();
+                    onState(payload);
+                }
+                case "error" -> {
+                    complete();
+                    generator.onError(payload.path("message").asText());
+                    abandonGame();
+                }
+                case "turn_timeout", "room_closed", "opponent_disconnected" -> abandonGame();
+                default -> { } // info, ping cevapları vb.
+            }
+        } catch (Exception e) {
+            generator.onError("İstemci hatası: " + e);
+            abandonGame();
+        }
+    }
+
+    private void onState(JsonNode state) {
+        if (owner().done.get()) {
+            return;
+        }
+        if (state.path("gameOver").asBoolean()) {
+            if (creator) {
+                generator.onGameFinished(true);
+                nextGame();
+            }
+            return;
+        }
+
+        if (!state.path("currentPlayer").asText().equals(color == null ? "" : color.name())) {
+            return; // sıra rakipte
+        }
+        if (!state.path("dice").path("rolled").asBoolean()) {
+            request("roll", "{\"type\":\"roll\"}");
+            return;
+        }
+
+        GameState gs = toGameState(state);
+        if (generator.wholeTurns()) {
+            List<Move> play = randomPlay(gs);
+            if (play != null) {
+                StringBuilder json = new StringBuilder("{\"type\":\"play\",\"payload\":{\"moves\":[");
+                for (int i = 0; i < play.size(); i++) {
+                    Move m = play.get(i);
+                    json.append(i == 0 ? "" : ",").append("{\"from\":").append(m.getFromIndex())
+                            .append(",\"to\":").append(m.getToIndex()).append(",\"step\":").append(m.getStep()).append('}');
+                }
+                request("play", json.append("]}}").toString());
+                return;
+            }
+            // kurala uyan rastgele dizi bulunamadı: tek hamleyle devam
+        }
+
+        // Tek hamle de turun kurallarına uymalı (bkz. GameLogic.validateMove)
+        List<Move> moves = new ArrayList<>();
+        for (Move m : LOGIC.legalMoves(gs)) {
+            if (LOGIC.validateMove(gs, m) == null) {
+                moves.add(m);
+            }
+        }
+        if (moves.isEmpty()) {
+            // Sunucu pas geçirmiş olmalıydı; oyun takıldı sayılır
+            generator.onError("Geçerli hamle yok ama sıra bizde");
+            abandonGame();
+            return;
+        }
+        Move m = moves.get(ThreadLocalRandom.current().nextInt(moves.size()));
+        request("move", "{\"type\":\"move\",\"payload\":{\"from\":" + m.getFromIndex()
+                + ",\"to\":" + m.getToIndex() + ",\"step\":" + m.getStep() + "}}");
+    }
+
+    /**
+     * Rastgele bir tam tur: sıra değişene kadar rastgele geçerli hamleler seçer; diziyi sunucu ile
+     * aynı kurala (validatePlay) göre kontrol eder. Birkaç denemede bulunamazsa null.
+     */
+    private static List<Move> randomPlay(GameState state) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int attempt = 0; attempt < 20; attempt++) {
+            GameState trial = state.copy();
+            List<Move> play = new ArrayList<>(4);
+            while (!trial.isGameOver() && trial.getCurrentPlayer() == state.getCurrentPlayer()) {
+                List<Move> moves = LOGIC.legalMoves(trial);
+                if (moves.isEmpty()) {
+                    break;
+                }
+                Move m = moves.get(random.nextInt(moves.size()));
+                LOGIC.applyMove(trial, m);
+                play.add(m);
+            }
+            if (LOGIC.validatePlay(state, play) == null) {
+                return play;
+            }
+        }
+        return null;
+    }
+
+    private LoadClient owner() {
+        return creator ? this : partner;
+    }
+
+    /** Yarım kalan oyun: çift durdurulur (aynı çiftle devam etmek yeni hatalara yol açabilir). */
+    private void abandonGame() {
+        if (owner().done.compareAndSet(false, true)) {
+            generator.onGameFinished(false);
+            generator.onPairDone();
+        }
+    }
+
+    private void nextGame() {
+        gamesLeft--;
+        if (gamesLeft > 0) {
+            startGame();
+        } else if (done.compareAndSet(false, true)) {
+            generator.onPairDone();
+        }
+    }
+
+    /** state mesajındaki tahta ve zarları motorun GameState'ine çevirir. */
+    static GameState toGameState(JsonNode state) {
+        GameState gs = new GameState();
+        JsonNode board = state.path("board");
+        int[] counts = new int[24];
+        for (JsonNode p : board.path("points")) {
+            int count = p.path("count").asInt();
+            counts[p.path("index").asInt()] = "BLACK".equals(p.path("owner").asText()) ? -count : count;
+        }
+        gs.getBoard().setPosition(counts, board.path("whiteBar").asInt(), board.path("blackBar").asInt(),
+                board.path("whiteBornOff").asInt(), board.path("blackBornOff").asInt());
+
+        JsonNode dice = state.path("dice");
+        JsonNode remaining = dice.path("remainingSteps");
+        int[] steps = new int[remaining.size()];
+        for (int i = 0; i < steps.length; i++) {
+            steps[i] = remaining.get(i).asInt();
+        }
+        gs.getDice().restore(dice.path("die1").asInt(), dice.path("die2").asInt(), steps);
+        gs.restore(Player.valueOf(state.path("currentPlayer").asText()), false, null);
+        return gs;
+    }
+
+    @Override
+    public void onClose(int code, String reason, boolean remote) {
+        abandonGame();
+    }
+
+    @Override
+    public void onError(Exception ex) {
+        generator.onError("Bağlantı hatası: " + ex.getMessage());
+    }
+}
@@ -0,0 +1,262 @@
+package com.tavla.server.loadtest;
+
+import com.tavla.server.metrics.LatencyHistogram;
+import com.tavla.server.ws.TavlaWebSocketServer;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sunucuya binlerce eşzamanlı oyun oynatan yük üreticisi (Java-WebSocket istemcisiyle).
+ *
+ * Bağlantılar ikişer ikişer eşlenir; her çift create_room/join_room ile oda kurar ve
+ * roll/move ile oyunu sonuna kadar (rastgele geçerli hamlelerle) oynar. Sonunda tip bazında
+ * throughput ve p50/p99/p999 gidiş-dönüş süresi raporlanır.
+ *
+ * Kullanım:
+ *   java ... LoadGenerator <bağlantı sayısı> [çift başına oyun] [ws://host:port]
+ *   -Dtavla.load.play=true  turlar tek tek move yerine tek play mesajıyla oynanır
+ * URL verilmezse aynı JVM'de boş bir port üzerinde bir TavlaWebSocketServer başlatılır.
+ *
+ * Not: Java-WebSocket istemcisi bağlantı başına iki thread açar; çok büyük N için
+ * üreticiyi birkaç ayrı JVM'e bölmek gerekebilir.
+ */
+public class LoadGenerator {
+
+    private static final long CONNECT_TIMEOUT_MS = 10_000;
+
+    private final URI uri;
+    private final int connections;
+    private final int gamesPerPair;
+    private final boolean wholeTurns;
+
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private final LongAdder completedGames = new LongAdder();
+    private final LongAdder failedGames = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final Map<String, LongAdder> errorMessages = new ConcurrentHashMap<>();
+
+    private CountDownLatch pairsDone;
+
+    public LoadGenerator(URI uri, int connections, int gamesPerPair) {
+        this(uri, connections, gamesPerPair, false);
+    }
+
+    /** @param wholeTurns true ise her tur tek bir play mesajıyla gönderilir */
+    public LoadGenerator(URI uri, int connections, int gamesPerPair, boolean wholeTurns) {
+        if (connections < 2 || connections % 2 != 0) {
+            throw new IllegalArgumentException("Bağlantı sayısı çift ve en az 2 olmalı: " + connections);
+        }
+        if (gamesPerPair < 1) {
+            throw new IllegalArgumentException("Çift başına oyun sayısı pozitif olmalı: " + gamesPerPair);
+        }
+        this.uri = uri;
+        this.connections = connections;
+        this.gamesPerPair = gamesPerPair;
+        this.wholeTurns = wholeTurns;
+    }
+
+    /** Test sonucu (rapor için değişmez özet). */
+    public static class Result {
+        public final int connections;
+        public final long completedGames;
+        public final long failedGames;
+        public final long errors;
+        public final long elapsedNanos;
+        public final boolean timedOut;
+        public final Map<String, LatencyHistogram> latencies;
+        public final Map<String, Long> errorMessages;
+
+        Result(int connections, long completedGames, long failedGames, long errors, long elapsedNanos,
+               boolean timedOut, Map<String, LatencyHistogram> latencies, Map<String, Long> errorMessages) {
+            this.connections = connections;
+            this.completedGames = completedGames;
+            this.failedGames = failedGames;
+            this.errors = errors;
+            this.elapsedNanos = elapsedNanos;
+            this.timedOut = timedOut;
+            this.latencies = latencies;
+            this.errorMessages = errorMessages;
+        }
+
+        public long totalRequests() {
+            long total = 0;
+            for (LatencyHistogram h : latencies.values()) {
+                total += h.getCount();
+            }
+            return total;
+        }
+
+        public void print(PrintStream out) {
+            double seconds = elapsedNanos / 1e9;
+            out.printf("Bağlantı: %d, süre: %.1f s%s%n", connections, seconds, timedOut ? " (ZAMAN AŞIMI)" : "");
+            out.printf("Oyun: %d tamamlandı, %d yarım kaldı (%.1f oyun/s)%n",
+                    completedGames, failedGames, completedGames / seconds);
+            out.printf("İstek: %d (%.0f mesaj/s), hata: %d%n", totalRequests(), totalRequests() / seconds, errors);
+            out.printf("%-12s %10s %10s %10s %10s %10s%n", "type", "count", "rps", "p50 ms", "p99 ms", "p999 ms");
+            for (Map.Entry<String, LatencyHistogram> e : latencies.entrySet()) {
+                LatencyHistogram h = e.getValue();
+                out.printf("%-12s %10d %10.0f %10.3f %10.3f %10.3f%n", e.getKey(), h.getCount(),
+                        h.getCount() / seconds, millis(h.valueAtQuantile(0.5)),
+                        millis(h.valueAtQuantile(0.99)), millis(h.valueAtQuantile(0.999)));
+            }
+            for (Map.Entry<String, Long> e : errorMessages.entrySet()) {
+                out.printf("  hata x%d: %s%n", e.getValue(), e.getKey());
+            }
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+
+    /**
+     * Bağlantıları açar, tüm çiftler oyunlarını bitirene (ya da timeoutMs dolana) kadar bekler.
+     */
+    public Result run(long timeoutMs) throws InterruptedException {
+        int pairs = connections / 2;
+        pairsDone = new CountDownLatch(pairs);
+
+        List<LoadClient> creators = new ArrayList<>(pairs);
+        List<LoadClient> all = new ArrayList<>(connections);
+        for (int i = 0; i < pairs; i++) {
+            LoadClient creator = new LoadClient(uri, this, true, gamesPerPair);
+            LoadClient joiner = new LoadClient(uri, this, false, gamesPerPair);
+            creator.setPartner(joiner);
+            joiner.setPartner(creator);
+            creators.add(creator);
+            all.add(creator);
+            all.add(joiner);
+        }
+
+        // Handshake fırtınası accept kuyruğunu taşırmasın diye sırayla bağlan
+        for (LoadClient c : all) {
+            if (!c.connectBlocking(CONNECT_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                onError("Bağlanamadı: " + uri);
+            }
+        }
+
+        long start = System.nanoTime();
+        for (LoadClient c : creators) {
+            if (c.isPairOpen()) {
+                c.startGame();
+            } else {
+                failedGames.increment();
+                pairsDone.countDown();
+            }
+        }
+
+        boolean finished = pairsDone.await(timeoutMs, TimeUnit.MILLISECONDS);
+        long elapsed = System.nanoTime() - start;
+        Result result = snapshot(elapsed, !finished);
+
+        for (LoadClient c : all) {
+            c.close();
+        }
+        return result;
+    }
+
+    private Result snapshot(long elapsedNanos, boolean timedOut) {
+        // Rapor tipleri oyun akışı sırasıyla listelensin
+        Map<String, LatencyHistogram> ordered = new LinkedHashMap<>();
+        for (String type : List.of("create_room", "join_room", "roll", "move", "play")) {
+            LatencyHistogram h = latencies.get(type);
+            if (h != null) {
+                ordered.put(type, h);
+            }
+        }
+        Map<String, Long> messages = new LinkedHashMap<>();
+        errorMessages.forEach((k, v) -> messages.put(k, v.sum()));
+        return new Result(connections, completedGames.sum(), failedGames.sum(), errors.sum(), elapsedNanos,
+                timedOut, ordered, messages);
+    }
+
+    // ---------------- LoadClient geri çağrıları ----------------
+
+    void record(String type, long nanos) {
+        latencies.computeIfAbsent(type, t -> new LatencyHistogram()).record(nanos);
+    }
+
+    boolean wholeTurns() {
+        return wholeTurns;
+    }
+
+    void onError(String message) {
+        errors.increment();
+        // Sunucu mesajları oda id'si içerebilir; rapor şişmesin
+        if (errorMessages.size() < 20 || errorMessages.containsKey(message)) {
+            errorMessages.computeIfAbsent(message, m -> new LongAdder()).increment();
+        }
+    }
+
+    void onGameFinished(boolean completed) {
+        (completed ? completedGames : failedGames).increment();
+    }
+
+    void onPairDone() {
+        pairsDone.countDown();
+    }
+
+    // ---------------- main ----------------
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        long timeoutMs = Long.getLong("tavla.load.timeoutMs", 600_000);
+
+        TavlaWebSocketServer server = null;
+        URI uri;
+        if (args.length > 2) {
+            uri = URI.create(args[2]);
+        } else {
+            int port = freePort();
+            server = new TavlaWebSocketServer(port, null, null);
+            server.setReuseAddr(true);
+            server.start();
+            awaitListening(port);
+            uri = URI.create("ws://127.0.0.1:" + port);
+        }
+
+        boolean wholeTurns = Boolean.getBoolean("tavla.load.play");
+        System.out.println("Yük testi: " + uri + ", " + connections + " bağlantı, çift başına " + games + " oyun"
+                + (wholeTurns ? ", tur başına tek play" : ""));
+        Result result = new LoadGenerator(uri, connections, games, wholeTurns).run(timeoutMs);
+        result.print(System.out);
+
+        if (server != null) {
+            server.stop(1_000);
+        }
+        System.exit(result.timedOut || result.failedGames > 0 ? 1 : 0);
+    }
+
+    public static int freePort() throws IOException {
+        try (ServerSocket s = new ServerSocket(0)) {
+            return s.getLocalPort();
+        }
+    }
+
+    public static void awaitListening(int port) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(CONNECT_TIMEOUT_MS);
+        while (System.nanoTime() < deadline) {
+            try (Socket s = new Socket()) {
+                s.connect(new InetSocketAddress("127.0.0.1", port), 200);
+                return;
+            } catch (IOException e) {
+                Thread.sleep(20);
+            }
+        }
+        throw new IllegalStateException("Sunucu dinlemeye başlamadı: " + port);
+    }
+}
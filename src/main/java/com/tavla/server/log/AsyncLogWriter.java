@@ -0,0 +1,207 @@
+package com.tavla.server.log;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Log kayıtlarını halka kuyruktan toplu (batch) halde alıp JSON satırı olarak yazan arka plan thread'i.
+ *
+ * - Üretici thread'ler sadece kuyruğa ekler; kuyruk doluysa kayıt atlanır ve sayılır,
+ *   ağ thread'leri hiçbir zaman disk/konsol I/O'su beklemez
+ * - Formatlama ve yazma tamamen bu thread'dedir; her batch tek bir write ile yazılır
+ * - Kuyruk boşken thread park eder; ilk yeni kayıt onu uyandırır
+ */
+final class AsyncLogWriter {
+
+    private static final int BATCH = 512;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final LogRing ring;
+    private final LogSink sink;
+    private final Thread thread;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong writeErrors = new AtomicLong();
+    private final StringBuilder out = new StringBuilder(64 * 1024);
+
+    private volatile boolean parked;
+    private volatile boolean running = true;
+
+    AsyncLogWriter(int capacity, LogSink sink) {
+        this.ring = new LogRing(capacity);
+        this.sink = sink;
+        this.thread = new Thread(this::run, "log-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** Herhangi bir thread'den çağrılabilir, bloklamaz. */
+    void submit(LogEvent event) {
+        if (!ring.offer(event)) {
+            dropped.incrementAndGet();
+            return;
+        }
+        if (parked) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    long getWriteErrorCount() {
+        return writeErrors.get();
+    }
+
+    /** Kuyrukta kalanları yazar ve sink'i kapatır. */
+    void shutdown(long timeoutMs) {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        long reportedDrops = 0;
+        while (true) {
+            // out, park öncesi kontrolde formatlanmış bir kayıt içerebilir
+            int n = 0;
+            LogEvent event;
+            while (n < BATCH && (event = ring.poll()) != null) {
+                format(event, out);
+                n++;
+            }
+
+            long drops = dropped.get();
+            if (drops != reportedDrops) {
+                format(new LogEvent(System.currentTimeMillis(), LogLevel.WARN, "log", "log-writer",
+                        "Log kuyruğu doldu, kayıtlar atlandı", new Object[]{"dropped", drops - reportedDrops},
+                        null, 0), out);
+                reportedDrops = drops;
+            }
+
+            if (out.length() > 0) {
+                writeBatch();
+                out.setLength(0);
+                continue;
+            }
+            if (!running) {
+                break;
+            }
+
+            parked = true;
+            // park'tan önce tekrar bak: submit parked'ı görmeden eklemiş olabilir
+            if (!hasPending()) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            parked = false;
+        }
+
+        try {
+            sink.close();
+        } catch (IOException ignored) {
+            // kapanışta yapılacak bir şey yok
+        }
+    }
+
+    private boolean hasPending() {
+        LogEvent event = ring.poll();
+        if (event == null) {
+            return false;
+        }
+        format(event, out);
+        return true;
+    }
+
+    private void writeBatch() {
+        byte[] bytes = out.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            sink.write(bytes, bytes.length);
+        } catch (IOException e) {
+            // log yazılamıyorsa yapılabilecek en iyi şey atlamak
+            writeErrors.incrementAndGet();
+        }
+    }
+
+    // ---------------- JSON satırı ----------------
+
+    static void format(LogEvent e, StringBuilder sb) {
+        sb.append("{\"ts\":\"");
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(e.timeMillis), sb);
+        sb.append("\",\"level\":\"").append(e.level.name());
+        sb.append("\",\"logger\":");
+        string(sb, e.logger);
+        sb.append(",\"thread\":");
+        string(sb, e.thread);
+        sb.append(",\"msg\":");
+        string(sb, e.message);
+
+        Object[] fields = e.fields;
+        if (fields != null) {
+            for (int i = 0; i + 1 < fields.length; i += 2) {
+                sb.append(',');
+                string(sb, String.valueOf(fields[i]));
+                sb.append(':');
+                value(sb, fields[i + 1]);
+            }
+        }
+        if (e.suppressed > 0) {
+            sb.append(",\"suppressed\":").append(e.suppressed);
+        }
+        if (e.error != null) {
+            sb.append(",\"error\":");
+            string(sb, e.error.toString());
+            StringWriter trace = new StringWriter();
+            e.error.printStackTrace(new PrintWriter(trace));
+            sb.append(",\"stack\":");
+            string(sb, trace.toString());
+        }
+        sb.append("}\n");
+    }
+
+    private static void value(StringBuilder sb, Object v) {
+        if (v == null) {
+            sb.append("null");
+        } else if (v instanceof Number || v instanceof Boolean) {
+            sb.append(v);
+        } else {
+            string(sb, v.toString());
+        }
+    }
+
+    private static void string(StringBuilder sb, String s) {
+        if (s == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+}
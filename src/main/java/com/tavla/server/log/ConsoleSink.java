@@ -0,0 +1,28 @@
+package com.tavla.server.log;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Standart çıktıya doğrudan (System.out'un kilidini kullanmadan) yazar.
+ */
+final class ConsoleSink implements LogSink {
+
+    private final FileChannel channel = new FileOutputStream(FileDescriptor.out).getChannel();
+
+    @Override
+    public void write(byte[] bytes, int length) throws IOException {
+        ByteBuffer buf = ByteBuffer.wrap(bytes, 0, length);
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+    }
+
+    @Override
+    public void close() {
+        // stdout kapatılmaz
+    }
+}
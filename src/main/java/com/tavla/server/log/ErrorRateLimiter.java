@@ -0,0 +1,60 @@
+package com.tavla.server.log;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aynı hatanın (logger + mesaj) saniyede en fazla maxPerSecond kez yazılmasına izin verir.
+ * Atlananlar sayılır ve izin verilen bir sonraki kayda "suppressed" olarak eklenir;
+ * böylece bir bağlantı fırtınasında aynı stack trace binlerce kez yazılmaz.
+ */
+final class ErrorRateLimiter {
+
+    /** allow() sonucu: yazılmamalı. */
+    static final long DENY = -1;
+
+    // İstemciden gelen mesajlar anahtar olabileceği için tablo sınırlı tutulur
+    private static final int MAX_KEYS = 1024;
+    private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final int maxPerSecond;
+    private final ConcurrentHashMap<String, Window> windows = new ConcurrentHashMap<>();
+
+    ErrorRateLimiter(int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    /**
+     * @return yazılabiliyorsa o ana kadar atlanan kayıt sayısı (>= 0), yazılmamalıysa DENY
+     */
+    long allow(String key) {
+        Window w = windows.get(key);
+        if (w == null) {
+            if (windows.size() >= MAX_KEYS) {
+                windows.clear();
+            }
+            w = windows.computeIfAbsent(key, k -> new Window());
+        }
+        return w.allow(maxPerSecond);
+    }
+
+    private static final class Window {
+        final AtomicLong start = new AtomicLong(System.nanoTime());
+        final AtomicLong count = new AtomicLong();
+        final AtomicLong suppressed = new AtomicLong();
+
+        long allow(int max) {
+            long now = System.nanoTime();
+            long s = start.get();
+            if (now - s >= WINDOW_NANOS && start.compareAndSet(s, now)) {
+                count.set(0);
+            }
+            if (count.incrementAndGet() <= max) {
+                return suppressed.getAndSet(0);
+            }
+            suppressed.incrementAndGet();
+            return DENY;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.tavla.server.log;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sunucunun asenkron, yapılandırılmış (JSON satırı) log sistemi.
+ *
+ * Ayarlar (ilk kullanımda okunur):
+ *  -Dtavla.log.file=logs/tavla.log  verilmezse standart çıktıya yazılır
+ *  -Dtavla.log.maxBytes=67108864     dosya bu boyuta gelince döner
+ *  -Dtavla.log.files=5               tutulacak dosya sayısı (aktif dosya dahil)
+ *  -Dtavla.log.level=INFO
+ *  -Dtavla.log.queue=8192            halka kuyruk kapasitesi (2'nin kuvveti)
+ *  -Dtavla.log.errorsPerSecond=5     aynı hata için saniyede en fazla kayıt
+ */
+public final class Log {
+
+    private static final ConcurrentHashMap<String, Logger> LOGGERS = new ConcurrentHashMap<>();
+
+    private Log() {}
+
+    public static Logger get(String name) {
+        return LOGGERS.computeIfAbsent(name, n -> new Logger(n, Holder.CONTEXT));
+    }
+
+    /** Kuyrukta kalan kayıtları yazar (en fazla timeoutMs bekler). */
+    public static void shutdown(long timeoutMs) {
+        Holder.CONTEXT.writer.shutdown(timeoutMs);
+    }
+
+    /** Kuyruk dolduğu için atlanan kayıt sayısı. */
+    public static long getDroppedCount() {
+        return Holder.CONTEXT.writer.getDroppedCount();
+    }
+
+    /** Writer ve ayarlar; ilk logger istendiğinde kurulur. */
+    static final class Context {
+        final LogLevel level;
+        final AsyncLogWriter writer;
+        final ErrorRateLimiter errorLimiter;
+
+        Context(LogLevel level, AsyncLogWriter writer, ErrorRateLimiter errorLimiter) {
+            this.level = level;
+            this.writer = writer;
+            this.errorLimiter = errorLimiter;
+        }
+    }
+
+    private static final class Holder {
+        static final Context CONTEXT = create();
+
+        private static Context create() {
+            LogLevel level = LogLevel.valueOf(System.getProperty("tavla.log.level", "INFO").toUpperCase());
+            int queue = Integer.getInteger("tavla.log.queue", 8192);
+            int errorsPerSecond = Integer.getInteger("tavla.log.errorsPerSecond", 5);
+
+            LogSink sink;
+            String file = System.getProperty("tavla.log.file");
+            if (file == null || file.isBlank()) {
+                sink = new ConsoleSink();
+            } else {
+                long maxBytes = Long.getLong("tavla.log.maxBytes", 64L * 1024 * 1024);
+                int files = Integer.getInteger("tavla.log.files", 5);
+                try {
+                    sink = new RotatingFileSink(Path.of(file), maxBytes, files);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Log dosyası açılamadı: " + file, e);
+                }
+            }
+
+            AsyncLogWriter writer = new AsyncLogWriter(queue, sink);
+            // Normal kapanışta kuyrukta kalanlar kaybolmasın
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> writer.shutdown(2_000), "log-flush"));
+            return new Context(level, writer, new ErrorRateLimiter(errorsPerSecond));
+        }
+    }
+}
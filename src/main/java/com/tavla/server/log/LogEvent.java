@@ -0,0 +1,29 @@
+package com.tavla.server.log;
+
+/**
+ * Kuyruktaki tek bir log kaydı. Üretici thread'de sadece alanlar doldurulur,
+ * tüm formatlama writer thread'inde yapılır.
+ * fields: anahtar, değer, anahtar, değer ... (değerler değişmez nesneler olmalı)
+ */
+final class LogEvent {
+    final long timeMillis;
+    final LogLevel level;
+    final String logger;
+    final String thread;
+    final String message;
+    final Object[] fields;
+    final Throwable error;
+    final long suppressed; // bu kayıttan önce rate limit yüzünden atlanan aynı hata sayısı
+
+    LogEvent(long timeMillis, LogLevel level, String logger, String thread, String message,
+             Object[] fields, Throwable error, long suppressed) {
+        this.timeMillis = timeMillis;
+        this.level = level;
+        this.logger = logger;
+        this.thread = thread;
+        this.message = message;
+        this.fields = fields;
+        this.error = error;
+        this.suppressed = suppressed;
+    }
+}
@@ -0,0 +1,8 @@
+package com.tavla.server.log;
+
+public enum LogLevel {
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR
+}
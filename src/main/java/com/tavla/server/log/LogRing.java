@@ -0,0 +1,63 @@
+package com.tavla.server.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sınırlı, kilitsiz, çok üretici / tek tüketicili halka kuyruk (Vyukov tarzı).
+ *
+ * - Her yuvanın bir sıra numarası vardır; üretici yuvayı tail üzerinde CAS ile alır,
+ *   kaydı yazar ve yuvanın sırasını ilerleterek yayınlar
+ * - Kuyruk doluysa offer() beklemeden false döner (log için bloklamak yerine atlamak tercih edilir)
+ * - poll() sadece tek bir thread'den (writer) çağrılmalıdır
+ */
+final class LogRing {
+
+    private final LogEvent[] buffer;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private long head; // sadece tüketici
+
+    LogRing(int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity 2'nin kuvveti olmalı: " + capacity);
+        }
+        this.buffer = new LogEvent[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = capacity - 1;
+    }
+
+    boolean offer(LogEvent event) {
+        while (true) {
+            long t = tail.get();
+            int index = (int) (t & mask);
+            long diff = sequences.get(index) - t;
+            if (diff == 0) {
+                if (tail.compareAndSet(t, t + 1)) {
+                    buffer[index] = event;
+                    sequences.set(index, t + 1); // yayınla
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false; // dolu: tüketici bu yuvayı henüz boşaltmadı
+            }
+            // diff > 0: başka bir üretici bu yuvayı aldı, tekrar dene
+        }
+    }
+
+    LogEvent poll() {
+        int index = (int) (head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null; // boş ya da yazılması sürüyor
+        }
+        LogEvent event = buffer[index];
+        buffer[index] = null;
+        sequences.set(index, head + buffer.length); // yuvayı bir sonraki tura aç
+        head++;
+        return event;
+    }
+}
@@ -0,0 +1,13 @@
+package com.tavla.server.log;
+
+import java.io.IOException;
+
+/**
+ * Formatlanmış log satırlarının yazıldığı hedef. Sadece writer thread'inden çağrılır.
+ */
+interface LogSink {
+
+    void write(byte[] bytes, int length) throws IOException;
+
+    void close() throws IOException;
+}
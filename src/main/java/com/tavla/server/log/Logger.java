@@ -0,0 +1,56 @@
+package com.tavla.server.log;
+
+/**
+ * Adlandırılmış logger. Kayıtlar anahtar/değer alanlarıyla JSON satırı olarak yazılır:
+ *   log.info("Bağlandı", "remote", addr, "connections", n);
+ *
+ * Çağrı sadece bir kayıt nesnesi oluşturup kuyruğa ekler; formatlama ve I/O
+ * arka plandaki writer thread'indedir. Hata kayıtları (logger + mesaj başına) hız sınırlıdır.
+ */
+public final class Logger {
+
+    private final String name;
+    private final Log.Context context;
+
+    Logger(String name, Log.Context context) {
+        this.name = name;
+        this.context = context;
+    }
+
+    public boolean isEnabled(LogLevel level) {
+        return level.ordinal() >= context.level.ordinal();
+    }
+
+    public void debug(String message, Object... fields) {
+        log(LogLevel.DEBUG, message, null, fields);
+    }
+
+    public void info(String message, Object... fields) {
+        log(LogLevel.INFO, message, null, fields);
+    }
+
+    public void warn(String message, Object... fields) {
+        log(LogLevel.WARN, message, null, fields);
+    }
+
+    public void error(String message, Throwable error, Object... fields) {
+        log(LogLevel.ERROR, message, error, fields);
+    }
+
+    private void log(LogLevel level, String message, Throwable error, Object[] fields) {
+        if (!isEnabled(level)) {
+            return;
+        }
+
+        long suppressed = 0;
+        if (level == LogLevel.ERROR) {
+            suppressed = context.errorLimiter.allow(name + '|' + message);
+            if (suppressed == ErrorRateLimiter.DENY) {
+                return;
+            }
+        }
+
+        context.writer.submit(new LogEvent(System.currentTimeMillis(), level, name,
+                Thread.currentThread().getName(), message, fields, error, suppressed));
+    }
+}
@@ -0,0 +1,76 @@
+package com.tavla.server.log;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Boyuta göre dönen log dosyası: file, file.1, ..., file.(keep-1).
+ * Dosya maxBytes'ı aşacaksa kapatılır, eski dosyalar bir kaydırılır ve yeni dosya açılır.
+ */
+final class RotatingFileSink implements LogSink {
+
+    private final Path file;
+    private final long maxBytes;
+    private final int keep;
+
+    private FileChannel channel;
+    private long size;
+
+    RotatingFileSink(Path file, long maxBytes, int keep) throws IOException {
+        this.file = file;
+        this.maxBytes = maxBytes;
+        this.keep = Math.max(1, keep);
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        open();
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        size = channel.size();
+    }
+
+    @Override
+    public void write(byte[] bytes, int length) throws IOException {
+        if (size > 0 && size + length > maxBytes) {
+            rotate();
+        }
+        ByteBuffer buf = ByteBuffer.wrap(bytes, 0, length);
+        while (buf.hasRemaining()) {
+            size += channel.write(buf);
+        }
+    }
+
+    private void rotate() throws IOException {
+        channel.close();
+        Files.deleteIfExists(rotated(keep - 1));
+        for (int i = keep - 2; i >= 1; i--) {
+            Path from = rotated(i);
+            if (Files.exists(from)) {
+                Files.move(from, rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (keep > 1) {
+            Files.move(file, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.deleteIfExists(file);
+        }
+        open();
+    }
+
+    private Path rotated(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
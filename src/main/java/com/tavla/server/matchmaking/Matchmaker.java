@@ -0,0 +1,243 @@
+package com.tavla.server.matchmaking;
+
+import com.tavla.server.log.Log;
+import com.tavla.server.log.Logger;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Rating'e göre eşleştirme havuzu.
+ *
+ * - Havuz rating'e göre BUCKET_WIDTH genişliğinde kovalara bölünür; her kova
+ *   bekleme sırasına göre (en eski başta) çift yönlü bağlı listedir
+ * - Havuzu sadece tick thread'i değiştirir; enqueue/cancel herhangi bir thread'den
+ *   çağrılır ve kilitsiz bir inbox'a düşer, bir sonraki tick'te uygulanır
+ * - Her tick kovaları artan rating sırasıyla bir kez gezer ve sıradaki iki adayı,
+ *   ikisinin de kabul penceresine giriyorsa eşleştirir: O(n + kova sayısı), O(n²) tarama yok
+ * - Kabul penceresi bekleme süresiyle genişler (BASE_WINDOW + WIDEN_PER_SECOND * saniye, en fazla MAX_WINDOW)
+ *
+ * @param <C> oyuncunun bağlantı tipi (sunucuda WebSocket)
+ */
+public class Matchmaker<C> {
+
+    private static final Logger LOG = Log.get("matchmaking");
+
+    public static final int MIN_RATING = 0;
+    public static final int MAX_RATING = 4000;
+    public static final int BUCKET_WIDTH = 25;
+
+    static final int BASE_WINDOW = 50;
+    static final int WIDEN_PER_SECOND = 25;
+    static final int MAX_WINDOW = 400;
+
+    /** Eşleşen iki oyuncu için tick thread'inden çağrılır. */
+    public interface MatchListener<C> {
+        void onMatch(Ticket<C> first, Ticket<C> second);
+    }
+
+    private final MatchListener<C> listener;
+    private final Predicate<C> alive;
+    private final LongSupplier clock;
+
+    // Tick thread'ine ait: kovalar ve bağlantı -> bilet index'i
+    private final Bucket<C>[] buckets;
+    private final Map<C, Ticket<C>> byConnection = new HashMap<>();
+
+    private final Queue<Ticket<C>> inbox = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final LongAdder matched = new LongAdder();
+    private volatile long lastTickNanos;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "matchmaker");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /**
+     * @param alive bağlantı hâlâ açık mı (kopmuş oyuncular eşleştirilmeden düşülür)
+     * @param clock System.nanoTime benzeri saat (testlerde sahte saat verilebilir)
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Matchmaker(MatchListener<C> listener, Predicate<C> alive, LongSupplier clock) {
+        this.listener = listener;
+        this.alive = alive;
+        this.clock = clock;
+        int count = (MAX_RATING - MIN_RATING) / BUCKET_WIDTH;
+        this.buckets = new Bucket[count];
+        for (int i = 0; i < count; i++) {
+            buckets[i] = new Bucket<>();
+        }
+    }
+
+    public Matchmaker(MatchListener<C> listener, Predicate<C> alive) {
+        this(listener, alive, System::nanoTime);
+    }
+
+    public void start(long tickMs) {
+        scheduler.scheduleWithFixedDelay(this::tickSafely, tickMs, tickMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Oyuncuyu havuza ekler; aynı bağlantının önceki bileti varsa yerine geçer.
+     * Rating [MIN_RATING, MAX_RATING) aralığına kırpılır.
+     */
+    public void enqueue(C connection, String playerId, int rating) {
+        int clamped = Math.max(MIN_RATING, Math.min(MAX_RATING - 1, rating));
+        inbox.offer(new Ticket<>(connection, playerId, clamped, clock.getAsLong(), false));
+    }
+
+    /** Oyuncuyu havuzdan çıkarır (havuzda değilse etkisiz). */
+    public void cancel(C connection) {
+        inbox.offer(new Ticket<>(connection, null, 0, 0, true));
+    }
+
+    /** Havuzdaki oyuncu sayısı (son tick itibarıyla). */
+    public int getQueuedCount() {
+        return queued.get();
+    }
+
+    public long getMatchedCount() {
+        return matched.sum();
+    }
+
+    /** Son tick'in süresi (nanosaniye). */
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    private void tickSafely() {
+        try {
+            tick();
+        } catch (RuntimeException e) {
+            LOG.error("Matchmaker hatası", e);
+        }
+    }
+
+    /** Bir eşleştirme turu. Sadece tek bir thread'den (scheduler ya da test) çağrılmalıdır. */
+    void tick() {
+        long start = clock.getAsLong();
+        drainInbox();
+
+        Ticket<C> pending = null;
+        for (Bucket<C> bucket : buckets) {
+            Ticket<C> t = bucket.head;
+            while (t != null) {
+                Ticket<C> next = t.next;
+
+                if (!alive.test(t.connection)) {
+                    remove(t);
+                } else if (pending != null && acceptable(pending, t, start)) {
+                    remove(pending);
+                    remove(t);
+                    matched.increment();
+                    listener.onMatch(pending, t);
+                    pending = null;
+                } else {
+                    // Sonraki adaylar daha uzak olacağı için eski pending'in şansı kalmadı
+                    pending = t;
+                }
+                t = next;
+            }
+        }
+
+        queued.set(byConnection.size());
+        lastTickNanos = clock.getAsLong() - start;
+    }
+
+    private void drainInbox() {
+        Ticket<C> op;
+        while ((op = inbox.poll()) != null) {
+            Ticket<C> existing = byConnection.get(op.connection);
+            if (existing != null) {
+                remove(existing);
+            }
+            if (!op.cancel) {
+                buckets[(op.rating - MIN_RATING) / BUCKET_WIDTH].append(op);
+                byConnection.put(op.connection, op);
+            }
+        }
+    }
+
+    private void remove(Ticket<C> t) {
+        buckets[(t.rating - MIN_RATING) / BUCKET_WIDTH].unlink(t);
+        byConnection.remove(t.connection, t);
+    }
+
+    /** İki bilet birbirinin penceresine giriyor mu (pencere iki tarafın da kabulü gerektirir). */
+    private static boolean acceptable(Ticket<?> a, Ticket<?> b, long now) {
+        int diff = Math.abs(a.rating - b.rating);
+        return diff <= window(a, now) && diff <= window(b, now);
+    }
+
+    static int window(Ticket<?> t, long now) {
+        long waitedSec = TimeUnit.NANOSECONDS.toSeconds(Math.max(0, now - t.enqueuedAt));
+        return (int) Math.min(MAX_WINDOW, BASE_WINDOW + WIDEN_PER_SECOND * waitedSec);
+    }
+
+    /** Havuzdaki tek bir oyuncu. */
+    public static final class Ticket<C> {
+        public final C connection;
+        public final String playerId; // null olabilir
+        public final int rating;
+        public final long enqueuedAt;
+        final boolean cancel;
+
+        Ticket<C> prev;
+        Ticket<C> next;
+
+        Ticket(C connection, String playerId, int rating, long enqueuedAt, boolean cancel) {
+            this.connection = connection;
+            this.playerId = playerId;
+            this.rating = rating;
+            this.enqueuedAt = enqueuedAt;
+            this.cancel = cancel;
+        }
+    }
+
+    /** Bekleme sırasına göre bağlı liste; ekleme ve çıkarma O(1). */
+    private static final class Bucket<C> {
+        Ticket<C> head;
+        Ticket<C> tail;
+
+        void append(Ticket<C> t) {
+            t.prev = tail;
+            t.next = null;
+            if (tail == null) {
+                head = t;
+            } else {
+                tail.next = t;
+            }
+            tail = t;
+        }
+
+        void unlink(Ticket<C> t) {
+            if (t.prev == null) {
+                head = t.next;
+            } else {
+                t.prev.next = t.next;
+            }
+            if (t.next == null) {
+                tail = t.prev;
+            } else {
+                t.next.prev = t.prev;
+            }
+            t.prev = null;
+            t.next = null;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.tavla.server.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Kilitsiz, kayıt sırasında bellek ayırmayan (allocation-free) log-lineer histogram.
+ *
+ * HdrHistogram fikri: her 2'nin kuvveti aralığı SUB_BUCKETS eşit alt kovaya bölünür,
+ * böylece göreli hata her büyüklükte en fazla 1/SUB_BUCKETS (%12.5) olur.
+ * - 0..7 ns tek tek, sonrası log-lineer; üst sınır 2^MAX_EXPONENT ns (~18 dk), üstü son kovaya düşer
+ * - record() sadece bir AtomicLongArray artırımı + iki toplamdır; nesne yaratmaz
+ * - Quantile hesabı (scrape anında) kovaların üst sınırını döndürür
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    // [0, BUCKET_COUNT) kova sayaçları, ardından count ve sum
+    private final AtomicLongArray cells = new AtomicLongArray(BUCKET_COUNT + 2);
+    private static final int COUNT = BUCKET_COUNT;
+    private static final int SUM = BUCKET_COUNT + 1;
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        cells.incrementAndGet(bucketOf(nanos));
+        cells.incrementAndGet(COUNT);
+        cells.addAndGet(SUM, nanos);
+    }
+
+    public long getCount() {
+        return cells.get(COUNT);
+    }
+
+    public long getSumNanos() {
+        return cells.get(SUM);
+    }
+
+    /**
+     * q (0..1) quantile'ının üst sınırı, nanosaniye. Kayıt yoksa 0.
+     * Eşzamanlı kayıtlar sırasında yaklaşık bir değerdir.
+     */
+    public long valueAtQuantile(double q) {
+        long total = 0;
+        long[] counts = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] = cells.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBoundOf(i);
+            }
+        }
+        return upperBoundOf(BUCKET_COUNT - 1);
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /** Kovaya düşebilecek en büyük değer. */
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = bucket % SUB_BUCKETS;
+        long base = 1L << exponent;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return base + (sub + 1) * width - 1;
+    }
+}
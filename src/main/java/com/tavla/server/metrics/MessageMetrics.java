@@ -0,0 +1,70 @@
+package com.tavla.server.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Mesaj tipi x aşama başına gecikme histogramları.
+ *
+ * Tip listesi kuruluşta sabitlenir ve histogramlar önceden yaratılır; kayıt sırasında
+ * sadece okunan (değişmeyen) bir HashMap'e bakılır, yani hot path'te kilit ve nesne yok.
+ * Bilinmeyen tipler (istemci her şeyi gönderebilir) OTHER_TYPE altında toplanır,
+ * böylece metrik sayısı istemci tarafından şişirilemez.
+ */
+public class MessageMetrics {
+
+    public static final String OTHER_TYPE = "other";
+
+    private final Map<String, LatencyHistogram[]> byType = new HashMap<>();
+
+    public MessageMetrics(Set<String> types) {
+        Set<String> all = new TreeSet<>(types);
+        all.add(OTHER_TYPE);
+        for (String type : all) {
+            LatencyHistogram[] perStage = new LatencyHistogram[Stage.values().length];
+            for (int i = 0; i < perStage.length; i++) {
+                perStage[i] = new LatencyHistogram();
+            }
+            byType.put(type, perStage);
+        }
+    }
+
+    public void record(String type, Stage stage, long nanos) {
+        LatencyHistogram[] perStage = (type == null) ? null : byType.get(type);
+        if (perStage == null) {
+            perStage = byType.get(OTHER_TYPE);
+        }
+        perStage[stage.ordinal()].record(nanos);
+    }
+
+    /** type/stage histogramı (hiç kayıt yoksa count 0). */
+    public LatencyHistogram get(String type, Stage stage) {
+        LatencyHistogram[] perStage = byType.get(type);
+        return (perStage == null) ? null : perStage[stage.ordinal()];
+    }
+
+    /** Prometheus summary formatında yazar (saniye cinsinden). Sadece kaydı olanlar yazılır. */
+    public void writePrometheus(StringBuilder out, String name, String help) {
+        PrometheusFormat.header(out, name, "summary", help);
+
+        for (Map.Entry<String, LatencyHistogram[]> e : new TreeMap<>(byType).entrySet()) {
+            for (Stage stage : Stage.values()) {
+                LatencyHistogram h = e.getValue()[stage.ordinal()];
+                long count = h.getCount();
+                if (count == 0) {
+                    continue;
+                }
+                String labels = "type=\"" + e.getKey() + "\",stage=\"" + stage.label + "\"";
+                for (double q : PrometheusFormat.QUANTILES) {
+                    PrometheusFormat.sample(out, name, labels + ",quantile=\"" + q + "\"",
+                            PrometheusFormat.seconds(h.valueAtQuantile(q)));
+                }
+                PrometheusFormat.sample(out, name + "_sum", labels, PrometheusFormat.seconds(h.getSumNanos()));
+                PrometheusFormat.sample(out, name + "_count", labels, count);
+            }
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.tavla.server.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * /metrics'i Prometheus text formatında sunan küçük HTTP endpoint'i.
+ *
+ * - JDK'nın dahili HttpServer'ı kullanılır, ek bağımlılık yok
+ * - Gauge değerleri ve histogram quantile'ları sadece scrape anında hesaplanır;
+ *   sunucunun hot path'i bu sınıfı hiç görmez
+ * - Sadece localhost'a bağlanması önerilir (kimlik doğrulama yok)
+ * - Label'lı gauge ailesi, label değeri başına bir örnek yazar (ör: tavla_shard_rooms{shard="3"})
+ * - /metrics dışında sunucu kendi yönetim sayfalarını endpoint() ile ekleyebilir (ör: /analytics)
+ */
+public final class MetricsServer {
+
+    private final HttpServer http;
+    private final MessageMetrics messages;
+    private final List<Gauge> gauges = new ArrayList<>();
+
+    public MetricsServer(InetSocketAddress address, MessageMetrics messages) {
+        this.messages = messages;
+        try {
+            this.http = HttpServer.create(address, 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Metrics endpoint açılamadı: " + address, e);
+        }
+        http.createContext("/metrics", this::handle);
+        http.setExecutor(Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "metrics-http");
+            t.setDaemon(true);
+            return t;
+        }));
+    }
+
+    /** start()'tan önce çağrılmalıdır. */
+    public void gauge(String name, String help, DoubleSupplier value) {
+        gauges.add(new Gauge(name, help, null, () -> Map.of("", value.getAsDouble())));
+    }
+
+    /**
+     * Label değeri başına bir örnek veren gauge ailesi. values her scrape'te bir kez çağrılır,
+     * örnekler map'in sırasıyla yazılır. start()'tan önce çağrılmalıdır.
+     */
+    public void gauge(String name, String help, String label, Supplier<Map<String, ? extends Number>> values) {
+        gauges.add(new Gauge(name, help, label, values));
+    }
+
+    /** path'e GET'te body'nin o anki değerini döner. start()'tan önce çağrılmalıdır. */
+    public void endpoint(String path, String contentType, Supplier<String> body) {
+        http.createContext(path, exchange -> respond(exchange, contentType, body));
+    }
+
+    public void start() {
+        http.start();
+    }
+
+    public void stop() {
+        http.stop(0);
+    }
+
+    public InetSocketAddress getAddress() {
+        return http.getAddress();
+    }
+
+    /** Tüm metriklerin Prometheus text hali. */
+    public String render() {
+        StringBuilder out = new StringBuilder(8192);
+        messages.writePrometheus(out, "tavla_message_stage_seconds",
+                "Mesaj işleme gecikmesi, tip ve aşama başına");
+
+        for (Gauge g : gauges) {
+            PrometheusFormat.header(out, g.name, "gauge", g.help);
+            for (Map.Entry<String, ? extends Number> e : g.values.get().entrySet()) {
+                String labels = g.label == null ? null : g.label + "=\"" + e.getKey() + "\"";
+                PrometheusFormat.sample(out, g.name, labels, e.getValue().doubleValue());
+            }
+        }
+        writeJvm(out);
+        return out.toString();
+    }
+
+    private static void writeJvm(StringBuilder out) {
+        MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        PrometheusFormat.header(out, "jvm_heap_used_bytes", "gauge", "Kullanılan heap");
+        PrometheusFormat.sample(out, "jvm_heap_used_bytes", null, heap.getUsed());
+        PrometheusFormat.header(out, "jvm_heap_committed_bytes", "gauge", "Ayrılmış heap");
+        PrometheusFormat.sample(out, "jvm_heap_committed_bytes", null, heap.getCommitted());
+
+        List<GarbageCollectorMXBean> gcs = ManagementFactory.getGarbageCollectorMXBeans();
+        PrometheusFormat.header(out, "jvm_gc_collections_total", "counter", "GC çalışma sayısı");
+        for (GarbageCollectorMXBean gc : gcs) {
+            PrometheusFormat.sample(out, "jvm_gc_collections_total", "gc=\"" + gc.getName() + "\"",
+                    Math.max(0, gc.getCollectionCount()));
+        }
+        PrometheusFormat.header(out, "jvm_gc_time_seconds_total", "counter", "GC'de geçen toplam süre");
+        for (GarbageCollectorMXBean gc : gcs) {
+            PrometheusFormat.sample(out, "jvm_gc_time_seconds_total", "gc=\"" + gc.getName() + "\"",
+                    Math.max(0, gc.getCollectionTime()) / 1000.0);
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        respond(exchange, "text/plain; version=0.0.4; charset=utf-8", this::render);
+    }
+
+    private static void respond(HttpExchange exchange, String contentType, Supplier<String> render)
+            throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = render.get().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream os = exchange.getResponseBody()) {
+                os.write(body);
+            }
+        }
+    }
+
+    private static final class Gauge {
+        final String name;
+        final String help;
+        final String label; // label'sız gauge için null
+        final Supplier<Map<String, ? extends Number>> values;
+
+        Gauge(String name, String help, String label, Supplier<Map<String, ? extends Number>> values) {
+            this.name = name;
+            this.help = help;
+            this.label = label;
+            this.values = values;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.tavla.server.metrics;
+
+/**
+ * Bir mesajın sunucuda geçtiği aşamalar.
+ */
+public enum Stage {
+    PARSE,      // JSON -> ClientMessage / payload
+    VALIDATE,   // odanın mailbox'ında ön koşullar: oyun başladı mı, sıra, küp, hamle/tur kuralları
+    APPLY,      // odanın mailbox'ında state değişikliği ve journal (gönderim hariç)
+    SERIALIZE,  // ServerMessage -> JSON
+    SEND;       // socket'in çıkış kuyruğuna yazma
+
+    final String label = name().toLowerCase();
+}
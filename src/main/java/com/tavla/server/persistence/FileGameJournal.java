@@ -0,0 +1,355 @@
+package com.tavla.server.persistence;
+
+import com.tavla.server.log.Log;
+import com.tavla.server.log.Logger;
+import com.tavla.core.GameRecorder;
+import com.tavla.core.Player;
+import com.tavla.core.PositionId;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+/**
+ * Segment dosyalarına yazan, append-only binary journal.
+ *
+ * Kayıt formatı (big-endian):
+ *  int  length   -> crc'den sonraki byte sayısı
+ *  int  crc32    -> seq'ten kaydın sonuna kadar
+ *  long seq
+ *  byte type
+ *  byte roomIdLength, roomId (ASCII)
+ *  gövde: token (byte uzunluk + ASCII) | zarlar (2 byte) | hamle (3 byte) | boş
+ *  GAME_STARTED gövdesi: long startedAt, oyuncu(W), oyuncu(B) (byte uzunluk + UTF-8, yoksa 0)
+ *  ROOM_CREATED gövdesi: token, byte matchLength (para oyununda 0)
+ *  küp olaylarının (DOUBLE_*) gövdesi boştur
+ *
+ * Group commit:
+ * - append* metodları kaydı çağıran thread'de küçük bir byte[]'a kodlar ve
+ *   kilitsiz kuyruğa atar; diske dokunmaz, beklemez
+ * - Tek bir writer thread kuyrukta biriken her şeyi tek seferde yazar ve
+ *   batch başına bir kez fsync (force) yapar
+ * Yani saniyede binlerce hamle, batch sayısı kadar fsync'e mal olur.
+ *
+ * Yazma hatası:
+ * - Batch'in kayıtları fsync'e kadar writer'da tutulur; hata olursa segment son fsync edilmiş
+ *   boyuta kesilir ve aynı kayıtlar artan aralıklarla tekrar yazılır (kayıt sessizce atılmaz)
+ * - Hata sürdükçe append* IllegalStateException fırlatır; kuyruk sınırsız büyümez ve çağıran
+ *   komut hata alır. Başarılı ilk denemeyle journal yeniden kabul etmeye başlar
+ * - Hatalı deneme sayısı writeErrorCount() ile metrics'e verilir
+ */
+public class FileGameJournal implements GameJournal {
+
+    private static final Logger LOG = Log.get("journal");
+
+    public static final long SEGMENT_BYTES = 64L * 1024 * 1024;
+
+    private static final int BATCH_BYTES = 256 * 1024;
+    // Kuyruk boşken writer'ın uyuma süresi; aynı zamanda group commit penceresi
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+    // Yazma hatasından sonra tekrar deneme aralığı: 10 ms'den başlayıp 2 sn'ye kadar ikiye katlanır
+    private static final long RETRY_MIN_NANOS = 10_000_000;
+    private static final long RETRY_MAX_NANOS = 2_000_000_000;
+
+    private final Path dir;
+    private final Queue<byte[]> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicLong nextSeq;
+    private final AtomicLong durableSeq = new AtomicLong();
+    private final AtomicLong writeErrors = new AtomicLong();
+    private final Thread writer;
+
+    private volatile boolean running = true;
+    private volatile IOException failure; // son yazma denemesi başarısızsa hatası
+
+    // Testler için: sonraki bu kadar deneme, kayıtlar yazıldıktan sonra fsync'te başarısız olur
+    volatile int failNextWrites;
+
+    // Sadece writer thread'i kullanır
+    private FileChannel channel; // segment kapandıysa (ya da açılamadıysa) null
+    private long segmentSize;
+    private long durableSize;    // segmentin son fsync'teki boyu
+
+    private FileGameJournal(Path dir, long firstSeq) throws IOException {
+        this.dir = dir;
+        this.nextSeq = new AtomicLong(firstSeq);
+        this.durableSeq.set(firstSeq - 1);
+        Files.createDirectories(dir);
+        openSegment(firstSeq);
+
+        this.writer = new Thread(this::writerLoop, "journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Journal'ı açar. Her açılışta yeni bir segment başlar; eski segmentlere dokunulmaz.
+     * @param firstSeq verilecek ilk sıra numarası (replay'de görülen son seq + 1)
+     */
+    public static FileGameJournal open(Path dir, long firstSeq) {
+        try {
+            return new FileGameJournal(dir, firstSeq);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal açılamadı: " + dir, e);
+        }
+    }
+
+    public Path getDirectory() {
+        return dir;
+    }
+
+    /** fsync ile diske kalıcı olarak yazılmış en büyük seq. */
+    public long durableSeq() {
+        return durableSeq.get();
+    }
+
+    // ---------------- Append ----------------
+
+    @Override
+    public long roomCreated(String roomId, String whiteToken, int matchLength) {
+        byte[] t = whiteToken.getBytes(StandardCharsets.US_ASCII);
+        ByteBuffer body = ByteBuffer.allocate(1 + t.length + 1);
+        body.put((byte) t.length).put(t).put((byte) matchLength);
+        return append(JournalEventType.ROOM_CREATED, roomId, body.array(), body.capacity());
+    }
+
+    @Override
+    public long playerJoined(String roomId, String blackToken) {
+        return appendToken(JournalEventType.PLAYER_JOINED, roomId, blackToken);
+    }
+
+    @Override
+    public long gameStarted(String roomId, long startedAt, String whitePlayer, String blackPlayer) {
+        byte[] white = GameRecorder.utf8(whitePlayer);
+        byte[] black = GameRecorder.utf8(blackPlayer);
+        ByteBuffer body = ByteBuffer.allocate(8 + 1 + white.length + 1 + black.length);
+        body.putLong(startedAt);
+        body.put((byte) white.length).put(white);
+        body.put((byte) black.length).put(black);
+        return append(JournalEventType.GAME_STARTED, roomId, body.array(), body.capacity());
+    }
+
+    @Override
+    public long roll(String roomId, int die1, int die2) {
+        byte[] body = {(byte) die1, (byte) die2};
+        return append(JournalEventType.ROLL, roomId, body, body.length);
+    }
+
+    @Override
+    public long move(String roomId, int from, int to, int step) {
+        byte[] body = {(byte) from, (byte) to, (byte) step};
+        return append(JournalEventType.MOVE, roomId, body, body.length);
+    }
+
+    @Override
+    public long roomRemoved(String roomId) {
+        return append(JournalEventType.ROOM_REMOVED, roomId, null, 0);
+    }
+
+    @Override
+    public long forfeit(String roomId, Player loser) {
+        byte[] body = {(byte) loser.ordinal()};
+        return append(JournalEventType.FORFEIT, roomId, body, body.length);
+    }
+
+    @Override
+    public long positionImported(String roomId, PositionId.Key position, Player onRoll, int die1, int die2) {
+        ByteBuffer body = ByteBuffer.allocate(PositionId.KEY_BYTES + 3);
+        position.writeTo(body);
+        body.put((byte) onRoll.ordinal()).put((byte) die1).put((byte) die2);
+        return append(JournalEventType.POSITION_IMPORTED, roomId, body.array(), body.capacity());
+    }
+
+    @Override
+    public long doubleOffered(String roomId) {
+        return append(JournalEventType.DOUBLE_OFFERED, roomId, null, 0);
+    }
+
+    @Override
+    public long doubleTaken(String roomId) {
+        return append(JournalEventType.DOUBLE_TAKEN, roomId, null, 0);
+    }
+
+    @Override
+    public long doubleDropped(String roomId) {
+        return append(JournalEventType.DOUBLE_DROPPED, roomId, null, 0);
+    }
+
+    @Override
+    public long lastAppendedSeq() {
+        return nextSeq.get() - 1;
+    }
+
+    @Override
+    public long writeErrorCount() {
+        return writeErrors.get();
+    }
+
+    @Override
+    public boolean isFailing() {
+        return failure != null;
+    }
+
+    private long appendToken(JournalEventType type, String roomId, String token) {
+        byte[] t = token.getBytes(StandardCharsets.US_ASCII);
+        byte[] body = new byte[1 + t.length];
+        body[0] = (byte) t.length;
+        System.arraycopy(t, 0, body, 1, t.length);
+        return append(type, roomId, body, body.length);
+    }
+
+    private long append(JournalEventType type, String roomId, byte[] body, int bodyLength) {
+        if (!running) {
+            throw new IllegalStateException("Journal kapalı");
+        }
+        IOException error = failure;
+        if (error != null) {
+            throw new IllegalStateException("Journal diske yazamıyor: " + error.getMessage(), error);
+        }
+        byte[] id = roomId.getBytes(StandardCharsets.US_ASCII);
+        int length = 8 + 1 + 1 + id.length + bodyLength;
+
+        ByteBuffer buf = ByteBuffer.allocate(8 + length);
+        buf.putInt(length);
+        buf.putInt(0); // crc sonra
+        long seq = nextSeq.getAndIncrement();
+        buf.putLong(seq);
+        buf.put(type.code);
+        buf.put((byte) id.length);
+        buf.put(id);
+        if (bodyLength > 0) {
+            buf.put(body, 0, bodyLength);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), 8, length);
+        buf.putInt(4, (int) crc.getValue());
+
+        queue.offer(buf.array());
+        return seq;
+    }
+
+    // ---------------- Writer ----------------
+
+    private void writerLoop() {
+        ByteBuffer batch = ByteBuffer.allocateDirect(BATCH_BYTES);
+        List<byte[]> unwritten = new ArrayList<>();
+        long retryNanos = RETRY_MIN_NANOS;
+        while (running || !queue.isEmpty() || !unwritten.isEmpty()) {
+            if (unwritten.isEmpty()) {
+                byte[] record = queue.poll();
+                if (record == null) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    continue;
+                }
+                do {
+                    unwritten.add(record);
+                    record = queue.poll();
+                } while (record != null);
+            }
+
+            try {
+                writeDurably(batch, unwritten);
+                unwritten.clear();
+                if (failure != null) {
+                    LOG.info("Journal yazma hatası geçti", "errors", writeErrors.get());
+                    failure = null;
+                }
+                retryNanos = RETRY_MIN_NANOS;
+            } catch (IOException e) {
+                writeErrors.incrementAndGet();
+                if (failure == null) {
+                    LOG.error("Journal yazma hatası; kayıtlar tekrar denenecek", e, "records", unwritten.size());
+                }
+                failure = e;
+                if (!running) {
+                    // Kapanışta sonsuza kadar beklenmez; yazılamayanlar açıkça raporlanır
+                    LOG.error("Journal kapanırken kayıtlar yazılamadı", e,
+                            "records", unwritten.size() + queue.size());
+                    return;
+                }
+                LockSupport.parkNanos(retryNanos);
+                retryNanos = Math.min(retryNanos * 2, RETRY_MAX_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Kayıtları yazar ve fsync eder. Hata olursa segment son fsync edilmiş boyuna kesilerek
+     * bırakılır, aynı liste tekrar verilebilir (yarım yazılmış kayıt iki kez görünmez).
+     */
+    private void writeDurably(ByteBuffer batch, List<byte[]> records) throws IOException {
+        if (channel == null) {
+            openSegment(ByteBuffer.wrap(records.get(0)).getLong(8));
+        } else if (segmentSize != durableSize) {
+            channel.truncate(durableSize);
+            segmentSize = durableSize;
+        }
+
+        long maxSeq = -1;
+        batch.clear();
+        for (byte[] record : records) {
+            if (batch.remaining() < record.length) {
+                writeBatch(batch);
+            }
+            batch.put(record);
+            maxSeq = Math.max(maxSeq, ByteBuffer.wrap(record).getLong(8));
+        }
+        writeBatch(batch);
+        if (failNextWrites > 0) {
+            failNextWrites--;
+            throw new IOException("test: fsync hatası"); // kayıtlar dosyada, ama kalıcı sayılmaz
+        }
+        channel.force(false); // batch başına tek fsync
+        durableSize = segmentSize;
+        durableSeq.accumulateAndGet(maxSeq, Math::max);
+
+        if (segmentSize >= SEGMENT_BYTES) {
+            FileChannel full = channel;
+            channel = null; // sonraki batch yeni segmenti kendi ilk seq'iyle açar
+            full.close();
+        }
+    }
+
+    private void writeBatch(ByteBuffer batch) throws IOException {
+        batch.flip();
+        while (batch.hasRemaining()) {
+            segmentSize += channel.write(batch);
+        }
+        batch.clear();
+    }
+
+    private void openSegment(long firstSeq) throws IOException {
+        Path file = dir.resolve(JournalReader.segmentName(firstSeq));
+        channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        segmentSize = channel.size();
+        durableSize = segmentSize;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writer.join();
+            if (channel != null) {
+                channel.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.tavla.server.persistence;
+
+import com.tavla.core.Player;
+import com.tavla.core.PositionId;
+
+/**
+ * Kabul edilen oda olaylarının kalıcı kaydı.
+ *
+ * Metodlar odanın mailbox'ından çağrılır, bu yüzden bir odanın olayları
+ * journal'a her zaman uygulandıkları sırayla girer.
+ * Uygulamalar çağıran thread'i diske bekletmemelidir.
+ */
+public interface GameJournal {
+
+    /** Journal kapalıyken kullanılan boş uygulama. */
+    GameJournal NOOP = new GameJournal() {
+        @Override public long roomCreated(String roomId, String whiteToken, int matchLength) { return 0; }
+        @Override public long playerJoined(String roomId, String blackToken) { return 0; }
+        @Override public long gameStarted(String roomId, long startedAt, String whitePlayer,
+                                          String blackPlayer) { return 0; }
+        @Override public long roll(String roomId, int die1, int die2) { return 0; }
+        @Override public long move(String roomId, int from, int to, int step) { return 0; }
+        @Override public long roomRemoved(String roomId) { return 0; }
+        @Override public long forfeit(String roomId, Player loser) { return 0; }
+        @Override public long positionImported(String roomId, PositionId.Key position, Player onRoll,
+                                               int die1, int die2) { return 0; }
+        @Override public long doubleOffered(String roomId) { return 0; }
+        @Override public long doubleTaken(String roomId) { return 0; }
+        @Override public long doubleDropped(String roomId) { return 0; }
+        @Override public long lastAppendedSeq() { return 0; }
+        @Override public void close() { }
+    };
+
+    // Her metod olaya verilen sıra numarasını (seq) döndürür
+
+    /** Para oyunu odası. */
+    default long roomCreated(String roomId, String whiteToken) {
+        return roomCreated(roomId, whiteToken, 0);
+    }
+
+    /** Oda kuruldu; matchLength puanlık maç (0 = para oyunu). */
+    long roomCreated(String roomId, String whiteToken, int matchLength);
+
+    long playerJoined(String roomId, String blackToken);
+
+    /** Oyuncu bilgisi olmadan (başlama anı recovery'de okunduğu an sayılır). */
+    default long gameStarted(String roomId) {
+        return gameStarted(roomId, 0, null, null);
+    }
+
+    /**
+     * Oyun başladı. startedAt (epoch ms) ve oyuncu kimlikleri oyunun arşiv kaydına girer;
+     * oyuncular bilinmiyorsa null.
+     */
+    long gameStarted(String roomId, long startedAt, String whitePlayer, String blackPlayer);
+
+    long roll(String roomId, int die1, int die2);
+
+    long move(String roomId, int from, int to, int step);
+
+    long roomRemoved(String roomId);
+
+    /** Oyuncu süre aşımıyla oyunu kaybetti. */
+    long forfeit(String roomId, Player loser);
+
+    /** Oyun dışarıdan alınan bir pozisyona (position ID + sıra + zar) getirildi. Zar atılmadıysa 0. */
+    long positionImported(String roomId, PositionId.Key position, Player onRoll, int die1, int die2);
+
+    /** Sıradaki oyuncu küp çevirdi. */
+    long doubleOffered(String roomId);
+
+    /** Rakip küpü kabul etti (küp iki katına çıktı, kabul edene geçti). */
+    long doubleTaken(String roomId);
+
+    /** Rakip küpü reddetti; oyun bitti. */
+    long doubleDropped(String roomId);
+
+    /** Şimdiye kadar verilen en büyük sıra numarası (henüz diske yazılmamış olabilir). */
+    long lastAppendedSeq();
+
+    /** Diske yazılamayıp tekrar denenen batch sayısı (metrics için). */
+    default long writeErrorCount() {
+        return 0;
+    }
+
+    /** Son yazma denemesi başarısız olduysa true; bu sürede yeni olay kabul edilmez. */
+    default boolean isFailing() {
+        return false;
+    }
+
+    /** Bekleyen olayları yazar, fsync yapar ve dosyayı kapatır. */
+    void close();
+}
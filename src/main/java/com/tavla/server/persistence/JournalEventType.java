@@ -0,0 +1,31 @@
+package com.tavla.server.persistence;
+
+/**
+ * Journal'a yazılan olay türleri. code değeri dosya formatının parçasıdır, değiştirilmemeli.
+ */
+public enum JournalEventType {
+    ROOM_CREATED(1),
+    PLAYER_JOINED(2),
+    GAME_STARTED(3),
+    ROLL(4),
+    MOVE(5),
+    ROOM_REMOVED(6),
+    FORFEIT(7),
+    POSITION_IMPORTED(8),
+    DOUBLE_OFFERED(9),
+    DOUBLE_TAKEN(10),
+    DOUBLE_DROPPED(11);
+
+    public final byte code;
+
+    JournalEventType(int code) {
+        this.code = (byte) code;
+    }
+
+    public static JournalEventType fromCode(byte code) {
+        for (JournalEventType t : values()) {
+            if (t.code == code) return t;
+        }
+        throw new IllegalArgumentException("Bilinmeyen journal olay kodu: " + code);
+    }
+}
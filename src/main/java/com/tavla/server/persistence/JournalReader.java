@@ -0,0 +1,176 @@
+package com.tavla.server.persistence;
+
+import com.tavla.server.log.Log;
+import com.tavla.server.log.Logger;
+import com.tavla.core.Player;
+import com.tavla.core.PositionId;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Journal segmentlerini sırayla okur.
+ *
+ * Segmentler read-only memory-map edilir. Bir segmentte CRC'si tutmayan ya da
+ * yarım kalmış bir kayıt görülürse (ör: çökme anında yazılan son kayıt)
+ * o segmentin geri kalanı atlanır ve sonraki segmente geçilir.
+ */
+public final class JournalReader {
+
+    private static final Logger LOG = Log.get("journal");
+
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+
+    private JournalReader() {}
+
+    static String segmentName(long firstSeq) {
+        return String.format("%s%016d%s", PREFIX, firstSeq, SUFFIX);
+    }
+
+    /** Segment dosyasının ilk seq'i (dosya adından). */
+    public static long segmentFirstSeq(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    /** Dizindeki segmentler, ilk seq'e göre sıralı. */
+    public static List<Path> listSegments(Path dir) {
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> list = new ArrayList<>();
+            files.filter(p -> {
+                String n = p.getFileName().toString();
+                return n.startsWith(PREFIX) && n.endsWith(SUFFIX);
+            }).sorted().forEach(list::add); // sıfır dolgulu isim -> alfabetik sıra = seq sırası
+            return list;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Tüm kayıtları sırayla consumer'a verir.
+     * @return görülen en büyük seq (hiç kayıt yoksa 0)
+     */
+    public static long replay(Path dir, Consumer<JournalRecord> consumer) {
+        long maxSeq = 0;
+        for (Path segment : listSegments(dir)) {
+            maxSeq = Math.max(maxSeq, replaySegment(segment, consumer));
+        }
+        return maxSeq;
+    }
+
+    private static long replaySegment(Path segment, Consumer<JournalRecord> consumer) {
+        long maxSeq = 0;
+        try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size == 0) {
+                return 0;
+            }
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            CRC32 crc = new CRC32();
+
+            while (buf.remaining() >= 8) {
+                int start = buf.position();
+                int length = buf.getInt();
+                int expectedCrc = buf.getInt();
+                if (length < 10 || length > buf.remaining()) {
+                    LOG.warn("Journal yarım kayıt, segment sonu atlandı", "segment", segment.toString(), "offset", start);
+                    break;
+                }
+
+                crc.reset();
+                ByteBuffer slice = buf.slice(buf.position(), length);
+                crc.update(slice);
+                if ((int) crc.getValue() != expectedCrc) {
+                    LOG.warn("Journal CRC hatası, segment sonu atlandı", "segment", segment.toString(), "offset", start);
+                    break;
+                }
+
+                JournalRecord record = decode(buf.slice(buf.position(), length));
+                buf.position(buf.position() + length);
+                maxSeq = Math.max(maxSeq, record.seq);
+                consumer.accept(record);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal okunamadı: " + segment, e);
+        }
+        return maxSeq;
+    }
+
+    private static JournalRecord decode(ByteBuffer buf) {
+        long seq = buf.getLong();
+        JournalEventType type = JournalEventType.fromCode(buf.get());
+        String roomId = readAscii(buf, buf.get() & 0xff);
+
+        String token = null;
+        int die1 = 0, die2 = 0, from = 0, to = 0, step = 0;
+        Player loser = null;
+        PositionId.Key position = null;
+        Player onRoll = null;
+        long startedAt = 0;
+        String whitePlayer = null, blackPlayer = null;
+        int matchLength = 0;
+        switch (type) {
+            case ROOM_CREATED -> {
+                token = readAscii(buf, buf.get() & 0xff);
+                matchLength = buf.get() & 0xff;
+            }
+            case PLAYER_JOINED -> token = readAscii(buf, buf.get() & 0xff);
+            case ROLL -> {
+                die1 = buf.get();
+                die2 = buf.get();
+            }
+            case MOVE -> {
+                from = buf.get();
+                to = buf.get();
+                step = buf.get();
+            }
+            case FORFEIT -> loser = Player.values()[buf.get()];
+            case POSITION_IMPORTED -> {
+                position = PositionId.Key.read(buf);
+                onRoll = Player.values()[buf.get()];
+                die1 = buf.get();
+                die2 = buf.get();
+            }
+            case GAME_STARTED -> {
+                startedAt = buf.getLong();
+                whitePlayer = readUtf8(buf, buf.get() & 0xff);
+                blackPlayer = readUtf8(buf, buf.get() & 0xff);
+            }
+            default -> { }
+        }
+        return new JournalRecord(seq, type, roomId, token, die1, die2, from, to, step, loser, position, onRoll,
+                startedAt, whitePlayer, blackPlayer, matchLength);
+    }
+
+    private static String readUtf8(ByteBuffer buf, int length) {
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static String readAscii(ByteBuffer buf, int length) {
+        byte[] bytes = new byte[length];
+        buf.get(bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,58 @@
+package com.tavla.server.persistence;
+
+import com.tavla.core.Player;
+import com.tavla.core.PositionId;
+
+/**
+ * Journal'dan okunan tek bir olay. Olay türüne göre kullanılmayan alanlar 0/null'dır.
+ */
+public class JournalRecord {
+    public final long seq;
+    public final JournalEventType type;
+    public final String roomId;
+
+    public final String token; // ROOM_CREATED, PLAYER_JOINED
+    public final int die1;     // ROLL, POSITION_IMPORTED (zar yoksa 0)
+    public final int die2;     // ROLL, POSITION_IMPORTED
+    public final int from;     // MOVE
+    public final int to;       // MOVE
+    public final int step;     // MOVE
+    public final Player loser; // FORFEIT
+    public final PositionId.Key position; // POSITION_IMPORTED
+    public final Player onRoll;           // POSITION_IMPORTED
+    public final long startedAt;          // GAME_STARTED (epoch ms)
+    public final String whitePlayer;      // GAME_STARTED (yoksa null)
+    public final String blackPlayer;      // GAME_STARTED
+    public final int matchLength;         // ROOM_CREATED (para oyununda 0)
+
+    public JournalRecord(long seq, JournalEventType type, String roomId, String token,
+                         int die1, int die2, int from, int to, int step, Player loser,
+                         PositionId.Key position, Player onRoll,
+                         long startedAt, String whitePlayer, String blackPlayer, int matchLength) {
+        this.seq = seq;
+        this.type = type;
+        this.roomId = roomId;
+        this.token = token;
+        this.die1 = die1;
+        this.die2 = die2;
+        this.from = from;
+        this.to = to;
+        this.step = step;
+        this.loser = loser;
+        this.position = position;
+        this.onRoll = onRoll;
+        this.startedAt = startedAt;
+        this.whitePlayer = whitePlayer;
+        this.blackPlayer = blackPlayer;
+        this.matchLength = matchLength;
+    }
+
+    @Override
+    public String toString() {
+        return "JournalRecord{" +
+                "seq=" + seq +
+                ", type=" + type +
+                ", roomId=" + roomId +
+                '}';
+    }
+}
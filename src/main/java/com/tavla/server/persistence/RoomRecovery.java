@@ -0,0 +1,153 @@
+package com.tavla.server.persistence;
+
+import com.tavla.core.MatchScore;
+import com.tavla.core.PositionId;
+import com.tavla.core.TavlaGame;
+import com.tavla.server.rooms.Room;
+import com.tavla.server.rooms.RoomManager;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sunucu açılışında odaları yeniden kurar:
+ * 1) Varsa en son snapshot yüklenir (odalar doğrudan binary state'ten kurulur)
+ * 2) Journal, snapshot'ta zaten bulunan olaylar atlanarak tekrar oynatılır
+ *
+ * Zarlar kayıttaki değerlerle atılır, hamleler GameLogic üzerinden tekrar
+ * uygulanır; böylece geri yüklenen oyun birebir aynı state'e gelir.
+ * Geri yüklenen koltukların socket'i yoktur, oyuncular resume ile döner.
+ */
+public final class RoomRecovery {
+
+    private RoomRecovery() {}
+
+    /** Recovery sonucu. */
+    public static class Result {
+        public final long lastSeq;
+        public final int rooms;
+        public final int snapshotRooms;
+        public final long events;
+
+        Result(long lastSeq, int rooms, int snapshotRooms, long events) {
+            this.lastSeq = lastSeq;
+            this.rooms = rooms;
+            this.snapshotRooms = snapshotRooms;
+            this.events = events;
+        }
+    }
+
+    /** Sadece journal'dan kurtarma (snapshot yok). */
+    public static Result replay(Path journalDir, RoomManager roomManager) {
+        return recover(null, journalDir, roomManager);
+    }
+
+    /**
+     * @param snapshotFile null olabilir ya da henüz var olmayabilir
+     */
+    public static Result recover(Path snapshotFile, Path journalDir, RoomManager roomManager) {
+        // Recovery tek thread'de yapılır; odalar henüz dışarıya açık değil
+        Map<String, Room> rooms = new HashMap<>();
+        Map<String, Long> snapshotSeqs = new HashMap<>();
+
+        SnapshotFile.Loaded snapshot = (snapshotFile == null) ? null : SnapshotFile.read(snapshotFile);
+        long snapshotSeq = 0;
+        if (snapshot != null) {
+            snapshotSeq = snapshot.journalSeq;
+            for (SnapshotFile.Entry entry : snapshot.rooms) {
+                Room room = roomManager.restoreRoom(entry.roomId);
+                room.setMatch(entry.match);
+                room.restoreSeat(entry.whiteToken);
+                if (entry.blackToken != null) {
+                    room.restoreSeat(entry.blackToken);
+                }
+                if (entry.state != null) {
+                    room.restoreGame(new TavlaGame(entry.state, entry.recorder));
+                }
+                room.markJournaled(entry.lastJournalSeq);
+                rooms.put(entry.roomId, room);
+                snapshotSeqs.put(entry.roomId, entry.lastJournalSeq);
+            }
+        }
+
+        long cutoff = snapshotSeq;
+        long[] events = {0};
+        long[] maxSeq = {snapshotSeq};
+
+        JournalReader.replay(journalDir, record -> {
+            maxSeq[0] = Math.max(maxSeq[0], record.seq);
+
+            // Snapshot'taki odalar için kendi son seq'lerinden, diğerleri için
+            // snapshot başlangıcından sonraki olaylar uygulanır
+            Long roomSeq = snapshotSeqs.get(record.roomId);
+            long applied = (roomSeq != null) ? roomSeq : cutoff;
+            if (record.seq <= applied) {
+                return;
+            }
+
+            events[0]++;
+            apply(record, rooms, roomManager);
+        });
+
+        // Okuyucular (snapshot vb.) ilk komuttan önce de tutarlı görünüm görsün.
+        // Çökmeden önce biten oyunlar arşive yazılmış sayılır (ikinci kez yazılmasın).
+        for (Room room : rooms.values()) {
+            TavlaGame game = room.getGame();
+            if (game != null && game.isGameOver()) {
+                room.markArchived();
+            }
+            room.publish();
+        }
+
+        for (long seq : snapshotSeqs.values()) {
+            maxSeq[0] = Math.max(maxSeq[0], seq);
+        }
+
+        int snapshotRooms = (snapshot == null) ? 0 : snapshot.rooms.size();
+        return new Result(maxSeq[0], rooms.size(), snapshotRooms, events[0]);
+    }
+
+    private static void apply(JournalRecord record, Map<String, Room> rooms, RoomManager roomManager) {
+        if (record.type == JournalEventType.ROOM_CREATED) {
+            Room room = roomManager.restoreRoom(record.roomId);
+            room.setMatch(MatchScore.of(record.matchLength));
+            room.restoreSeat(record.token);
+            room.markJournaled(record.seq);
+            rooms.put(record.roomId, room);
+            return;
+        }
+
+        Room room = rooms.get(record.roomId);
+        if (room == null) {
+            return; // odası silinmiş ya da kaydı kayıp bir olay
+        }
+
+        switch (record.type) {
+            case PLAYER_JOINED -> room.restoreSeat(record.token);
+            case GAME_STARTED -> room.startGame(record.startedAt, record.whitePlayer, record.blackPlayer);
+            case ROLL -> {
+                room.getGame().applyRoll(record.die1, record.die2);
+                room.getGame().passIfBlocked();
+            }
+            case MOVE -> {
+                room.getGame().applyMove(record.from, record.to, record.step);
+                room.getGame().passIfBlocked();
+            }
+            case FORFEIT -> room.getGame().forfeit(record.loser);
+            case DOUBLE_OFFERED -> room.getGame().offerDouble();
+            case DOUBLE_TAKEN -> room.getGame().takeDouble();
+            case DOUBLE_DROPPED -> room.getGame().dropDouble();
+            case POSITION_IMPORTED -> {
+                room.restartGame(PositionId.toGameState(record.position, record.onRoll, record.die1, record.die2))
+                        .passIfBlocked();
+            }
+            case ROOM_REMOVED -> {
+                rooms.remove(record.roomId);
+                roomManager.removeRoom(room);
+            }
+            default -> { }
+        }
+        room.markJournaled(record.seq);
+    }
+}
@@ -0,0 +1,133 @@
+package com.tavla.server.persistence;
+
+import com.tavla.core.GameRecorder;
+import com.tavla.core.GameSnapshot;
+import com.tavla.server.log.Log;
+import com.tavla.server.log.Logger;
+import com.tavla.server.rooms.RoomManager;
+import com.tavla.server.rooms.RoomView;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Arka planda periyodik olarak tüm odaların snapshot'ını alır.
+ *
+ * Kopya mantığı (copy-on-write):
+ * - Her oda, her komuttan sonra değişmez bir RoomView yayınlar; snapshot bu görünümleri
+ *   volatile referanstan okur. Odaların mailbox'ına komut eklenmez, meşgul bir oda
+ *   snapshot'ı bekletmez, snapshot da odayı bekletmez
+ * - Dosyaya yazma ve fsync tamamen snapshot thread'inde, odaların dışında yapılır
+ * - Sıkıştırılmış (boşta) odaların oyunu ve kaydı arena yuvasından kopyalanır; yuva okunurken oda
+ *   uyandıysa odanın yeni görünümü okunur
+ *
+ * Snapshot başarıyla yazılınca, içeriği tamamen snapshot'a girmiş eski journal
+ * segmentleri silinir; böylece restart'ta tekrar oynatılacak journal kısa kalır.
+ * O sırada çalışmakta olan bir komutun yazabileceği olaylar (henüz görünüme yansımamış
+ * olabilir) kesim noktasından sonra kalır.
+ */
+public class RoomSnapshotter {
+
+    private static final Logger LOG = Log.get("snapshot");
+
+    private final RoomManager roomManager;
+    private final GameJournal journal;
+    private final Path snapshotFile;
+    private final Path journalDir;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "room-snapshotter");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public RoomSnapshotter(RoomManager roomManager, GameJournal journal, Path snapshotFile, Path journalDir) {
+        this.roomManager = roomManager;
+        this.journal = journal;
+        this.snapshotFile = snapshotFile;
+        this.journalDir = journalDir;
+    }
+
+    public void start(long intervalMs) {
+        scheduler.scheduleWithFixedDelay(this::snapshotSafely, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /** Zamanlayıcıyı durdurur ve son bir snapshot alır. */
+    public void stop() {
+        scheduler.shutdownNow();
+        snapshotSafely();
+    }
+
+    private void snapshotSafely() {
+        try {
+            snapshotNow();
+        } catch (RuntimeException e) {
+            LOG.error("Snapshot hatası", e);
+        }
+    }
+
+    /**
+     * Snapshot alır.
+     * @return yazılan oda sayısı
+     */
+    public int snapshotNow() {
+        long start = System.nanoTime();
+
+        // Bu seq'ten sonra başlayan komutların olayları zaten daha büyük seq alır
+        long journalSeq = journal.lastAppendedSeq();
+        long[] safeSeq = {journalSeq};
+
+        List<byte[]> encoded = new ArrayList<>();
+        roomManager.forEachRoom(room -> {
+            // Sıra önemli: önce çalışan komut, sonra görünüm (endCommand tersi sırayla yazar)
+            long inFlight = room.getInFlightFromSeq();
+            if (inFlight != 0) {
+                safeSeq[0] = Math.min(safeSeq[0], inFlight - 1);
+            }
+            RoomView view = room.getView();
+            // Önce kayıt, sonra oyun: oyun okunabildiyse kayıt da aynı yuvadan okunmuştur
+            GameRecorder record = (view == null) ? null : view.readRecord();
+            GameSnapshot game = (view == null) ? null : view.readGame();
+            // Sıkıştırılmış oda okunurken uyandıysa yuvası değişmiştir: yeni görünüm yayınlanana kadar bekle
+            while (view != null && game == null && view.isCompacted()) {
+                Thread.onSpinWait();
+                view = room.getView();
+                record = view.readRecord();
+                game = view.readGame();
+            }
+            if (view != null && !view.closed) {
+                encoded.add(SnapshotFile.encodeRoom(view, game, record));
+            }
+            // Hiç yayınlanmamış oda: ilk komutu ya çalışıyor (yukarıda sayıldı) ya da henüz başlamadı
+        });
+
+        SnapshotFile.write(snapshotFile, safeSeq[0], encoded);
+        deleteObsoleteSegments(safeSeq[0]);
+
+        LOG.info("Snapshot alındı", "rooms", encoded.size(), "journalSeq", safeSeq[0],
+                "ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return encoded.size();
+    }
+
+    // Segment i'nin tüm kayıtları bir sonraki segmentin ilk seq'inden küçüktür
+    private void deleteObsoleteSegments(long snapshotSeq) {
+        List<Path> segments = JournalReader.listSegments(journalDir);
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            long lastSeqInSegment = JournalReader.segmentFirstSeq(segments.get(i + 1)) - 1;
+            if (lastSeqInSegment > snapshotSeq) {
+                break;
+            }
+            try {
+                Files.deleteIfExists(segments.get(i));
+            } catch (IOException e) {
+                LOG.warn("Journal segmenti silinemedi", "segment", segments.get(i).toString(), "error", e.toString());
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.tavla.server.persistence;
+
+import com.tavla.core.GameRecorder;
+import com.tavla.core.GameSnapshot;
+import com.tavla.core.GameState;
+import com.tavla.core.GameStateCodec;
+import com.tavla.core.MatchScore;
+import com.tavla.server.rooms.RoomView;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Tüm canlı odaların binary snapshot dosyası.
+ *
+ * Dosya formatı (big-endian):
+ *  int  MAGIC
+ *  long journalSeq  -> snapshot alınmaya başlamadan önceki son journal seq'i
+ *  int  roomCount
+ *  oda kayıtları (bkz. encodeRoom)
+ *  int  crc32       -> öncesindeki tüm byte'lar
+ *
+ * Dosya önce geçici isme yazılır, fsync edilir, sonra atomik olarak yerine taşınır ve
+ * dizin fsync edilir; yarım yazılmış bir snapshot asla okunmaz, write() döndüğünde de
+ * yeni snapshot çökmeye dayanıklıdır.
+ */
+public final class SnapshotFile {
+
+    private static final int MAGIC = 0x54565333;    // "TVS3"
+
+    private SnapshotFile() {}
+
+    /** Okunan snapshot. */
+    public static class Loaded {
+        public final long journalSeq;
+        public final List<Entry> rooms;
+
+        Loaded(long journalSeq, List<Entry> rooms) {
+            this.journalSeq = journalSeq;
+            this.rooms = rooms;
+        }
+    }
+
+    /** Snapshot içindeki tek oda. */
+    public static class Entry {
+        public final String roomId;
+        public final long lastJournalSeq;
+        public final String whiteToken;
+        public final String blackToken;
+        public final GameState state;       // oyun başlamadıysa null
+        public final GameRecorder recorder; // oyunun hamle kaydı; oyun başlamadıysa null
+        public final MatchScore match;      // oynanan oyundan önceki skor
+
+        Entry(String roomId, long lastJournalSeq, String whiteToken, String blackToken, GameState state,
+              GameRecorder recorder, MatchScore match) {
+            this.roomId = roomId;
+            this.lastJournalSeq = lastJournalSeq;
+            this.whiteToken = whiteToken;
+            this.blackToken = blackToken;
+            this.state = state;
+            this.recorder = recorder;
+            this.match = match;
+        }
+    }
+
+    /**
+     * Odanın yayınlanmış değişmez görünümünü kaydeder; oda bekletilmez, herhangi bir thread'den çağrılabilir.
+     * game / record: görünümün oyunu ve kaydı (bkz. RoomView.readGame / readRecord), yoksa null.
+     *
+     * Kayıt: byte idLen, id, long lastSeq, token(W), token(B),
+     *        byte matchLength, byte whiteScore, byte blackScore, byte crawford, byte hasGame,
+     *        [GameStateCodec, byte hasRecord, [GameRecorder.writeTo]]
+     * token: byte uzunluk (0 = yok) + ASCII
+     */
+    public static byte[] encodeRoom(RoomView room, GameSnapshot game, GameRecorder record) {
+        byte[] id = ascii(room.roomId);
+        byte[] white = ascii(room.whiteToken);
+        byte[] black = ascii(room.blackToken);
+
+        if (game == null) {
+            record = null;
+        }
+        int size = 1 + id.length + 8 + 1 + white.length + 1 + black.length + 4 + 1
+                + (game == null ? 0 : GameStateCodec.ENCODED_BYTES + 1)
+                + (record == null ? 0 : record.encodedSize());
+        ByteBuffer buf = ByteBuffer.allocate(size);
+        buf.put((byte) id.length).put(id);
+        buf.putLong(room.journalSeq);
+        buf.put((byte) white.length).put(white);
+        buf.put((byte) black.length).put(black);
+        MatchScore match = room.match;
+        buf.put((byte) match.length).put((byte) match.whiteScore).put((byte) match.blackScore)
+                .put((byte) (match.crawford ? 1 : 0));
+        if (game == null) {
+            buf.put((byte) 0);
+        } else {
+            buf.put((byte) 1);
+            game.writeTo(buf);
+            if (record == null) {
+                buf.put((byte) 0);
+            } else {
+                buf.put((byte) 1);
+                record.writeTo(buf);
+            }
+        }
+        return buf.array();
+    }
+
+    public static void write(Path file, long journalSeq, List<byte[]> rooms) {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            CRC32 crc = new CRC32();
+            OutputStream out = new BufferedOutputStream(Channels.newOutputStream(ch), 1 << 16);
+
+            ByteBuffer header = ByteBuffer.allocate(16);
+            header.putInt(MAGIC).putLong(journalSeq).putInt(rooms.size());
+            crc.update(header.array());
+            out.write(header.array());
+
+            for (byte[] room : rooms) {
+                crc.update(room);
+                out.write(room);
+            }
+
+            out.write(ByteBuffer.allocate(4).putInt((int) crc.getValue()).array());
+            out.flush();
+            ch.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Snapshot yazılamadı: " + file, e);
+        }
+
+        try {
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Snapshot yerine taşınamadı: " + file, e);
+        }
+
+        // Rename'in kendisi dizin girdisinde durur; dizin fsync edilmeden çökme sonrası eski
+        // snapshot geri gelebilir. Bu yüzden çağıran journal segmentlerini ancak bundan sonra siler.
+        try (FileChannel d = FileChannel.open(file.toAbsolutePath().getParent(), StandardOpenOption.READ)) {
+            d.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Snapshot dizini fsync edilemedi: " + file, e);
+        }
+    }
+
+    /** Snapshot'ı okur; dosya yoksa null döner, bozuksa hata fırlatır. */
+    public static Loaded read(Path file) {
+        if (!Files.exists(file)) {
+            return null;
+        }
+
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Snapshot okunamadı: " + file, e);
+        }
+
+        ByteBuffer buf = ByteBuffer.wrap(bytes);
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - 4);
+        if ((int) crc.getValue() != buf.getInt(bytes.length - 4)) {
+            throw new IllegalStateException("Snapshot bozuk: " + file);
+        }
+        int magic = buf.getInt();
+        if (magic != MAGIC) {
+            throw new IllegalStateException("Snapshot bozuk: " + file);
+        }
+
+        long journalSeq = buf.getLong();
+        int count = buf.getInt();
+        List<Entry> rooms = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String roomId = readAscii(buf);
+            long lastSeq = buf.getLong();
+            String white = readAscii(buf);
+            String black = readAscii(buf);
+            int length = buf.get() & 0xff;
+            int whiteScore = buf.get() & 0xff;
+            int blackScore = buf.get() & 0xff;
+            boolean crawford = buf.get() == 1;
+            MatchScore match = length == 0 ? MatchScore.MONEY : new MatchScore(length, whiteScore, blackScore, crawford);
+            GameState state = null;
+            GameRecorder recorder = null;
+            if (buf.get() == 1) {
+                state = GameStateCodec.decode(buf);
+                if (buf.get() == 1) {
+                    recorder = GameRecorder.read(buf);
+                }
+            }
+            rooms.add(new Entry(roomId, lastSeq, white, black, state, recorder, match));
+        }
+        return new Loaded(journalSeq, rooms);
+    }
+
+    private static byte[] ascii(String s) {
+        return (s == null) ? new byte[0] : s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static String readAscii(ByteBuffer buf) {
+        int length = buf.get() & 0xff;
+        if (length == 0) {
+            return null;
+        }
+        String s = new String(buf.array(), buf.position(), length, StandardCharsets.US_ASCII);
+        buf.position(buf.position() + length);
+        return s;
+    }
+}
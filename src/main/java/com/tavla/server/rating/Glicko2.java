@@ -0,0 +1,139 @@
+package com.tavla.server.rating;
+
+/**
+ * Glicko-2 rating hesabı (Glickman, "Example of the Glicko-2 system").
+ *
+ * Her oyuncunun rating'i, belirsizliği (RD) ve volatilitesi vardır. Sunucu her biten oyunu tek
+ * oyunluk bir rating dönemi olarak işler: RD oyun başına volatilite kadar büyür, sonuçla küçülür.
+ * Az oynamış (RD'si yüksek) oyuncunun rating'i hızlı, çok oynamışınki yavaş değişir.
+ */
+public final class Glicko2 {
+
+    public static final double DEFAULT_RATING = 1500;
+    public static final double DEFAULT_RD = 350;
+    public static final double DEFAULT_VOLATILITY = 0.06;
+
+    // Volatilitenin zamanla değişimini sınırlar (0.3-1.2 önerilir)
+    static final double TAU = 0.5;
+
+    private static final double SCALE = 173.7178;
+    private static final double EPSILON = 0.000001;
+    // RD bu değerin altına inmez; hiç değişmeyen rating'e kilitlenmesin
+    private static final double MIN_RD = 30;
+
+    private Glicko2() {}
+
+    /** Değişmez rating üçlüsü (Glicko ölçeğinde). */
+    public static final class Rating {
+        public final double rating;
+        public final double rd;
+        public final double volatility;
+
+        public Rating(double rating, double rd, double volatility) {
+            this.rating = rating;
+            this.rd = rd;
+            this.volatility = volatility;
+        }
+
+        public static Rating initial() {
+            return new Rating(DEFAULT_RATING, DEFAULT_RD, DEFAULT_VOLATILITY);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.1f (RD %.1f, σ %.4f)", rating, rd, volatility);
+        }
+    }
+
+    /** Tek oyun: player, opponent'a karşı score aldı (1 kazanç, 0 kayıp, 0.5 beraberlik). */
+    public static Rating update(Rating player, Rating opponent, double score) {
+        return update(player, new Rating[]{opponent}, new double[]{score});
+    }
+
+    /** Bir dönemdeki tüm oyunlarla güncelleme; oyun yoksa sadece RD büyür. */
+    public static Rating update(Rating player, Rating[] opponents, double[] scores) {
+        double mu = (player.rating - DEFAULT_RATING) / SCALE;
+        double phi = player.rd / SCALE;
+        double sigma = player.volatility;
+
+        if (opponents.length == 0) {
+            double grown = Math.sqrt(phi * phi + sigma * sigma);
+            return new Rating(player.rating, Math.min(DEFAULT_RD, grown * SCALE), sigma);
+        }
+
+        double inverseV = 0;
+        double sum = 0;
+        for (int j = 0; j < opponents.length; j++) {
+            double muJ = (opponents[j].rating - DEFAULT_RATING) / SCALE;
+            double g = g(opponents[j].rd / SCALE);
+            double e = expected(mu, muJ, g);
+            inverseV += g * g * e * (1 - e);
+            sum += g * (scores[j] - e);
+        }
+        double v = 1 / inverseV;
+        double delta = v * sum;
+
+        double newSigma = volatility(phi, sigma, v, delta);
+        double phiStar = Math.sqrt(phi * phi + newSigma * newSigma);
+        double newPhi = 1 / Math.sqrt(1 / (phiStar * phiStar) + 1 / v);
+        double newMu = mu + newPhi * newPhi * sum;
+
+        double rd = Math.max(MIN_RD, Math.min(DEFAULT_RD, newPhi * SCALE));
+        return new Rating(newMu * SCALE + DEFAULT_RATING, rd, newSigma);
+    }
+
+    /** player'ın opponent'ı yenme olasılığı. */
+    public static double expectedScore(Rating player, Rating opponent) {
+        return expected((player.rating - DEFAULT_RATING) / SCALE, (opponent.rating - DEFAULT_RATING) / SCALE,
+                g(opponent.rd / SCALE));
+    }
+
+    private static double g(double phi) {
+        return 1 / Math.sqrt(1 + 3 * phi * phi / (Math.PI * Math.PI));
+    }
+
+    private static double expected(double mu, double muJ, double g) {
+        return 1 / (1 + Math.exp(-g * (mu - muJ)));
+    }
+
+    /** Yeni volatilite: Illinois yöntemiyle f(x) = 0'ın kökü (makaledeki 5. adım). */
+    private static double volatility(double phi, double sigma, double v, double delta) {
+        double a = Math.log(sigma * sigma);
+        double phi2 = phi * phi;
+        double delta2 = delta * delta;
+
+        double lower = a;
+        double upper;
+        if (delta2 > phi2 + v) {
+            upper = Math.log(delta2 - phi2 - v);
+        } else {
+            int k = 1;
+            while (f(a - k * TAU, a, phi2, v, delta2) < 0) {
+                k++;
+            }
+            upper = a - k * TAU;
+        }
+
+        double fLower = f(lower, a, phi2, v, delta2);
+        double fUpper = f(upper, a, phi2, v, delta2);
+        while (Math.abs(upper - lower) > EPSILON) {
+            double c = lower + (lower - upper) * fLower / (fUpper - fLower);
+            double fC = f(c, a, phi2, v, delta2);
+            if (fC * fUpper <= 0) {
+                lower = upper;
+                fLower = fUpper;
+            } else {
+                fLower /= 2;
+            }
+            upper = c;
+            fUpper = fC;
+        }
+        return Math.exp(lower / 2);
+    }
+
+    private static double f(double x, double a, double phi2, double v, double delta2) {
+        double ex = Math.exp(x);
+        double d = phi2 + v + ex;
+        return ex * (delta2 - phi2 - v - ex) / (2 * d * d) - (x - a) / (TAU * TAU);
+    }
+}
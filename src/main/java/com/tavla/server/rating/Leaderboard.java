@@ -0,0 +1,207 @@
+package com.tavla.server.rating;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Oyuncuların rating sırası: ilk K, bir oyuncunun sırası ve çevresindekiler logaritmik zamanda.
+ *
+ * İki kilitsiz yapı birlikte tutulur:
+ * - ConcurrentSkipListSet: kayıtlar (rating azalan, eşitlikte playerId) sırasıyla; ilk K ve
+ *   çevredekiler O(log n + K) ile gezilir
+ * - Fenwick ağacı (AtomicLongArray): yuvarlanmış rating başına oyuncu sayısı; "benden yüksek
+ *   kaç kişi var" O(log R) ile toplanır (R = rating aralığı). Skip list'te sıra sayılamaz
+ *   (headSet().size() O(n)) olduğu için sıra buradan gelir
+ *
+ * Sıra yuvarlanmış (gösterilen) rating'e göredir: aynı tam sayı rating'deki oyuncular aynı sırayı
+ * paylaşır (1, 2, 2, 4...). Yeni oyuncuların hepsi 1500'de başladığı için bu, eşitleri tek tek
+ * saymaktan hem doğru hem hızlıdır.
+ *
+ * Okuyucular hiçbir kilide girmez. Bir oyuncunun kaydı değişirken önce yeni kayıt eklenip sonra
+ * eskisi silinir; okuyucular skip list'teki kaydın konumunu current'takiyle karşılaştırıp eskimiş
+ * kaydı atlar. Bu yüzden okumalar anlık görüntü değildir: eşzamanlı bir güncellemenin ortasında
+ * bir oyuncu bir kez görünmeyebilir ya da sayılar en fazla eşzamanlı güncelleme sayısı kadar
+ * sapabilir.
+ * Aynı oyuncunun kaydını değiştiren yazarlar dışarıda sıralanmalıdır (bkz. RatingService).
+ */
+public final class Leaderboard {
+
+    // Fenwick ağacının kapsadığı rating aralığı; dışındakiler uçlara sayılır
+    static final int MIN_RATING = 0;
+    static final int MAX_RATING = 4095;
+
+    /** Bir oyuncunun değişmez sıralama kaydı. */
+    public static final class Entry {
+        public final String playerId;
+        public final Glicko2.Rating rating;
+        public final int games;
+        public final int wins;
+
+        public Entry(String playerId, Glicko2.Rating rating, int games, int wins) {
+            this.playerId = playerId;
+            this.rating = rating;
+            this.games = games;
+            this.wins = wins;
+        }
+
+        /** Sıralamada kullanılan, gösterilen rating. */
+        public int displayRating() {
+            return (int) Math.round(rating.rating);
+        }
+
+        @Override
+        public String toString() {
+            return playerId + " " + rating + " " + games + " oyun";
+        }
+    }
+
+    /** Sıra ve kayıt. */
+    public static final class Ranked {
+        public final int rank;
+        public final Entry entry;
+
+        Ranked(int rank, Entry entry) {
+            this.rank = rank;
+            this.entry = entry;
+        }
+    }
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparingDouble((Entry e) -> -e.rating.rating)
+            .thenComparing(e -> e.playerId);
+
+    private final ConcurrentHashMap<String, Entry> current = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Entry> ordered = new ConcurrentSkipListSet<>(ORDER);
+    // 1 tabanlı; index i, bucket(i-1)'i kapsar. Bucket 0 en yüksek rating (sayım önekten yapılır)
+    private final AtomicLongArray tree = new AtomicLongArray(MAX_RATING - MIN_RATING + 2);
+
+    /** Oyuncunun güncel kaydı; hiç oynamadıysa null. */
+    public Entry get(String playerId) {
+        return current.get(playerId);
+    }
+
+    /** Sıralamadaki oyuncu sayısı. */
+    public int size() {
+        return current.size();
+    }
+
+    /**
+     * Oyuncunun kaydını now ile değiştirir. Aynı oyuncu için eşzamanlı çağrılmamalıdır.
+     */
+    void put(Entry now) {
+        ordered.add(now); // aynı konumda eski kayıt varsa eklenmez; live() current'takini döndürür
+        Entry old = current.put(now.playerId, now);
+        add(bucket(now.displayRating()), 1);
+        if (old != null) {
+            add(bucket(old.displayRating()), -1);
+            if (ORDER.compare(old, now) != 0) {
+                ordered.remove(old);
+            }
+        }
+    }
+
+    /** En yüksek rating'li limit oyuncu. */
+    public List<Ranked> top(int limit) {
+        List<Ranked> out = new ArrayList<>(Math.min(limit, 128));
+        int rank = 0;
+        int previous = Integer.MIN_VALUE;
+        int position = 0;
+        for (Entry e : ordered) {
+            if (out.size() >= limit) {
+                break;
+            }
+            Entry live = live(e);
+            if (live == null) {
+                continue;
+            }
+            position++;
+            if (live.displayRating() != previous) {
+                rank = position;
+                previous = live.displayRating();
+            }
+            out.add(new Ranked(rank, live));
+        }
+        return out;
+    }
+
+    /** Oyuncunun sırası (1 en iyi); sıralamada yoksa 0. */
+    public int rank(String playerId) {
+        Entry e = current.get(playerId);
+        return e == null ? 0 : rankOf(e.displayRating());
+    }
+
+    /** Bu (gösterilen) rating'e sahip birinin sırası: kendisinden yüksek rating'liler + 1. */
+    public int rankOf(int displayRating) {
+        return (int) prefix(bucket(displayRating)) + 1;
+    }
+
+    /**
+     * Oyuncunun kendisi ve sıralamada üstündeki/altındaki count'ar oyuncu (yukarıdan aşağı).
+     * Oyuncu sıralamada yoksa boş liste.
+     */
+    public List<Ranked> around(String playerId, int count) {
+        Entry me = current.get(playerId);
+        if (me == null) {
+            return List.of();
+        }
+        List<Entry> above = new ArrayList<>(count);
+        for (Iterator<Entry> it = ordered.headSet(me, false).descendingIterator(); it.hasNext() && above.size() < count; ) {
+            Entry live = live(it.next());
+            if (live != null) {
+                above.add(live);
+            }
+        }
+        List<Ranked> out = new ArrayList<>(2 * count + 1);
+        for (int i = above.size() - 1; i >= 0; i--) {
+            out.add(ranked(above.get(i)));
+        }
+        out.add(ranked(me));
+        int below = 0;
+        for (Iterator<Entry> it = ordered.tailSet(me, false).iterator(); it.hasNext() && below < count; ) {
+            Entry live = live(it.next());
+            if (live != null) {
+                out.add(ranked(live));
+                below++;
+            }
+        }
+        return out;
+    }
+
+    /** Skip list'teki kayıt oyuncunun güncel konumundaysa güncel kayıt, eskimişse null. */
+    private Entry live(Entry e) {
+        Entry now = current.get(e.playerId);
+        return now != null && ORDER.compare(now, e) == 0 ? now : null;
+    }
+
+    private Ranked ranked(Entry e) {
+        return new Ranked(rankOf(e.displayRating()), e);
+    }
+
+    // ---------------- Fenwick ----------------
+
+    /** Yüksek rating küçük bucket: "benden yüksekler" bir önek toplamı olur. */
+    private static int bucket(int displayRating) {
+        int clamped = Math.max(MIN_RATING, Math.min(MAX_RATING, displayRating));
+        return MAX_RATING - clamped;
+    }
+
+    private void add(int bucket, long delta) {
+        for (int i = bucket + 1; i < tree.length(); i += i & -i) {
+            tree.getAndAdd(i, delta);
+        }
+    }
+
+    /** [0, bucket) aralığındaki bucket'lardaki oyuncu sayısı. */
+    private long prefix(int bucket) {
+        long sum = 0;
+        for (int i = bucket; i > 0; i -= i & -i) {
+            sum += tree.get(i);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,148 @@
+package com.tavla.server.rating;
+
+import com.tavla.core.Player;
+import com.tavla.server.archive.GameArchive;
+import com.tavla.server.archive.GameRecord;
+
+import java.util.List;
+
+/**
+ * Biten oyunlardan Glicko-2 rating'lerini günceller ve Leaderboard'u besler.
+ *
+ * Sadece iki oyuncusu da kimlikli (find_match'te playerId vermiş) ve kazananı belli oyunlar
+ * sayılır; maçlarda her oyun ayrı sayılır, süre aşımı kayıptır. Bir oyun iki oyuncunun kaydını
+ * birlikte değiştirir: yazarlar playerId'nin hash'ine göre STRIPES kilitten ikisini (hep aynı
+ * sırayla) alır. Farklı oyuncuların oyunları birbirini beklemez; okumalar (Leaderboard) hiç
+ * kilit almaz.
+ */
+public class RatingService {
+
+    private static final int STRIPES = 64; // 2'nin kuvveti
+
+    private final Leaderboard leaderboard = new Leaderboard();
+    private final Object[] locks = new Object[STRIPES];
+
+    public RatingService() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /** Bir oyunun iki oyuncu için önceki ve sonraki kaydı. */
+    public static final class Update {
+        public final Leaderboard.Entry whiteBefore; // ilk oyunuysa null
+        public final Leaderboard.Entry whiteAfter;
+        public final Leaderboard.Entry blackBefore;
+        public final Leaderboard.Entry blackAfter;
+
+        Update(Leaderboard.Entry whiteBefore, Leaderboard.Entry whiteAfter,
+               Leaderboard.Entry blackBefore, Leaderboard.Entry blackAfter) {
+            this.whiteBefore = whiteBefore;
+            this.whiteAfter = whiteAfter;
+            this.blackBefore = blackBefore;
+            this.blackAfter = blackAfter;
+        }
+
+        public Leaderboard.Entry before(Player seat) {
+            return seat == Player.WHITE ? whiteBefore : blackBefore;
+        }
+
+        public Leaderboard.Entry after(Player seat) {
+            return seat == Player.WHITE ? whiteAfter : blackAfter;
+        }
+    }
+
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    /** Bu iki oyuncu arasındaki oyun rating'e sayılır mı: ikisi de kimlikli ve farklı olmalı. */
+    public static boolean isRated(String whitePlayer, String blackPlayer) {
+        return whitePlayer != null && blackPlayer != null && !whitePlayer.equals(blackPlayer);
+    }
+
+    /**
+     * Biten bir oyunu işler. Oyun isRated değilse ya da kazanan yoksa null döner (sayılmaz).
+     */
+    public Update recordGame(String whitePlayer, String blackPlayer, Player winner) {
+        if (!isRated(whitePlayer, blackPlayer) || winner == null) {
+            return null;
+        }
+        int a = stripe(whitePlayer);
+        int b = stripe(blackPlayer);
+        Object first = locks[Math.min(a, b)];
+        Object second = locks[Math.max(a, b)];
+        synchronized (first) {
+            synchronized (second) {
+                Leaderboard.Entry white = leaderboard.get(whitePlayer);
+                Leaderboard.Entry black = leaderboard.get(blackPlayer);
+                Glicko2.Rating whiteRating = white == null ? Glicko2.Rating.initial() : white.rating;
+                Glicko2.Rating blackRating = black == null ? Glicko2.Rating.initial() : black.rating;
+                double whiteScore = winner == Player.WHITE ? 1 : 0;
+
+                Leaderboard.Entry whiteAfter = next(whitePlayer, white,
+                        Glicko2.update(whiteRating, blackRating, whiteScore), whiteScore > 0);
+                Leaderboard.Entry blackAfter = next(blackPlayer, black,
+                        Glicko2.update(blackRating, whiteRating, 1 - whiteScore), whiteScore == 0);
+                leaderboard.put(whiteAfter);
+                leaderboard.put(blackAfter);
+                return new Update(white, whiteAfter, black, blackAfter);
+            }
+        }
+    }
+
+    /**
+     * Arşiv kaydını işler. Standart açılıştan başlamayan (import_position ile yüklenmiş
+     * pozisyondan oynanan) oyunlar sayılmaz; canlı oyunda da arşivden yeniden kurarken de aynı kural.
+     */
+    public Update recordGame(GameRecord record) {
+        if (record.moves.startPosition != null) {
+            return null;
+        }
+        return recordGame(record.getWhitePlayer(), record.getBlackPlayer(), record.winner);
+    }
+
+    /**
+     * Açılışta arşivdeki tüm oyunları sırayla işleyerek rating'leri yeniden kurar.
+     * @return sayılan oyun sayısı
+     */
+    public long replay(GameArchive archive) {
+        long counted = 0;
+        long count = archive.getGameCount();
+        for (long gameId = 1; gameId <= count; gameId++) {
+            GameRecord record = archive.get(gameId);
+            if (record != null && recordGame(record) != null) {
+                counted++;
+            }
+        }
+        return counted;
+    }
+
+    public Leaderboard.Entry get(String playerId) {
+        return leaderboard.get(playerId);
+    }
+
+    public List<Leaderboard.Ranked> top(int limit) {
+        return leaderboard.top(limit);
+    }
+
+    public List<Leaderboard.Ranked> around(String playerId, int count) {
+        return leaderboard.around(playerId, count);
+    }
+
+    public int rank(String playerId) {
+        return leaderboard.rank(playerId);
+    }
+
+    private static Leaderboard.Entry next(String playerId, Leaderboard.Entry before, Glicko2.Rating rating,
+                                          boolean won) {
+        int games = before == null ? 0 : before.games;
+        int wins = before == null ? 0 : before.wins;
+        return new Leaderboard.Entry(playerId, rating, games + 1, wins + (won ? 1 : 0));
+    }
+
+    private static int stripe(String playerId) {
+        int h = playerId.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+}
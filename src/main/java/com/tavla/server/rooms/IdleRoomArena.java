@@ -0,0 +1,335 @@
+package com.tavla.server.rooms;
+
+import com.tavla.core.GameRecorder;
+import com.tavla.core.GameSnapshot;
+import com.tavla.core.GameState;
+import com.tavla.core.GameStateCodec;
+import com.tavla.core.TavlaGame;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Boşta kalan odaların oyunları için heap dışı (direct memory) yuvalar.
+ *
+ * Aktif bir oyun heap'te TavlaGame → GameState → Board (24 Point) + Dice nesne ağacı ve
+ * GameRecorder'ın hamle kaydı olarak durur. Uzun süre hamle gelmeyen odalarda state
+ * GameStateCodec'in 33 byte'lık haliyle sabit boyutlu bir yuvaya, kayıt (GameRecorder.writeTo)
+ * ise yuvaya bağlı, boyu 2'nin kuvveti olan bir kayıt bloğuna yazılır ve ikisi de heap'ten
+ * bırakılır; oda bir sonraki komutunda yuvadan geri açılır. Böylece yüz binlerce yavaş oyunun
+ * heap'te kalan tek izi Room ve son RoomView nesneleridir.
+ *
+ * Yuva düzeni (SLOT_BYTES):
+ *  0..3   versiyon (tek sayı: yazılıyor)
+ *  4..36  GameStateCodec
+ *  37     kayıt bloğunun boy sınıfı (blok = 64 << sınıf byte), kayıt yoksa NO_RECORD
+ *  38..39 hizalama boşluğu
+ *  40..43 kayıt bloğunun sınıfındaki numarası
+ *  44..47 kaydın byte sayısı
+ *
+ * Referans = versiyon << 32 | yuva no. Yuvaya her yazma ve her bırakma versiyonu ilerletir;
+ * böylece eski bir referansla okuyan (ör: snapshot) yuvanın bu arada boşaltıldığını ya da
+ * başka odaya verildiğini fark eder (seqlock). Kayıt bloğu yuvayla birlikte ve yuvanın
+ * versiyonu ilerletildikten sonra bırakılır; bloğu okuyan da kopyadan sonra yuvanın
+ * versiyonuna bakar. Yazma ve bırakma sadece yuvanın sahibi olan odanın mailbox'ından
+ * yapılır; yuva ve blok dağıtımı kısa bir kilitle korunur.
+ */
+public final class IdleRoomArena {
+
+    /** "Sıkıştırılmamış" referansı. */
+    public static final long NONE = -1;
+
+    public static final int SLOT_BYTES = 48;
+    private static final int DATA_OFFSET = 4;
+    private static final int RECORD_CLASS_OFFSET = 37;
+    private static final int RECORD_BLOCK_OFFSET = 40;
+    private static final int RECORD_LENGTH_OFFSET = 44;
+    private static final int NO_RECORD = 0xff;
+    private static final int DEFAULT_CHUNK_SLOTS = 4096;    // 192 KB'lık parçalar
+    private static final int MIN_RECORD_BLOCK = 64;
+    private static final int RECORD_CHUNK_BYTES = 256 * 1024; // bundan büyük bloklar tek başına bir parça
+
+    private static final VarHandle VERSION =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Pool slots;
+    // Boy sınıfı başına kayıt blokları; ilk kullanımda (lock altında) açılır
+    private final Pool[] records = new Pool[Integer.numberOfLeadingZeros(MIN_RECORD_BLOCK)];
+
+    public IdleRoomArena() {
+        this(DEFAULT_CHUNK_SLOTS);
+    }
+
+    IdleRoomArena(int chunkSlots) {
+        if (chunkSlots <= 0) {
+            throw new IllegalArgumentException("chunkSlots pozitif olmalı: " + chunkSlots);
+        }
+        this.slots = new Pool(SLOT_BYTES, chunkSlots);
+    }
+
+    /** Kaydı olmayan state'i boş bir yuvaya yazar (bkz. store(GameState, GameRecorder)). */
+    public long store(GameState state) {
+        return store(state, null);
+    }
+
+    /**
+     * State'i boş bir yuvaya, kaydı (null olabilir) yuvanın kayıt bloğuna yazar.
+     * @return yuvanın referansı (take/read/readRecord/free için)
+     */
+    public long store(GameState state, GameRecorder recorder) {
+        int recordLength = (recorder == null) ? 0 : recorder.encodedSize();
+        int recordClass = (recorder == null) ? NO_RECORD : sizeClass(recordLength);
+        int slot;
+        int block = 0;
+        lock.lock();
+        try {
+            slot = slots.allocate();
+            if (recorder != null) {
+                block = recordPool(recordClass).allocate();
+            }
+        } finally {
+            lock.unlock();
+        }
+        ByteBuffer chunk = slots.chunkOf(slot);
+        int offset = slots.offsetOf(slot);
+
+        int version = (int) VERSION.getAcquire(chunk, offset);
+        VERSION.setVolatile(chunk, offset, version + 1);
+        VarHandle.storeStoreFence(); // tek versiyon, veriden önce görünsün
+        GameStateCodec.encode(state, chunk.slice(offset + DATA_OFFSET, GameStateCodec.ENCODED_BYTES));
+        chunk.put(offset + RECORD_CLASS_OFFSET, (byte) recordClass);
+        chunk.putInt(offset + RECORD_BLOCK_OFFSET, block);
+        chunk.putInt(offset + RECORD_LENGTH_OFFSET, recordLength);
+        if (recorder != null) {
+            Pool pool = records[recordClass];
+            recorder.writeTo(pool.chunkOf(block).slice(pool.offsetOf(block), recordLength));
+        }
+        VERSION.setRelease(chunk, offset, version + 2);
+        return ref(version + 2, slot);
+    }
+
+    /**
+     * Yuvadaki oyunu (kaydıyla, kayıt varsa yazmaya devam edilebilir halde) geri açar ve
+     * yuvayı bırakır. Sadece yuvanın sahibi çağırmalıdır.
+     */
+    public TavlaGame take(long ref) {
+        int slot = slotOf(ref);
+        ByteBuffer chunk = slots.chunkOf(slot);
+        int offset = slots.offsetOf(slot);
+        checkOwned(chunk, offset, ref);
+        GameState state = GameStateCodec.decode(chunk.slice(offset + DATA_OFFSET, GameStateCodec.ENCODED_BYTES));
+        GameRecorder recorder = null;
+        int recordClass = chunk.get(offset + RECORD_CLASS_OFFSET) & 0xff;
+        if (recordClass != NO_RECORD) {
+            Pool pool = records[recordClass];
+            int block = chunk.getInt(offset + RECORD_BLOCK_OFFSET);
+            recorder = GameRecorder.read(pool.chunkOf(block).slice(pool.offsetOf(block),
+                    chunk.getInt(offset + RECORD_LENGTH_OFFSET)));
+        }
+        release(chunk, offset, slot);
+        return new TavlaGame(state, recorder);
+    }
+
+    /** Yuvayı içeriğini okumadan bırakır (ör: sıkıştırılmış oda kapanırken). */
+    public void free(long ref) {
+        int slot = slotOf(ref);
+        ByteBuffer chunk = slots.chunkOf(slot);
+        int offset = slots.offsetOf(slot);
+        checkOwned(chunk, offset, ref);
+        release(chunk, offset, slot);
+    }
+
+    /**
+     * Yuvanın değişmez bir kopyasını alır; herhangi bir thread'den çağrılabilir.
+     * @return yuva bu arada bırakıldıysa ya da yeniden yazıldıysa null
+     */
+    public GameSnapshot read(long ref) {
+        int slot = slotOf(ref);
+        ByteBuffer chunk = slots.chunkOf(slot);
+        int offset = slots.offsetOf(slot);
+        int expected = versionOf(ref);
+        if ((int) VERSION.getAcquire(chunk, offset) != expected) {
+            return null;
+        }
+        byte[] copy = new byte[GameStateCodec.ENCODED_BYTES];
+        chunk.get(offset + DATA_OFFSET, copy);
+        VarHandle.acquireFence(); // kopya, versiyonun ikinci okumasından önce bitsin
+        if ((int) VERSION.getAcquire(chunk, offset) != expected) {
+            return null;
+        }
+        return GameSnapshot.read(ByteBuffer.wrap(copy));
+    }
+
+    /**
+     * Yuvanın kaydının dondurulmuş bir kopyasını alır; herhangi bir thread'den çağrılabilir.
+     * Kayıt yoksa da, yuva bu arada bırakıldıysa ya da yeniden yazıldıysa da null döner;
+     * ikisini ayırmak için ardından read(ref) çağrılır: o null değilse bu sonuç geçerlidir
+     * (versiyon bir kez değişince eski değerine dönmez).
+     */
+    public GameRecorder readRecord(long ref) {
+        int slot = slotOf(ref);
+        ByteBuffer chunk = slots.chunkOf(slot);
+        int offset = slots.offsetOf(slot);
+        int expected = versionOf(ref);
+        if ((int) VERSION.getAcquire(chunk, offset) != expected) {
+            return null;
+        }
+        int recordClass = chunk.get(offset + RECORD_CLASS_OFFSET) & 0xff;
+        int block = chunk.getInt(offset + RECORD_BLOCK_OFFSET);
+        int length = chunk.getInt(offset + RECORD_LENGTH_OFFSET);
+        VarHandle.acquireFence();
+        if ((int) VERSION.getAcquire(chunk, offset) != expected || recordClass == NO_RECORD) {
+            return null;
+        }
+        Pool pool = records[recordClass];
+        byte[] copy = new byte[length];
+        pool.chunkOf(block).get(pool.offsetOf(block), copy);
+        VarHandle.acquireFence(); // kopya, versiyonun son okumasından önce bitsin
+        if ((int) VERSION.getAcquire(chunk, offset) != expected) {
+            return null;
+        }
+        return GameRecorder.read(ByteBuffer.wrap(copy)).freeze();
+    }
+
+    /** Dolu yuva sayısı. */
+    public int getUsedSlots() {
+        lock.lock();
+        try {
+            return slots.used;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Arena için ayrılmış toplam direct memory (yuvalar + kayıt blokları). */
+    public long getReservedBytes() {
+        lock.lock();
+        try {
+            long bytes = slots.reservedBytes();
+            for (Pool pool : records) {
+                if (pool != null) {
+                    bytes += pool.reservedBytes();
+                }
+            }
+            return bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // ---------------- yuva ve blok dağıtımı ----------------
+
+    private void release(ByteBuffer chunk, int offset, int slot) {
+        int version = (int) VERSION.getAcquire(chunk, offset);
+        VERSION.setRelease(chunk, offset, version + 2); // eski referanslar artık eşleşmez
+        int recordClass = chunk.get(offset + RECORD_CLASS_OFFSET) & 0xff;
+        int block = chunk.getInt(offset + RECORD_BLOCK_OFFSET);
+        lock.lock();
+        try {
+            slots.release(slot);
+            if (recordClass != NO_RECORD) {
+                records[recordClass].release(block);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // lock altında çağrılır
+    private Pool recordPool(int recordClass) {
+        Pool pool = records[recordClass];
+        if (pool == null) {
+            int blockBytes = MIN_RECORD_BLOCK << recordClass;
+            pool = new Pool(blockBytes, Math.max(1, RECORD_CHUNK_BYTES / blockBytes));
+            records[recordClass] = pool;
+        }
+        return pool;
+    }
+
+    /** length byte'ı alan en küçük bloğun boy sınıfı. */
+    private static int sizeClass(int length) {
+        if (length <= MIN_RECORD_BLOCK) {
+            return 0;
+        }
+        return Integer.numberOfLeadingZeros(MIN_RECORD_BLOCK - 1) - Integer.numberOfLeadingZeros(length - 1);
+    }
+
+    private void checkOwned(ByteBuffer chunk, int offset, long ref) {
+        if ((int) VERSION.getAcquire(chunk, offset) != versionOf(ref)) {
+            throw new IllegalStateException("Yuva referansı geçersiz: " + Long.toHexString(ref));
+        }
+    }
+
+    private static long ref(int version, int slot) {
+        return (long) version << 32 | (slot & 0xffffffffL);
+    }
+
+    private static int versionOf(long ref) {
+        return (int) (ref >>> 32);
+    }
+
+    private static int slotOf(long ref) {
+        return (int) ref;
+    }
+
+    /**
+     * Sabit boyutlu blokların direct ByteBuffer parçalarından oluşan havuzu.
+     * allocate/release/reservedBytes arena'nın kilidi altında çağrılır; chunkOf kilitsizdir.
+     */
+    private static final class Pool {
+        final int blockBytes;
+        final int chunkBlocks;
+
+        // Büyürken kopyalanıp yeniden yayınlanır; okuyucular kilitsiz okur
+        volatile ByteBuffer[] chunks = new ByteBuffer[0];
+
+        int[] freeBlocks = new int[64];
+        int freeCount;
+        int nextBlock;
+        int used;
+
+        Pool(int blockBytes, int chunkBlocks) {
+            this.blockBytes = blockBytes;
+            this.chunkBlocks = chunkBlocks;
+        }
+
+        int allocate() {
+            used++;
+            if (freeCount > 0) {
+                return freeBlocks[--freeCount];
+            }
+            int block = nextBlock++;
+            if (block / chunkBlocks == chunks.length) {
+                ByteBuffer[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+                grown[chunks.length] = ByteBuffer.allocateDirect(chunkBlocks * blockBytes);
+                chunks = grown;
+            }
+            return block;
+        }
+
+        void release(int block) {
+            used--;
+            if (freeCount == freeBlocks.length) {
+                freeBlocks = Arrays.copyOf(freeBlocks, freeBlocks.length * 2);
+            }
+            freeBlocks[freeCount++] = block;
+        }
+
+        long reservedBytes() {
+            return (long) chunks.length * chunkBlocks * blockBytes;
+        }
+
+        ByteBuffer chunkOf(int block) {
+            return chunks[block / chunkBlocks];
+        }
+
+        int offsetOf(int block) {
+            return (block % chunkBlocks) * blockBytes;
+        }
+    }
+}
@@ -1,64 +1,448 @@
 package com.tavla.server.rooms;
 
+import com.tavla.core.GameRecorder;
+import com.tavla.core.GameSnapshot;
+import com.tavla.core.GameState;
+import com.tavla.core.MatchScore;
 import com.tavla.core.Player;
+import com.tavla.core.PositionId;
 import com.tavla.core.TavlaGame;
+import com.tavla.server.timer.TimerWheel;
 import org.java_websocket.WebSocket;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.Executor;
+
+/**
+ * İki oyunculu tek bir oyun odası.
+ * Oda state'ini değiştiren her şey odanın mailbox'ı üzerinden, sırayla çalışır.
+ *
+ * Koltuk (seat) ile socket ayrıdır: oyuncu koltuğunu session token'ı ile tutar,
+ * bağlantısı kopsa bile koltuk grace süresi boyunca onun kalır ve
+ * yeni bir socket ile resume edilebilir.
+ *
+ * Okuyucular için oda her komuttan sonra değişmez bir RoomView yayınlar (volatile referans):
+ * snapshot ve metrik gibi okuyucular mailbox'a komut eklemeden ve odayı bekletmeden okur,
+ * yazan taraf da yavaş bir okuyucuyu hiç beklemez.
+ *
+ * Uzun süre boşta kalan odanın oyunu IdleRoomArena'ya sıkıştırılabilir (compact): oyunun nesne
+ * ağacı da hamle kaydı (GameRecorder) da bırakılır, ikisi heap dışındaki yuvada durur.
+ * getGame() ilk çağrıldığında (yani odanın bir sonraki oyun komutunda) oyun kaydıyla birlikte
+ * yuvadan geri açılır. Sıkıştırılmış odanın heap'te kalanı Room'un kendisi ve son RoomView'dur.
+ *
+ * Maç odasında (N puan) oyunlar art arda oynanır: match o an oynanan oyundan önceki skordur,
+ * bir sonraki startGame biten oyunun sonucunu skora ekler.
+ */
 public class Room {
 
     private final String roomId;
+    private final RoomMailbox mailbox;
+
+    // Farklı decoder thread'lerinden okunabildiği için volatile
+    private volatile WebSocket whiteSocket;
+    private volatile WebSocket blackSocket;
+
+    // Koltuk sahipliği: token null değilse koltuk dolu
+    private volatile String whiteToken;
+    private volatile String blackToken;
+
+    // Bağlantının koptuğu an (System.nanoTime), bağlıysa 0
+    private long whiteDisconnectedAt;
+    private long blackDisconnectedAt;
+
+    private volatile TavlaGame game; // oda dolunca yaratılacak; sıkıştırılmışsa null
+
+    // Sıkıştırılmış oyunun yuvası (mailbox içinde değişir); sıkıştırılmamışsa NONE
+    private IdleRoomArena arena;
+    private volatile long compactedRef = IdleRoomArena.NONE;
+    private volatile boolean closed;
+
+    // Oynanan oyundan önceki maç skoru; para oyununda MONEY
+    private volatile MatchScore match = MatchScore.MONEY;
 
-    private WebSocket whiteSocket;
-    private WebSocket blackSocket;
+    // Biten oyun arşive yazıldı mı (mailbox içinde değişir)
+    private boolean archived;
 
-    private TavlaGame game; // oda dolunca yaratılacak
+    // Rakibin cevabını bekleyen pozisyon yükleme teklifi (mailbox içinde değişir), yoksa null
+    private ImportOffer importOffer;
 
-    public Room(String roomId) {
+    // Bu odanın journal'a yazılan son olayının seq'i (mailbox içinde güncellenir)
+    private long lastJournalSeq;
+
+    // Son oyuncu etkinliği (System.nanoTime); boşta kalan odaları temizlemek için
+    private volatile long lastActivityAt = System.nanoTime();
+
+    // Sıra saati (mailbox içinde güncellenir): kimin için, kaçıncı tur
+    private TimerWheel.Timeout turnClock;
+    private Player turnClockPlayer;
+    private long turnNumber;
+
+    // Son yayınlanan görünüm; ilk komut çalışana kadar null
+    private volatile RoomView view;
+
+    // Çalışan komutun journal'a yazabileceği ilk seq; komut çalışmıyorsa 0
+    private volatile long inFlightFromSeq;
+
+    public Room(String roomId, Executor executor) {
         this.roomId = roomId;
+        this.mailbox = new RoomMailbox(executor);
     }
 
     public String getRoomId() {
         return roomId;
     }
 
+    /** Komutu odanın kuyruğuna ekler; çağıran thread'i bloklamaz. */
+    public void submit(Runnable command) {
+        mailbox.submit(command);
+    }
+
     public boolean isFull() {
-        return whiteSocket != null && blackSocket != null;
+        return whiteToken != null && blackToken != null;
     }
 
     public boolean hasStarted() {
-        return game != null;
+        return game != null || compactedRef != IdleRoomArena.NONE;
+    }
+
+    public boolean isClosed() {
+        return closed;
     }
 
-    public Player addPlayer(WebSocket socket) {
-        if (whiteSocket == null) {
+    void markClosed() {
+        this.closed = true;
+        if (compactedRef != IdleRoomArena.NONE) {
+            arena.free(compactedRef);
+            compactedRef = IdleRoomArena.NONE;
+        }
+    }
+
+    public Player addPlayer(WebSocket socket, String token) {
+        if (whiteToken == null) {
             whiteSocket = socket;
+            whiteToken = token;
             return Player.WHITE;
         }
-        if (blackSocket == null) {
+        if (blackToken == null) {
             blackSocket = socket;
+            blackToken = token;
             return Player.BLACK;
         }
         throw new IllegalStateException("Oda dolu");
     }
 
+    /**
+     * Kayıttan (journal/snapshot) geri yüklenen koltuk: socket yok, oyuncu resume ile döner.
+     * Bağlantı kopma anı "şimdi" sayılır, yani grace süresi restore anından başlar.
+     */
+    public Player restoreSeat(String token) {
+        Player seat = addPlayer(null, token);
+        if (seat == Player.WHITE) {
+            whiteDisconnectedAt = System.nanoTime();
+        } else {
+            blackDisconnectedAt = System.nanoTime();
+        }
+        return seat;
+    }
+
     public void startGame() {
+        startGame(System.currentTimeMillis(), null, null);
+    }
+
+    /**
+     * Oyunu hamle kaydıyla başlatır.
+     * @param startedAt epoch ms
+     * @param whitePlayer oyuncu kimliği (ör: eşleştirmedeki playerId), bilinmiyorsa null
+     */
+    public void startGame(long startedAt, String whitePlayer, String blackPlayer) {
         if (!isFull()) {
             throw new IllegalStateException("Oda dolmadan oyun başlayamaz");
         }
-        this.game = new TavlaGame();
+        TavlaGame previous = getGame();
+        if (previous != null && previous.isGameOver()) {
+            this.match = scoreAfter(previous);
+        }
+        this.game = new TavlaGame(new GameState(), new GameRecorder(startedAt, whitePlayer, blackPlayer));
+        this.archived = false;
+        this.importOffer = null;
+    }
+
+    /** Oynanan oyundan önceki maç skoru. */
+    public MatchScore getMatch() {
+        return match;
+    }
+
+    /** Maç uzunluğunu ya da kayıttaki skoru set eder (oda kurulurken ya da geri yüklenirken). */
+    public void setMatch(MatchScore match) {
+        this.match = match;
+    }
+
+    /**
+     * Oyun bittiyse sonucu eklenmiş skor, bitmediyse getMatch(). Süre aşımıyla kaybeden maçı da
+     * kaybeder. Odanın mailbox'ı içinden çağrılmalıdır.
+     */
+    public MatchScore getMatchAfterGame() {
+        TavlaGame g = getGame();
+        return (g == null || !g.isGameOver()) ? match : scoreAfter(g);
+    }
+
+    private MatchScore scoreAfter(TavlaGame finished) {
+        GameRecorder recorder = finished.getRecorder();
+        return match.afterGame(finished.getWinner(), finished.getResultPoints(),
+                recorder != null && recorder.isForfeit());
+    }
+
+    /**
+     * Oyunu verilen pozisyondan yeniden başlatır (ör: import_position); oyuncu bilgileri
+     * korunur, hamle kaydı bu pozisyondan başlar. Odanın mailbox'ı içinden çağrılmalıdır.
+     */
+    public TavlaGame restartGame(GameState state) {
+        GameRecorder previous = getGame() == null ? null : game.getRecorder();
+        GameRecorder recorder = (previous != null ? previous : new GameRecorder(System.currentTimeMillis(), null, null))
+                .restartFrom(state);
+        this.game = new TavlaGame(state, recorder);
+        this.importOffer = null;
+        return game;
+    }
+
+    /** Rakibin cevabını bekleyen pozisyon teklifi, yoksa null. Odanın mailbox'ı içinden çağrılmalıdır. */
+    public ImportOffer getImportOffer() {
+        return importOffer;
+    }
+
+    /**
+     * Bekleyen pozisyon teklifini set eder (null: teklifi kaldırır). Aynı anda tek teklif olur;
+     * yenisi öncekinin yerine geçer, oyun yeniden başlayınca teklif düşer.
+     * Odanın mailbox'ı içinden çağrılmalıdır.
+     */
+    public void setImportOffer(ImportOffer offer) {
+        this.importOffer = offer;
+    }
+
+    /** Kayıttan geri yüklenen oyunu odaya bağlar. */
+    public void restoreGame(TavlaGame game) {
+        this.game = game;
+    }
+
+    public long getLastJournalSeq() {
+        return lastJournalSeq;
+    }
+
+    /** Journal'a yazılan olayın seq'ini kaydeder. Odanın mailbox'ı içinden çağrılmalıdır. */
+    public void markJournaled(long seq) {
+        if (seq > lastJournalSeq) {
+            lastJournalSeq = seq;
+        }
+    }
+
+    /** Oyuncudan gelen bir etkinliği kaydeder (oda boşta sayılmaz). */
+    public void touch() {
+        lastActivityAt = System.nanoTime();
+    }
+
+    public long idleForNanos() {
+        return System.nanoTime() - lastActivityAt;
+    }
+
+    /** Sıra saatinin işlediği oyuncu; saat durmuşsa null. */
+    public Player getTurnClockPlayer() {
+        return turnClockPlayer;
+    }
+
+    public long getTurnNumber() {
+        return turnNumber;
+    }
+
+    /**
+     * Eski saati durdurup player için yeni bir tur açar. Odanın mailbox'ı içinden çağrılmalıdır.
+     * @return yeni turun numarası (zaman aşımı görevi turun hâlâ geçerli olduğunu bununla doğrular)
+     */
+    public long startTurn(Player player) {
+        stopTurnClock();
+        turnClockPlayer = player;
+        return ++turnNumber;
+    }
+
+    /** startTurn ile açılan turun zamanlayıcısını bağlar. */
+    public void setTurnClock(TimerWheel.Timeout clock) {
+        this.turnClock = clock;
+    }
+
+    /** Sıra saatini durdurur. Odanın mailbox'ı içinden çağrılmalıdır. */
+    public void stopTurnClock() {
+        if (turnClock != null) {
+            turnClock.cancel();
+            turnClock = null;
+        }
+        turnClockPlayer = null;
     }
 
+    /**
+     * Odanın oyunu (başlamadıysa null). Oyun sıkıştırılmışsa önce arena'dan geri açılır.
+     * Odanın mailbox'ı içinden çağrılmalıdır.
+     */
     public TavlaGame getGame() {
+        if (compactedRef != IdleRoomArena.NONE) {
+            game = arena.take(compactedRef);
+            compactedRef = IdleRoomArena.NONE;
+            arena = null;
+        }
         return game;
     }
 
+    public boolean isCompacted() {
+        return compactedRef != IdleRoomArena.NONE;
+    }
+
+    /**
+     * Oyunu arena'ya sıkıştırıp heap'teki nesne ağacını bırakır. Odanın mailbox'ı içinden
+     * çağrılmalıdır. Oyun yoksa ya da zaten sıkıştırılmışsa false.
+     */
+    public boolean compact(IdleRoomArena arena) {
+        TavlaGame g = game;
+        if (g == null || closed) {
+            return false;
+        }
+        this.compactedRef = arena.store(g.getInternalState(), g.getRecorder());
+        this.arena = arena;
+        this.game = null;
+        return true;
+    }
+
+    /** Biten oyun işlendi mi (arşive yazıldı, rating'lere sayıldı)? */
+    public boolean isArchived() {
+        return archived;
+    }
+
+    /** Biten oyunun işlendiğini (ya da işlenmeyeceğini) işaretler. Mailbox içinden çağrılmalıdır. */
+    public void markArchived() {
+        this.archived = true;
+    }
+
+    /** Son yayınlanan değişmez görünüm (hiç yayınlanmadıysa null). Her thread'den kilitsiz okunabilir. */
+    public RoomView getView() {
+        return view;
+    }
+
+    /**
+     * Odanın o anki halini değişmez bir görünüm olarak yayınlar ve döndürür.
+     * Odanın mailbox'ı içinden (ya da oda henüz dışarıya açılmamışken) çağrılmalıdır.
+     */
+    public RoomView publish() {
+        TavlaGame g = game;
+        GameRecorder recorder = (g != null) ? g.getRecorder() : null;
+        RoomView v = new RoomView(roomId, lastJournalSeq, whiteToken, blackToken,
+                g == null ? null : GameSnapshot.of(g.getInternalState()), closed, arena, compactedRef,
+                recorder == null ? null : recorder.freeze(), match);
+        this.view = v;
+        return v;
+    }
+
+    /**
+     * Bir komut çalışmaya başlıyor. nextJournalSeq: komutun yazabileceği en küçük seq
+     * (journal'ın o ana kadar verdiği son seq + 1).
+     */
+    public void beginCommand(long nextJournalSeq) {
+        inFlightFromSeq = nextJournalSeq;
+    }
+
+    /** Komut bitti: son hali yayınlanır, sonra oda "boşta" işaretlenir (sıra önemli). */
+    public void endCommand() {
+        publish();
+        inFlightFromSeq = 0;
+    }
+
+    /**
+     * Çalışmakta olan komutun yazabileceği ilk journal seq'i, komut yoksa 0.
+     * Snapshot bu değerden küçük seq'lere kadar olan journal'ı güvenle silebilir.
+     */
+    public long getInFlightFromSeq() {
+        return inFlightFromSeq;
+    }
+
     public WebSocket getSocket(Player player) {
         return player == Player.WHITE ? whiteSocket : blackSocket;
     }
 
+    public String getToken(Player player) {
+        return player == Player.WHITE ? whiteToken : blackToken;
+    }
+
     public Player getPlayerBySocket(WebSocket socket) {
+        if (socket == null) return null;
         if (socket == whiteSocket) return Player.WHITE;
         if (socket == blackSocket) return Player.BLACK;
         return null;
     }
+
+    /** Token'ın ait olduğu koltuk; eşleşme yoksa null. Karşılaştırma sabit zamanlıdır. */
+    public Player getPlayerByToken(String token) {
+        if (token == null) return null;
+        if (tokenEquals(token, whiteToken)) return Player.WHITE;
+        if (tokenEquals(token, blackToken)) return Player.BLACK;
+        return null;
+    }
+
+    /**
+     * Socket'i koltuğundan ayırır (koltuk oyuncuda kalır).
+     * @return ayrılan koltuk, socket bu odada değilse null
+     */
+    public Player detach(WebSocket socket) {
+        Player seat = getPlayerBySocket(socket);
+        if (seat == Player.WHITE) {
+            whiteSocket = null;
+            whiteDisconnectedAt = System.nanoTime();
+        } else if (seat == Player.BLACK) {
+            blackSocket = null;
+            blackDisconnectedAt = System.nanoTime();
+        }
+        return seat;
+    }
+
+    /** Koltuğa yeni socket bağlar, eski socket'i döndürür (yoksa null). */
+    public WebSocket rebind(Player seat, WebSocket socket) {
+        WebSocket old;
+        if (seat == Player.WHITE) {
+            old = whiteSocket;
+            whiteSocket = socket;
+            whiteDisconnectedAt = 0;
+        } else {
+            old = blackSocket;
+            blackSocket = socket;
+            blackDisconnectedAt = 0;
+        }
+        return old;
+    }
+
+    /** Koltuk kaç nanosaniyedir bağlantısız; bağlıysa -1. */
+    public long disconnectedForNanos(Player seat) {
+        long at = (seat == Player.WHITE) ? whiteDisconnectedAt : blackDisconnectedAt;
+        if (getSocket(seat) != null || at == 0) {
+            return -1;
+        }
+        return System.nanoTime() - at;
+    }
+
+    private static boolean tokenEquals(String a, String b) {
+        if (b == null) return false;
+        return MessageDigest.isEqual(a.getBytes(StandardCharsets.US_ASCII), b.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /** Bir oyuncunun import_position ile önerdiği, rakibin kabulünü bekleyen pozisyon. */
+    public static final class ImportOffer {
+        public final Player from;
+        public final PositionId.Key key;
+        public final GameState state;
+        public final String positionId;
+        public final String matchId; // null olabilir
+
+        public ImportOffer(Player from, PositionId.Key key, GameState state, String positionId, String matchId) {
+            this.from = from;
+            this.key = key;
+            this.state = state;
+            this.positionId = positionId;
+            this.matchId = matchId;
+        }
+    }
 }
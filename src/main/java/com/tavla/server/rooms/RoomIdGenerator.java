@@ -0,0 +1,75 @@
+package com.tavla.server.rooms;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Çakışmasız oda ID üreticisi.
+ *
+ * Eski yöntem (UUID'nin ilk 6 karakteri) rastgele olduğu için çakışma
+ * garantisi vermiyordu. Burada:
+ * - Atomik bir sayaç (her çağrıda +1)
+ * - 36 bitlik uzayda birebir (bijective) bir karıştırma fonksiyonu
+ * - Sabit 7 karakterlik base36 gösterim
+ * kullanılır. Karıştırma birebir olduğu için farklı sayaç değerleri
+ * her zaman farklı ID verir; 2^36 odaya kadar tekrar yoktur.
+ * ID'ler sıralı görünmez, yani bir sonraki oda ID'si tahmin edilemez.
+ */
+public class RoomIdGenerator {
+
+    public static final int ID_LENGTH = 7;
+
+    private static final int BITS = 36;
+    private static final long MASK = (1L << BITS) - 1;
+
+    // Tek sayılarla çarpım 2^36 modunda birebirdir
+    private static final long MUL1 = 0x9E3779B97L & MASK | 1L;
+    private static final long MUL2 = 0xC2B2AE3D27L & MASK | 1L;
+
+    private static final char[] ALPHABET = "0123456789abcdefghijklmnopqrstuvwxyz".toCharArray();
+
+    private final AtomicLong sequence;
+    private final long key;
+
+    public RoomIdGenerator() {
+        this(0L, ThreadLocalRandom.current().nextLong() & MASK);
+    }
+
+    /**
+     * @param startSequence sayaç başlangıç değeri
+     * @param key           süreç başına rastgele anahtar (XOR, birebirliği bozmaz)
+     */
+    public RoomIdGenerator(long startSequence, long key) {
+        this.sequence = new AtomicLong(startSequence);
+        this.key = key & MASK;
+    }
+
+    /** Bir sonraki oda ID'sini üretir (thread-safe, kilitsiz). */
+    public String nextId() {
+        long seq = sequence.getAndIncrement();
+        if (seq > MASK) {
+            throw new IllegalStateException("Oda ID uzayı tükendi");
+        }
+        return encode(permute(seq) ^ key);
+    }
+
+    // xorshift + tek sayıyla çarpım adımları; her adım 36 bitte birebirdir
+    static long permute(long x) {
+        x &= MASK;
+        x = (x * MUL1) & MASK;
+        x ^= x >>> 17;
+        x = (x * MUL2) & MASK;
+        x ^= x >>> 13;
+        return x;
+    }
+
+    // 36^7 > 2^36 olduğu için 7 karakter her değeri taşır
+    private static String encode(long value) {
+        char[] out = new char[ID_LENGTH];
+        for (int i = ID_LENGTH - 1; i >= 0; i--) {
+            out[i] = ALPHABET[(int) (value % 36)];
+            value /= 36;
+        }
+        return new String(out);
+    }
+}
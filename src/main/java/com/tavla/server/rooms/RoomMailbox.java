@@ -0,0 +1,79 @@
+package com.tavla.server.rooms;
+
+import com.tavla.server.log.Log;
+import com.tavla.server.log.Logger;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Odaya ait tek tüketicili (single-consumer) komut kuyruğu.
+ *
+ * - submit() herhangi bir thread'den çağrılabilir, asla bloklamaz
+ * - Komutlar geldikleri sırayla, aynı anda en fazla bir tane çalışacak şekilde işlenir
+ * - Kuyruk boşken thread tutulmaz; ilk komut geldiğinde executor'a bir drain görevi verilir
+ *
+ * Böylece oda içi sıralama kilitsiz korunur ve I/O thread'leri oyun mantığını beklemez.
+ */
+public class RoomMailbox {
+
+    private static final Logger LOG = Log.get("rooms");
+
+    // Paylaşılan bir scheduler kullanılırsa tek bir oda diğerlerini aç bırakmasın
+    private static final int MAX_BATCH = 64;
+
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Executor executor;
+
+    public RoomMailbox(Executor executor) {
+        this.executor = executor;
+    }
+
+    /** Komutu kuyruğa ekler; gerekirse drain görevini başlatır. */
+    public void submit(Runnable command) {
+        queue.offer(command);
+        // 0 -> 1 geçişini yapan thread drain'i başlatır, diğerleri sadece kuyruğa ekler
+        if (pending.getAndIncrement() == 0) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        int processed = 0;
+        while (true) {
+            Runnable command = queue.poll();
+            try {
+                runSafely(command);
+            } catch (Throwable e) {
+                // Error (ör: OutOfMemoryError) bu drain'i bitirir; sayaç yine düşmeli ve kalan
+                // komutlar yeni bir drain'e devredilmeli, yoksa mailbox kalıcı olarak durur
+                if (pending.decrementAndGet() != 0) {
+                    executor.execute(this::drain);
+                }
+                throw e;
+            }
+            processed++;
+
+            if (pending.decrementAndGet() == 0) {
+                return;
+            }
+            if (processed >= MAX_BATCH) {
+                // Kalan komutlar için yeniden sıraya gir
+                executor.execute(this::drain);
+                return;
+            }
+        }
+    }
+
+    private void runSafely(Runnable command) {
+        try {
+            command.run();
+        } catch (RuntimeException e) {
+            // Bir komutun hatası kuyruğu durdurmamalı
+            LOG.error("Oda komutu hatası", e);
+        }
+    }
+}
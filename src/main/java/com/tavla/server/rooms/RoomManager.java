@@ -1,50 +1,288 @@
 package com.tavla.server.rooms;
 
+import com.tavla.core.Player;
 import org.java_websocket.WebSocket;
 
-import java.util.*;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
+/**
+ * Odaların thread-safe kaydı.
+ *
+ * Java-WebSocket onMessage/onClose'u birden fazla decoder thread'inden
+ * aynı anda çağırabildiği için düz HashMap kullanılamaz.
+ * - Odalar roomId hash'ine göre shard'lara bölünür (her shard ayrı bir ConcurrentHashMap)
+ * - Okumalar tamamen kilitsizdir, yazmalar sadece ilgili shard'ın kovasını kilitler
+ * - Her shard kendi sayaçlarını (LongAdder) tutar, sayaçlar çekirdekler arasında çekişme yaratmaz
+ *
+ * Session token formatı: "<roomId>.<128 bit rastgele>". Token'dan odaya ulaşmak için
+ * ayrı bir index gerekmez; roomId önekiyle shard'a gidilir, koltuk odada doğrulanır.
+ */
 public class RoomManager {
 
-    private final Map<String, Room> rooms = new HashMap<>();
-    private final Map<WebSocket, Room> roomBySocket = new HashMap<>();
+    private static final SecureRandom TOKEN_RANDOM = new SecureRandom();
+    private static final Base64.Encoder TOKEN_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    private static final int DEFAULT_SHARDS =
+            Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 4 - 1) << 1;
+
+    private final Shard[] shards;
+    private final int shardMask;
+    private final ConcurrentHashMap<WebSocket, Room> roomBySocket;
+    private final RoomIdGenerator idGenerator;
+    private final Executor roomExecutor;
+
+    // Cluster modunda sadece bu node'a düşen ID'ler kabul edilir
+    private volatile Predicate<String> placement = roomId -> true;
+
+    public RoomManager() {
+        // Oda mailbox'ları virtual thread'lerde drain edilir
+        this(DEFAULT_SHARDS, new RoomIdGenerator(), Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * @param shardCount   2'nin kuvveti olmalı
+     * @param roomExecutor oda mailbox'larını çalıştıracak executor
+     */
+    public RoomManager(int shardCount, RoomIdGenerator idGenerator, Executor roomExecutor) {
+        if (shardCount <= 0 || Integer.bitCount(shardCount) != 1) {
+            throw new IllegalArgumentException("shardCount 2'nin kuvveti olmalı: " + shardCount);
+        }
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i);
+        }
+        this.shardMask = shardCount - 1;
+        this.roomBySocket = new ConcurrentHashMap<>(1024, 0.75f, shardCount);
+        this.idGenerator = idGenerator;
+        this.roomExecutor = roomExecutor;
+    }
+
+    /**
+     * Yeni oda ID'lerinin hangi koşulu sağlaması gerektiğini belirler
+     * (ör: hash halkasında bu node'a düşmesi).
+     */
+    public void setPlacement(Predicate<String> placement) {
+        this.placement = placement;
+    }
 
     public Room createRoom(WebSocket ownerSocket) {
-        String roomId = UUID.randomUUID().toString().substring(0, 6);
-        Room room = new Room(roomId);
+        Predicate<String> accept = placement;
+        while (true) {
+            String roomId = idGenerator.nextId();
+            if (!accept.test(roomId)) {
+                continue;
+            }
+            Shard shard = shardFor(roomId);
 
-        room.addPlayer(ownerSocket);
+            Room room = new Room(roomId, roomExecutor);
+            room.addPlayer(ownerSocket, newToken(roomId));
 
-        rooms.put(roomId, room);
-        roomBySocket.put(ownerSocket, room);
+            // ID üretici çakışmasız, putIfAbsent sadece ek güvenlik (ör: restore edilmiş odalar)
+            if (shard.rooms.putIfAbsent(roomId, room) == null) {
+                shard.created.increment();
+                roomBySocket.put(ownerSocket, room);
+                return room;
+            }
+        }
+    }
+
+    /**
+     * Matchmaker'ın eşleştirdiği iki oyuncu için dolu bir oda kurar
+     * (ilk socket WHITE, ikincisi BLACK). Oyunu başlatmak çağıranın işidir.
+     */
+    public Room createMatchedRoom(WebSocket whiteSocket, WebSocket blackSocket) {
+        Room room = createRoom(whiteSocket);
+        room.addPlayer(blackSocket, newToken(room.getRoomId()));
+        roomBySocket.put(blackSocket, room);
+        shardFor(room.getRoomId()).joined.increment();
+        return room;
+    }
 
+    /**
+     * Kayıttan geri yüklenen odayı (socket'siz) kaydeder.
+     * Aynı ID'li oda zaten varsa IllegalStateException fırlatır.
+     */
+    public Room restoreRoom(String roomId) {
+        Room room = new Room(roomId, roomExecutor);
+        Shard shard = shardFor(roomId);
+        if (shard.rooms.putIfAbsent(roomId, room) != null) {
+            throw new IllegalStateException("Oda zaten var: " + roomId);
+        }
+        shard.created.increment();
         return room;
     }
 
-    public Room joinRoom(String roomId, WebSocket socket) {
-        Room room = rooms.get(roomId);
-        if (room == null) {
-            throw new IllegalStateException("Oda bulunamadı");
+    /** Tüm odaları gezer (snapshot / recovery için, zayıf tutarlı). */
+    public void forEachRoom(Consumer<Room> action) {
+        for (Shard shard : shards) {
+            shard.rooms.values().forEach(action);
         }
+    }
+
+    /**
+     * Socket'i odaya ikinci oyuncu olarak ekler.
+     * Odanın mailbox'ı içinden çağrılmalıdır (isFull + addPlayer bu sayede atomik).
+     */
+    public Player joinRoom(Room room, WebSocket socket) {
         if (room.isFull()) {
             throw new IllegalStateException("Oda dolu");
         }
-
-        room.addPlayer(socket);
+        Player seat = room.addPlayer(socket, newToken(room.getRoomId()));
         roomBySocket.put(socket, room);
+        shardFor(room.getRoomId()).joined.increment();
 
-        return room;
+        return seat;
+    }
+
+    public Room getRoom(String roomId) {
+        Shard shard = shardFor(roomId);
+        shard.lookups.increment();
+        return shard.rooms.get(roomId);
     }
 
     public Room getRoomBySocket(WebSocket socket) {
         return roomBySocket.get(socket);
     }
 
-    public void removeSocket(WebSocket socket) {
-        Room room = roomBySocket.remove(socket);
-        if (room == null) return;
+    /** Token'ın işaret ettiği oda; oda yoksa veya token bozuksa null. */
+    public Room getRoomByToken(String token) {
+        String roomId = roomIdOfToken(token);
+        return (roomId == null) ? null : getRoom(roomId);
+    }
+
+    /**
+     * Socket'i index'ten çıkarır ve bulunduğu odayı döndürür.
+     * Koltuğu boşaltmak (Room.detach) çağıranın, odanın mailbox'ında yapacağı iştir;
+     * oda grace süresi boyunca yaşamaya devam eder.
+     */
+    public Room detachSocket(WebSocket socket) {
+        return roomBySocket.remove(socket);
+    }
 
-        // minimum sistem: socket çıkınca odayı komple sil
-        rooms.remove(room.getRoomId());
+    /**
+     * Yeni socket'i token'ın koltuğuna bağlar. Odanın mailbox'ı içinden çağrılmalıdır.
+     * @return bağlanılan koltuk; oda kapanmışsa veya token eşleşmezse null
+     */
+    public Player resume(Room room, String token, WebSocket socket) {
+        if (room.isClosed()) {
+            return null;
+        }
+        Player seat = room.getPlayerByToken(token);
+        if (seat == null) {
+            return null;
+        }
+
+        WebSocket old = room.rebind(seat, socket);
+        if (old != null && old != socket) {
+            roomBySocket.remove(old, room);
+        }
+        roomBySocket.put(socket, room);
+        return seat;
+    }
+
+    /** Odayı tamamen kaldırır. Odanın mailbox'ı içinden çağrılmalıdır. */
+    public void removeRoom(Room room) {
+        room.markClosed();
+
+        for (Player seat : Player.values()) {
+            WebSocket s = room.getSocket(seat);
+            if (s != null) {
+                roomBySocket.remove(s, room);
+            }
+        }
+
+        Shard shard = shardFor(room.getRoomId());
+        if (shard.rooms.remove(room.getRoomId(), room)) {
+            shard.removed.increment();
+        }
+    }
+
+    /** Token içindeki roomId öneki; format bozuksa null. */
+    public static String roomIdOfToken(String token) {
+        if (token == null) return null;
+        int dot = token.indexOf('.');
+        return (dot <= 0) ? null : token.substring(0, dot);
+    }
+
+    private static String newToken(String roomId) {
+        byte[] secret = new byte[16];
+        TOKEN_RANDOM.nextBytes(secret);
+        return roomId + "." + TOKEN_ENCODER.encodeToString(secret);
+    }
+
+    /** Toplam oda sayısı. */
+    public int getRoomCount() {
+        int total = 0;
+        for (Shard shard : shards) {
+            total += shard.rooms.size();
+        }
+        return total;
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /** Her shard için anlık sayaç değerleri (metrics / debug için). */
+    public List<ShardStats> getShardStats() {
+        List<ShardStats> list = new ArrayList<>(shards.length);
+        for (Shard shard : shards) {
+            list.add(new ShardStats(
+                    shard.index,
+                    shard.rooms.size(),
+                    shard.created.sum(),
+                    shard.joined.sum(),
+                    shard.removed.sum(),
+                    shard.lookups.sum()
+            ));
+        }
+        return list;
+    }
+
+    private Shard shardFor(String roomId) {
+        int h = roomId.hashCode();
+        h ^= (h >>> 16);
+        return shards[h & shardMask];
+    }
+
+    private static final class Shard {
+        final int index;
+        final ConcurrentHashMap<String, Room> rooms = new ConcurrentHashMap<>(256);
+        final LongAdder created = new LongAdder();
+        final LongAdder joined = new LongAdder();
+        final LongAdder removed = new LongAdder();
+        final LongAdder lookups = new LongAdder();
+
+        Shard(int index) {
+            this.index = index;
+        }
+    }
+
+    /** Tek bir shard'ın sayaçlarının read-only görüntüsü. */
+    public static class ShardStats {
+        public final int shard;
+        public final int rooms;
+        public final long created;
+        public final long joined;
+        public final long removed;
+        public final long lookups;
+
+        public ShardStats(int shard, int rooms, long created, long joined, long removed, long lookups) {
+            this.shard = shard;
+            this.rooms = rooms;
+            this.created = created;
+            this.joined = joined;
+            this.removed = removed;
+            this.lookups = lookups;
+        }
     }
 }
@@ -0,0 +1,75 @@
+package com.tavla.server.rooms;
+
+import com.tavla.core.GameRecorder;
+import com.tavla.core.GameSnapshot;
+import com.tavla.core.MatchScore;
+
+/**
+ * Odanın belirli bir andaki değişmez görünümü. Oda her komuttan sonra yenisini yayınlar
+ * (bkz. Room.publish); okuyucular (snapshot, metrikler, izleyiciler) kilit ya da mailbox
+ * beklemeden tutarlı bir kopya görür.
+ */
+public final class RoomView {
+    public final String roomId;
+    public final long journalSeq;      // bu görünüme yansımış son journal olayı
+    public final String whiteToken;    // null olabilir
+    public final String blackToken;    // null olabilir
+    public final GameSnapshot game;    // oyun başlamadıysa ya da oda sıkıştırılmışsa null
+    public final boolean closed;
+    public final GameRecorder record;  // oyunun o ana kadarki kaydı (dondurulmuş); yoksa ya da oda sıkıştırılmışsa null
+    public final MatchScore match;     // oynanan oyundan önceki maç skoru
+
+    // Sıkıştırılmış odada oyunun durduğu yuva; değilse NONE
+    private final IdleRoomArena arena;
+    private final long compactedRef;
+
+    RoomView(String roomId, long journalSeq, String whiteToken, String blackToken,
+             GameSnapshot game, boolean closed, IdleRoomArena arena, long compactedRef,
+             GameRecorder record, MatchScore match) {
+        this.roomId = roomId;
+        this.journalSeq = journalSeq;
+        this.whiteToken = whiteToken;
+        this.blackToken = blackToken;
+        this.game = game;
+        this.closed = closed;
+        this.arena = arena;
+        this.compactedRef = compactedRef;
+        this.record = record;
+        this.match = match;
+    }
+
+    /**
+     * game (bkz. readGame) bittiyse sonucu eklenmiş skor, bitmediyse match.
+     * Room.getMatchAfterGame'in görünümden hesaplanan hali; odayı uyandırmaz.
+     */
+    public MatchScore matchAfterGame(GameSnapshot game) {
+        if (game == null || !game.isGameOver()) {
+            return match;
+        }
+        GameRecorder r = readRecord();
+        return match.afterGame(game.getWinner(), game.getResultPoints(), r != null && r.isForfeit());
+    }
+
+    /** Oyun bu görünümde heap dışı arena'da mı duruyor? */
+    public boolean isCompacted() {
+        return compactedRef != IdleRoomArena.NONE;
+    }
+
+    /**
+     * Oyunun kopyası: heap'teyse doğrudan game, sıkıştırılmışsa arena yuvasından okunur.
+     * Oyun başlamadıysa null; sıkıştırılmış oda bu arada uyandıysa (yuva değişti) da null döner,
+     * o durumda odanın yeni görünümü okunmalıdır.
+     */
+    public GameSnapshot readGame() {
+        return isCompacted() ? arena.read(compactedRef) : game;
+    }
+
+    /**
+     * Oyunun kaydı: heap'teyse doğrudan record, sıkıştırılmışsa arena'daki kayıt bloğundan
+     * kopyalanır. Sıkıştırılmış odada yuva değiştiyse de null döner; kaydı ve oyunu tutarlı
+     * almak için önce bu, sonra readGame() çağrılır (readGame null değilse kayıt geçerlidir).
+     */
+    public GameRecorder readRecord() {
+        return isCompacted() ? arena.readRecord(compactedRef) : record;
+    }
+}
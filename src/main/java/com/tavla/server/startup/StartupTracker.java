@@ -0,0 +1,108 @@
+package com.tavla.server.startup;
+
+import com.tavla.server.log.Log;
+import com.tavla.server.log.Logger;
+import com.tavla.server.metrics.LatencyHistogram;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Açılış süreleri, JVM başlangıcından itibaren ms olarak (sınıf yükleme ve AppCDS kazancı dahil):
+ * - warm-up: ısınmanın bittiği an (ısınma yapılmadıysa -1)
+ * - ilk bağlantı: ilk WebSocket bağlantısının kabul edildiği an
+ * - kararlı gecikme: istemci komutlarının mailbox'ta çalışma süresinin medyanı oturduğu an
+ *   (bkz. SteadyState); her mesaj tek bir ölçümle sayılır
+ *
+ * Ölçüm listening() ile (sunucu soketleri açınca) başlar; ısınma örneğinin bağlantıları ve
+ * mesajları sayılmaz. record() I/O ve mailbox thread'lerinden kilitsiz çağrılır; tick() tek bir
+ * zamanlayıcı thread'inden WINDOW_MS'de bir çağrılır ve pencereyi değiştirir. Kararlı hale
+ * gelindikten sonra pencere bırakılır, record() hiçbir şey yapmaz.
+ */
+public final class StartupTracker {
+
+    private static final Logger LOG = Log.get("startup");
+
+    public static final long WINDOW_MS = 1_000;
+
+    /** Daha az mesajlı pencere birikmeye devam eder (az trafikte medyan anlamsız olur). */
+    static final int MIN_WINDOW_SAMPLES = 100;
+    private static final int STABLE_WINDOWS = 3;
+
+    private final AtomicLong firstConnectionMs = new AtomicLong(-1);
+    private volatile long warmupMs = -1;
+    private volatile long steadyStateMs = -1;
+
+    private volatile boolean listening;
+    private volatile LatencyHistogram window; // dinlemeden önce ve kararlı olunca null
+    private final SteadyState steady = new SteadyState(STABLE_WINDOWS); // sadece tick thread'i
+    private long windowMessages;                                        // sadece tick thread'i
+
+    /** JVM başlangıcından bu yana geçen süre, ms. */
+    public static long uptimeMs() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+
+    public void warmupFinished(Warmup.Result result) {
+        warmupMs = uptimeMs();
+        LOG.info("Isınma bitti", "uptimeMs", warmupMs, "games", result.games, "requests", result.requests,
+                "ms", result.elapsedMs, "p50Micros", result.medianNanos / 1000, "steady", result.steady);
+    }
+
+    /** Sunucu soketleri açtı; ilk bağlantı ve gecikme ölçümü başlar. */
+    public void listening() {
+        window = new LatencyHistogram();
+        listening = true;
+    }
+
+    public void connectionAccepted() {
+        if (listening && firstConnectionMs.get() < 0) {
+            long now = uptimeMs();
+            if (firstConnectionMs.compareAndSet(-1, now)) {
+                LOG.info("İlk bağlantı kabul edildi", "uptimeMs", now);
+            }
+        }
+    }
+
+    /** İstemci mesajından doğan bir oda komutunun mailbox'ta çalışma süresi. */
+    public void record(long nanos) {
+        LatencyHistogram w = window;
+        if (w != null) {
+            w.record(nanos);
+        }
+    }
+
+    /** Pencereyi kapatır; kararlı hale gelindiyse false döner (zamanlayıcı yeniden kurulmaz). */
+    public boolean tick() {
+        LatencyHistogram w = window;
+        if (w == null) {
+            return false;
+        }
+        if (w.getCount() < MIN_WINDOW_SAMPLES) {
+            return true;
+        }
+        window = new LatencyHistogram();
+        windowMessages += w.getCount();
+        long median = w.valueAtQuantile(0.5);
+        if (!steady.offer(median)) {
+            return true;
+        }
+        window = null;
+        steadyStateMs = uptimeMs();
+        LOG.info("Gecikme kararlı hale geldi", "uptimeMs", steadyStateMs, "p50Micros", median / 1000,
+                "messages", windowMessages);
+        return false;
+    }
+
+    public long getWarmupMs() {
+        return warmupMs;
+    }
+
+    public long getFirstConnectionMs() {
+        return firstConnectionMs.get();
+    }
+
+    public long getSteadyStateMs() {
+        return steadyStateMs;
+    }
+}
@@ -0,0 +1,46 @@
+package com.tavla.server.startup;
+
+/**
+ * Pencere pencere verilen gecikme medyanlarından gecikmenin ne zaman oturduğunu bulur: art arda
+ * requiredWindows pencerenin medyanı bir öncekinden en fazla TOLERANCE oranında farklıysa
+ * kararlı sayılır. Soğuk JVM'de medyan pencereden pencereye düşer (yorumlanan kod, sınıf
+ * yükleme, Jackson incelemesi); JIT işini bitirince gürültü seviyesinde dalgalanır.
+ *
+ * Histogram quantile'ları %12.5 çözünürlüklü olduğundan (bkz. LatencyHistogram) tolerans bunun
+ * iki katıdır. Thread-safe değildir; tek thread'den beslenir.
+ */
+public final class SteadyState {
+
+    static final double TOLERANCE = 0.25;
+
+    private final int requiredWindows;
+    private long previous = -1;
+    private int stableWindows;
+    private boolean reached;
+
+    public SteadyState(int requiredWindows) {
+        if (requiredWindows <= 0) {
+            throw new IllegalArgumentException("requiredWindows pozitif olmalı: " + requiredWindows);
+        }
+        this.requiredWindows = requiredWindows;
+    }
+
+    /** Bir pencerenin medyanını (ns) ekler; kararlı hale gelindiyse (ya da önceden gelinmişse) true. */
+    public boolean offer(long median) {
+        if (reached) {
+            return true;
+        }
+        if (previous > 0 && Math.abs(median - previous) <= TOLERANCE * previous) {
+            stableWindows++;
+        } else {
+            stableWindows = 0;
+        }
+        previous = median;
+        reached = stableWindows >= requiredWindows;
+        return reached;
+    }
+
+    public boolean isReached() {
+        return reached;
+    }
+}
@@ -0,0 +1,64 @@
+package com.tavla.server.startup;
+
+import com.tavla.server.loadtest.LoadGenerator;
+import com.tavla.server.ws.ServerLauncher;
+import com.tavla.server.ws.TavlaWebSocketServer;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * AppCDS eğitim çalıştırması (./gradlew appCdsArchive): sunucuyu main'deki sırayla ve geçici bir
+ * veri diziniyle açar (ısınma, recovery, journal, arşiv, metrics), kendine karşı kısa bir yük
+ * testi oynatır (tek tek move ve tur başına play), sunucuyu kapatıp JVM'den çıkar.
+ * -XX:ArchiveClassesAtExit ile çalıştırıldığında bu sırada yüklenen sınıflar (WebSocket el
+ * sıkışması, Jackson, GameLogic, bot, kalıcılık) arşive girer; arşivle açılan JVM bunları
+ * jar'dan okuyup doğrulamak yerine arşivden eşler.
+ *
+ * Kullanım: TrainingRun [bağlantı] [çift başına oyun]
+ */
+public final class TrainingRun {
+
+    private static final long TIMEOUT_MS = 120_000;
+
+    private TrainingRun() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int connections = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 2;
+        if (System.getProperty("tavla.metrics.port") == null) {
+            System.setProperty("tavla.metrics.port", "0"); // boş bir port; sabit port çakışmasın
+        }
+
+        Path dataDir = Files.createTempDirectory("tavla-training");
+        int port = LoadGenerator.freePort();
+        TavlaWebSocketServer server = ServerLauncher.launch(port, dataDir);
+        boolean ok = true;
+        try {
+            LoadGenerator.awaitListening(port);
+            URI uri = URI.create("ws://127.0.0.1:" + port);
+            for (boolean wholeTurns : new boolean[] {false, true}) {
+                LoadGenerator.Result result = new LoadGenerator(uri, connections, games, wholeTurns).run(TIMEOUT_MS);
+                result.print(System.out);
+                ok &= !result.timedOut && result.failedGames == 0;
+            }
+        } finally {
+            server.stop(1_000);
+            deleteRecursively(dataDir);
+        }
+        System.exit(ok ? 0 : 1);
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(p);
+            }
+        }
+    }
+}
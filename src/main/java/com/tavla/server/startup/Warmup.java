@@ -0,0 +1,444 @@
+package com.tavla.server.startup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tavla.core.GameState;
+import com.tavla.core.Move;
+import com.tavla.core.Player;
+import com.tavla.server.bot.BotPlayer;
+import com.tavla.server.log.Log;
+import com.tavla.server.log.Logger;
+import com.tavla.server.metrics.LatencyHistogram;
+import com.tavla.server.ws.StateMapper;
+import com.tavla.server.ws.TavlaWebSocketServer;
+import com.tavla.server.ws.dto.CreateRoomPayload;
+import com.tavla.server.ws.dto.FindMatchPayload;
+import com.tavla.server.ws.dto.ImportPositionPayload;
+import com.tavla.server.ws.dto.JoinRoomPayload;
+import com.tavla.server.ws.dto.LeaderboardPayload;
+import com.tavla.server.ws.dto.MovePayload;
+import com.tavla.server.ws.dto.PlayPayload;
+import com.tavla.server.ws.dto.RankPayload;
+import com.tavla.server.ws.dto.ReplayPayload;
+import com.tavla.server.ws.dto.ResumePayload;
+import com.tavla.server.ws.dto.StatePayload;
+import org.java_websocket.WebSocket;
+import org.java_websocket.drafts.Draft;
+import org.java_websocket.enums.Opcode;
+import org.java_websocket.enums.ReadyState;
+import org.java_websocket.framing.Framedata;
+import org.java_websocket.protocols.IProtocol;
+
+import javax.net.ssl.SSLSession;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Açılışta, asıl sunucu soket kabul etmeden önce sıcak yolu ısıtır: portu hiç açılmayan,
+ * kalıcılığı kapalı ayrı bir TavlaWebSocketServer örneğine bellekteki (ağsız) bağlantılardan
+ * gerçek istemci mesajları gönderilir. Mesajlar onMessage'a girer; parse, doğrulama, mailbox'ta
+ * uygulama (GameLogic), state serileştirme ve gönderim yolu gerçek trafikteki gibi çalışır.
+ * Sınıflar yüklenir, Jackson ws.dto sınıflarını inceler (mapper sunucu örnekleri arasında
+ * paylaşılır), JIT sıcak metotları derler. Isınma örneği ayrı olduğu için asıl sunucunun
+ * journal'ına, arşivine, rating'lerine ve metriklerine hiçbir şey yazılmaz.
+ *
+ * İki bağlantı birbirine karşı oyun oynar: hamleleri botla seçer, turların bir kısmını tek tek
+ * move ile, kalanını play ile gönderir; para oyunlarının yarısında küp çevrilip alınır, her dört
+ * oyundan biri 3 puanlık maçtır. Üçüncü bağlantı oyun dışı mesaj tiplerini (leaderboard, rank,
+ * replay, resume, eşleştirme, bozuk JSON) birer kez gönderir.
+ *
+ * Oyunlar ROUND_GAMES'lik turlarla oynanır; her turda istek -> cevap süresinin medyanı ölçülür.
+ * Medyan oturunca (bkz. SteadyState), ya da oyun/süre sınırı dolunca ısınma biter. Bir hata
+ * ısınmayı keser ama açılışı engellemez.
+ */
+public final class Warmup {
+
+    private static final Logger LOG = Log.get("startup");
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    static final int ROUND_GAMES = 4;
+    private static final int STABLE_ROUNDS = 2;
+    private static final int MATCH_LENGTH = 3;
+
+    /** Bu tiplerden biri, bekleyen isteğin cevabıdır. */
+    private static final Set<String> REPLIES = Set.of("state", "room_created", "room_joined", "error");
+
+    public static final class Result {
+        public final int games;
+        public final long requests;
+        public final long elapsedMs;
+        public final long medianNanos; // son turun istek -> cevap medyanı
+        public final boolean steady;   // false: sınıra ya da hataya takıldı
+
+        Result(int games, long requests, long elapsedMs, long medianNanos, boolean steady) {
+            this.games = games;
+            this.requests = requests;
+            this.elapsedMs = elapsedMs;
+            this.medianNanos = medianNanos;
+            this.steady = steady;
+        }
+    }
+
+    private final TavlaWebSocketServer sandbox;
+    private final BotPlayer bot = new BotPlayer(null);
+    private final BlockingQueue<Delivery> inbox = new LinkedBlockingQueue<>();
+
+    private final Client white = new Client("white", Player.WHITE);
+    private final Client black = new Client("black", Player.BLACK);
+    private final Client other = new Client("other", null);
+
+    private int games;
+    private int turns;
+    private long requests;
+
+    private Warmup(TavlaWebSocketServer sandbox) {
+        this.sandbox = sandbox;
+    }
+
+    /** En fazla maxGames oyun ya da timeoutMs boyunca ısıtır. */
+    public static Result run(int maxGames, long timeoutMs) {
+        long start = System.nanoTime();
+        TavlaWebSocketServer sandbox = new TavlaWebSocketServer(0);
+        Warmup warmup = new Warmup(sandbox);
+        try {
+            return warmup.play(maxGames, start + TimeUnit.MILLISECONDS.toNanos(timeoutMs), start);
+        } finally {
+            warmup.close();
+        }
+    }
+
+    private Result play(int maxGames, long deadline, long start) {
+        SteadyState steady = new SteadyState(STABLE_ROUNDS);
+        LatencyHistogram round = new LatencyHistogram();
+        long median = 0;
+
+        for (Client c : List.of(white, black, other)) {
+            sandbox.onOpen(c, null);
+        }
+        sendOtherTypes();
+        request(white, message("create_room", createRoom()));
+
+        try {
+            while (true) {
+                long waitNanos = deadline - System.nanoTime();
+                Delivery d = waitNanos <= 0 ? null : inbox.poll(waitNanos, TimeUnit.NANOSECONDS);
+                if (d == null) {
+                    LOG.warn("Isınma süre sınırına takıldı", "games", games);
+                    break;
+                }
+                JsonNode msg = MAPPER.readTree(d.text);
+                String type = msg.path("type").asText();
+                Client c = d.client;
+                if (c.pendingSince != 0 && REPLIES.contains(type)) {
+                    round.record(System.nanoTime() - c.pendingSince);
+                    c.pendingSince = 0;
+                }
+
+                if (type.equals("error")) {
+                    if (c == other) {
+                        continue; // oyun dışı mesajların çoğu bilerek hata alır
+                    }
+                    LOG.warn("Isınma hatayla kesildi", "message", msg.path("payload").path("message").asText());
+                    break;
+                }
+                if (type.equals("room_created")) {
+                    JoinRoomPayload join = new JoinRoomPayload();
+                    join.roomId = msg.path("payload").path("roomId").asText();
+                    request(black, message("join_room", join));
+                    continue;
+                }
+                if (!type.equals("state")) {
+                    continue;
+                }
+
+                StatePayload state = MAPPER.treeToValue(msg.path("payload"), StatePayload.class);
+                if (!state.gameOver) {
+                    if (c.color.name().equals(state.playerToAct)) {
+                        act(c, state);
+                    }
+                    continue;
+                }
+                if (c != white || (state.match != null && !state.match.over)) {
+                    continue; // maçta sıradaki oyun kendiliğinden başlar
+                }
+
+                games++;
+                if (games % ROUND_GAMES == 0) {
+                    median = round.valueAtQuantile(0.5);
+                    round = new LatencyHistogram();
+                    if (steady.offer(median)) {
+                        break;
+                    }
+                }
+                if (games >= maxGames || System.nanoTime() >= deadline) {
+                    break;
+                }
+                request(white, message("create_room", createRoom()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (JsonProcessingException | RuntimeException e) {
+            LOG.error("Isınma hatayla kesildi", e);
+        }
+        return new Result(games, requests, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), median,
+                steady.isReached());
+    }
+
+    /** Karar sırası c'de: küpe cevap, küp ya da zar, ya da botun seçtiği hamleler. */
+    private void act(Client c, StatePayload state) {
+        if (state.cube.offered) {
+            request(c, message("take", null));
+            return;
+        }
+        if (!state.dice.rolled) {
+            boolean doubles = c == white && games % 2 == 0 && state.match == null && state.cube.value == 1;
+            request(c, message(doubles ? "double" : "roll", null));
+            return;
+        }
+
+        GameState gs = StateMapper.toGameState(state);
+        BotPlayer.Choice choice = bot.choose(gs);
+        if (choice == null) {
+            throw new IllegalStateException("Zar atılmış ama oynanacak hamle yok");
+        }
+        turns++;
+        if (turns % 2 == 0 && choice.moves.size() > 1) {
+            // Turun ilk hamlesi tek başına; kalanı sonraki state'te yeniden seçilir
+            request(c, message("move", move(choice.moves.get(0))));
+            return;
+        }
+        PlayPayload play = new PlayPayload();
+        play.moves = new ArrayList<>(choice.moves.size());
+        for (Move m : choice.moves) {
+            play.moves.add(move(m));
+        }
+        request(c, message("play", play));
+    }
+
+    /** Oyun dışı mesaj tipleri; cevapları beklenmez. */
+    private void sendOtherTypes() {
+        LeaderboardPayload leaderboard = new LeaderboardPayload();
+        RankPayload rank = new RankPayload();
+        rank.playerId = "warmup";
+        ReplayPayload replay = new ReplayPayload();
+        replay.gameId = 1;
+        ResumePayload resume = new ResumePayload();
+        resume.token = "warmup.token";
+        ImportPositionPayload position = new ImportPositionPayload();
+        position.positionId = "4HPwATDgc/ABMA";
+        position.matchId = "cAkAAAAAAAAA";
+
+        sandbox.onMessage(other, message("leaderboard", leaderboard));
+        sandbox.onMessage(other, message("rank", rank));
+        sandbox.onMessage(other, message("replay", replay));
+        sandbox.onMessage(other, message("resume", resume));
+        sandbox.onMessage(other, message("import_position", position));
+        sandbox.onMessage(other, message("accept_import", null));
+        sandbox.onMessage(other, message("hint", null));
+        sandbox.onMessage(other, message("find_match", new FindMatchPayload()));
+        sandbox.onMessage(other, message("cancel_match", null));
+        sandbox.onMessage(other, "{\"type\":");
+    }
+
+    private CreateRoomPayload createRoom() {
+        CreateRoomPayload payload = new CreateRoomPayload();
+        payload.matchLength = games % 4 == 3 ? MATCH_LENGTH : 0;
+        return payload;
+    }
+
+    private static MovePayload move(Move m) {
+        MovePayload payload = new MovePayload();
+        payload.from = m.getFromIndex();
+        payload.to = m.getToIndex();
+        payload.step = m.getStep();
+        return payload;
+    }
+
+    private static String message(String type, Object payload) {
+        try {
+            return MAPPER.writeValueAsString(payload == null ? Map.of("type", type)
+                    : Map.of("type", type, "payload", payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Isınma mesajı yazılamadı: " + type, e);
+        }
+    }
+
+    private void request(Client c, String json) {
+        requests++;
+        c.pendingSince = System.nanoTime();
+        sandbox.onMessage(c, json);
+    }
+
+    private void close() {
+        for (Client c : List.of(white, black, other)) {
+            c.open = false;
+            sandbox.onClose(c, 1000, "warmup", false);
+        }
+        try {
+            sandbox.stop();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Delivery {
+        final Client client;
+        final String text;
+
+        Delivery(Client client, String text) {
+            this.client = client;
+            this.text = text;
+        }
+    }
+
+    /**
+     * Ağsız bağlantı: sunucunun gönderdiği metin mesajları ısınma thread'inin kuyruğuna düşer.
+     * Ping ve binary frame'ler yok sayılır.
+     */
+    private final class Client implements WebSocket {
+        private final InetSocketAddress address;
+        final Player color; // oyun dışı bağlantıda null
+        volatile boolean open = true;
+        long pendingSince; // sadece ısınma thread'i; bekleyen istek yoksa 0
+        private volatile Object attachment;
+
+        Client(String name, Player color) {
+            this.address = InetSocketAddress.createUnresolved("warmup-" + name, 0);
+            this.color = color;
+        }
+
+        @Override
+        public void send(String text) {
+            inbox.offer(new Delivery(this, text));
+        }
+
+        @Override
+        public void send(ByteBuffer bytes) {
+        }
+
+        @Override
+        public void send(byte[] bytes) {
+        }
+
+        @Override
+        public void sendFrame(Framedata framedata) {
+        }
+
+        @Override
+        public void sendFrame(Collection<Framedata> frames) {
+        }
+
+        @Override
+        public void sendPing() {
+        }
+
+        @Override
+        public void sendFragmentedFrame(Opcode op, ByteBuffer buffer, boolean fin) {
+        }
+
+        @Override
+        public void close(int code, String message) {
+            open = false;
+        }
+
+        @Override
+        public void close(int code) {
+            open = false;
+        }
+
+        @Override
+        public void close() {
+            open = false;
+        }
+
+        @Override
+        public void closeConnection(int code, String message) {
+            open = false;
+        }
+
+        @Override
+        public boolean hasBufferedData() {
+            return false;
+        }
+
+        @Override
+        public InetSocketAddress getRemoteSocketAddress() {
+            return address;
+        }
+
+        @Override
+        public InetSocketAddress getLocalSocketAddress() {
+            return null;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public boolean isClosing() {
+            return false;
+        }
+
+        @Override
+        public boolean isFlushAndClose() {
+            return false;
+        }
+
+        @Override
+        public boolean isClosed() {
+            return !open;
+        }
+
+        @Override
+        public Draft getDraft() {
+            return null;
+        }
+
+        @Override
+        public ReadyState getReadyState() {
+            return open ? ReadyState.OPEN : ReadyState.CLOSED;
+        }
+
+        @Override
+        public String getResourceDescriptor() {
+            return "/";
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T getAttachment() {
+            return (T) attachment;
+        }
+
+        @Override
+        public <T> void setAttachment(T attachment) {
+            this.attachment = attachment;
+        }
+
+        @Override
+        public boolean hasSSLSupport() {
+            return false;
+        }
+
+        @Override
+        public SSLSession getSSLSession() {
+            throw new IllegalArgumentException("Isınma bağlantısında SSL yok");
+        }
+
+        @Override
+        public IProtocol getProtocol() {
+            return null;
+        }
+    }
+}
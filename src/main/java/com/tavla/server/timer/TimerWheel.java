@@ -0,0 +1,246 @@
+package com.tavla.server.timer;
+
+import com.tavla.server.log.Log;
+import com.tavla.server.log.Logger;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timer wheel: çok sayıda kısa ömürlü zamanlayıcı için O(1) schedule/cancel.
+ *
+ * - Zaman tickMs'lik dilimlere bölünür; wheelSize (2'nin kuvveti) yuvadan oluşan bir çark
+ *   her tick'te bir yuva ilerler
+ * - Bir timeout, deadline'ının düştüğü yuvaya, çarkın kaç tur sonra ateşleneceği (rounds)
+ *   bilgisiyle eklenir; yuva içi çift yönlü bağlı liste olduğu için çıkarma da O(1)'dir
+ * - Yuvaları sadece çark thread'i değiştirir. schedule/cancel herhangi bir thread'den
+ *   çağrılır ve kilitsiz inbox'lara düşer, bir sonraki tick'te uygulanır
+ *
+ * Görevler çark thread'inde çalışır, bu yüzden kısa ve bloklamayan olmalıdır
+ * (ör: sadece odanın mailbox'ına komut eklemek). Hassasiyet tickMs kadardır.
+ */
+public final class TimerWheel {
+
+    private static final Logger LOG = Log.get("timer");
+
+    private final long tickNanos;
+    private final Slot[] wheel;
+    private final int mask;
+
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+    private final Queue<Timeout> cancelled = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong fired = new AtomicLong();
+
+    private final Thread worker;
+    private final long startNanos;
+    private volatile boolean running = true;
+
+    // Sadece çark thread'i yazar
+    private long tick;
+
+    public TimerWheel(String name, long tickMs, int wheelSize) {
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize 2'nin kuvveti olmalı: " + wheelSize);
+        }
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("tickMs pozitif olmalı: " + tickMs);
+        }
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+        this.wheel = new Slot[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            wheel[i] = new Slot();
+        }
+        this.mask = wheelSize - 1;
+        this.startNanos = System.nanoTime();
+
+        this.worker = new Thread(this::run, name);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * task'ı en erken delay sonra çalıştırır (tick sınırına yukarı yuvarlanır).
+     * @return iptal için kullanılabilecek handle
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        long deadline = System.nanoTime() - startNanos + unit.toNanos(Math.max(0, delay));
+        Timeout timeout = new Timeout(this, task, deadline);
+        pending.incrementAndGet();
+        scheduled.offer(timeout);
+        return timeout;
+    }
+
+    /** Bekleyen (henüz ateşlenmemiş ya da iptal edilmemiş) timeout sayısı. */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    public long getFiredCount() {
+        return fired.get();
+    }
+
+    public void stop() {
+        running = false;
+        LockSupport.unpark(worker);
+    }
+
+    private void run() {
+        while (running) {
+            long nextTickAt = startNanos + (tick + 1) * tickNanos;
+            long sleep = nextTickAt - System.nanoTime();
+            if (sleep > 0) {
+                LockSupport.parkNanos(this, sleep);
+                continue;
+            }
+
+            transferCancelled();
+            transferScheduled();
+            expire(wheel[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void transferScheduled() {
+        // Sınırsız döngüye girmesin: bu tick'te en fazla 100k yeni timeout yerleştirilir
+        for (int i = 0; i < 100_000; i++) {
+            Timeout t = scheduled.poll();
+            if (t == null) {
+                return;
+            }
+            if (t.state.get() != Timeout.ST_INIT) {
+                continue; // yerleşmeden iptal edilmiş
+            }
+
+            long ticks = Math.max(tick, (t.deadline + tickNanos - 1) / tickNanos);
+            t.remainingRounds = (ticks - tick) / wheel.length;
+            wheel[(int) (ticks & mask)].add(t);
+        }
+    }
+
+    private void transferCancelled() {
+        Timeout t;
+        while ((t = cancelled.poll()) != null) {
+            if (t.slot != null) {
+                t.slot.remove(t);
+            }
+        }
+    }
+
+    private void expire(Slot slot) {
+        Timeout t = slot.head;
+        while (t != null) {
+            Timeout next = t.next;
+            if (t.remainingRounds <= 0) {
+                slot.remove(t);
+                if (t.state.compareAndSet(Timeout.ST_INIT, Timeout.ST_EXPIRED)) {
+                    pending.decrementAndGet();
+                    fired.incrementAndGet();
+                    runSafely(t.task);
+                }
+            } else {
+                t.remainingRounds--;
+            }
+            t = next;
+        }
+    }
+
+    private void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            // Bir görevin hatası çarkı durdurmamalı
+            LOG.error("Zamanlayıcı görevi hatası", e);
+        }
+    }
+
+    void onCancel(Timeout t) {
+        pending.decrementAndGet();
+        cancelled.offer(t);
+    }
+
+    /** Tek bir zamanlanmış görev. */
+    public static final class Timeout {
+        static final int ST_INIT = 0;
+        static final int ST_CANCELLED = 1;
+        static final int ST_EXPIRED = 2;
+
+        private final TimerWheel wheel;
+        private final Runnable task;
+        private final long deadline; // startNanos'a göre
+        private final AtomicInteger state = new AtomicInteger(ST_INIT);
+
+        // Çark thread'ine ait
+        long remainingRounds;
+        Slot slot;
+        Timeout prev;
+        Timeout next;
+
+        Timeout(TimerWheel wheel, Runnable task, long deadline) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Görevi iptal eder. Zaten çalışmış ya da iptal edilmişse false döner.
+         * Çağrı O(1)'dir; yuvadan çıkarma bir sonraki tick'te çark thread'inde yapılır.
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            wheel.onCancel(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == ST_EXPIRED;
+        }
+    }
+
+    /** Çarkın tek bir yuvası. */
+    private static final class Slot {
+        Timeout head;
+        Timeout tail;
+
+        void add(Timeout t) {
+            t.slot = this;
+            t.prev = tail;
+            t.next = null;
+            if (tail == null) {
+                head = t;
+            } else {
+                tail.next = t;
+            }
+            tail = t;
+        }
+
+        void remove(Timeout t) {
+            if (t.slot != this) {
+                return;
+            }
+            if (t.prev == null) {
+                head = t.next;
+            } else {
+                t.prev.next = t.next;
+            }
+            if (t.next == null) {
+                tail = t.prev;
+            } else {
+                t.next.prev = t.prev;
+            }
+            t.prev = null;
+            t.next = null;
+            t.slot = null;
+        }
+    }
+}
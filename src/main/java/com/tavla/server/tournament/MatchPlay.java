@@ -0,0 +1,100 @@
+package com.tavla.server.tournament;
+
+import com.tavla.core.GameLogic;
+import com.tavla.core.GameState;
+import com.tavla.core.MatchScore;
+import com.tavla.core.Move;
+import com.tavla.core.Player;
+import com.tavla.core.TavlaGame;
+import com.tavla.server.bot.BotStrategy;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * İki strateji arasında tek bir oyunu ya da maçı soketsiz, doğrudan TavlaGame üzerinde oynatır.
+ * Zarlar ve stratejilerin rastgeleliği verilen random'dan gelir; aynı seed aynı oyunu verir.
+ */
+final class MatchPlay {
+
+    /**
+     * Bu kadar yarım turda bitmeyen oyun yarıda bırakılır (normal oyunlar birkaç yüz yarım turda
+     * biter; sadece pip'e bakan bir bot gibi ilerlemek yerine sürekli kıran stratejiler oyunu
+     * bitirmeyebilir).
+     */
+    static final int MAX_TURNS = 10_000;
+
+    private final GameLogic logic = new GameLogic();
+
+    /** Bir karşılaşmanın sonucu WHITE'ın açısından. */
+    static final class Outcome {
+        final double whiteScore; // para oyununda kazanılan/kaybedilen puan, maçta +1 / -1; yarım kaldıysa 0
+        final int games;
+        final boolean finished;
+
+        Outcome(double whiteScore, int games, boolean finished) {
+            this.whiteScore = whiteScore;
+            this.games = games;
+            this.finished = finished;
+        }
+    }
+
+    /**
+     * matchLength 0 ise tek para oyunu (küp serbest), değilse matchLength puanlık maç
+     * (Crawford kuralıyla). Bir oyun MAX_TURNS'te bitmezse karşılaşma berabere (0) ve yarım sayılır.
+     */
+    Outcome play(BotStrategy white, BotStrategy black, int matchLength, SplittableRandom random) {
+        if (matchLength == 0) {
+            TavlaGame game = playGame(white, black, MatchScore.MONEY, random);
+            if (!game.isGameOver()) {
+                return new Outcome(0, 1, false);
+            }
+            int points = game.getResultPoints();
+            return new Outcome(game.getWinner() == Player.WHITE ? points : -points, 1, true);
+        }
+        MatchScore score = MatchScore.of(matchLength);
+        int games = 0;
+        while (!score.isOver()) {
+            TavlaGame game = playGame(white, black, score, random);
+            games++;
+            if (!game.isGameOver()) {
+                return new Outcome(0, games, false);
+            }
+            score = score.after(game.getWinner(), game.getResultPoints());
+        }
+        return new Outcome(score.getWinner() == Player.WHITE ? 1 : -1, games, true);
+    }
+
+    /** Bir oyunu sonuna kadar (en fazla MAX_TURNS yarım tur) oynatır; başlayan oyuncu rastgeledir. */
+    TavlaGame playGame(BotStrategy white, BotStrategy black, MatchScore score, SplittableRandom random) {
+        TavlaGame game = new TavlaGame();
+        GameState state = game.getInternalState();
+        if (random.nextBoolean()) {
+            state.switchTurn();
+        }
+        for (int turn = 0; turn < MAX_TURNS && !game.isGameOver(); turn++) {
+            BotStrategy mover = state.getCurrentPlayer() == Player.WHITE ? white : black;
+            if (score.isCubeAllowed() && game.validateDouble() == null && mover.offerDouble(state, score)) {
+                BotStrategy taker = mover == white ? black : white;
+                game.offerDouble();
+                if (!taker.acceptDouble(state, score)) {
+                    game.dropDouble();
+                    break;
+                }
+                game.takeDouble();
+            }
+
+            game.applyRoll(random.nextInt(6) + 1, random.nextInt(6) + 1);
+            if (game.passIfBlocked()) {
+                continue;
+            }
+            List<Move> play = mover.choosePlay(logic, state, random);
+            String error = game.applyPlay(play);
+            if (error != null) {
+                throw new IllegalStateException(mover.name() + " geçersiz hamle oynadı: " + play + " (" + error + ")");
+            }
+            game.passIfBlocked();
+        }
+        return game;
+    }
+}
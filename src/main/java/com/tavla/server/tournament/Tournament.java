@@ -0,0 +1,380 @@
+package com.tavla.server.tournament;
+
+import com.tavla.core.MatchScore;
+import com.tavla.server.bot.BotStrategies;
+import com.tavla.server.bot.BotStrategy;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Bot stratejileri arasında binlerce karşılaşmayı tüm çekirdeklerde oynatan turnuva.
+ *
+ * Bir tur, eşleşmelerin (iki bot) listesidir; her eşleşme gamesPerPairing karşılaşma oynar,
+ * renkler sırayla değişir. Karşılaşma matchLength 0 ise tek para oyunu, değilse o uzunlukta bir
+ * maçtır. Formatlar:
+ *  ROUND_ROBIN - her turda herkes herkesle; rounds kez tekrarlanır
+ *  SWISS       - her tur, o ana kadarki eşleşme puanına göre yakın botlar (mümkünse rövanşsız)
+ *                eşlenir; tek sayıda botta en alttaki (daha önce bay geçmemiş) bot bay geçer
+ *
+ * Bir turun tüm karşılaşmaları tek bir ForkJoinPool görevine verilir: görev karşılaşma aralığını
+ * ikiye bölerek alt görevlere ayırır, boşta kalan thread'ler iş çalar. Her karşılaşmanın zarları
+ * (seed, karşılaşma sırası)'ndan türetilir; sonuçlar thread sayısından bağımsız olarak
+ * tekrarlanabilir. Sonuçlar karşılaşma başına bir diziye yazılır, paylaşılan sayaç yoktur.
+ * MatchPlay.MAX_TURNS'te bitmeyen karşılaşmalar berabere sayılır ve raporda ayrıca gösterilir.
+ *
+ * Kullanım:
+ *   java ... Tournament <round-robin|swiss> <bot,bot,...> [eşleşme başına karşılaşma] [maç uzunluğu] [tur]
+ *   -Dtavla.tournament.seed (1), -Dtavla.tournament.threads (çekirdek sayısı)
+ * Botlar: BotStrategies.byName.
+ */
+public class Tournament {
+
+    public enum Format { ROUND_ROBIN, SWISS }
+
+    /** İki bot; a ilk karşılaşmada WHITE oynar. */
+    static final class Pairing {
+        final int a;
+        final int b;
+
+        Pairing(int a, int b) {
+            this.a = a;
+            this.b = b;
+        }
+    }
+
+    private final List<BotStrategy> bots;
+    private final Format format;
+    private final int rounds;
+    private final int gamesPerPairing;
+    private final int matchLength;
+    private final long seed;
+    private final int parallelism;
+
+    public Tournament(List<BotStrategy> bots, Format format, int rounds, int gamesPerPairing, int matchLength,
+                      long seed, int parallelism) {
+        if (bots.size() < 2) {
+            throw new IllegalArgumentException("En az iki bot gerekli");
+        }
+        if (rounds < 1 || gamesPerPairing < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("Geçersiz turnuva parametreleri");
+        }
+        if (matchLength < 0 || matchLength > MatchScore.MAX_LENGTH) {
+            throw new IllegalArgumentException("Maç uzunluğu 0-" + MatchScore.MAX_LENGTH + " olmalı: " + matchLength);
+        }
+        this.bots = List.copyOf(bots);
+        this.format = format;
+        this.rounds = rounds;
+        this.gamesPerPairing = gamesPerPairing;
+        this.matchLength = matchLength;
+        this.seed = seed;
+        this.parallelism = parallelism;
+    }
+
+    /** Bir botun sıralama satırı. score karşılaşma başına puandır (maçta +1 / -1). */
+    public static final class Standing {
+        public final String name;
+        public final long played;
+        public final long wins;
+        public final double pairingPoints; // eşleşme kazanma 1, beraberlik 0.5 (İsviçre sıralaması)
+        public final double meanScore;
+        public final double meanError;     // %95 güven aralığının yarısı
+        public final double winRate;
+        public final double winRateError;
+
+        Standing(String name, long played, long wins, double pairingPoints, double sum, double sumSquares) {
+            this.name = name;
+            this.played = played;
+            this.wins = wins;
+            this.pairingPoints = pairingPoints;
+            this.meanScore = played == 0 ? 0 : sum / played;
+            double variance = played < 2 ? 0 : Math.max(0, (sumSquares - sum * sum / played) / (played - 1));
+            this.meanError = played == 0 ? 0 : 1.96 * Math.sqrt(variance / played);
+            this.winRate = played == 0 ? 0 : (double) wins / played;
+            this.winRateError = played == 0 ? 0 : 1.96 * Math.sqrt(winRate * (1 - winRate) / played);
+        }
+    }
+
+    /** Turnuva sonucu (rapor için değişmez özet). */
+    public static class Result {
+        public final Format format;
+        public final int matchLength;
+        public final List<Standing> standings; // sıralı
+        public final long encounters;
+        public final long games;
+        public final long unfinished;
+        public final long elapsedNanos;
+        public final int parallelism;
+
+        Result(Format format, int matchLength, List<Standing> standings, long encounters, long games,
+               long unfinished, long elapsedNanos, int parallelism) {
+            this.format = format;
+            this.matchLength = matchLength;
+            this.standings = standings;
+            this.encounters = encounters;
+            this.games = games;
+            this.unfinished = unfinished;
+            this.elapsedNanos = elapsedNanos;
+            this.parallelism = parallelism;
+        }
+
+        public double gamesPerSecond() {
+            return games / (elapsedNanos / 1e9);
+        }
+
+        public Standing get(String name) {
+            for (Standing s : standings) {
+                if (s.name.equals(name)) {
+                    return s;
+                }
+            }
+            return null;
+        }
+
+        public void print(PrintStream out) {
+            double seconds = elapsedNanos / 1e9;
+            out.printf(Locale.ROOT, "%s, %s: %d karşılaşma, %d oyun, %.1f s, %d thread (%.0f oyun/s)%n",
+                    format, matchLength == 0 ? "para oyunu" : matchLength + " puanlık maç",
+                    encounters, games, seconds, parallelism, gamesPerSecond());
+            if (unfinished > 0) {
+                out.printf("%d karşılaşma %d yarım turda bitmedi (berabere sayıldı)%n", unfinished, MatchPlay.MAX_TURNS);
+            }
+            out.printf("%-4s %-16s %10s %8s %18s %16s%n", "#", "bot", "oynanan", "eşleşme",
+                    matchLength == 0 ? "puan/oyun ±%95" : "maç puanı ±%95", "kazanma ±%95");
+            int rank = 1;
+            for (Standing s : standings) {
+                out.printf(Locale.ROOT, "%-4d %-16s %10d %8.1f %+10.3f ±%6.3f %8.1f%% ±%4.1f%n", rank++, s.name,
+                        s.played, s.pairingPoints, s.meanScore, s.meanError, 100 * s.winRate, 100 * s.winRateError);
+            }
+        }
+    }
+
+    // Bot başına birikimler (turlar arasında, tek thread'de güncellenir)
+    private long[] played;
+    private long[] wins;
+    private double[] sums;
+    private double[] sumSquares;
+    private double[] pairingPoints;
+    private boolean[][] met;
+    private boolean[] hadBye;
+
+    public Result run() {
+        int n = bots.size();
+        played = new long[n];
+        wins = new long[n];
+        sums = new double[n];
+        sumSquares = new double[n];
+        pairingPoints = new double[n];
+        met = new boolean[n][n];
+        hadBye = new boolean[n];
+
+        long encounters = 0;
+        long games = 0;
+        long unfinished = 0;
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (int round = 0; round < rounds; round++) {
+                List<Pairing> pairings = format == Format.SWISS ? swissPairings() : roundRobinPairings();
+                Batch batch = new Batch(pairings, encounters, 0, pairings.size() * gamesPerPairing,
+                        threshold(pairings.size() * gamesPerPairing));
+                pool.invoke(batch);
+                games += record(pairings, batch.scores, batch.games);
+                for (boolean done : batch.finished) {
+                    unfinished += done ? 0 : 1;
+                }
+                encounters += (long) pairings.size() * gamesPerPairing;
+            }
+        } finally {
+            pool.shutdown();
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Result(format, matchLength, standings(), encounters, games, unfinished, elapsed, parallelism);
+    }
+
+    /** Alt görev başına karşılaşma: thread başına ~8 görev, iş çalma dengesizliği dengeler. */
+    private int threshold(int encounters) {
+        return Math.max(1, encounters / (parallelism * 8));
+    }
+
+    /**
+     * [from, to) aralığındaki karşılaşmalar. Karşılaşma i, pairings.get(i / gamesPerPairing)'in
+     * (i % gamesPerPairing). oyunudur; sonuçlar paylaşılan dizilere kendi indeksinden yazılır.
+     */
+    @SuppressWarnings("serial") // sadece ForkJoinPool içinde yaşar, serileştirilmez
+    private final class Batch extends RecursiveAction {
+        final List<Pairing> pairings;
+        final long firstEncounter; // turnuva genelinde sıra numarası (seed için)
+        final int from;
+        final int to;
+        final int threshold;
+        final double[] scores; // a'nın açısından
+        final int[] games;
+        final boolean[] finished;
+
+        Batch(List<Pairing> pairings, long firstEncounter, int from, int to, int threshold) {
+            this(pairings, firstEncounter, from, to, threshold, new double[to], new int[to], new boolean[to]);
+        }
+
+        private Batch(List<Pairing> pairings, long firstEncounter, int from, int to, int threshold,
+                      double[] scores, int[] games, boolean[] finished) {
+            this.pairings = pairings;
+            this.firstEncounter = firstEncounter;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+            this.scores = scores;
+            this.games = games;
+            this.finished = finished;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= threshold) {
+                MatchPlay play = new MatchPlay();
+                for (int i = from; i < to; i++) {
+                    Pairing p = pairings.get(i / gamesPerPairing);
+                    boolean aIsWhite = i % gamesPerPairing % 2 == 0;
+                    BotStrategy white = bots.get(aIsWhite ? p.a : p.b);
+                    BotStrategy black = bots.get(aIsWhite ? p.b : p.a);
+                    MatchPlay.Outcome outcome = play.play(white, black, matchLength,
+                            new SplittableRandom(mix(seed, firstEncounter + i)));
+                    scores[i] = aIsWhite ? outcome.whiteScore : -outcome.whiteScore;
+                    games[i] = outcome.games;
+                    finished[i] = outcome.finished;
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Batch(pairings, firstEncounter, from, mid, threshold, scores, games, finished),
+                    new Batch(pairings, firstEncounter, mid, to, threshold, scores, games, finished));
+        }
+    }
+
+    /** Turun sonuçlarını bot birikimlerine ekler; oynanan oyun sayısını döndürür. */
+    private long record(List<Pairing> pairings, double[] scores, int[] games) {
+        long total = 0;
+        for (int p = 0; p < pairings.size(); p++) {
+            Pairing pairing = pairings.get(p);
+            double pairingScore = 0;
+            for (int i = p * gamesPerPairing; i < (p + 1) * gamesPerPairing; i++) {
+                double s = scores[i];
+                add(pairing.a, s);
+                add(pairing.b, -s);
+                pairingScore += s;
+                total += games[i];
+            }
+            met[pairing.a][pairing.b] = true;
+            met[pairing.b][pairing.a] = true;
+            double aPoints = pairingScore > 0 ? 1 : pairingScore < 0 ? 0 : 0.5;
+            pairingPoints[pairing.a] += aPoints;
+            pairingPoints[pairing.b] += 1 - aPoints;
+        }
+        return total;
+    }
+
+    private void add(int bot, double score) {
+        played[bot]++;
+        if (score > 0) {
+            wins[bot]++;
+        }
+        sums[bot] += score;
+        sumSquares[bot] += score * score;
+    }
+
+    List<Pairing> roundRobinPairings() {
+        List<Pairing> pairings = new ArrayList<>();
+        for (int a = 0; a < bots.size(); a++) {
+            for (int b = a + 1; b < bots.size(); b++) {
+                pairings.add(new Pairing(a, b));
+            }
+        }
+        return pairings;
+    }
+
+    /** Eşleşme puanına (eşitlikte ortalama skora) göre sıralayıp yukarıdan aşağı eşler. */
+    List<Pairing> swissPairings() {
+        Integer[] order = new Integer[bots.size()];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, rankOrder());
+
+        List<Integer> open = new ArrayList<>(Arrays.asList(order));
+        if (open.size() % 2 == 1) {
+            int bye = open.size() - 1;
+            while (bye > 0 && hadBye[open.get(bye)]) {
+                bye--;
+            }
+            hadBye[open.get(bye)] = true;
+            pairingPoints[open.get(bye)] += 1;
+            open.remove(bye);
+        }
+
+        List<Pairing> pairings = new ArrayList<>();
+        while (!open.isEmpty()) {
+            int a = open.remove(0);
+            int pick = 0;
+            for (int i = 0; i < open.size(); i++) {
+                if (!met[a][open.get(i)]) {
+                    pick = i;
+                    break;
+                }
+            }
+            pairings.add(new Pairing(a, open.remove(pick)));
+        }
+        return pairings;
+    }
+
+    private Comparator<Integer> rankOrder() {
+        return Comparator.<Integer>comparingDouble(i -> -pairingPoints[i])
+                .thenComparingDouble(i -> played[i] == 0 ? 0 : -sums[i] / played[i])
+                .thenComparingInt(i -> i);
+    }
+
+    private List<Standing> standings() {
+        Integer[] order = new Integer[bots.size()];
+        Arrays.setAll(order, i -> i);
+        Comparator<Integer> byScore = Comparator.comparingDouble(i -> played[i] == 0 ? 0 : -sums[i] / played[i]);
+        Arrays.sort(order, format == Format.SWISS ? rankOrder() : byScore.thenComparingInt(i -> i));
+        List<Standing> standings = new ArrayList<>(order.length);
+        for (int i : order) {
+            standings.add(new Standing(bots.get(i).name(), played[i], wins[i], pairingPoints[i], sums[i],
+                    sumSquares[i]));
+        }
+        return standings;
+    }
+
+    /** Ardışık sayılardan bağımsız görünen seed'ler (SplittableRandom ardışık seed'lerde kayar). */
+    static long mix(long seed, long index) {
+        long z = seed * 0x9E3779B97F4A7C15L + index;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.err.println("Kullanım: Tournament <round-robin|swiss> <bot,bot,...> [eşleşme başına karşılaşma]"
+                    + " [maç uzunluğu] [tur]");
+            System.exit(2);
+        }
+        Format format = Format.valueOf(args[0].toUpperCase(Locale.ROOT).replace('-', '_'));
+        List<BotStrategy> bots = new ArrayList<>();
+        for (String name : args[1].split(",")) {
+            bots.add(BotStrategies.byName(name.trim()));
+        }
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        int matchLength = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+        int rounds = args.length > 4 ? Integer.parseInt(args[4]) : (format == Format.SWISS ? bots.size() - 1 : 1);
+        long seed = Long.getLong("tavla.tournament.seed", 1);
+        int threads = Integer.getInteger("tavla.tournament.threads", Runtime.getRuntime().availableProcessors());
+
+        new Tournament(bots, format, rounds, games, matchLength, seed, threads).run().print(System.out);
+    }
+}
@@ -0,0 +1,18 @@
+package com.tavla.server.ws;
+
+import com.tavla.server.timer.TimerWheel;
+
+/**
+ * Bir WebSocket bağlantısına iliştirilen (conn.setAttachment) sunucu tarafı bilgiler.
+ */
+class ConnectionState {
+
+    // Karşı taraftan son mesaj ya da pong (System.nanoTime)
+    volatile long lastSeenAt = System.nanoTime();
+
+    // Bir sonraki heartbeat kontrolü; bağlantı kapanınca iptal edilir
+    volatile TimerWheel.Timeout heartbeat;
+
+    // Bağlantının izlediği replay akışı; yeni replay isteği ya da kapanış eskisini durdurur
+    volatile Object replayStream;
+}
@@ -0,0 +1,145 @@
+package com.tavla.server.ws;
+
+import com.tavla.core.GameRecorder;
+import com.tavla.core.Player;
+import com.tavla.core.TavlaGame;
+import com.tavla.server.jfr.RoomLifecycleEvent;
+import com.tavla.server.metrics.Stage;
+import com.tavla.server.rooms.Room;
+
+import org.java_websocket.WebSocket;
+
+/**
+ * Küp ve maç oyunu:
+ * - Sıradaki oyuncu zar atmadan double ile küpü çevirir; rakip take ile kabul eder (küp iki
+ *   katına çıkar, kabul edene geçer) ya da drop ile reddeder (çeviren, küpün eski değerini alır).
+ *   Teklif bekleyen oyunda zar atılamaz, sıra saati cevap verecek oyuncu için işler
+ * - create_room'a matchLength verilirse oda N puanlık maçtır: oyun bitince skor güncellenir ve
+ *   maç bitmediyse sıradaki oyun hemen başlar. Crawford oyununda küp kullanılamaz. Gammon 2,
+ *   backgammon 3 kat sayılır. Süre aşımıyla kaybeden maçı da kaybeder
+ *
+ * Client -> Server:
+ *  {"type":"double"}  {"type":"take"}  {"type":"drop"}
+ */
+final class CubeHandler {
+
+    private final TavlaWebSocketServer server;
+
+    CubeHandler(TavlaWebSocketServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Sıradaki oyuncu zar atmadan küpü çevirir. Crawford oyununda, küp rakipteyken ya da en üst
+     * değerdeyken reddedilir. Cevap verecek rakip için sıra saati başlar.
+     */
+    void handleDouble(WebSocket conn) {
+        Room room = server.roomManager.getRoomBySocket(conn);
+        if (room == null) {
+            server.sendError(conn, "Herhangi bir odada değilsin. create_room/join_room yap.");
+            return;
+        }
+
+        server.commands.submit(room, "double", () -> {
+            long start = System.nanoTime();
+            if (!room.hasStarted()) {
+                server.sendError(conn, "Oyun başlamadı. İkinci oyuncu bekleniyor.");
+                return RoomCommands.REJECTED;
+            }
+
+            TavlaGame game = room.getGame();
+            Player sender = room.getPlayerBySocket(conn);
+            if (sender == null) {
+                server.sendError(conn, "Odadaki oyuncu bulunamadı.");
+                return RoomCommands.REJECTED;
+            }
+            if (sender != game.getCurrentPlayer()) {
+                server.sendError(conn, "Sıra sende değil. Sıra: " + game.getCurrentPlayer());
+                return RoomCommands.REJECTED;
+            }
+            if (!room.getMatch().isCubeAllowed()) {
+                server.sendError(conn, "Crawford oyununda küp kullanılamaz.");
+                return RoomCommands.REJECTED;
+            }
+            String error = game.validateDouble();
+            if (error != null) {
+                server.sendError(conn, error);
+                return RoomCommands.REJECTED;
+            }
+            long validated = System.nanoTime();
+            server.metrics.record("double", Stage.VALIDATE, validated - start);
+
+            game.offerDouble();
+            room.markJournaled(server.journal.doubleOffered(room.getRoomId()));
+            room.touch();
+            server.metrics.record("double", Stage.APPLY, System.nanoTime() - validated);
+            server.broadcastState(room);
+            server.timers.updateTurnClock(room);
+            return RoomCommands.OK;
+        });
+    }
+
+    /**
+     * Küp teklifine cevap: take ile küp iki katına çıkar ve kabul edene geçer, sıra çevirende
+     * kalır (zar atar); drop ile çeviren oyunu küpün eski değeriyle kazanır.
+     */
+    void handleCubeResponse(WebSocket conn, boolean take) {
+        String type = take ? "take" : "drop";
+        Room room = server.roomManager.getRoomBySocket(conn);
+        if (room == null) {
+            server.sendError(conn, "Herhangi bir odada değilsin. create_room/join_room yap.");
+            return;
+        }
+
+        server.commands.submit(room, type, () -> {
+            long start = System.nanoTime();
+            if (!room.hasStarted()) {
+                server.sendError(conn, "Oyun başlamadı. İkinci oyuncu bekleniyor.");
+                return RoomCommands.REJECTED;
+            }
+
+            TavlaGame game = room.getGame();
+            Player sender = room.getPlayerBySocket(conn);
+            if (sender == null) {
+                server.sendError(conn, "Odadaki oyuncu bulunamadı.");
+                return RoomCommands.REJECTED;
+            }
+            if (game.isGameOver() || !game.isCubeOffered() || sender != game.getPlayerToAct()) {
+                server.sendError(conn, "Cevap verilecek bir küp teklifi yok.");
+                return RoomCommands.REJECTED;
+            }
+            long validated = System.nanoTime();
+            server.metrics.record(type, Stage.VALIDATE, validated - start);
+
+            if (take) {
+                game.takeDouble();
+                room.markJournaled(server.journal.doubleTaken(room.getRoomId()));
+            } else {
+                game.dropDouble();
+                room.markJournaled(server.journal.doubleDropped(room.getRoomId()));
+            }
+            room.touch();
+            server.metrics.record(type, Stage.APPLY, System.nanoTime() - validated);
+            server.broadcastState(room);
+            server.finishIfOver(room);
+            continueMatch(room);
+            server.timers.updateTurnClock(room);
+            return RoomCommands.OK;
+        });
+    }
+
+    /**
+     * Maçta oyun bittiyse ve maç sürüyorsa sıradaki oyunu aynı oyuncularla başlatır ve yayınlar.
+     * Odanın mailbox'ı içinden, biten oyunun state'i yayınlanıp finishIfOver'dan geçtikten sonra çağrılmalıdır.
+     */
+    void continueMatch(Room room) {
+        TavlaGame game = room.getGame();
+        if (game == null || !game.isGameOver() || !room.getMatch().isMatch() || room.getMatchAfterGame().isOver()) {
+            return;
+        }
+        GameRecorder previous = game.getRecorder();
+        server.startGame(room, previous == null ? null : previous.whitePlayer, previous == null ? null : previous.blackPlayer);
+        RoomLifecycleEvent.emit(room.getRoomId(), RoomLifecycleEvent.STARTED, room.getMatch().toString());
+        server.broadcastState(room);
+    }
+}
@@ -0,0 +1,120 @@
+package com.tavla.server.ws;
+
+import com.tavla.core.GameSnapshot;
+import com.tavla.core.GameState;
+import com.tavla.core.MatchScore;
+import com.tavla.core.Move;
+import com.tavla.server.bot.BotPlayer;
+import com.tavla.server.bot.OpeningBook;
+import com.tavla.server.log.Log;
+import com.tavla.server.log.Logger;
+import com.tavla.server.rooms.Room;
+import com.tavla.server.rooms.RoomView;
+import com.tavla.server.ws.dto.HintPayload;
+import com.tavla.server.ws.dto.MovePayload;
+import com.tavla.server.ws.dto.ServerMessage;
+
+import org.java_websocket.WebSocket;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hint: sırası gelmiş ve zarını atmış oyuncu hint ile botun önerdiği hamle dizisini alır. Bot
+ * önce açılış kitabına bakar (-Dtavla.book.file, bkz. OpeningBookBuilder): kitaptaki pozisyonlar
+ * için cevap I/O thread'inde ikili aramayla hemen döner; kitapta olmayanlar için 1-ply arama
+ * ayrı bir (sanal) thread'de yapılır. Oda mailbox'ı kullanılmaz, yayınlanmış görünüm okunur.
+ * Zar atılmadan önce (ya da küp teklif edildiğinde cevap verecek oyuncuya) hint küp kararını
+ * verir. cubefulEquity skor ve küple değerlendirilmiş değerdir (maçta maçı kazanma olasılığı,
+ * para oyununda puan); önceden hesaplanmış tablolardan sabit zamanda okunur (bkz. MatchEquity).
+ *
+ * Client -> Server:
+ *  {"type":"hint"}
+ *
+ * Server -> Client:
+ *  {"type":"hint","payload":{"moves":[{"from":23,"to":17,"step":6},{"from":17,"to":12,"step":5}],"equity":0.04,"book":true,"cube":null,"cubefulEquity":0.52}}
+ *  {"type":"hint","payload":{"moves":[],"equity":0.41,"book":false,"cube":"double","cubefulEquity":0.63}}
+ */
+final class HintHandler {
+
+    private static final Logger LOG = Log.get("ws");
+
+    private final TavlaWebSocketServer server;
+    final BotPlayer bot = new BotPlayer(loadOpeningBook());
+
+    HintHandler(TavlaWebSocketServer server) {
+        this.server = server;
+    }
+
+    void handleHint(WebSocket conn) {
+        Room room = server.roomManager.getRoomBySocket(conn);
+        if (room == null) {
+            server.sendError(conn, "Herhangi bir odada değilsin. create_room/join_room yap.");
+            return;
+        }
+        RoomView view = room.getView();
+        GameSnapshot game = (view == null) ? null : view.readGame();
+        if (game == null) {
+            server.sendError(conn, "Oyun başlamadı. İkinci oyuncu bekleniyor.");
+            return;
+        }
+        if (game.isGameOver() || room.getPlayerBySocket(conn) != game.getPlayerToAct()) {
+            server.sendError(conn, "İpucu sadece karar sırası gelen oyuncuya verilir.");
+            return;
+        }
+
+        GameState state = game.toGameState();
+        MatchScore match = view.match;
+        if (!game.isRolled()) {
+            // Zar atılmadan önce (ya da teklif edilen küpe) küp kararı; değerlendirme + tablo okuması
+            BotPlayer.CubeAdvice advice = bot.cubeAdvice(state, match);
+            server.send(conn, new ServerMessage<>("hint",
+                    new HintPayload(List.of(), advice.equity, false, advice.action, advice.cubefulEquity)));
+            return;
+        }
+
+        BotPlayer.Choice choice = bot.fromBook(state);
+        if (choice != null) {
+            sendHint(conn, state, match, choice);
+            return;
+        }
+        Thread.startVirtualThread(() -> {
+            BotPlayer.Choice searched = bot.choose(state);
+            if (searched == null) {
+                server.sendError(conn, "Oynanabilecek hamle yok.");
+            } else {
+                sendHint(conn, state, match, searched);
+            }
+        });
+    }
+
+    private void sendHint(WebSocket conn, GameState state, MatchScore match, BotPlayer.Choice choice) {
+        List<MovePayload> moves = new ArrayList<>(choice.moves.size());
+        for (Move move : choice.moves) {
+            MovePayload m = new MovePayload();
+            m.from = move.getFromIndex();
+            m.to = move.getToIndex();
+            m.step = move.getStep();
+            moves.add(m);
+        }
+        double cubeful = BotPlayer.cubefulEquity(state, match, state.getCurrentPlayer(), choice.equity);
+        server.send(conn, new ServerMessage<>("hint", new HintPayload(moves, choice.equity, choice.fromBook, null, cubeful)));
+    }
+
+    /** -Dtavla.book.file verildiyse açılış kitabını map eder; açılamazsa kitapsız devam edilir. */
+    private static OpeningBook loadOpeningBook() {
+        String file = System.getProperty("tavla.book.file");
+        if (file == null || file.isBlank()) {
+            return null;
+        }
+        try {
+            OpeningBook book = OpeningBook.open(Path.of(file));
+            LOG.info("Açılış kitabı yüklendi", "file", file, "entries", book.size());
+            return book;
+        } catch (RuntimeException e) {
+            LOG.error("Açılış kitabı açılamadı", e, "file", file);
+            return null;
+        }
+    }
+}
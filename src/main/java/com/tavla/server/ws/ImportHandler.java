@@ -0,0 +1,171 @@
+package com.tavla.server.ws;
+
+import com.tavla.core.GameRecorder;
+import com.tavla.core.GameState;
+import com.tavla.core.MatchId;
+import com.tavla.core.Player;
+import com.tavla.core.PositionId;
+import com.tavla.core.TavlaGame;
+import com.tavla.server.rating.RatingService;
+import com.tavla.server.rooms.Room;
+import com.tavla.server.ws.dto.ImportPositionPayload;
+import com.tavla.server.ws.dto.ServerMessage;
+
+import org.java_websocket.WebSocket;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Pozisyon yükleme: import_position, oyun henüz açılış pozisyonundayken (ilk zar atılmadan)
+ * tahtayı GNU BG position ID'sindeki dizilime getirmeyi önerir; sıra match ID'den alınır.
+ * Pozisyon ancak rakip accept_import ile kabul edince yüklenir ve journal'a yazılır.
+ *
+ * Client -> Server:
+ *  {"type":"import_position","payload":{"positionId":"4HPwATDgc/ABMA","matchId":"cAkAAAAAAAAA"}}
+ *  {"type":"accept_import"}  {"type":"decline_import"}
+ *
+ * Server -> Client:
+ *  {"type":"import_offered","payload":{"player":"WHITE","positionId":"4HPwATDgc/ABMA","matchId":"cAkAAAAAAAAA"}}
+ *  {"type":"import_declined","payload":{"player":"BLACK"}}
+ */
+final class ImportHandler {
+
+    private final TavlaWebSocketServer server;
+
+    ImportHandler(TavlaWebSocketServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Oyunu GNU BG position/match ID'sindeki pozisyona getirmeyi önerir (analiz ya da alıştırma için).
+     * Tahta tek taraflı değiştirilemez: teklif odada bekletilir, rakibe import_offered gider ve
+     * pozisyon ancak rakip accept_import gönderince yüklenir (decline_import ile reddeder).
+     * Sadece oyun henüz açılış pozisyonundayken ve ilk zar atılmadan kabul edilir; böylece oynanan
+     * bir oyunun ortasında tahta değiştirilemez. N sayılık maçlarda ve rating'e sayılan oyunlarda
+     * (kimlikli iki farklı oyuncu) reddedilir. Zarı istemci seçemez; match ID'de atılmış zar
+     * varsa reddedilir.
+     */
+    void handleImportPosition(WebSocket conn, ImportPositionPayload payload) {
+        Room room = server.roomManager.getRoomBySocket(conn);
+        if (room == null) {
+            server.sendError(conn, "Herhangi bir odada değilsin. create_room/join_room yap.");
+            return;
+        }
+
+        // ID'ler oda state'inden bağımsız çözülür (I/O thread'inde)
+        PositionId.Key key;
+        GameState imported;
+        try {
+            key = PositionId.parse(payload.positionId);
+            MatchId match = (payload.matchId == null || payload.matchId.isBlank()) ? null : MatchId.parse(payload.matchId);
+            imported = PositionId.decode(payload.positionId, match);
+        } catch (IllegalArgumentException e) {
+            server.sendError(conn, e.getMessage());
+            return;
+        }
+        if (imported.getDice().isRolled()) {
+            server.sendError(conn, "Zar yüklenemez; zarı atılmamış bir match ID gönder.");
+            return;
+        }
+        if (imported.isGameOver()) {
+            server.sendError(conn, "Bitmiş bir pozisyon yüklenemez.");
+            return;
+        }
+
+        server.commands.submit(room, "import_position", () -> {
+            Player sender = room.getPlayerBySocket(conn);
+            String rejection = (sender == null) ? "Odadaki oyuncu bulunamadı." : importRejection(room);
+            if (rejection != null) {
+                server.sendError(conn, rejection);
+                return RoomCommands.REJECTED;
+            }
+            WebSocket opponent = room.getSocket(sender.opponent());
+            if (opponent == null) {
+                server.sendError(conn, "Rakip bağlı değil; pozisyon teklifi gönderilemedi.");
+                return RoomCommands.REJECTED;
+            }
+
+            room.setImportOffer(new Room.ImportOffer(sender, key, imported, payload.positionId, payload.matchId));
+            Map<String, Object> offer = new LinkedHashMap<>();
+            offer.put("player", sender.name());
+            offer.put("positionId", payload.positionId);
+            offer.put("matchId", payload.matchId);
+            server.send(opponent, new ServerMessage<>("import_offered", offer));
+            server.send(conn, new ServerMessage<>("info", Map.of("message", "Pozisyon teklifi rakibe gönderildi.")));
+            return RoomCommands.OK;
+        });
+    }
+
+    /**
+     * Rakibin pozisyon teklifine cevap. Kabulde teklif anındaki koşullar yeniden denetlenir
+     * (bu arada zar atıldıysa, oyun yeniden başladıysa ya da oda rating'e sayılır olduysa reddedilir);
+     * pozisyon ancak bundan sonra yüklenir ve journal'a yazılır.
+     */
+    void handleImportResponse(WebSocket conn, boolean accept) {
+        String type = accept ? "accept_import" : "decline_import";
+        Room room = server.roomManager.getRoomBySocket(conn);
+        if (room == null) {
+            server.sendError(conn, "Herhangi bir odada değilsin. create_room/join_room yap.");
+            return;
+        }
+
+        server.commands.submit(room, type, () -> {
+            Player sender = room.getPlayerBySocket(conn);
+            if (sender == null) {
+                server.sendError(conn, "Odadaki oyuncu bulunamadı.");
+                return RoomCommands.REJECTED;
+            }
+            Room.ImportOffer offer = room.getImportOffer();
+            if (offer == null || offer.from == sender) {
+                server.sendError(conn, "Cevap verilecek bir pozisyon teklifi yok.");
+                return RoomCommands.REJECTED;
+            }
+            room.setImportOffer(null);
+
+            WebSocket offerer = room.getSocket(offer.from);
+            if (!accept) {
+                if (offerer != null) {
+                    server.send(offerer, new ServerMessage<>("import_declined", Map.of("player", sender.name())));
+                }
+                return RoomCommands.OK;
+            }
+            String rejection = importRejection(room);
+            if (rejection != null) {
+                server.sendError(conn, rejection);
+                return RoomCommands.REJECTED;
+            }
+
+            TavlaGame game = room.restartGame(offer.state);
+            room.markJournaled(server.journal.positionImported(room.getRoomId(), offer.key,
+                    offer.state.getCurrentPlayer(), 0, 0));
+            game.passIfBlocked();
+            room.touch();
+            server.broadcastState(room);
+            server.timers.updateTurnClock(room);
+            return RoomCommands.OK;
+        });
+    }
+
+    /** Odaya şu an pozisyon yüklenemiyorsa nedeni, yüklenebiliyorsa null. Mailbox içinden çağrılır. */
+    private static String importRejection(Room room) {
+        if (!room.hasStarted()) {
+            return "Oyun başlamadı. İkinci oyuncu bekleniyor.";
+        }
+        if (room.getMatch().isMatch() || isRated(room.getGame())) {
+            return "Pozisyon sadece puansız para oyununda yüklenebilir.";
+        }
+        GameState current = room.getGame().getInternalState();
+        if (current.getDice().isRolled() || current.getCurrentPlayer() != Player.WHITE
+                || !PositionId.START_KEY.equals(PositionId.key(current))) {
+            return "Pozisyon sadece oyun başlamadan (ilk zar atılmadan) yüklenebilir.";
+        }
+        return null;
+    }
+
+    /** Oyun rating'e sayılacak oyuncular arasında mı (bkz. RatingService.isRated)? */
+    private static boolean isRated(TavlaGame game) {
+        GameRecorder recorder = game.getRecorder();
+        return recorder != null && RatingService.isRated(recorder.whitePlayer, recorder.blackPlayer);
+    }
+}
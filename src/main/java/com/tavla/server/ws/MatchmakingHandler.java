@@ -0,0 +1,124 @@
+package com.tavla.server.ws;
+
+import com.tavla.core.Player;
+import com.tavla.server.jfr.RoomLifecycleEvent;
+import com.tavla.server.matchmaking.Matchmaker;
+import com.tavla.server.rating.Leaderboard;
+import com.tavla.server.rooms.Room;
+import com.tavla.server.ws.dto.FindMatchPayload;
+import com.tavla.server.ws.dto.ServerMessage;
+
+import org.java_websocket.WebSocket;
+
+import java.util.Map;
+
+/**
+ * Eşleştirme: find_match oyuncuyu rating havuzuna koyar (bkz. Matchmaker). Havuz her
+ * MATCH_TICK_MS'de bir topluca eşleştirilir, eşleşen ikili için oda otomatik kurulur ve
+ * oyun başlar. Havuz node'a yereldir; cluster modunda her node kendi havuzunu eşleştirir.
+ * Sunucuda rating'i olan playerId için payload'daki rating yerine sunucudaki kullanılır.
+ * Eşleştirmeyle başlayan oyunlarda playerId'ler hamle kaydına (ve arşive) girer.
+ *
+ * Client -> Server:
+ *  {"type":"find_match","payload":{"playerId":"p1","rating":1500}}
+ *  {"type":"cancel_match"}
+ *
+ * Server -> Client:
+ *  {"type":"match_queued","payload":{"rating":1500}}
+ *  {"type":"match_found","payload":{"roomId":"abc123","player":"WHITE","token":"...","opponentRating":1512}}
+ */
+final class MatchmakingHandler {
+
+    private static final long MATCH_TICK_MS = 250;
+
+    // Arşiv kaydında oyuncu kimliği için ayrılan yer sınırlı (bkz. GameRecorder)
+    private static final int MAX_PLAYER_ID_LENGTH = 64;
+
+    private final TavlaWebSocketServer server;
+    final Matchmaker<WebSocket> matchmaker = new Matchmaker<>(this::onMatch, WebSocket::isOpen);
+
+    MatchmakingHandler(TavlaWebSocketServer server) {
+        this.server = server;
+    }
+
+    void start() {
+        matchmaker.start(MATCH_TICK_MS);
+    }
+
+    void stop() {
+        matchmaker.stop();
+    }
+
+    /** Bağlantıyı havuzdan çıkarır (odaya girdiğinde, kapandığında ya da cancel_match ile). */
+    void cancel(WebSocket conn) {
+        matchmaker.cancel(conn);
+    }
+
+    void handleFindMatch(WebSocket conn, FindMatchPayload payload) {
+        if (server.roomManager.getRoomBySocket(conn) != null) {
+            server.sendError(conn, "Zaten bir odadasın.");
+            return;
+        }
+        if (payload.rating < Matchmaker.MIN_RATING || payload.rating >= Matchmaker.MAX_RATING) {
+            server.sendError(conn, "rating " + Matchmaker.MIN_RATING + " ile " + Matchmaker.MAX_RATING + " arasında olmalı.");
+            return;
+        }
+
+        if (payload.playerId != null && payload.playerId.length() > MAX_PLAYER_ID_LENGTH) {
+            server.sendError(conn, "playerId en fazla " + MAX_PLAYER_ID_LENGTH + " karakter olabilir.");
+            return;
+        }
+
+        int rating = payload.rating;
+        Leaderboard.Entry known = (payload.playerId == null) ? null : server.ratings.get(payload.playerId);
+        if (known != null) {
+            rating = Math.max(Matchmaker.MIN_RATING, Math.min(Matchmaker.MAX_RATING - 1, known.displayRating()));
+        }
+
+        matchmaker.enqueue(conn, payload.playerId, rating);
+        server.send(conn, new ServerMessage<>("match_queued", Map.of("rating", rating)));
+    }
+
+    /** Matchmaker tick thread'inden çağrılır: odayı kurar, oyunu odanın mailbox'ında başlatır. */
+    private void onMatch(Matchmaker.Ticket<WebSocket> first, Matchmaker.Ticket<WebSocket> second) {
+        // Aynı tick içinde create_room/join_room ile odaya girmiş olabilirler; kalanı sıraya geri koy
+        boolean firstBusy = server.roomManager.getRoomBySocket(first.connection) != null;
+        boolean secondBusy = server.roomManager.getRoomBySocket(second.connection) != null;
+        if (firstBusy || secondBusy) {
+            if (!firstBusy) matchmaker.enqueue(first.connection, first.playerId, first.rating);
+            if (!secondBusy) matchmaker.enqueue(second.connection, second.playerId, second.rating);
+            return;
+        }
+
+        Room room;
+        try {
+            room = server.roomManager.createMatchedRoom(first.connection, second.connection);
+        } catch (RuntimeException e) {
+            server.sendError(first.connection, e.getMessage());
+            server.sendError(second.connection, e.getMessage());
+            return;
+        }
+
+        server.commands.submit(room, "match_found", () -> {
+            String whiteToken = room.getToken(Player.WHITE);
+            String blackToken = room.getToken(Player.BLACK);
+            room.markJournaled(server.journal.roomCreated(room.getRoomId(), whiteToken));
+            room.markJournaled(server.journal.playerJoined(room.getRoomId(), blackToken));
+
+            server.startGame(room, first.playerId, second.playerId);
+            server.timers.scheduleIdleCheck(room);
+            RoomLifecycleEvent.emit(room.getRoomId(), RoomLifecycleEvent.CREATED, "match");
+            RoomLifecycleEvent.emit(room.getRoomId(), RoomLifecycleEvent.STARTED, null);
+
+            server.send(first.connection, new ServerMessage<>("match_found",
+                    Map.of("roomId", room.getRoomId(), "player", "WHITE",
+                            "token", whiteToken, "opponentRating", second.rating)));
+            server.send(second.connection, new ServerMessage<>("match_found",
+                    Map.of("roomId", room.getRoomId(), "player", "BLACK",
+                            "token", blackToken, "opponentRating", first.rating)));
+            server.broadcastState(room);
+            server.timers.updateTurnClock(room);
+            return RoomCommands.OK;
+        });
+    }
+}
@@ -0,0 +1,102 @@
+package com.tavla.server.ws;
+
+import com.tavla.core.Player;
+import com.tavla.server.archive.GameRecord;
+import com.tavla.server.rating.Glicko2;
+import com.tavla.server.rating.Leaderboard;
+import com.tavla.server.rating.RatingService;
+import com.tavla.server.rooms.Room;
+import com.tavla.server.ws.dto.LeaderboardPayload;
+import com.tavla.server.ws.dto.RankPayload;
+import com.tavla.server.ws.dto.RankedPlayerPayload;
+import com.tavla.server.ws.dto.ServerMessage;
+
+import org.java_websocket.WebSocket;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rating: iki oyuncusu da playerId'li biten her oyun Glicko-2 rating'lerini günceller ve
+ * oyunculara rating_updated gider (bkz. RatingService). leaderboard ilk limit oyuncuyu, rank bir
+ * oyuncunun sırasını ve çevresindekileri döner; ikisi de mailbox'a girmeden, kilitsiz olarak I/O
+ * thread'inde cevaplanır. Rating'ler bellekte tutulur ve açılışta arşivden yeniden hesaplanır.
+ *
+ * Client -> Server:
+ *  {"type":"leaderboard","payload":{"limit":100}}
+ *  {"type":"rank","payload":{"playerId":"p1","around":5}}
+ *
+ * Server -> Client:
+ *  {"type":"rating_updated","payload":{"playerId":"p1","rating":1562,"change":62,"rank":12}}
+ *  {"type":"leaderboard","payload":{"players":[{"rank":1,"playerId":"p9","rating":1820,"rd":64,"games":140,"wins":91},...]}}
+ *  {"type":"rank","payload":{"playerId":"p1","rank":12,"players":[...]}}
+ */
+final class RatingHandler {
+
+    // leaderboard/rank cevabındaki en fazla oyuncu
+    private static final int MAX_LEADERBOARD_LIMIT = 100;
+    private static final int MAX_RANK_AROUND = 25;
+
+    private final TavlaWebSocketServer server;
+
+    RatingHandler(TavlaWebSocketServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Biten oyunu rating'lere işler ve oyunculara yeni rating'lerini bildirir. Odanın mailbox'ı
+     * içinden, oyun arşive yazıldıktan sonra çağrılmalıdır.
+     */
+    void gameFinished(Room room, GameRecord record) {
+        RatingService.Update update = server.ratings.recordGame(record);
+        if (update == null) {
+            return; // kimliksiz oyuncu ya da yüklenmiş pozisyondan oyun
+        }
+        for (Player seat : Player.values()) {
+            WebSocket s = room.getSocket(seat);
+            if (s == null) continue;
+            Leaderboard.Entry before = update.before(seat);
+            Leaderboard.Entry after = update.after(seat);
+            int change = after.displayRating() - (before == null
+                    ? (int) Math.round(Glicko2.DEFAULT_RATING) : before.displayRating());
+            server.send(s, new ServerMessage<>("rating_updated", Map.of("playerId", after.playerId,
+                    "rating", after.displayRating(), "change", change,
+                    "rank", server.ratings.getLeaderboard().rankOf(after.displayRating()))));
+        }
+    }
+
+    /** İlk limit oyuncu. Mailbox'a girmez; sıralama kilitsiz okunur. */
+    void handleLeaderboard(WebSocket conn, LeaderboardPayload payload) {
+        if (payload.limit < 1 || payload.limit > MAX_LEADERBOARD_LIMIT) {
+            server.sendError(conn, "limit 1 ile " + MAX_LEADERBOARD_LIMIT + " arasında olmalı.");
+            return;
+        }
+        List<RankedPlayerPayload> players = server.ratings.top(payload.limit).stream().map(RankedPlayerPayload::of).toList();
+        server.send(conn, new ServerMessage<>("leaderboard", Map.of("players", players)));
+    }
+
+    /** Oyuncunun sırası ve üstündeki/altındaki around oyuncu. Mailbox'a girmez; sıralama kilitsiz okunur. */
+    void handleRank(WebSocket conn, RankPayload payload) {
+        if (payload.playerId == null || payload.playerId.isBlank()) {
+            server.sendError(conn, "playerId gerekli.");
+            return;
+        }
+        if (payload.around < 0 || payload.around > MAX_RANK_AROUND) {
+            server.sendError(conn, "around 0 ile " + MAX_RANK_AROUND + " arasında olmalı.");
+            return;
+        }
+        List<Leaderboard.Ranked> around = server.ratings.around(payload.playerId, payload.around);
+        if (around.isEmpty()) {
+            server.sendError(conn, "Sıralamada yok: " + payload.playerId);
+            return;
+        }
+        int rank = 0;
+        for (Leaderboard.Ranked r : around) {
+            if (r.entry.playerId.equals(payload.playerId)) {
+                rank = r.rank;
+            }
+        }
+        List<RankedPlayerPayload> players = around.stream().map(RankedPlayerPayload::of).toList();
+        server.send(conn, new ServerMessage<>("rank", Map.of("playerId", payload.playerId, "rank", rank, "players", players)));
+    }
+}
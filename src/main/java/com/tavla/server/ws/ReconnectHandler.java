@@ -0,0 +1,137 @@
+package com.tavla.server.ws;
+
+import com.tavla.core.Player;
+import com.tavla.server.jfr.RoomLifecycleEvent;
+import com.tavla.server.rooms.Room;
+import com.tavla.server.rooms.RoomManager;
+import com.tavla.server.ws.dto.ResumePayload;
+import com.tavla.server.ws.dto.ServerMessage;
+
+import org.java_websocket.WebSocket;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kopan bağlantılar ve resume. Bağlantı koparsa oda hemen silinmez: koltuk RECONNECT_GRACE_MS
+ * boyunca tutulur, istemci yeni bir bağlantıdan token ile resume gönderip kaldığı yerden devam
+ * eder. Kaçırılan her şey son state'in içinde olduğu için resume edene tam state gönderilir.
+ * Grace süresi dolduğunda koltuk hâlâ boşsa oda kapanır. Kayıttan dönen odaların koltukları da
+ * açılışta aynı süreyle beklenir.
+ *
+ * Client -> Server:
+ *  {"type":"resume","payload":{"token":"abc123.xyz..."}}
+ *
+ * Server -> Client:
+ *  {"type":"resumed","payload":{"roomId":"abc123","player":"BLACK","token":"..."}}
+ *  {"type":"opponent_disconnected","payload":{"player":"WHITE","graceSeconds":60}}
+ *  {"type":"opponent_reconnected","payload":{"player":"WHITE"}}
+ */
+final class ReconnectHandler {
+
+    // Kopan oyuncunun koltuğu bu süre boyunca tutulur
+    private static final long RECONNECT_GRACE_MS = 60_000;
+
+    private final TavlaWebSocketServer server;
+    private volatile long graceMs = RECONNECT_GRACE_MS;
+
+    ReconnectHandler(TavlaWebSocketServer server) {
+        this.server = server;
+    }
+
+    /** Kopan koltuğun tutulacağı süre (varsayılan RECONNECT_GRACE_MS); testler kısaltır. */
+    void setGraceMs(long ms) {
+        this.graceMs = ms;
+    }
+
+    void handleResume(WebSocket conn, ResumePayload payload) {
+        if (payload.token == null || payload.token.isBlank()) {
+            server.sendError(conn, "token boş olamaz.");
+            return;
+        }
+
+        Room room = server.roomManager.getRoomByToken(payload.token);
+        if (room == null) {
+            String roomId = RoomManager.roomIdOfToken(payload.token);
+            if (roomId == null) {
+                server.sendError(conn, "Oturum bulunamadı veya süresi doldu.");
+            } else {
+                server.redirectOrFail(conn, roomId, payload.hops, "resume", "Oturum bulunamadı veya süresi doldu.");
+            }
+            return;
+        }
+
+        server.commands.submit(room, "resume", () -> {
+            Player claimed = room.getPlayerByToken(payload.token);
+            WebSocket old = (claimed == null) ? null : room.getSocket(claimed);
+
+            Player seat = server.roomManager.resume(room, payload.token, conn);
+            if (seat == null) {
+                server.sendError(conn, "Oturum bulunamadı veya süresi doldu.");
+                return RoomCommands.REJECTED;
+            }
+            room.touch();
+            RoomLifecycleEvent.emit(room.getRoomId(), RoomLifecycleEvent.RESUMED, seat.name());
+
+            // Aynı koltuğa bağlı eski bir bağlantı hâlâ açıksa onu kapat
+            if (old != null && old != conn && old.isOpen()) {
+                old.close(4001, "session resumed elsewhere");
+            }
+
+            server.send(conn, new ServerMessage<>("resumed",
+                    Map.of("roomId", room.getRoomId(), "player", seat.name(),
+                            "token", room.getToken(seat))));
+
+            // Kaçırılan her şey son state'in içinde; tam state'i gönder
+            if (room.hasStarted()) {
+                server.sendState(conn, room);
+            }
+
+            WebSocket opponent = room.getSocket(seat.opponent());
+            if (opponent != null) {
+                server.send(opponent, new ServerMessage<>("opponent_reconnected", Map.of("player", seat.name())));
+            }
+            return RoomCommands.OK;
+        });
+    }
+
+    /** Odanın mailbox'ında çalışır: koltuğu boşaltır, grace süresi sonunda hâlâ boşsa odayı kapatır. */
+    String onDisconnect(Room room, WebSocket conn) {
+        Player seat = room.detach(conn);
+        if (seat == null) {
+            return RoomCommands.NOOP; // bu arada başka bir socket ile resume edilmiş
+        }
+        RoomLifecycleEvent.emit(room.getRoomId(), RoomLifecycleEvent.DISCONNECTED, seat.name());
+        if (TavlaWebSocketServer.isGameInProgress(room)) {
+            server.analytics.disconnected(System.currentTimeMillis());
+        }
+
+        WebSocket opponent = room.getSocket(seat.opponent());
+        if (opponent != null) {
+            server.send(opponent, new ServerMessage<>("opponent_disconnected",
+                    Map.of("player", seat.name(), "graceSeconds", graceMs / 1000)));
+        }
+
+        scheduleSeatExpiry(room, seat);
+        return RoomCommands.OK;
+    }
+
+    /** Grace süresi sonunda koltuk hâlâ boşsa odayı kapatır (kopuşta ve kayıttan dönen odalarda). */
+    void scheduleSeatExpiry(Room room, Player seat) {
+        server.timers.schedule(() -> server.commands.submit(room, "expire_seat", () -> expireSeat(room, seat)),
+                graceMs, TimeUnit.MILLISECONDS);
+    }
+
+    private String expireSeat(Room room, Player seat) {
+        if (room.isClosed()) {
+            return RoomCommands.NOOP;
+        }
+        long disconnectedFor = room.disconnectedForNanos(seat);
+        if (disconnectedFor < 0 || disconnectedFor < TimeUnit.MILLISECONDS.toNanos(graceMs)) {
+            return RoomCommands.NOOP; // resume edilmiş ya da sonradan tekrar kopmuş (o kopuşun kendi zamanlayıcısı var)
+        }
+
+        server.closeRoom(room, "Rakip geri dönmedi.");
+        return RoomCommands.OK;
+    }
+}
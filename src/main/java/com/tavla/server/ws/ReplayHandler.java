@@ -0,0 +1,98 @@
+package com.tavla.server.ws;
+
+import com.tavla.server.archive.GameReplay;
+import com.tavla.server.log.Log;
+import com.tavla.server.log.Logger;
+import com.tavla.server.ws.dto.ReplayPayload;
+import com.tavla.server.ws.dto.ReplayStatePayload;
+import com.tavla.server.ws.dto.ServerMessage;
+
+import org.java_websocket.WebSocket;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replay: replay mesajı arşivdeki bir oyunu step adımından başlayarak saniyede speed adım hızla
+ * replay_state olarak akıtır; speed 0 ise sadece o adımı gönderir (seek). Oyun arşivden bir kez
+ * okunup keyframe'leriyle önbelleğe alınır (bkz. ReplayService); aynı oyunu izleyen bağlantılar
+ * aynı, bir kez serileştirilmiş kareleri alır. Bir bağlantı aynı anda tek bir replay izler; yeni
+ * istek öncekini durdurur. Kalıcılık kapalıysa (arşiv yoksa) replay reddedilir.
+ *
+ * Client -> Server:
+ *  {"type":"replay","payload":{"gameId":42,"step":0,"speed":4}}
+ *
+ * Server -> Client:
+ *  {"type":"replay_state","payload":{"gameId":42,"step":10,"steps":301,"state":{...}}}
+ */
+final class ReplayHandler {
+
+    private static final Logger LOG = Log.get("ws");
+
+    // Replay akışı en fazla saniyede bu kadar adım (TimerWheel 100 ms hassasiyetinde)
+    private static final int MAX_REPLAY_SPEED = 10;
+
+    private final TavlaWebSocketServer server;
+
+    ReplayHandler(TavlaWebSocketServer server) {
+        this.server = server;
+    }
+
+    /**
+     * Arşivdeki oyunu izletir. Oyun oda değil, değişmez bir kayıt olduğu için mailbox'a girmez;
+     * arşivden okuma ve keyframe kurulumu I/O thread'ini tutmasın diye sanal thread'de yapılır,
+     * sonraki kareler TimerWheel'den gönderilir.
+     */
+    void handleReplay(WebSocket conn, ReplayPayload payload) {
+        if (server.replays == null) {
+            server.sendError(conn, "Arşiv kapalı.");
+            return;
+        }
+        if (payload.step < 0 || payload.speed < 0 || payload.speed > MAX_REPLAY_SPEED) {
+            server.sendError(conn, "step negatif olamaz, speed 0 ile " + MAX_REPLAY_SPEED + " arasında olmalı.");
+            return;
+        }
+
+        ConnectionState state = conn.getAttachment();
+        Object stream = new Object();
+        state.replayStream = stream; // önceki akış bir sonraki karesinde durur
+
+        Thread.startVirtualThread(() -> {
+            GameReplay replay;
+            try {
+                replay = server.replays.get(payload.gameId);
+            } catch (RuntimeException e) {
+                LOG.error("Replay kurulamadı", e, "gameId", payload.gameId);
+                server.sendError(conn, "Oyun okunamadı: " + payload.gameId);
+                return;
+            }
+            if (replay == null) {
+                server.sendError(conn, "Oyun bulunamadı: " + payload.gameId);
+                return;
+            }
+            if (payload.step >= replay.getStepCount()) {
+                server.sendError(conn, "Oyunda " + replay.getStepCount() + " adım var.");
+                return;
+            }
+            streamReplay(conn, state, stream, replay, payload.step, payload.speed);
+        });
+    }
+
+    private void streamReplay(WebSocket conn, ConnectionState state, Object stream, GameReplay replay,
+                              int step, int speed) {
+        if (state.replayStream != stream || !conn.isOpen()) {
+            return;
+        }
+        long gameId = replay.record.gameId;
+        int steps = replay.getStepCount();
+        server.sendText(conn, "replay_state", replay.frame(step, snapshot -> server.serialize(
+                new ServerMessage<>("replay_state", new ReplayStatePayload(gameId, step, steps,
+                        StateMapper.toPayload(snapshot))))));
+
+        if (speed > 0 && step + 1 < steps) {
+            server.timers.schedule(() -> streamReplay(conn, state, stream, replay, step + 1, speed),
+                    1000 / speed, TimeUnit.MILLISECONDS);
+        } else if (state.replayStream == stream) {
+            state.replayStream = null;
+        }
+    }
+}
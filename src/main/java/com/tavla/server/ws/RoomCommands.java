@@ -0,0 +1,70 @@
+package com.tavla.server.ws;
+
+import com.tavla.server.jfr.RoomCommandEvent;
+import com.tavla.server.persistence.GameJournal;
+import com.tavla.server.rooms.Room;
+import com.tavla.server.startup.StartupTracker;
+
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Oda komutlarının çalıştırılması. Oda komutları I/O thread'inde çalışmaz; odanın mailbox'ına
+ * eklenir ve sırayla (kilitsiz) işlenir. Böylece yavaş bir oda decoder thread'lerini tutmaz.
+ * Odanın state'ine (oyun, koltuklar, saat) sadece bu komutların içinden dokunulur; diğer
+ * thread'ler yayınlanmış RoomView'u okur.
+ */
+final class RoomCommands {
+
+    // Oda komutlarının sonucu (JFR RoomCommand olayına yazılır)
+    static final String OK = "ok";
+    static final String REJECTED = "rejected";
+    static final String NOOP = "noop"; // zamanlayıcı komutu yapacak iş bulamadı
+
+    // İstemci mesajından doğan oda komutları; açılıştaki kararlı gecikme sadece bunların mailbox'ta
+    // çalışma süresiyle ölçülür (zamanlayıcı ve bağlantı komutları ayrı bir dağılımdır)
+    private static final Set<String> CLIENT_COMMANDS = Set.of(
+            "create_room", "join_room", "resume", "roll", "move", "play", "import_position",
+            "accept_import", "decline_import", "double", "take", "drop");
+
+    private final GameJournal journal;
+    private final StartupTracker startup;
+
+    RoomCommands(GameJournal journal, StartupTracker startup) {
+        this.journal = journal;
+        this.startup = startup;
+    }
+
+    /**
+     * Komutu odanın mailbox'ına ekler. Komut sonucunu (OK / REJECTED / NOOP) döndürür; exception
+     * fırlatırsa sonuç "error" olur. Her çalışma, mailbox'ta bekleme süresiyle birlikte
+     * RoomCommandEvent olarak JFR'a yazılır (kayıt kapalıyken maliyeti yok denecek kadar azdır).
+     * Komut bitince odanın değişmez görünümü (RoomView) yeniden yayınlanır.
+     */
+    void submit(Room room, String type, Supplier<String> command) {
+        long submittedAt = System.nanoTime();
+        room.submit(() -> {
+            long startedAt = System.nanoTime();
+            RoomCommandEvent event = new RoomCommandEvent();
+            event.begin();
+            String outcome = "error";
+            room.beginCommand(journal.lastAppendedSeq() + 1);
+            try {
+                outcome = command.get();
+            } finally {
+                room.endCommand();
+                event.end();
+                if (CLIENT_COMMANDS.contains(type)) {
+                    startup.record(System.nanoTime() - startedAt);
+                }
+                if (event.shouldCommit()) {
+                    event.roomId = room.getRoomId();
+                    event.type = type;
+                    event.outcome = outcome;
+                    event.queueWait = startedAt - submittedAt;
+                    event.commit();
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,214 @@
+package com.tavla.server.ws;
+
+import com.tavla.core.Player;
+import com.tavla.core.TavlaGame;
+import com.tavla.server.jfr.RoomLifecycleEvent;
+import com.tavla.server.rooms.Room;
+import com.tavla.server.rooms.RoomView;
+import com.tavla.server.startup.StartupTracker;
+import com.tavla.server.timer.TimerWheel;
+import com.tavla.server.ws.dto.ServerMessage;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.framing.CloseFrame;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sunucunun zamanlayıcıları (sıra saati, grace süresi, boşta oda temizliği, heartbeat,
+ * sıkıştırma taraması). Hepsi tek bir TimerWheel üzerinden çalışır; schedule/cancel O(1)
+ * olduğu için her hamlede saat yeniden kurulabilir:
+ * - Karar sırası gelen oyuncu (sıradaki ya da küp teklifine cevap verecek olan) TURN_TIMEOUT_MS
+ *   içinde turunu bitirmezse oyunu (maçta maçı) hükmen kaybeder
+ * - IDLE_ROOM_MS boyunca hiçbir oyuncu etkinliği olmayan oda kapatılır
+ * - Her bağlantıya HEARTBEAT_MS'de bir ping atılır; 2 aralık boyunca ses gelmeyen bağlantı kapatılır
+ * - COMPACT_SWEEP_MS'de bir, COMPACT_IDLE_MS boyunca oyuncu etkinliği olmayan başlamış oyunlar
+ *   heap dışındaki IdleRoomArena'ya sıkıştırılır; oyun odanın bir sonraki komutunda geri açılır
+ *   (-Dtavla.rooms.compactIdleMs, 0 ya da negatif değer kapatır)
+ *
+ * Zamanlayıcı thread'i oda state'ine dokunmaz; odayla ilgili işler odanın mailbox'ına komut
+ * olarak eklenir ve orada tur numarası / etkinlik zamanıyla yeniden denetlenir.
+ *
+ * Server -> Client:
+ *  {"type":"turn_timeout","payload":{"player":"WHITE","winner":"BLACK"}}
+ */
+final class RoomTimers {
+
+    // Bir oyuncunun turunu bitirmek için süresi
+    private static final long TURN_TIMEOUT_MS = 90_000;
+
+    // Bu kadar süre etkinlik olmayan oda kapatılır (ör: rakip bekleyen ya da bitmiş oyun)
+    private static final long IDLE_ROOM_MS = 15 * 60_000;
+
+    private static final long HEARTBEAT_MS = 20_000;
+
+    // Bu kadar süre hamle gelmeyen oyun heap dışına sıkıştırılır (yavaş/yazışmalı oyunlar)
+    private static final long COMPACT_IDLE_MS = Long.getLong("tavla.rooms.compactIdleMs", 60_000);
+
+    private static final long COMPACT_SWEEP_MS = 10_000;
+
+    // Saatlik eşzamanlı oyun istatistiği için örnekleme aralığı
+    private static final long CONCURRENCY_SAMPLE_MS = 10_000;
+
+    private final TavlaWebSocketServer server;
+
+    // 100 ms hassasiyet, 512 yuva (~51 sn'lik tur)
+    private final TimerWheel wheel = new TimerWheel("room-timers", 100, 512);
+
+    RoomTimers(TavlaWebSocketServer server) {
+        this.server = server;
+    }
+
+    /** Periyodik işleri başlatır: sıkıştırma taraması, eşzamanlılık örneği, açılış gecikmesi takibi. */
+    void start() {
+        if (COMPACT_IDLE_MS > 0) {
+            scheduleCompactionSweep();
+        }
+        scheduleConcurrencySample();
+        scheduleSteadyStateCheck();
+    }
+
+    void stop() {
+        wheel.stop();
+    }
+
+    TimerWheel.Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        return wheel.schedule(task, delay, unit);
+    }
+
+    long getPendingCount() {
+        return wheel.getPendingCount();
+    }
+
+    /** Yeni bağlantı için heartbeat'i kurar. */
+    void watch(WebSocket conn, ConnectionState state) {
+        state.heartbeat = wheel.schedule(() -> heartbeat(conn), HEARTBEAT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /** Bağlantıdan mesaj ya da pong geldi. */
+    static void markSeen(WebSocket conn) {
+        ConnectionState state = conn.getAttachment();
+        if (state != null) {
+            state.lastSeenAt = System.nanoTime();
+        }
+    }
+
+    /**
+     * Karar sırası el değiştirdiyse (tur geçti ya da küp teklif edildi / cevaplandı) yeni tur için
+     * saati kurar, oyun bittiyse durdurur. Odanın mailbox'ı içinden, state değiştikten sonra
+     * çağrılmalıdır.
+     */
+    void updateTurnClock(Room room) {
+        TavlaGame game = room.getGame();
+        if (game == null || game.isGameOver() || room.isClosed()) {
+            room.stopTurnClock();
+            return;
+        }
+
+        Player current = game.getPlayerToAct();
+        if (room.getTurnClockPlayer() == current) {
+            return; // aynı tur devam ediyor
+        }
+
+        long turn = room.startTurn(current);
+        room.setTurnClock(wheel.schedule(() -> server.commands.submit(room, "turn_timeout",
+                () -> onTurnTimeout(room, current, turn)), TURN_TIMEOUT_MS, TimeUnit.MILLISECONDS));
+    }
+
+    private String onTurnTimeout(Room room, Player player, long turn) {
+        TavlaGame game = room.getGame();
+        if (room.isClosed() || room.getTurnNumber() != turn || game == null || game.isGameOver()) {
+            return RoomCommands.NOOP; // tur bu arada bitmiş
+        }
+
+        game.forfeit(player);
+        room.markJournaled(server.journal.forfeit(room.getRoomId(), player));
+        RoomLifecycleEvent.emit(room.getRoomId(), RoomLifecycleEvent.FORFEIT, player.name());
+        room.stopTurnClock();
+
+        ServerMessage<Map<String, String>> msg = new ServerMessage<>("turn_timeout",
+                Map.of("player", player.name(), "winner", player.opponent().name()));
+        for (Player seat : Player.values()) {
+            WebSocket s = room.getSocket(seat);
+            if (s != null) server.send(s, msg);
+        }
+        server.broadcastState(room);
+        server.finishIfOver(room);
+        return RoomCommands.OK;
+    }
+
+    /** IDLE_ROOM_MS sonra odanın boşta olup olmadığına bakar. */
+    void scheduleIdleCheck(Room room) {
+        scheduleIdleCheck(room, IDLE_ROOM_MS);
+    }
+
+    /** delay sonra odanın boşta olup olmadığına bakar; değilse kalan süre için tekrar kurar. */
+    private void scheduleIdleCheck(Room room, long delayMs) {
+        wheel.schedule(() -> server.commands.submit(room, "idle_check", () -> {
+            if (room.isClosed()) {
+                return RoomCommands.NOOP;
+            }
+            long idleMs = TimeUnit.NANOSECONDS.toMillis(room.idleForNanos());
+            if (idleMs >= IDLE_ROOM_MS) {
+                server.closeRoom(room, "Oda uzun süre boşta kaldı.");
+                return RoomCommands.OK;
+            }
+            scheduleIdleCheck(room, IDLE_ROOM_MS - idleMs);
+            return RoomCommands.NOOP;
+        }), delayMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Periyodik tarama: boşta kalan başlamış oyunları sıkıştırma komutuyla arena'ya taşır.
+     * Tarama sadece yayınlanmış görünümleri okur; sıkıştırmanın kendisi odanın mailbox'ında yapılır.
+     */
+    private void scheduleCompactionSweep() {
+        wheel.schedule(() -> {
+            long idleNanos = TimeUnit.MILLISECONDS.toNanos(COMPACT_IDLE_MS);
+            server.roomManager.forEachRoom(room -> {
+                RoomView view = room.getView();
+                if (view != null && view.game != null && !view.closed && room.idleForNanos() >= idleNanos) {
+                    server.commands.submit(room, "compact", () -> room.idleForNanos() >= idleNanos
+                            && room.compact(server.idleArena) ? RoomCommands.OK : RoomCommands.NOOP);
+                }
+            });
+            scheduleCompactionSweep();
+        }, COMPACT_SWEEP_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /** Periyodik örnek: devam eden oyun sayısı saatlik eşzamanlılık istatistiğine yazılır. */
+    private void scheduleConcurrencySample() {
+        wheel.schedule(() -> {
+            server.analytics.sampleConcurrency(System.currentTimeMillis(), server.metrics.activeGames());
+            scheduleConcurrencySample();
+        }, CONCURRENCY_SAMPLE_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /** Mesaj gecikmesi oturana kadar her pencerede bir bakar (bkz. StartupTracker). */
+    private void scheduleSteadyStateCheck() {
+        wheel.schedule(() -> {
+            if (server.startup.tick()) {
+                scheduleSteadyStateCheck();
+            }
+        }, StartupTracker.WINDOW_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /** TimerWheel thread'inde çalışır: sessiz bağlantıya ping atar, çok sessizse kapatır. */
+    private void heartbeat(WebSocket conn) {
+        ConnectionState state = conn.getAttachment();
+        if (state == null || !conn.isOpen()) {
+            return;
+        }
+
+        long silentMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - state.lastSeenAt);
+        if (silentMs >= 2 * HEARTBEAT_MS) {
+            conn.closeConnection(CloseFrame.ABNORMAL_CLOSE, "heartbeat timeout"); // karşı taraf cevap vermiyor, close handshake beklenmez
+            return;
+        }
+        if (silentMs >= HEARTBEAT_MS) {
+            conn.sendPing();
+        }
+        state.heartbeat = wheel.schedule(() -> heartbeat(conn), HEARTBEAT_MS, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,59 @@
+package com.tavla.server.ws;
+
+import com.tavla.server.cluster.ClusterConfig;
+import com.tavla.server.cluster.ClusterMembership;
+import com.tavla.server.log.Log;
+import com.tavla.server.log.Logger;
+import com.tavla.server.startup.StartupTracker;
+import com.tavla.server.startup.Warmup;
+
+import java.nio.file.Path;
+
+/**
+ * Sunucunun açılışı (main ve eğitim çalıştırması buradan açar).
+ *
+ * Hızlı açılış: soketler açılmadan önce ayrı, bellekteki bir sunucu örneğine oyunlar oynatılıp
+ * parse/doğrulama/uygulama/serileştirme yolu ısıtılır (bkz. Warmup; -Dtavla.warmup.games, 0 kapatır).
+ * İlk bağlantının kabul edildiği ve mesaj gecikmesinin oturduğu an JVM başlangıcından itibaren
+ * loglanır ve tavla_startup_* gauge'ları olarak sunulur (bkz. StartupTracker). Sınıf yükleme için
+ * AppCDS arşivi ./gradlew appCdsArchive ile bir eğitim çalıştırmasından üretilir (bkz. TrainingRun);
+ * ./gradlew fastStart sunucuyu bu arşivle açar.
+ *
+ * Cluster modu -Dtavla.cluster.* ile açılır (bkz. ClusterConfig), metrics portu
+ * -Dtavla.metrics.port ile verilir.
+ */
+public final class ServerLauncher {
+
+    private static final Logger LOG = Log.get("ws");
+
+    /** Açılıştaki ısınmanın üst sınırları; gecikme daha önce oturursa erken biter (0 oyun kapatır). */
+    private static final int WARMUP_GAMES = Integer.getInteger("tavla.warmup.games", 64);
+    private static final long WARMUP_TIMEOUT_MS = 30_000;
+
+    private ServerLauncher() {}
+
+    /**
+     * main'in açılış sırası: ısınma, cluster, kalıcılık (recovery), metrics ve en son soketler.
+     * Isınma start()'tan önce bittiği için ilk bağlantı derlenmiş koda gelir (bkz. Warmup).
+     */
+    public static TavlaWebSocketServer launch(int port, Path dataDir) {
+        Warmup.Result warmup = WARMUP_GAMES > 0 ? Warmup.run(WARMUP_GAMES, WARMUP_TIMEOUT_MS) : null;
+
+        ClusterConfig clusterConfig = ClusterConfig.fromSystemProperties(port);
+        ClusterMembership cluster = (clusterConfig == null) ? null : new ClusterMembership(clusterConfig);
+
+        TavlaWebSocketServer server = new TavlaWebSocketServer(port, cluster, dataDir);
+        if (warmup != null) {
+            server.startup.warmupFinished(warmup);
+        }
+
+        // Varsayılan: ws portu + 1000 (aynı makinedeki node'lar çakışmasın); negatif değer kapatır
+        int metricsPort = Integer.getInteger("tavla.metrics.port", port + 1000);
+        if (metricsPort >= 0) {
+            server.enableMetrics(metricsPort);
+        }
+        server.start();
+        LOG.info("WS server başladı", "url", "ws://localhost:" + port, "uptimeMs", StartupTracker.uptimeMs());
+        return server;
+    }
+}
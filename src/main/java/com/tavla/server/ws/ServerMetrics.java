@@ -0,0 +1,168 @@
+package com.tavla.server.ws;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.tavla.server.log.Log;
+import com.tavla.server.log.Logger;
+import com.tavla.server.metrics.MessageMetrics;
+import com.tavla.server.metrics.MetricsServer;
+import com.tavla.server.metrics.Stage;
+import com.tavla.server.rooms.RoomManager;
+
+import org.java_websocket.WebSocket;
+import org.java_websocket.WebSocketImpl;
+
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToLongFunction;
+
+/**
+ * Sunucu metrikleri. Her mesaj tipi için parse/validate/apply/serialize/send gecikmeleri (validate
+ * ve apply odanın mailbox'ında ölçülür; I/O thread'indeki dağıtım ayrıca sayılmaz) kilitsiz
+ * histogramlara yazılır; oda/socket/kuyruk/GC gauge'larıyla birlikte localhost'ta /metrics
+ * (Prometheus text formatı) üzerinden sunulur (-Dtavla.metrics.port, varsayılan port+1000).
+ * Aynı portta /analytics, biten oyunların canlı toplamlarını JSON olarak döner: son 1/15/60
+ * dakikada dakikada oyun, ortalama süre ve zar sayısı, ilk oynayanın kazanma oranı, gammon,
+ * kopma ve yarım kalma oranları ile son 24 saatin saatlik eşzamanlı oyun sayısı (bkz. GameAnalytics).
+ *
+ * Gauge'lar scrape anında okunur; odalara komut gönderilmez, yayınlanmış görünümler okunur.
+ */
+final class ServerMetrics {
+
+    private static final Logger LOG = Log.get("ws");
+
+    // Metrikleri ayrı tutulan mesaj tipleri (gelen + giden); diğerleri "other" altında toplanır
+    private static final Set<String> METRIC_TYPES = Set.of(
+            "create_room", "join_room", "resume", "find_match", "cancel_match", "roll", "move", "play",
+            "import_position", "accept_import", "decline_import", "import_offered", "import_declined",
+            "info", "state", "error", "room_created", "room_joined", "resumed", "redirect",
+            "match_queued", "match_found", "opponent_disconnected", "opponent_reconnected",
+            "room_closed", "turn_timeout", "game_archived", "replay", "replay_state", "hint",
+            "double", "take", "drop", "leaderboard", "rank", "rating_updated");
+
+    private final TavlaWebSocketServer server;
+    private final MessageMetrics messages = new MessageMetrics(METRIC_TYPES);
+    private MetricsServer http; // kapalıysa null
+
+    ServerMetrics(TavlaWebSocketServer server) {
+        this.server = server;
+    }
+
+    void record(String type, Stage stage, long nanos) {
+        messages.record(type, stage, nanos);
+    }
+
+    /**
+     * /metrics ve /analytics endpoint'lerini açar. Kimlik doğrulama olmadığı için localhost'a bağlanır.
+     */
+    void enable(int port) {
+        MetricsServer http = new MetricsServer(new InetSocketAddress("127.0.0.1", port), messages);
+        http.gauge("tavla_rooms", "Açık oda sayısı", server.roomManager::getRoomCount);
+        http.gauge("tavla_games_active", "Devam eden oyun sayısı", this::activeGames);
+        http.gauge("tavla_rooms_compacted", "Oyunu heap dışına sıkıştırılmış oda", server.idleArena::getUsedSlots);
+        http.gauge("tavla_idle_arena_bytes", "Sıkıştırma arena'sının ayırdığı direct memory",
+                server.idleArena::getReservedBytes);
+        http.gauge("tavla_shard_rooms", "Shard başına açık oda", "shard",
+                () -> shardValues(st -> st.rooms));
+        http.gauge("tavla_shard_created_total", "Shard başına kurulan oda", "shard",
+                () -> shardValues(st -> st.created));
+        http.gauge("tavla_shard_joined_total", "Shard başına odaya katılan oyuncu", "shard",
+                () -> shardValues(st -> st.joined));
+        http.gauge("tavla_shard_removed_total", "Shard başına kapanan oda", "shard",
+                () -> shardValues(st -> st.removed));
+        http.gauge("tavla_shard_lookups_total", "Shard başına roomId araması", "shard",
+                () -> shardValues(st -> st.lookups));
+        http.gauge("tavla_sockets", "Açık WebSocket bağlantısı", () -> server.getConnections().size());
+        http.gauge("tavla_outbound_queue_bytes", "Socket çıkış kuyruklarında bekleyen byte",
+                this::outboundQueuedBytes);
+        http.gauge("tavla_matchmaking_queued", "Eşleştirme havuzundaki oyuncu",
+                server.matchmaking.matchmaker::getQueuedCount);
+        http.gauge("tavla_matchmaking_matched_total", "Eşleştirilen çift sayısı",
+                server.matchmaking.matchmaker::getMatchedCount);
+        http.gauge("tavla_timers_pending", "Bekleyen zamanlayıcı sayısı", server.timers::getPendingCount);
+        http.gauge("tavla_journal_last_seq", "Journal'a verilen son seq", server.journal::lastAppendedSeq);
+        http.gauge("tavla_journal_write_errors_total", "Diske yazılamayıp tekrar denenen journal batch'i",
+                server.journal::writeErrorCount);
+        http.gauge("tavla_journal_failing", "Journal şu an diske yazamıyorsa 1 (yeni olay kabul edilmez)",
+                () -> server.journal.isFailing() ? 1 : 0);
+        http.gauge("tavla_bot_book_hits_total", "Açılış kitabından verilen bot hamlesi", server.hints.bot::getBookHits);
+        http.gauge("tavla_bot_searches_total", "Arama ile seçilen bot hamlesi", server.hints.bot::getSearches);
+        if (server.archive != null) {
+            http.gauge("tavla_archive_games", "Arşive yazılmış oyun sayısı", server.archive::getGameCount);
+            http.gauge("tavla_archive_bytes", "Arşiv veri dosyalarının toplam boyutu", server.archive::getDataBytes);
+        }
+        if (server.replays != null) {
+            http.gauge("tavla_replay_cache_games", "Önbellekteki hazır replay sayısı", server.replays::getCachedCount);
+            http.gauge("tavla_replay_cache_hits_total", "Önbellekten verilen replay isteği", server.replays::getHitCount);
+            http.gauge("tavla_replay_cache_misses_total", "Arşivden kurulan replay", server.replays::getMissCount);
+        }
+        http.gauge("tavla_log_dropped_total", "Kuyruk dolduğu için atılan log kaydı", Log::getDroppedCount);
+        http.gauge("tavla_games_finished_total", "Biten oyun sayısı",
+                () -> server.analytics.total(System.currentTimeMillis()).gamesFinished);
+        http.gauge("tavla_games_per_minute", "Son 15 dakikada dakikada biten oyun",
+                () -> server.analytics.window(System.currentTimeMillis(), 15).gamesPerMinute);
+        http.gauge("tavla_startup_warmup_ms", "JVM başlangıcından ısınmanın bitişine (yoksa -1)",
+                server.startup::getWarmupMs);
+        http.gauge("tavla_startup_first_connection_ms", "JVM başlangıcından ilk kabul edilen bağlantıya (henüz yoksa -1)",
+                server.startup::getFirstConnectionMs);
+        http.gauge("tavla_startup_steady_state_ms", "JVM başlangıcından gecikmenin oturmasına (henüz değilse -1)",
+                server.startup::getSteadyStateMs);
+        http.endpoint("/analytics", "application/json; charset=utf-8", this::renderAnalytics);
+        http.start();
+        this.http = http;
+        LOG.info("Metrics açıldı", "url", "http://" + http.getAddress().getHostString() + ":"
+                + http.getAddress().getPort() + "/metrics");
+    }
+
+    void stop() {
+        if (http != null) {
+            http.stop();
+        }
+    }
+
+    /**
+     * Yayınlanmış oda görünümlerinden sayılır; odalara komut gönderilmez, kilit alınmaz.
+     * Tam o an uyanan sıkıştırılmış bir oda sayılmayabilir (gauge için yeterli).
+     */
+    long activeGames() {
+        long[] count = {0};
+        server.roomManager.forEachRoom(room -> {
+            if (TavlaWebSocketServer.isGameInProgress(room)) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    /** Shard index'i -> istenen sayaç, RoomManager.getShardStats() sırasıyla. */
+    private Map<String, Long> shardValues(ToLongFunction<RoomManager.ShardStats> field) {
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (RoomManager.ShardStats st : server.roomManager.getShardStats()) {
+            values.put(Integer.toString(st.shard), field.applyAsLong(st));
+        }
+        return values;
+    }
+
+    /** Çıkış kuyruklarında bekleyen toplam byte (scrape anında tüm bağlantılar gezilir). */
+    private long outboundQueuedBytes() {
+        long total = 0;
+        for (WebSocket conn : server.getConnections()) {
+            if (conn instanceof WebSocketImpl impl) {
+                for (ByteBuffer buf : impl.outQueue) {
+                    total += buf.remaining();
+                }
+            }
+        }
+        return total;
+    }
+
+    private String renderAnalytics() {
+        try {
+            return TavlaWebSocketServer.MAPPER.writeValueAsString(server.analytics.report(System.currentTimeMillis()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Analitik raporu yazılamadı", e);
+        }
+    }
+}
@@ -1,24 +1,56 @@
 package com.tavla.server.ws;
 
-import com.tavla.core.TavlaGame;
+import com.tavla.core.GameSnapshot;
+import com.tavla.core.GameState;
+import com.tavla.core.MatchScore;
+import com.tavla.core.Player;
 import com.tavla.server.ws.dto.StatePayload;
 
 import java.util.ArrayList;
+import java.util.List;
 
 public final class StateMapper {
     private StateMapper() {}
 
-    public static StatePayload toPayload(TavlaGame game) {
-        TavlaGame.BoardView view = game.getBoardSnapshot();
+    /** Değişmez snapshot'tan payload kurar; oyunun kendisine dokunmadığı için her thread'den çağrılabilir. */
+    public static StatePayload toPayload(GameSnapshot game) {
+        return toPayload(game, MatchScore.MONEY);
+    }
 
+    /** Maçtaki oyun için: match, oyun bittiyse sonucu eklenmiş skordur (bkz. Room.getMatchAfterGame). */
+    public static StatePayload toPayload(GameSnapshot game, MatchScore match) {
         StatePayload payload = new StatePayload();
         payload.gameOver = game.isGameOver();
         payload.currentPlayer = game.getCurrentPlayer().name();
         payload.winner = (game.getWinner() == null) ? null : game.getWinner().name();
+        payload.result = resultName(game.getResultKind());
+        payload.resultPoints = game.getResultPoints();
+        payload.playerToAct = game.getPlayerToAct().name();
+
+        var cube = new StatePayload.CubeDto();
+        cube.value = game.getCubeValue();
+        cube.owner = game.getCubeOwner() == null ? null : game.getCubeOwner().name();
+        cube.offered = game.isCubeOffered();
+        payload.cube = cube;
+
+        if (match.isMatch()) {
+            var m = new StatePayload.MatchDto();
+            m.length = match.length;
+            m.whiteScore = match.whiteScore;
+            m.blackScore = match.blackScore;
+            m.crawford = match.crawford;
+            m.over = match.isOver();
+            m.winner = match.getWinner() == null ? null : match.getWinner().name();
+            payload.match = m;
+        }
 
         // dice
         var dice = new StatePayload.DiceDto();
-        var steps = game.getRemainingSteps();
+        int[] remaining = game.getRemainingSteps();
+        List<Integer> steps = new ArrayList<>(remaining.length);
+        for (int step : remaining) {
+            steps.add(step);
+        }
         dice.rolled = !steps.isEmpty();
         dice.die1 = game.getDie1();
         dice.die2 = game.getDie2();
@@ -27,21 +59,55 @@ public final class StateMapper {
 
         // board
         var board = new StatePayload.BoardDto();
-        board.whiteBar = view.whiteBar;
-        board.blackBar = view.blackBar;
-        board.whiteBornOff = view.whiteBornOff;
-        board.blackBornOff = view.blackBornOff;
+        board.whiteBar = game.getWhiteBar();
+        board.blackBar = game.getBlackBar();
+        board.whiteBornOff = game.getWhiteBornOff();
+        board.blackBornOff = game.getBlackBornOff();
 
-        board.points = new ArrayList<>();
-        for (var p : view.points) {
+        board.points = new ArrayList<>(24);
+        for (int i = 0; i < 24; i++) {
             var pd = new StatePayload.PointDto();
-            pd.index = p.index;
-            pd.owner = (p.owner == null) ? null : p.owner.name();
-            pd.count = p.count;
+            Player owner = game.getOwner(i);
+            pd.index = i;
+            pd.owner = (owner == null) ? null : owner.name();
+            pd.count = Math.abs(game.getCount(i));
             board.points.add(pd);
         }
         payload.board = board;
 
         return payload;
     }
+
+    /**
+     * İstemci tarafı için tersi: state payload'ındaki tahta, zar ve sıradan motorun GameState'ini
+     * kurar (küp ve sonuç alınmaz; hamle seçmek için gerekmez).
+     */
+    public static GameState toGameState(StatePayload payload) {
+        GameState gs = new GameState();
+        StatePayload.BoardDto board = payload.board;
+        int[] counts = new int[24];
+        for (StatePayload.PointDto p : board.points) {
+            counts[p.index] = "BLACK".equals(p.owner) ? -p.count : p.count;
+        }
+        gs.getBoard().setPosition(counts, board.whiteBar, board.blackBar, board.whiteBornOff, board.blackBornOff);
+
+        StatePayload.DiceDto dice = payload.dice;
+        int[] steps = new int[dice.remainingSteps.size()];
+        for (int i = 0; i < steps.length; i++) {
+            steps[i] = dice.remainingSteps.get(i);
+        }
+        gs.getDice().restore(dice.die1, dice.die2, steps);
+        gs.restore(Player.valueOf(payload.currentPlayer), payload.gameOver,
+                payload.winner == null ? null : Player.valueOf(payload.winner));
+        return gs;
+    }
+
+    private static String resultName(int kind) {
+        return switch (kind) {
+            case GameState.RESULT_SINGLE -> "single";
+            case GameState.RESULT_GAMMON -> "gammon";
+            case GameState.RESULT_BACKGAMMON -> "backgammon";
+            default -> null;
+        };
+    }
 }
@@ -1,85 +1,255 @@
 package com.tavla.server.ws;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tavla.core.GameSnapshot;
+import com.tavla.core.MatchScore;
 import com.tavla.core.Player;
 import com.tavla.core.TavlaGame;
+import com.tavla.server.analytics.GameAnalytics;
+import com.tavla.server.analytics.GameSummary;
+import com.tavla.server.archive.GameArchive;
+import com.tavla.server.archive.GameRecord;
+import com.tavla.server.archive.ReplayService;
+import com.tavla.server.cluster.ClusterMembership;
+import com.tavla.server.jfr.RoomLifecycleEvent;
+import com.tavla.server.jfr.StateSerializationEvent;
+import com.tavla.server.log.Log;
+import com.tavla.server.log.Logger;
+import com.tavla.server.metrics.Stage;
+import com.tavla.server.persistence.FileGameJournal;
+import com.tavla.server.persistence.GameJournal;
+import com.tavla.server.persistence.RoomRecovery;
+import com.tavla.server.persistence.RoomSnapshotter;
+import com.tavla.server.rating.RatingService;
+import com.tavla.server.rooms.IdleRoomArena;
 import com.tavla.server.rooms.Room;
 import com.tavla.server.rooms.RoomManager;
+import com.tavla.server.rooms.RoomView;
+import com.tavla.server.startup.StartupTracker;
 import com.tavla.server.ws.dto.*;
 
 import org.java_websocket.WebSocket;
+import org.java_websocket.exceptions.WebsocketNotConnectedException;
+import org.java_websocket.framing.Framedata;
 import org.java_websocket.handshake.ClientHandshake;
 import org.java_websocket.server.WebSocketServer;
 
 import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Production'a yakın minimal WS server:
  * - JSON parse/serialize: Jackson (string arama yok)
- * - Room sistemi: create_room / join_room
+ * - Room sistemi: create_room / join_room (matchLength ile maç, bkz. CubeHandler)
  * - Oda dolunca TavlaGame başlar
- * - roll / move komutları sadece oyuncu sırasındaysa kabul edilir
+ * - roll / move / play komutları sadece oyuncu sırasındaysa kabul edilir (bkz. TurnHandler)
+ * - Oda komutları odanın mailbox'ında sırayla çalışır (bkz. RoomCommands)
+ * - Diğer mesajlar kendi sınıflarındadır: resume (ReconnectHandler), find_match
+ *   (MatchmakingHandler), import_position (ImportHandler), replay (ReplayHandler), hint
+ *   (HintHandler), leaderboard / rank (RatingHandler)
+ * - Zamanlayıcılar RoomTimers'ta, metrikler ServerMetrics'te, açılış ServerLauncher'dadır
  *
  * Client -> Server:
- *  {"type":"create_room"}
+ *  {"type":"create_room"}  ya da  {"type":"create_room","payload":{"matchLength":7}}
  *  {"type":"join_room","payload":{"roomId":"abc123"}}
  *  {"type":"roll"}
  *  {"type":"move","payload":{"from":23,"to":18,"step":5}}
  *
  * Server -> Client:
- *  {"type":"room_created","payload":{"roomId":"abc123","player":"WHITE"}}
- *  {"type":"room_joined","payload":{"roomId":"abc123","player":"BLACK"}}
+ *  {"type":"room_created","payload":{"roomId":"abc123","player":"WHITE","token":"...","matchLength":7}}
+ *  {"type":"room_joined","payload":{"roomId":"abc123","player":"BLACK","token":"..."}}
+ *  {"type":"room_closed","payload":{"roomId":"abc123","reason":"..."}}
+ *  {"type":"game_archived","payload":{"gameId":42}}
  *  {"type":"state","payload":{...}}
  *  {"type":"error","payload":{"message":"..."}}
+ *  {"type":"redirect","payload":{"url":"ws://host:port","roomId":"abc123","retry":"join_room"}}
  */
-public class TavlaWebSocketServer extends WebSocketServer {
+public final class TavlaWebSocketServer extends WebSocketServer {
 
-    private final ObjectMapper mapper = new ObjectMapper();
-    private final RoomManager roomManager = new RoomManager();
+    private static final Logger LOG = Log.get("ws");
+
+    // İstemci en fazla bu kadar kez yönlendirilir (node listeleri farklı yapılandırılmışsa döngüye girmesin)
+    private static final int MAX_REDIRECT_HOPS = 2;
+
+    private static final long SNAPSHOT_INTERVAL_MS = 30_000;
+
+
+    // Önbellekte hazır tutulan replay sayısı; render edilmiş karelerle oyun başına ~0.5 MB'a kadar
+    private static final int REPLAY_CACHE_GAMES = Integer.getInteger("tavla.replay.cacheGames",
+            ReplayService.DEFAULT_CAPACITY);
+
+    // Payload'ı olmayan mesaj tipleri için işaret nesnesi
+    private static final Object NO_PAYLOAD = new Object();
+
+    // Örnekler arasında paylaşılır: Jackson DTO incelemesini önbelleğe alır, ısınma asıl sunucuya da yarar
+    static final ObjectMapper MAPPER = new ObjectMapper();
+    final RoomManager roomManager = new RoomManager();
+    private final ClusterMembership cluster; // tek node modunda null
+    final GameJournal journal;
+    final RoomCommands commands;
+    private final RoomSnapshotter snapshotter; // kalıcılık kapalıysa null
+    final GameArchive archive;         // kalıcılık kapalıysa null
+    final ReplayService replays;       // kalıcılık kapalıysa null
+    final RatingService ratings = new RatingService();
+    final GameAnalytics analytics = new GameAnalytics(System.currentTimeMillis());
+    final MatchmakingHandler matchmaking = new MatchmakingHandler(this);
+
+    final ServerMetrics metrics = new ServerMetrics(this);
+    final StartupTracker startup = new StartupTracker();
+
+    final RoomTimers timers = new RoomTimers(this);
+
+    private final ReconnectHandler reconnect = new ReconnectHandler(this);
+    private final TurnHandler turns = new TurnHandler(this);
+    private final ImportHandler imports = new ImportHandler(this);
+    private final ReplayHandler replay = new ReplayHandler(this);
+    final HintHandler hints = new HintHandler(this);
+    final CubeHandler cube = new CubeHandler(this);
+    private final RatingHandler rating = new RatingHandler(this);
+
+    final IdleRoomArena idleArena = new IdleRoomArena();
 
     public TavlaWebSocketServer(int port) {
+        this(port, null, null);
+    }
+
+    /**
+     * Kalıcılık açıksa kabul edilen her oda olayı (oda kurma, katılma, roll, move, silme) binary
+     * journal'a yazılır ve periyodik olarak tüm odaların snapshot'ı alınır. Açılışta son snapshot
+     * yüklenip üstüne journal'ın kalanı oynatılarak odalar geri kurulur; oyuncular token'larıyla
+     * resume ederek devam eder. Biten oyunlar hamle kaydıyla GameArchive'e (dataDir/archive)
+     * yazılır; rating'ler açılışta bu arşivden yeniden hesaplanır.
+     *
+     * @param cluster tek node modunda null
+     * @param dataDir journal dizininin kökü; null ise kalıcılık kapalı
+     */
+    public TavlaWebSocketServer(int port, ClusterMembership cluster, Path dataDir) {
         super(new InetSocketAddress(port));
+        // Kütüphanenin tüm bağlantıları tarayan kendi kontrolü yerine heartbeat'i RoomTimers yapar
+        setConnectionLostTimeout(0);
+        this.cluster = cluster;
+        if (cluster != null) {
+            roomManager.setPlacement(cluster::isLocalOwner);
+        }
+
+        if (dataDir == null) {
+            this.journal = GameJournal.NOOP;
+            this.snapshotter = null;
+            this.archive = null;
+            this.replays = null;
+            this.commands = new RoomCommands(journal, startup);
+        } else {
+            Path journalDir = dataDir.resolve("journal");
+            Path snapshotFile = dataDir.resolve("rooms.snap");
+
+            long start = System.nanoTime();
+            RoomRecovery.Result recovered = RoomRecovery.recover(snapshotFile, journalDir, roomManager);
+            LOG.info("Recovery tamamlandı", "snapshotRooms", recovered.snapshotRooms,
+                    "events", recovered.events, "rooms", recovered.rooms,
+                    "ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+            this.journal = FileGameJournal.open(journalDir, recovered.lastSeq + 1);
+            this.snapshotter = new RoomSnapshotter(roomManager, journal, snapshotFile, journalDir);
+            this.archive = GameArchive.open(dataDir.resolve("archive"));
+            this.replays = new ReplayService(archive, REPLAY_CACHE_GAMES);
+            this.commands = new RoomCommands(journal, startup);
+
+            start = System.nanoTime();
+            long rated = ratings.replay(archive);
+            LOG.info("Rating'ler arşivden kuruldu", "games", rated,
+                    "players", ratings.getLeaderboard().size(),
+                    "ms", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            scheduleRestoredRoomTimers();
+        }
     }
 
     @Override
     public void onOpen(WebSocket conn, ClientHandshake handshake) {
-        System.out.println("Bağlandı: " + conn.getRemoteSocketAddress());
+        startup.connectionAccepted();
+        LOG.info("Bağlandı", "remote", String.valueOf(conn.getRemoteSocketAddress()));
+        ConnectionState state = new ConnectionState();
+        conn.setAttachment(state);
+        timers.watch(conn, state);
         send(conn, new ServerMessage<>("info", Map.of("message", "create_room veya join_room gönder")));
     }
 
     @Override
     public void onClose(WebSocket conn, int code, String reason, boolean remote) {
-        System.out.println("Bağlantı kapandı: " + conn.getRemoteSocketAddress() + " reason=" + reason);
-        roomManager.removeSocket(conn);
+        LOG.info("Bağlantı kapandı", "remote", String.valueOf(conn.getRemoteSocketAddress()),
+                "code", code, "reason", reason, "byClient", remote);
+        ConnectionState state = conn.getAttachment();
+        if (state != null) {
+            if (state.heartbeat != null) {
+                state.heartbeat.cancel();
+            }
+            state.replayStream = null;
+        }
+        matchmaking.cancel(conn);
+        Room room = roomManager.detachSocket(conn);
+        if (room != null) {
+            commands.submit(room, "disconnect", () -> reconnect.onDisconnect(room, conn));
+        }
     }
 
     @Override
     public void onMessage(WebSocket conn, String message) {
+        RoomTimers.markSeen(conn);
         try {
-            ClientMessage msg = mapper.readValue(message, ClientMessage.class);
+            long start = System.nanoTime();
+            ClientMessage msg = MAPPER.readValue(message, ClientMessage.class);
             if (msg.type == null || msg.type.isBlank()) {
                 sendError(conn, "Mesajda type yok.");
                 return;
             }
 
-            switch (msg.type) {
-                case "create_room" -> handleCreateRoom(conn);
-
-                case "join_room" -> {
-                    JoinRoomPayload p = requirePayload(conn, msg, JoinRoomPayload.class);
-                    if (p == null) return;
-                    handleJoinRoom(conn, p);
-                }
-
-                case "roll" -> handleRoll(conn);
-
-                case "move" -> {
-                    MovePayload p = requirePayload(conn, msg, MovePayload.class);
-                    if (p == null) return;
-                    handleMove(conn, p);
-                }
+            Object payload = switch (msg.type) {
+                case "join_room" -> requirePayload(conn, msg, JoinRoomPayload.class);
+                case "resume" -> requirePayload(conn, msg, ResumePayload.class);
+                case "move" -> requirePayload(conn, msg, MovePayload.class);
+                case "play" -> requirePayload(conn, msg, PlayPayload.class);
+                case "import_position" -> requirePayload(conn, msg, ImportPositionPayload.class);
+                case "replay" -> requirePayload(conn, msg, ReplayPayload.class);
+                case "rank" -> requirePayload(conn, msg, RankPayload.class);
+                // payload opsiyonel: verilmezse ilk 10
+                case "leaderboard" -> (msg.payload == null || msg.payload.isNull())
+                        ? new LeaderboardPayload()
+                        : requirePayload(conn, msg, LeaderboardPayload.class);
+                // payload opsiyonel: verilmezse para oyunu
+                case "create_room" -> (msg.payload == null || msg.payload.isNull())
+                        ? new CreateRoomPayload()
+                        : requirePayload(conn, msg, CreateRoomPayload.class);
+                // payload opsiyonel: verilmezse varsayılan rating ile sıraya girer
+                case "find_match" -> (msg.payload == null || msg.payload.isNull())
+                        ? new FindMatchPayload()
+                        : requirePayload(conn, msg, FindMatchPayload.class);
+                default -> NO_PAYLOAD;
+            };
+            if (payload == null) return;
+
+            metrics.record(msg.type, Stage.PARSE, System.nanoTime() - start);
 
+            switch (msg.type) {
+                case "create_room" -> handleCreateRoom(conn, (CreateRoomPayload) payload);
+                case "join_room" -> handleJoinRoom(conn, (JoinRoomPayload) payload);
+                case "resume" -> reconnect.handleResume(conn, (ResumePayload) payload);
+                case "find_match" -> matchmaking.handleFindMatch(conn, (FindMatchPayload) payload);
+                case "cancel_match" -> matchmaking.cancel(conn);
+                case "roll" -> turns.handleRoll(conn);
+                case "move" -> turns.handleMove(conn, (MovePayload) payload);
+                case "play" -> turns.handlePlay(conn, (PlayPayload) payload);
+                case "import_position" -> imports.handleImportPosition(conn, (ImportPositionPayload) payload);
+                case "accept_import" -> imports.handleImportResponse(conn, true);
+                case "decline_import" -> imports.handleImportResponse(conn, false);
+                case "replay" -> replay.handleReplay(conn, (ReplayPayload) payload);
+                case "hint" -> hints.handleHint(conn);
+                case "double" -> cube.handleDouble(conn);
+                case "take" -> cube.handleCubeResponse(conn, true);
+                case "drop" -> cube.handleCubeResponse(conn, false);
+                case "leaderboard" -> rating.handleLeaderboard(conn, (LeaderboardPayload) payload);
+                case "rank" -> rating.handleRank(conn, (RankPayload) payload);
                 default -> sendError(conn, "Bilinmeyen type: " + msg.type);
             }
 
@@ -88,29 +258,78 @@ public class TavlaWebSocketServer extends WebSocketServer {
         }
     }
 
+    @Override
+    public void onWebsocketPong(WebSocket conn, Framedata f) {
+        RoomTimers.markSeen(conn);
+    }
+
     @Override
     public void onError(WebSocket conn, Exception ex) {
-        System.out.println("WebSocket error: " + ex.getMessage());
-        ex.printStackTrace();
+        LOG.error("WebSocket hatası", ex,
+                "remote", conn == null ? null : String.valueOf(conn.getRemoteSocketAddress()));
         if (conn != null) {
             sendError(conn, "Sunucu hatası: " + ex.getMessage());
         }
     }
 
+    @Override
+    public void stop(int timeout, String closeMessage) throws InterruptedException {
+        super.stop(timeout, closeMessage);
+        matchmaking.stop();
+        timers.stop();
+        if (cluster != null) {
+            cluster.stop();
+        }
+        metrics.stop();
+        if (snapshotter != null) {
+            snapshotter.stop();
+        }
+        journal.close();
+        if (archive != null) {
+            archive.close();
+        }
+    }
+
     @Override
     public void onStart() {
-        System.out.println("WebSocket server started on " + getAddress());
+        LOG.info("WebSocket sunucusu başladı", "address", String.valueOf(getAddress()));
+        matchmaking.start();
+        startup.listening();
+        timers.start();
+        if (snapshotter != null) {
+            snapshotter.start(SNAPSHOT_INTERVAL_MS);
+        }
+        if (cluster != null) {
+            cluster.start();
+            LOG.info("Cluster modu", "self", String.valueOf(cluster.getSelf()), "ring", String.valueOf(cluster.getRing()));
+        }
     }
 
     // ---------------- Handlers ----------------
 
-    private void handleCreateRoom(WebSocket conn) {
+    private void handleCreateRoom(WebSocket conn, CreateRoomPayload payload) {
+        if (payload.matchLength < 0 || payload.matchLength > MatchScore.MAX_LENGTH) {
+            sendError(conn, "matchLength 0 (para oyunu) ile " + MatchScore.MAX_LENGTH + " arasında olmalı.");
+            return;
+        }
+        matchmaking.cancel(conn);
         try {
             Room room = roomManager.createRoom(conn);
-
-            // ownerSocket createRoom içinde WHITE olarak ekleniyor (minimum model)
-            send(conn, new ServerMessage<>("room_created",
-                    Map.of("roomId", room.getRoomId(), "player", "WHITE")));
+            room.setMatch(MatchScore.of(payload.matchLength));
+
+            // Oda olayı journal'a, odanın diğer olaylarından önce girsin diye mailbox'ta
+            timers.scheduleIdleCheck(room);
+            commands.submit(room, "create_room", () -> {
+                room.markJournaled(journal.roomCreated(room.getRoomId(), room.getToken(Player.WHITE),
+                        payload.matchLength));
+                RoomLifecycleEvent.emit(room.getRoomId(), RoomLifecycleEvent.CREATED, null);
+
+                // ownerSocket createRoom içinde WHITE olarak ekleniyor (minimum model)
+                send(conn, new ServerMessage<>("room_created",
+                        Map.of("roomId", room.getRoomId(), "player", "WHITE",
+                                "token", room.getToken(Player.WHITE), "matchLength", payload.matchLength)));
+                return RoomCommands.OK;
+            });
 
         } catch (Exception e) {
             sendError(conn, e.getMessage());
@@ -122,144 +341,245 @@ public class TavlaWebSocketServer extends WebSocketServer {
             sendError(conn, "roomId boş olamaz.");
             return;
         }
+        matchmaking.cancel(conn);
 
-        try {
-            Room room = roomManager.joinRoom(payload.roomId, conn);
+        Room room = roomManager.getRoom(payload.roomId);
+        if (room == null) {
+            redirectOrFail(conn, payload.roomId, payload.hops, "join_room", "Oda bulunamadı");
+            return;
+        }
+
+        commands.submit(room, "join_room", () -> {
+            try {
+                long start = System.nanoTime();
+                Player seat = roomManager.joinRoom(room, conn);
+                room.markJournaled(journal.playerJoined(room.getRoomId(), room.getToken(seat)));
+                room.touch();
+                RoomLifecycleEvent.emit(room.getRoomId(), RoomLifecycleEvent.JOINED, seat.name());
 
-            // join eden BLACK varsayıyoruz (minimum model)
-            send(conn, new ServerMessage<>("room_joined",
-                    Map.of("roomId", room.getRoomId(), "player", "BLACK")));
+                send(conn, new ServerMessage<>("room_joined",
+                        Map.of("roomId", room.getRoomId(), "player", seat.name(),
+                                "token", room.getToken(seat))));
 
-            // oda dolunca oyun başlat + state gönder
-            synchronized (room) {
+                // oda dolunca oyun başlat + state gönder
                 if (!room.hasStarted()) {
-                    room.startGame();
+                    startGame(room, null, null);
+                    RoomLifecycleEvent.emit(room.getRoomId(), RoomLifecycleEvent.STARTED, null);
                 }
+                metrics.record("join_room", Stage.APPLY, System.nanoTime() - start);
                 broadcastState(room);
+                timers.updateTurnClock(room);
+                return RoomCommands.OK;
+
+            } catch (Exception e) {
+                sendError(conn, e.getMessage());
+                return RoomCommands.REJECTED;
             }
+        });
+    }
 
-        } catch (Exception e) {
-            sendError(conn, e.getMessage());
-        }
+    /** Oyunu hamle kaydıyla başlatır ve journal'a yazar. Odanın mailbox'ı içinden çağrılmalıdır. */
+    void startGame(Room room, String whitePlayer, String blackPlayer) {
+        long startedAt = System.currentTimeMillis();
+        room.startGame(startedAt, whitePlayer, blackPlayer);
+        analytics.gameStarted(startedAt);
+        room.markJournaled(journal.gameStarted(room.getRoomId(), startedAt, whitePlayer, blackPlayer));
     }
 
-    private void handleRoll(WebSocket conn) {
-        Room room = roomManager.getRoomBySocket(conn);
-        if (room == null) {
-            sendError(conn, "Herhangi bir odada değilsin. create_room/join_room yap.");
-            return;
-        }
-        if (!room.hasStarted()) {
-            sendError(conn, "Oyun başlamadı. İkinci oyuncu bekleniyor.");
+    /**
+     * Oyun bittiyse (bir kez) analitiğe sayar, arşive yazar, oyunculara arşivdeki gameId'yi bildirir
+     * ve rating'leri günceller (bkz. RatingHandler). Odanın mailbox'ı içinden, state değiştikten
+     * sonra çağrılmalıdır.
+     */
+    void finishIfOver(Room room) {
+        TavlaGame game = room.getGame();
+        if (game == null || !game.isGameOver() || room.isArchived()) {
             return;
         }
-
-        synchronized (room) {
-            TavlaGame game = room.getGame();
-            Player sender = room.getPlayerBySocket(conn);
-            if (sender == null) {
-                sendError(conn, "Odadaki oyuncu bulunamadı.");
-                return;
+        room.markArchived();
+
+        long now = System.currentTimeMillis();
+        analytics.gameFinished(GameSummary.of(game, now));
+        GameRecord record = GameRecord.of(room.getRoomId(), game, now);
+        if (archive != null) {
+            long gameId = archive.append(record);
+            ServerMessage<Map<String, Long>> msg = new ServerMessage<>("game_archived", Map.of("gameId", gameId));
+            for (Player seat : Player.values()) {
+                WebSocket s = room.getSocket(seat);
+                if (s != null) send(s, msg);
             }
-
-            if (sender != game.getCurrentPlayer()) {
-                sendError(conn, "Sıra sende değil. Sıra: " + game.getCurrentPlayer());
-                return;
-            }
-
-            game.rollDice();
-            broadcastState(room);
         }
+
+        rating.gameFinished(room, record);
     }
 
-    private void handleMove(WebSocket conn, MovePayload payload) {
-        Room room = roomManager.getRoomBySocket(conn);
-        if (room == null) {
-            sendError(conn, "Herhangi bir odada değilsin. create_room/join_room yap.");
-            return;
+    /** Odayı kapatır ve bağlı oyunculara bildirir. Odanın mailbox'ı içinden çağrılmalıdır. */
+    void closeRoom(Room room, String reason) {
+        room.stopTurnClock();
+        if (isGameInProgress(room)) {
+            analytics.abandoned(System.currentTimeMillis());
         }
-        if (!room.hasStarted()) {
-            sendError(conn, "Oyun başlamadı. İkinci oyuncu bekleniyor.");
-            return;
-        }
-
-        synchronized (room) {
-            TavlaGame game = room.getGame();
-            Player sender = room.getPlayerBySocket(conn);
-            if (sender == null) {
-                sendError(conn, "Odadaki oyuncu bulunamadı.");
-                return;
-            }
+        WebSocket white = room.getSocket(Player.WHITE);
+        WebSocket black = room.getSocket(Player.BLACK);
+        roomManager.removeRoom(room);
+        journal.roomRemoved(room.getRoomId());
+        RoomLifecycleEvent.emit(room.getRoomId(), RoomLifecycleEvent.CLOSED, reason);
+
+        ServerMessage<Map<String, String>> msg = new ServerMessage<>("room_closed",
+                Map.of("roomId", room.getRoomId(), "reason", reason));
+        if (white != null) send(white, msg);
+        if (black != null) send(black, msg);
+    }
 
-            if (sender != game.getCurrentPlayer()) {
-                sendError(conn, "Sıra sende değil. Sıra: " + game.getCurrentPlayer());
-                return;
+    /**
+     * Kayıttan dönen odalar: koltuklar grace süresi içinde resume edilmezse oda kapanır,
+     * sıra saati ve boşta kontrolü yeniden kurulur.
+     */
+    private void scheduleRestoredRoomTimers() {
+        roomManager.forEachRoom(room -> {
+            RoomLifecycleEvent.emit(room.getRoomId(), RoomLifecycleEvent.RESTORED, null);
+            for (Player seat : Player.values()) {
+                if (room.getToken(seat) != null) {
+                    reconnect.scheduleSeatExpiry(room, seat);
+                }
             }
+            timers.scheduleIdleCheck(room);
+            commands.submit(room, "restore", () -> {
+                timers.updateTurnClock(room);
+                return RoomCommands.OK;
+            });
+        });
+    }
 
-            // basic validation
-            if (payload.step <= 0) {
-                sendError(conn, "step pozitif olmalı.");
-                return;
-            }
+    // ---------------- Helpers ----------------
 
-            if (!game.isMoveLegal(payload.from, payload.to, payload.step)) {
-                sendError(conn, "Geçersiz hamle.");
-                return;
-            }
+    /** Kopan koltuğun tutulacağı süre (bkz. ReconnectHandler); testler kısaltır. */
+    void setReconnectGraceMs(long ms) {
+        reconnect.setGraceMs(ms);
+    }
 
-            try {
-                game.applyMove(payload.from, payload.to, payload.step);
-                broadcastState(room);
-            } catch (IllegalStateException e) {
-                sendError(conn, "Hamle uygulanamadı: " + e.getMessage());
-            }
+    /**
+     * Oda bu node'da yoksa istemciyi odanın sahibine yönlendirir. Cluster modunda oda ID'leri
+     * tutarlı hash halkasıyla node'lara dağılır ve odanın sahibi ID'den bulunur (bkz.
+     * ClusterMembership); istemci redirect'teki node'a bağlanıp isteği hops+1 ile tekrar gönderir.
+     * Sahip bu node ise oda gerçekten yoktur; sahip ölmüşse oda o node geri gelene kadar ulaşılamaz.
+     */
+    void redirectOrFail(WebSocket conn, String roomId, int hops, String retry, String notFound) {
+        if (cluster == null || hops >= MAX_REDIRECT_HOPS) {
+            sendError(conn, notFound);
+            return;
+        }
+        String owner = cluster.ownerOf(roomId);
+        if (owner.equals(cluster.getSelf())) {
+            sendError(conn, notFound);
+        } else if (!cluster.isAlive(owner)) {
+            sendError(conn, "Odanın bulunduğu node'a şu an ulaşılamıyor: " + owner);
+        } else {
+            send(conn, new ServerMessage<>("redirect", Map.of("url", owner, "roomId", roomId, "retry", retry)));
         }
     }
 
-    // ---------------- Helpers ----------------
-
     private <T> T requirePayload(WebSocket conn, ClientMessage msg, Class<T> clazz) {
         try {
             if (msg.payload == null || msg.payload.isNull()) {
                 sendError(conn, "payload eksik.");
                 return null;
             }
-            return mapper.treeToValue(msg.payload, clazz);
+            return MAPPER.treeToValue(msg.payload, clazz);
         } catch (Exception e) {
             sendError(conn, "payload parse edilemedi: " + e.getMessage());
             return null;
         }
     }
 
-    private void broadcastState(Room room) {
-        TavlaGame game = room.getGame();
-        StatePayload payload = StateMapper.toPayload(game);
-
-        ServerMessage<StatePayload> stateMsg = new ServerMessage<>("state", payload);
-
+    void broadcastState(Room room) {
         WebSocket w = room.getSocket(Player.WHITE);
         WebSocket b = room.getSocket(Player.BLACK);
+        if (w == null && b == null) {
+            return;
+        }
+
+        // İki oyuncuya aynı JSON gider, bir kez serialize et
+        String json = serialize(stateMessage(room));
+        if (w != null) sendText(w, "state", json);
+        if (b != null) sendText(b, "state", json);
+    }
+
+    void sendState(WebSocket conn, Room room) {
+        send(conn, stateMessage(room));
+    }
 
-        if (w != null) send(w, stateMsg);
-        if (b != null) send(b, stateMsg);
+    // Mailbox içinden çağrılır: güncel görünüm yayınlanır ve payload o değişmez kopyadan kurulur
+    private ServerMessage<StatePayload> stateMessage(Room room) {
+        RoomView view = room.publish();
+        GameSnapshot game = view.readGame();
+        return new ServerMessage<>("state", StateMapper.toPayload(game, view.matchAfterGame(game)));
     }
 
-    private void send(WebSocket conn, Object msgObj) {
+    void send(WebSocket conn, ServerMessage<?> msg) {
+        if (!conn.isOpen()) {
+            return; // kopmuş bağlantıya yazmaya çalışma (resume ile geri gelecek)
+        }
+        sendText(conn, msg.type, serialize(msg));
+    }
+
+    String serialize(ServerMessage<?> msg) {
+        long start = System.nanoTime();
+        StateSerializationEvent event = new StateSerializationEvent();
+        event.begin();
+        String json;
         try {
-            conn.send(mapper.writeValueAsString(msgObj));
+            json = MAPPER.writeValueAsString(msg);
         } catch (Exception e) {
             // en son çare
-            conn.send("{\"type\":\"error\",\"payload\":{\"message\":\"serialization error\"}}");
+            json = "{\"type\":\"error\",\"payload\":{\"message\":\"serialization error\"}}";
         }
+        metrics.record(msg.type, Stage.SERIALIZE, System.nanoTime() - start);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.type = msg.type;
+            event.bytes = json.getBytes(StandardCharsets.UTF_8).length;
+            event.commit();
+        }
+        return json;
+    }
+
+    void sendText(WebSocket conn, String type, String json) {
+        if (!conn.isOpen()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            conn.send(json);
+        } catch (WebsocketNotConnectedException e) {
+            // isOpen kontrolünden sonra kapanmış olabilir; resume ile geri gelecek
+        }
+        metrics.record(type, Stage.SEND, System.nanoTime() - start);
     }
 
-    private void sendError(WebSocket conn, String message) {
+    /** Odada başlamış, bitmemiş oyun var mı? Yayınlanmış görünümden okunur, sıkıştırılmış oyunu açmaz. */
+    static boolean isGameInProgress(Room room) {
+        RoomView view = room.getView();
+        GameSnapshot game = (view == null) ? null : view.readGame();
+        return game != null && !game.isGameOver();
+    }
+
+    /** /metrics (Prometheus text formatı) ve /analytics (JSON) endpoint'lerini localhost'ta açar (bkz. ServerMetrics). */
+    public void enableMetrics(int port) {
+        metrics.enable(port);
+    }
+
+    void sendError(WebSocket conn, String message) {
         send(conn, new ServerMessage<>("error", Map.of("message", message)));
     }
 
     public static void main(String[] args) {
-        int port = 8080;
-        new TavlaWebSocketServer(port).start();
-        System.out.println("WS server başladı: ws://localhost:" + port);
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+
+        String dataDirProp = System.getProperty("tavla.data.dir");
+        Path dataDir = (dataDirProp == null || dataDirProp.isBlank()) ? null : Path.of(dataDirProp);
+
+        ServerLauncher.launch(port, dataDir);
     }
 }
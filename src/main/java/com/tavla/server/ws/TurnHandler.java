@@ -0,0 +1,230 @@
+package com.tavla.server.ws;
+
+import com.tavla.core.Move;
+import com.tavla.core.Player;
+import com.tavla.core.TavlaGame;
+import com.tavla.server.jfr.EngineCallEvent;
+import com.tavla.server.metrics.Stage;
+import com.tavla.server.rooms.Room;
+import com.tavla.server.ws.dto.MovePayload;
+import com.tavla.server.ws.dto.PlayPayload;
+
+import org.java_websocket.WebSocket;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Oyuncunun turu: roll / move / play komutları sadece oyuncu sırasındaysa kabul edilir.
+ * - play turun tüm hamlelerini tek mesajda getirir: dizi bütün olarak doğrulanır (zarın
+ *   oynanabildiği kadarı oynanmalı), tek seferde uygulanır ve tek state yayınlanır
+ * - Zar atıldıktan ya da hamle oynandıktan sonra oynanacak hamle kalmadıysa tur otomatik
+ *   olarak rakibe geçer
+ * - Küp teklifi bekleyen oyunda zar atılamaz
+ *
+ * Payload'ın oda state'inden bağımsız kısmı I/O thread'inde, geri kalanı odanın mailbox'ında
+ * doğrulanır. Motor çağrıları EngineCallEvent olarak JFR'a yazılır.
+ *
+ * Client -> Server:
+ *  {"type":"roll"}
+ *  {"type":"move","payload":{"from":23,"to":18,"step":5}}
+ *  {"type":"play","payload":{"moves":[{"from":12,"to":7,"step":5},{"from":7,"to":4,"step":3}]}}
+ */
+final class TurnHandler {
+
+    private final TavlaWebSocketServer server;
+
+    TurnHandler(TavlaWebSocketServer server) {
+        this.server = server;
+    }
+
+    void handleRoll(WebSocket conn) {
+        Room room = server.roomManager.getRoomBySocket(conn);
+        if (room == null) {
+            server.sendError(conn, "Herhangi bir odada değilsin. create_room/join_room yap.");
+            return;
+        }
+
+        server.commands.submit(room, "roll", () -> {
+            long start = System.nanoTime();
+            if (!room.hasStarted()) {
+                server.sendError(conn, "Oyun başlamadı. İkinci oyuncu bekleniyor.");
+                return RoomCommands.REJECTED;
+            }
+
+            TavlaGame game = room.getGame();
+            Player sender = room.getPlayerBySocket(conn);
+            if (sender == null) {
+                server.sendError(conn, "Odadaki oyuncu bulunamadı.");
+                return RoomCommands.REJECTED;
+            }
+
+            if (sender != game.getCurrentPlayer()) {
+                server.sendError(conn, "Sıra sende değil. Sıra: " + game.getCurrentPlayer());
+                return RoomCommands.REJECTED;
+            }
+            if (game.isCubeOffered()) {
+                server.sendError(conn, "Küp teklifine cevap bekleniyor.");
+                return RoomCommands.REJECTED;
+            }
+
+            long validated = System.nanoTime();
+            server.metrics.record("roll", Stage.VALIDATE, validated - start);
+
+            EngineCallEvent engine = new EngineCallEvent();
+            engine.begin();
+            game.rollDice();
+            engine.finish("rollDice", room.getRoomId(), game.getDie1(), game.getDie2(), 0, true);
+
+            room.markJournaled(server.journal.roll(room.getRoomId(), game.getDie1(), game.getDie2()));
+            // Oynanacak hamle yoksa tur rakibe geçer (journal replay'i aynı kararı tekrar verir)
+            game.passIfBlocked();
+            room.touch();
+            server.metrics.record("roll", Stage.APPLY, System.nanoTime() - validated);
+            server.broadcastState(room);
+            server.timers.updateTurnClock(room);
+            return RoomCommands.OK;
+        });
+    }
+
+    void handleMove(WebSocket conn, MovePayload payload) {
+        Room room = server.roomManager.getRoomBySocket(conn);
+        if (room == null) {
+            server.sendError(conn, "Herhangi bir odada değilsin. create_room/join_room yap.");
+            return;
+        }
+
+        // basic validation (oda state'ine ihtiyaç yok, I/O thread'inde yapılabilir)
+        if (payload.step <= 0) {
+            server.sendError(conn, "step pozitif olmalı.");
+            return;
+        }
+
+        server.commands.submit(room, "move", () -> {
+            long start = System.nanoTime();
+            if (!room.hasStarted()) {
+                server.sendError(conn, "Oyun başlamadı. İkinci oyuncu bekleniyor.");
+                return RoomCommands.REJECTED;
+            }
+
+            TavlaGame game = room.getGame();
+            Player sender = room.getPlayerBySocket(conn);
+            if (sender == null) {
+                server.sendError(conn, "Odadaki oyuncu bulunamadı.");
+                return RoomCommands.REJECTED;
+            }
+
+            if (sender != game.getCurrentPlayer()) {
+                server.sendError(conn, "Sıra sende değil. Sıra: " + game.getCurrentPlayer());
+                return RoomCommands.REJECTED;
+            }
+
+            EngineCallEvent check = new EngineCallEvent();
+            check.begin();
+            String error = game.validateMove(payload.from, payload.to, payload.step);
+            check.finish("validateMove", room.getRoomId(), payload.from, payload.to, payload.step, error == null);
+            if (error != null) {
+                server.sendError(conn, error);
+                return RoomCommands.REJECTED;
+            }
+            long validated = System.nanoTime();
+            server.metrics.record("move", Stage.VALIDATE, validated - start);
+
+            try {
+                EngineCallEvent apply = new EngineCallEvent();
+                apply.begin();
+                game.applyMove(payload.from, payload.to, payload.step);
+                apply.finish("applyMove", room.getRoomId(), payload.from, payload.to, payload.step, true);
+
+                room.markJournaled(server.journal.move(room.getRoomId(), payload.from, payload.to, payload.step));
+                game.passIfBlocked();
+                room.touch();
+                server.metrics.record("move", Stage.APPLY, System.nanoTime() - validated);
+                server.broadcastState(room);
+                server.finishIfOver(room);
+                server.cube.continueMatch(room);
+                server.timers.updateTurnClock(room);
+                return RoomCommands.OK;
+            } catch (IllegalStateException e) {
+                server.sendError(conn, "Hamle uygulanamadı: " + e.getMessage());
+                return RoomCommands.REJECTED;
+            }
+        });
+    }
+
+    /**
+     * Turun tüm hamleleri tek mesajda: hepsi birlikte doğrulanır, tek seferde uygulanır ve
+     * tek bir state yayınlanır. Herhangi bir parça geçersizse tur hiç uygulanmaz.
+     */
+    void handlePlay(WebSocket conn, PlayPayload payload) {
+        Room room = server.roomManager.getRoomBySocket(conn);
+        if (room == null) {
+            server.sendError(conn, "Herhangi bir odada değilsin. create_room/join_room yap.");
+            return;
+        }
+
+        // basic validation (oda state'ine ihtiyaç yok, I/O thread'inde yapılabilir)
+        if (payload.moves == null || payload.moves.isEmpty() || payload.moves.size() > 4) {
+            server.sendError(conn, "moves 1-4 hamle içermeli.");
+            return;
+        }
+        List<Move> moves = new ArrayList<>(payload.moves.size());
+        for (MovePayload m : payload.moves) {
+            if (m == null || m.step <= 0) {
+                server.sendError(conn, "step pozitif olmalı.");
+                return;
+            }
+            moves.add(new Move(m.from, m.to, m.step));
+        }
+
+        server.commands.submit(room, "play", () -> {
+            long start = System.nanoTime();
+            if (!room.hasStarted()) {
+                server.sendError(conn, "Oyun başlamadı. İkinci oyuncu bekleniyor.");
+                return RoomCommands.REJECTED;
+            }
+
+            TavlaGame game = room.getGame();
+            Player sender = room.getPlayerBySocket(conn);
+            if (sender == null) {
+                server.sendError(conn, "Odadaki oyuncu bulunamadı.");
+                return RoomCommands.REJECTED;
+            }
+
+            if (sender != game.getCurrentPlayer()) {
+                server.sendError(conn, "Sıra sende değil. Sıra: " + game.getCurrentPlayer());
+                return RoomCommands.REJECTED;
+            }
+
+            Move first = moves.get(0);
+            EngineCallEvent check = new EngineCallEvent();
+            check.begin();
+            String error = game.validatePlay(moves);
+            check.finish("validatePlay", room.getRoomId(), first.getFromIndex(), first.getToIndex(), moves.size(),
+                    error == null);
+            if (error != null) {
+                server.sendError(conn, "Geçersiz tur: " + error);
+                return RoomCommands.REJECTED;
+            }
+            long validated = System.nanoTime();
+            server.metrics.record("play", Stage.VALIDATE, validated - start);
+
+            EngineCallEvent apply = new EngineCallEvent();
+            apply.begin();
+            game.applyValidatedPlay(moves);
+            apply.finish("applyPlay", room.getRoomId(), first.getFromIndex(), first.getToIndex(), moves.size(), true);
+
+            for (Move m : moves) {
+                room.markJournaled(server.journal.move(room.getRoomId(), m.getFromIndex(), m.getToIndex(), m.getStep()));
+            }
+            game.passIfBlocked();
+            room.touch();
+            server.metrics.record("play", Stage.APPLY, System.nanoTime() - validated);
+            server.broadcastState(room);
+            server.finishIfOver(room);
+            server.cube.continueMatch(room);
+            server.timers.updateTurnClock(room);
+            return RoomCommands.OK;
+        });
+    }
+}
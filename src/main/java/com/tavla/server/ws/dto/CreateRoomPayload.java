@@ -0,0 +1,5 @@
+package com.tavla.server.ws.dto;
+
+public class CreateRoomPayload {
+    public int matchLength; // 0 = para oyunu (tek oyun)
+}
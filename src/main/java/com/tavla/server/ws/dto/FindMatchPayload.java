@@ -0,0 +1,6 @@
+package com.tavla.server.ws.dto;
+
+public class FindMatchPayload {
+    public String playerId;    // opsiyonel, match_found'da geri döner
+    public int rating = 1500;  // verilmezse varsayılan rating
+}
@@ -0,0 +1,24 @@
+package com.tavla.server.ws.dto;
+
+import java.util.List;
+
+/**
+ * Botun karar sırası gelen oyuncuya önerisi: zar atıldıysa hamle dizisi, atılmadıysa ya da küp
+ * teklif edildiyse küp kararı (moves boş). equity oyuncu için küpsüz tahmin (-1..1); cubefulEquity
+ * küp ve skor hesaba katılmış değer: maçta maçı kazanma olasılığı, para oyununda puan.
+ */
+public class HintPayload {
+    public List<MovePayload> moves;
+    public double equity;
+    public boolean book; // açılış kitabından mı geldi
+    public String cube;  // "double"/"no_double"/"take"/"drop"; küp kararı yoksa null
+    public double cubefulEquity;
+
+    public HintPayload(List<MovePayload> moves, double equity, boolean book, String cube, double cubefulEquity) {
+        this.moves = moves;
+        this.equity = equity;
+        this.book = book;
+        this.cube = cube;
+        this.cubefulEquity = cubefulEquity;
+    }
+}
@@ -0,0 +1,7 @@
+package com.tavla.server.ws.dto;
+
+/** GNU BG position ID (14 karakter) ve opsiyonel match ID (12 karakter; sıra ve zar buradan alınır). */
+public class ImportPositionPayload {
+    public String positionId;
+    public String matchId;
+}
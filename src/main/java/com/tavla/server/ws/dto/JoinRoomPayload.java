@@ -2,4 +2,5 @@ package com.tavla.server.ws.dto;
 
 public class JoinRoomPayload {
     public String roomId;
+    public int hops; // cluster yönlendirme sayısı (redirect döngüsünü engellemek için)
 }
@@ -0,0 +1,6 @@
+package com.tavla.server.ws.dto;
+
+/** Sıralamanın ilk limit oyuncusunu isteme. */
+public class LeaderboardPayload {
+    public int limit = 10;
+}
@@ -0,0 +1,8 @@
+package com.tavla.server.ws.dto;
+
+import java.util.List;
+
+/** Bir turun tüm hamleleri, oynanma sırasıyla (en fazla 4). */
+public class PlayPayload {
+    public List<MovePayload> moves;
+}
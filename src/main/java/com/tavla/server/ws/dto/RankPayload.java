@@ -0,0 +1,7 @@
+package com.tavla.server.ws.dto;
+
+/** Bir oyuncunun sırasını ve üstündeki/altındaki around oyuncuyu isteme. */
+public class RankPayload {
+    public String playerId;
+    public int around = 5;
+}
@@ -0,0 +1,26 @@
+package com.tavla.server.ws.dto;
+
+import com.tavla.server.rating.Leaderboard;
+
+/** Sıralamadaki bir oyuncu: sıra, gösterilen rating ve belirsizliği (RD), oyun/galibiyet sayısı. */
+public class RankedPlayerPayload {
+    public int rank;
+    public String playerId;
+    public int rating;
+    public int rd;
+    public int games;
+    public int wins;
+
+    public RankedPlayerPayload(int rank, Leaderboard.Entry entry) {
+        this.rank = rank;
+        this.playerId = entry.playerId;
+        this.rating = entry.displayRating();
+        this.rd = (int) Math.round(entry.rating.rd);
+        this.games = entry.games;
+        this.wins = entry.wins;
+    }
+
+    public static RankedPlayerPayload of(Leaderboard.Ranked ranked) {
+        return new RankedPlayerPayload(ranked.rank, ranked.entry);
+    }
+}
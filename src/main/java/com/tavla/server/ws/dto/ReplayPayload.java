@@ -0,0 +1,8 @@
+package com.tavla.server.ws.dto;
+
+/** Arşivdeki bir oyunu izleme isteği. */
+public class ReplayPayload {
+    public long gameId;
+    public int step;   // başlanacak adım (0 = başlangıç pozisyonu)
+    public int speed;  // saniyede adım; 0 ise sadece istenen adım gönderilir (seek)
+}
@@ -0,0 +1,16 @@
+package com.tavla.server.ws.dto;
+
+/** İzlenen oyunun tek bir adımı. */
+public class ReplayStatePayload {
+    public long gameId;
+    public int step;
+    public int steps;          // toplam adım sayısı (son adım steps - 1)
+    public StatePayload state;
+
+    public ReplayStatePayload(long gameId, int step, int steps, StatePayload state) {
+        this.gameId = gameId;
+        this.step = step;
+        this.steps = steps;
+        this.state = state;
+    }
+}
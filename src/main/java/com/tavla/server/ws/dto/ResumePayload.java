@@ -0,0 +1,6 @@
+package com.tavla.server.ws.dto;
+
+public class ResumePayload {
+    public String token; // room_created / room_joined ile verilen session token
+    public int hops;     // cluster yönlendirme sayısı
+}
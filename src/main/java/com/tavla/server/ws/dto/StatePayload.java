@@ -6,6 +6,12 @@ public class StatePayload {
     public boolean gameOver;
     public String currentPlayer;
     public String winner; // null olabilir
+    public String result; // "single"/"gammon"/"backgammon", oyun bitmediyse null
+    public int resultPoints; // kazananın aldığı puan (küp × sonuç), bitmediyse 0
+    public String playerToAct; // küp teklif edildiyse cevap verecek rakip, değilse currentPlayer
+
+    public CubeDto cube;
+    public MatchDto match; // para oyununda null
 
     public DiceDto dice;
     public BoardDto board;
@@ -17,6 +23,22 @@ public class StatePayload {
         public List<Integer> remainingSteps;
     }
 
+    public static class CubeDto {
+        public int value;
+        public String owner; // ortadaysa null
+        public boolean offered;
+    }
+
+    /** Oyun sürerken oyundan önceki skor, oyun bittiyse sonucu eklenmiş skor. */
+    public static class MatchDto {
+        public int length;
+        public int whiteScore;
+        public int blackScore;
+        public boolean crawford; // bu (ya da oyun bittiyse sıradaki) oyun Crawford oyunu
+        public boolean over;
+        public String winner; // maç bitmediyse null
+    }
+
     public static class BoardDto {
         public int whiteBar;
         public int blackBar;
@@ -2,6 +2,10 @@ package com.tavla.core;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -200,4 +204,225 @@ public class GameLogicTest {
 
         assertEquals(1, board.getWhiteBornOff());
     }
+
+    @Test
+    void legalMoves_startingPosition_matchesIsMoveLegal() {
+        GameState state = new GameState();
+        GameLogic logic = new GameLogic();
+        state.getDice().setRemainingStepsForTest(6, 1);
+
+        // WHITE 6: 23->17, 12->6, 7->1 (5->... tahta dışı, toplama yok); 1: 23->22, 7->6, 5->4
+        assertEquals(6, logic.legalMoves(state).size());
+        for (Move m : logic.legalMoves(state)) {
+            assertTrue(logic.isMoveLegal(state, m), "listelenen hamle geçerli olmalı: " + m);
+        }
+    }
+
+    @Test
+    void passIfBlocked_barEntryClosed_passesTurn() {
+        TavlaGame game = new TavlaGame();
+        GameState state = game.getInternalState();
+
+        // BLACK WHITE'ın giriş noktalarını (18..23) kapatmış, WHITE'ın bar'da taşı var
+        int[] counts = new int[24];
+        for (int i = 18; i < 24; i++) {
+            counts[i] = -2;
+        }
+        counts[5] = 14;
+        state.getBoard().setPosition(counts, 1, 0, 0, 3);
+        game.applyRoll(3, 4);
+
+        assertTrue(game.getLegalMoves().isEmpty());
+        assertTrue(game.passIfBlocked(), "oynanacak hamle yoksa tur geçmeli");
+        assertEquals(Player.BLACK, game.getCurrentPlayer());
+        assertFalse(state.getDice().isRolled());
+
+        // Zar atılmamışken pas yok
+        assertFalse(game.passIfBlocked());
+    }
+
+    @Test
+    void applyPlay_fullTurn_appliedAtomically() {
+        TavlaGame game = new TavlaGame();
+        game.applyRoll(6, 1);
+
+        // Eksik tur reddedilir, tahta değişmez
+        assertNotNull(game.applyPlay(List.of(new Move(12, 6, 6))));
+        // İkinci hamle geçersizse ilki de uygulanmaz
+        assertNotNull(game.applyPlay(List.of(new Move(12, 6, 6), new Move(6, 4, 1))));
+        assertEquals(5, game.getInternalState().getBoard().getPoint(12).getCount());
+        assertEquals(5, game.getInternalState().getBoard().getPoint(5).getCount());
+
+        assertNull(game.applyPlay(List.of(new Move(12, 6, 6), new Move(7, 6, 1))));
+        assertEquals(2, game.getInternalState().getBoard().getPoint(6).getCount());
+        assertEquals(Player.BLACK, game.getCurrentPlayer());
+    }
+
+    @Test
+    void validatePlay_onlyOneDiePlayable_requiresLarger() {
+        GameState state = new GameState();
+        GameLogic logic = new GameLogic();
+
+        // WHITE: 10 ve 20'de birer taş (20 kilitli), 13 taş toplanmış; 10'dan 6 da 5 de oynanabilir
+        // ama hangisi oynanırsa oynansın ikinci zar oynanamaz
+        int[] counts = new int[24];
+        counts[10] = 1;
+        counts[20] = 1;
+        counts[15] = -2;
+        counts[14] = -2;
+        counts[23] = -11;
+        state.getBoard().setPosition(counts, 0, 0, 13, 0);
+        state.getDice().setRemainingStepsForTest(6, 5);
+
+        assertEquals(1, logic.maxPlayableSteps(state));
+        assertNotNull(logic.validatePlay(state, List.of(new Move(10, 5, 5))), "büyük zar oynanmalı");
+        assertNull(logic.validatePlay(state, List.of(new Move(10, 4, 6))));
+    }
+
+    @Test
+    void validateMove_onlyOneDiePlayable_requiresLarger() {
+        GameState state = new GameState();
+        GameLogic logic = new GameLogic();
+
+        // validatePlay_onlyOneDiePlayable_requiresLarger ile aynı pozisyon, tek tek hamleyle
+        int[] counts = new int[24];
+        counts[10] = 1;
+        counts[20] = 1;
+        counts[15] = -2;
+        counts[14] = -2;
+        counts[23] = -11;
+        state.getBoard().setPosition(counts, 0, 0, 13, 0);
+        state.getDice().setRemainingStepsForTest(6, 5);
+
+        assertNotNull(logic.validateMove(state, new Move(10, 5, 5)), "büyük zar oynanmalı");
+        assertNull(logic.validateMove(state, new Move(10, 4, 6)));
+    }
+
+    @Test
+    void validateMove_rejectsAMoveThatBlocksTheOtherDie() {
+        GameLogic logic = new GameLogic();
+
+        // BLACK 6-1: 0'daki taş 1 ile 1'e giderse 7 blok, 6 oynanamaz; 6 ile 6'ya gidip 1'i 22'den oynar
+        int[] counts = new int[24];
+        counts[0] = -1;
+        counts[22] = -1;
+        counts[23] = -13;
+        for (int i : new int[] {2, 3, 4, 5, 7, 8, 9}) {
+            counts[i] = 2;
+        }
+        counts[12] = 1;
+        GameState state = blackToPlay(counts, 0, 6, 1);
+
+        assertEquals(2, logic.maxPlayableSteps(state));
+        assertNotNull(logic.validatePlay(state, List.of(new Move(0, 1, 1))));
+        assertNotNull(logic.validateMove(state, new Move(0, 1, 1)));
+        assertNull(logic.validatePlay(state, List.of(new Move(0, 6, 6), new Move(22, 23, 1))));
+        assertNull(logic.validateMove(state, new Move(0, 6, 6)));
+    }
+
+    @Test
+    void validateMove_agreesWithValidatePlayOnRandomGames() {
+        GameLogic logic = new GameLogic();
+        Random random = new Random(38);
+        int[] checkedMoves = {0};
+
+        for (int game = 0; game < 20; game++) {
+            RandomGames.turnByTurn(random, null, 200, (g, rnd) -> {
+                // Turun her ara pozisyonunda: tek hamle kabulü == o hamleyle başlayan geçerli bir play var
+                GameState state = g.getInternalState().copy();
+                List<Move> play = new ArrayList<>();
+                while (!state.getDice().getRemainingSteps().isEmpty() && !state.isGameOver()) {
+                    List<Move> accepted = new ArrayList<>();
+                    for (Move move : logic.legalMoves(state)) {
+                        boolean completes = completes(logic, state, new ArrayList<>(List.of(move)));
+                        assertEquals(completes, logic.validateMove(state, move) == null, state + " " + move);
+                        checkedMoves[0]++;
+                        if (completes) {
+                            accepted.add(move);
+                        }
+                    }
+                    if (accepted.isEmpty()) {
+                        break;
+                    }
+                    Move next = accepted.get(rnd.nextInt(accepted.size()));
+                    logic.applyMove(state, next);
+                    play.add(next);
+                }
+                return play;
+            });
+        }
+        assertTrue(checkedMoves[0] > 1000, "yeterli hamle denenmeli: " + checkedMoves[0]);
+    }
+
+    /** prefix ile başlayıp validatePlay'in kabul ettiği bir tam dizi var mı? */
+    private static boolean completes(GameLogic logic, GameState state, List<Move> prefix) {
+        if (logic.validatePlay(state, prefix) == null) {
+            return true;
+        }
+        GameState trial = state.copy();
+        for (Move move : prefix) {
+            if (trial.isGameOver() || trial.getCurrentPlayer() != state.getCurrentPlayer()
+                    || !logic.isMoveLegal(trial, move)) {
+                return false;
+            }
+            logic.applyMove(trial, move);
+        }
+        if (trial.isGameOver() || trial.getCurrentPlayer() != state.getCurrentPlayer()) {
+            return false;
+        }
+        for (Move move : logic.legalMoves(trial)) {
+            prefix.add(move);
+            boolean found = completes(logic, state, prefix);
+            prefix.remove(prefix.size() - 1);
+            if (found) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    void legalPlays_bearingOffTheSameCheckerWithEitherDie_keepsBothContinuations() {
+        GameLogic logic = new GameLogic();
+
+        // BLACK 21'deki taşı 4 de 5 de toplar (aynı tahta); tek zar oynanabiliyorsa 5 oynanmalı
+        int[] counts = new int[24];
+        counts[0] = 2;
+        counts[1] = 2;
+        counts[2] = 3;
+        counts[10] = 2;
+        counts[15] = 1;
+        counts[17] = 3;
+        counts[22] = 2;
+        counts[21] = -1;
+        counts[23] = -3;
+        assertEveryPlayValid(logic, blackToPlay(counts, 11, 4, 5));
+
+        // 6-4: 21'i 6 ile toplamak 4'ü, 4 ile toplamak 6'yı bırakır; iki devam da aranmalı
+        counts = new int[24];
+        counts[0] = 2;
+        counts[1] = 6;
+        counts[2] = 3;
+        counts[3] = 1;
+        counts[23] = 3;
+        counts[21] = -1;
+        counts[22] = -12;
+        assertEveryPlayValid(logic, blackToPlay(counts, 2, 6, 4));
+    }
+
+    private static GameState blackToPlay(int[] counts, int blackOff, int die1, int die2) {
+        GameState state = new GameState();
+        state.getBoard().setPosition(counts, 0, 0, 0, blackOff);
+        state.switchTurn();
+        state.getDice().roll(die1, die2);
+        return state;
+    }
+
+    private static void assertEveryPlayValid(GameLogic logic, GameState state) {
+        List<List<Move>> plays = logic.legalPlays(state);
+        assertFalse(plays.isEmpty());
+        for (List<Move> play : plays) {
+            assertNull(logic.validatePlay(state, play), play.toString());
+        }
+    }
 }
@@ -0,0 +1,59 @@
+package com.tavla.core;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Değişmez GameSnapshot testleri.
+ */
+public class GameSnapshotTest {
+
+    @Test
+    void snapshot_matchesState_andIgnoresLaterChanges() {
+        TavlaGame game = new TavlaGame();
+        game.applyRoll(6, 5);
+        game.applyMove(23, 17, 6);
+
+        GameSnapshot snap = GameSnapshot.of(game.getInternalState());
+        assertEquals(1, snap.getCount(23));
+        assertEquals(1, snap.getCount(17));
+        assertEquals(-5, snap.getCount(18));
+        assertEquals(Player.BLACK, snap.getOwner(0));
+        assertNull(snap.getOwner(1));
+        assertEquals(6, snap.getDie1());
+        assertEquals(5, snap.getDie2());
+        assertArrayEquals(new int[]{5}, snap.getRemainingSteps());
+        assertTrue(snap.isRolled());
+        assertEquals(Player.WHITE, snap.getCurrentPlayer());
+        assertFalse(snap.isGameOver());
+        assertNull(snap.getWinner());
+
+        // Oyun ilerler, yayınlanmış kopya değişmez
+        game.applyMove(12, 7, 5);
+        assertEquals(5, snap.getCount(12));
+        assertEquals(Player.WHITE, snap.getCurrentPlayer());
+
+        game.forfeit(Player.BLACK);
+        GameSnapshot over = GameSnapshot.of(game.getInternalState());
+        assertTrue(over.isGameOver());
+        assertEquals(Player.WHITE, over.getWinner());
+        assertEquals(Player.BLACK, over.getCurrentPlayer());
+        assertFalse(over.isRolled());
+    }
+
+    @Test
+    void toGameState_isIndependentCopy() {
+        TavlaGame game = new TavlaGame();
+        game.applyRoll(3, 3);
+        GameSnapshot snap = GameSnapshot.of(game.getInternalState());
+
+        GameState copy = snap.toGameState();
+        new GameLogic().applyMove(copy, new Move(12, 9, 3));
+
+        assertEquals(5, snap.getCount(12));
+        assertEquals(5, game.getInternalState().getBoard().getPoint(12).getCount());
+        assertEquals(4, copy.getBoard().getPoint(12).getCount());
+        assertEquals(3, copy.getDice().getRemainingSteps().size());
+    }
+}
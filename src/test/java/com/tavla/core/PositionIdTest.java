@@ -0,0 +1,117 @@
+package com.tavla.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * GNU BG uyumlu position ID / match ID testleri.
+ */
+public class PositionIdTest {
+
+    @Test
+    void startingPosition_matchesGnuBg() {
+        assertEquals(PositionId.START, PositionId.encode(new GameState()));
+
+        GameState black = new GameState();
+        black.switchTurn();
+        assertEquals(PositionId.START, PositionId.encode(black));
+        assertEquals(PositionId.START_KEY, PositionId.key(black));
+    }
+
+    @Test
+    void randomGames_roundTripThroughIdAndBinary() {
+        Random random = new Random(42);
+        ByteBuffer buf = ByteBuffer.allocate(PositionId.KEY_BYTES);
+
+        for (int game = 0; game < 200; game++) {
+            RandomGames.moveByMove(random, null, g -> assertRoundTrip(g.getInternalState(), buf));
+        }
+    }
+
+    private static void assertRoundTrip(GameState state, ByteBuffer buf) {
+        String id = PositionId.encode(state);
+        PositionId.Key key = PositionId.parse(id);
+        assertEquals(PositionId.key(state), key, id);
+        assertEquals(id, key.toString());
+
+        buf.clear();
+        key.writeTo(buf);
+        buf.flip();
+        assertEquals(key, PositionId.Key.read(buf));
+
+        GameState decoded = PositionId.toGameState(key, state.getCurrentPlayer(), 0, 0);
+        for (int i = 0; i < 24; i++) {
+            Point expected = state.getBoard().getPoint(i);
+            Point actual = decoded.getBoard().getPoint(i);
+            assertEquals(expected.getCount(), actual.getCount(), id + " nokta " + i);
+            if (!expected.isEmpty()) {
+                assertEquals(expected.getOwner(), actual.getOwner(), id + " nokta " + i);
+            }
+        }
+        Board b = decoded.getBoard();
+        assertEquals(state.getBoard().getWhiteBar(), b.getWhiteBar());
+        assertEquals(state.getBoard().getBlackBar(), b.getBlackBar());
+        assertEquals(state.getBoard().getWhiteBornOff(), b.getWhiteBornOff());
+        assertEquals(state.getBoard().getBlackBornOff(), b.getBlackBornOff());
+        assertEquals(state.isGameOver(), decoded.isGameOver());
+    }
+
+    @Test
+    void invalidIds_areRejected() {
+        assertThrows(IllegalArgumentException.class, () -> PositionId.parse("4HPwATDgc/ABM"));
+        assertThrows(IllegalArgumentException.class, () -> PositionId.parse("4HPwATDgc/AB*A"));
+        // 80 bitin hepsi 1: 15'ten fazla taş
+        assertThrows(IllegalArgumentException.class,
+                () -> PositionId.decode("/////////////w", null));
+    }
+
+    @Test
+    void matchId_roundTripsAllFields() {
+        MatchId id = new MatchId(3, Player.BLACK, Player.WHITE, true, MatchId.PLAYING, Player.WHITE,
+                false, 2, 6, 1, 7, 4, 6);
+        MatchId parsed = MatchId.parse(id.encode());
+        assertEquals(12, id.encode().length());
+        assertEquals(8, parsed.getCubeValue());
+        assertEquals(Player.BLACK, parsed.cubeOwner);
+        assertEquals(Player.WHITE, parsed.diceOwner);
+        assertTrue(parsed.crawford);
+        assertEquals(MatchId.PLAYING, parsed.gameState);
+        assertEquals(Player.WHITE, parsed.turn);
+        assertFalse(parsed.doubleOffered);
+        assertEquals(2, parsed.resignation);
+        assertEquals(6, parsed.die1);
+        assertEquals(1, parsed.die2);
+        assertEquals(7, parsed.matchLength);
+        assertEquals(4, parsed.whiteScore);
+        assertEquals(6, parsed.blackScore);
+
+        // Yüksek skor bitleri 64. bitten taşar
+        MatchId high = new MatchId(0, null, Player.BLACK, false, MatchId.OVER, Player.BLACK,
+                false, 0, 0, 0, 0, 0, 0x7fff);
+        assertEquals(0x7fff, MatchId.parse(high.encode()).blackScore);
+        assertNull(MatchId.parse(high.encode()).cubeOwner);
+    }
+
+    @Test
+    void decode_appliesTurnAndDiceFromMatchId() {
+        GameState source = new GameState();
+        source.switchTurn();
+        source.getDice().roll(5, 2);
+        MatchId match = MatchId.of(source);
+        MatchId unrolled = MatchId.parse("cAkAAAAAAAAA"); // GNU BG: para oyunu, sıra oyuncu 1'de
+        assertEquals(Player.BLACK, unrolled.turn);
+        assertEquals(0, unrolled.die1);
+        assertEquals(MatchId.PLAYING, unrolled.gameState);
+        assertEquals("cAkAAAAAAAAA", unrolled.encode());
+
+        GameState decoded = PositionId.decode(PositionId.encode(source), MatchId.parse(match.encode()));
+        assertEquals(Player.BLACK, decoded.getCurrentPlayer());
+        assertEquals(List.of(5, 2), decoded.getDice().getRemainingSteps());
+        assertEquals(PositionId.key(source), PositionId.key(decoded));
+    }
+}
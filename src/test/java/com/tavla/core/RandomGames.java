@@ -0,0 +1,69 @@
+package com.tavla.core;
+
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+/**
+ * Testler için rastgele zarlarla oyun oynatır: ya tek tek rastgele yasal hamlelerle
+ * (moveByMove) ya da her turu seçilen tam diziyle (turnByTurn). Aynı seed aynı oyunu verir.
+ */
+public final class RandomGames {
+
+    /** Sırası gelen oyuncunun bu turda oynayacağı tam dizi (applyPlay'e uygun olmalı). */
+    public interface Chooser {
+        List<Move> choose(TavlaGame game, Random random);
+    }
+
+    private RandomGames() {}
+
+    /** Kaydı tutulan, sonuna kadar tek tek rastgele hamlelerle oynanmış oyun. */
+    public static TavlaGame finished(Random random, String white, String black, long startedAt) {
+        return moveByMove(random, new GameRecorder(startedAt, white, black), game -> { });
+    }
+
+    /**
+     * Oyunu sonuna kadar oynatır: zar boşsa rastgele zar, değilse rastgele yasal bir hamle;
+     * oynanamayan tur pas geçilir. onStep başta ve her adımdan (zar ya da hamle, pas dahil) sonra
+     * çağrılır.
+     * @param recorder null ise kayıt tutulmaz
+     */
+    public static TavlaGame moveByMove(Random random, GameRecorder recorder, Consumer<TavlaGame> onStep) {
+        TavlaGame game = new TavlaGame(new GameState(), recorder);
+        onStep.accept(game);
+        while (!game.isGameOver()) {
+            if (game.getRemainingSteps().isEmpty()) {
+                game.applyRoll(random.nextInt(6) + 1, random.nextInt(6) + 1);
+            } else {
+                List<Move> moves = game.getLegalMoves();
+                Move m = moves.get(random.nextInt(moves.size()));
+                game.applyMove(m.getFromIndex(), m.getToIndex(), m.getStep());
+            }
+            game.passIfBlocked();
+            onStep.accept(game);
+        }
+        return game;
+    }
+
+    /**
+     * En fazla maxTurns tur oynatır (oyun daha önce biterse durur): her turda rastgele zar,
+     * oynanabiliyorsa chooser'ın dizisi tek seferde uygulanır.
+     * @param recorder null ise kayıt tutulmaz
+     */
+    public static TavlaGame turnByTurn(Random random, GameRecorder recorder, int maxTurns, Chooser chooser) {
+        TavlaGame game = new TavlaGame(new GameState(), recorder);
+        for (int turn = 0; turn < maxTurns && !game.isGameOver(); turn++) {
+            game.applyRoll(random.nextInt(6) + 1, random.nextInt(6) + 1);
+            if (game.passIfBlocked()) {
+                continue;
+            }
+            List<Move> play = chooser.choose(game, random);
+            String error = game.applyPlay(play);
+            if (error != null) {
+                throw new IllegalStateException(error + ": " + play);
+            }
+            game.passIfBlocked();
+        }
+        return game;
+    }
+}
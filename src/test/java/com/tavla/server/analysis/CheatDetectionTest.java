@@ -0,0 +1,147 @@
+package com.tavla.server.analysis;
+
+import com.tavla.core.GameRecorder;
+import com.tavla.core.Move;
+import com.tavla.core.Player;
+import com.tavla.core.RandomGames;
+import com.tavla.core.TavlaGame;
+import com.tavla.server.archive.GameArchive;
+import com.tavla.server.archive.GameRecord;
+import com.tavla.server.bot.BotPlayer;
+import com.tavla.server.bot.PositionEvaluator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Arşivdeki kararları motorla karşılaştıran analiz işinin testleri.
+ */
+public class CheatDetectionTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+    private static final BotPlayer BOT = new BotPlayer(null);
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Oyuncu adı stratejiyi belirler: "bot" hep motorun seçimini oynar, "good" çoğunlukla,
+     * diğerleri rastgele yasal bir dizi oynar.
+     */
+    private static List<Move> choose(String player, TavlaGame game, Random random) {
+        double engineShare = "bot".equals(player) ? 1.0 : "good".equals(player) ? 0.6 : 0.0;
+        if (random.nextDouble() < engineShare) {
+            return BOT.choose(game.getInternalState()).moves;
+        }
+        List<List<Move>> plays = game.getLegalPlays();
+        return plays.get(random.nextInt(plays.size()));
+    }
+
+    private static TavlaGame play(Random random, String white, String black, long startedAt) {
+        return RandomGames.turnByTurn(random, new GameRecorder(startedAt, white, black), 2000,
+                (game, rnd) -> choose(game.getCurrentPlayer() == Player.WHITE ? white : black, game, rnd));
+    }
+
+    /** bot her oyunda oynar; rakipleri sırayla good, h1, h2. */
+    private GameArchive archive(int games) {
+        GameArchive archive = GameArchive.open(dir.resolve("archive"));
+        Random random = new Random(11);
+        String[] opponents = {"good", "h1", "h2"};
+        for (int i = 0; i < games; i++) {
+            String opponent = opponents[i % opponents.length];
+            boolean botWhite = i % 2 == 0;
+            TavlaGame game = play(random, botWhite ? "bot" : opponent, botWhite ? opponent : "bot", T0 + i);
+            archive.append(GameRecord.of("r" + i, game, T0 + i + 1000));
+        }
+        // Kimliksiz oyun: analize girmemeli
+        archive.append(GameRecord.of("anon", play(random, null, null, T0), T0 + 1000));
+        archive.flush();
+        return archive;
+    }
+
+    @Test
+    void analyzer_scoresTheEnginesOwnChoicesAsBest_andRandomPlayAsErrors() {
+        GameArchive archive = archive(6);
+        try {
+            DecisionAnalyzer analyzer = new DecisionAnalyzer(PositionEvaluator::evaluate);
+            Map<String, PlayerStats> stats = new HashMap<>();
+            for (long id = 1; id <= archive.getGameCount(); id++) {
+                analyzer.analyze(archive.get(id), stats);
+            }
+            assertEquals(4, stats.size());
+
+            PlayerStats bot = stats.get("bot");
+            assertEquals(6, bot.getGames());
+            assertTrue(bot.getDecisions() > 50);
+            assertEquals(bot.getDecisions(), bot.best);
+            assertEquals(0, bot.getErrors());
+            assertEquals(0, bot.getUnmatched());
+            assertEquals(0.0, bot.meanLoss(), 1e-12);
+
+            PlayerStats random = stats.get("h1");
+            assertTrue(random.errorRate() > 0.3, "rastgele oyuncu hata oranı " + random.errorRate());
+            assertTrue(random.getBlunders() > 0);
+
+            // İkinci geçiş tüm kararları önbellekten almalı ve aynı sonucu vermeli
+            long misses = analyzer.getDecisionMisses();
+            long evaluated = analyzer.getEvaluated();
+            Map<String, PlayerStats> again = new HashMap<>();
+            for (long id = 1; id <= archive.getGameCount(); id++) {
+                analyzer.analyze(archive.get(id), again);
+            }
+            assertEquals(misses, analyzer.getDecisionMisses());
+            assertEquals(evaluated, analyzer.getEvaluated());
+            assertEquals(random.getErrors(), again.get("h1").getErrors());
+            assertEquals(random.totalLoss, again.get("h1").totalLoss, 1e-12);
+        } finally {
+            archive.close();
+        }
+    }
+
+    @Test
+    void job_flagsTheEngineOnlyAccount_andResumesFromItsCheckpoint() throws Exception {
+        GameArchive archive = archive(24);
+        try {
+            CheatDetection.Result oneShot = new CheatDetection(archive, null, 1, 5, PositionEvaluator::evaluate).run();
+            assertEquals(25, oneShot.gamesTotal);
+            assertEquals(0, oneShot.gamesPending);
+            assertEquals(0, oneShot.skippedGames);
+            assertEquals(List.of("bot"), oneShot.flagged().stream().map(v -> v.stats.playerId).toList());
+            assertFalse(oneShot.get("good").flagged);
+            assertFalse(oneShot.get("h1").flagged);
+
+            // Kesilen iş: iki parça işlenip checkpoint'e yazılır, ikinci çalıştırma kalanı bitirir
+            Path checkpoint = dir.resolve("job.ckpt");
+            CheatDetection.Result partial =
+                    new CheatDetection(archive, checkpoint, 2, 5, PositionEvaluator::evaluate).run(2);
+            assertEquals(15, partial.gamesPending);
+            assertTrue(Files.exists(checkpoint));
+
+            CheatDetection.Result resumed =
+                    new CheatDetection(archive, checkpoint, 4, 5, PositionEvaluator::evaluate).run();
+            assertEquals(0, resumed.gamesPending);
+            assertTrue(resumed.decisions < oneShot.decisions, "bitmiş parçalar tekrar analiz edilmemeli");
+            for (CheatDetection.Verdict expected : oneShot.players) {
+                CheatDetection.Verdict actual = resumed.get(expected.stats.playerId);
+                assertEquals(expected.stats.getGames(), actual.stats.getGames());
+                assertEquals(expected.stats.getDecisions(), actual.stats.getDecisions());
+                assertEquals(expected.stats.getErrors(), actual.stats.getErrors());
+                assertEquals(expected.flagged, actual.flagged);
+            }
+
+            // Parça boyutu farklı bir checkpoint kabul edilmez
+            assertThrows(IllegalStateException.class,
+                    () -> new CheatDetection(archive, checkpoint, 1, 7, PositionEvaluator::evaluate).run());
+        } finally {
+            archive.close();
+        }
+    }
+}
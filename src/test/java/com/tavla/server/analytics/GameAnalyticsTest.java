@@ -0,0 +1,124 @@
+package com.tavla.server.analytics;
+
+import com.tavla.core.GameState;
+import com.tavla.core.Player;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Zaman dilimli analitik toplamlarının testleri (zaman dışarıdan verilir).
+ */
+public class GameAnalyticsTest {
+
+    private static final long MINUTE = 60_000;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long T0 = 1_700_000_000_000L / HOUR * HOUR; // saat başı
+
+    private static GameSummary game(long endedAt, Player firstMover, Player winner, int kind) {
+        return new GameSummary(endedAt, 120_000, 40, firstMover, winner, kind, false);
+    }
+
+    @Test
+    void windows_sumTheirMinutes_andDropOldOnes() {
+        GameAnalytics analytics = new GameAnalytics(T0);
+        // 0. dakikada 4 oyun: 3'ünü ilk oynayan kazanır, biri gammon, biri backgammon
+        for (int i = 0; i < 4; i++) {
+            analytics.gameStarted(T0 + i);
+        }
+        analytics.gameFinished(game(T0 + 10, Player.WHITE, Player.WHITE, GameState.RESULT_SINGLE));
+        analytics.gameFinished(game(T0 + 20, Player.WHITE, Player.WHITE, GameState.RESULT_GAMMON));
+        analytics.gameFinished(game(T0 + 30, Player.BLACK, Player.BLACK, GameState.RESULT_BACKGAMMON));
+        analytics.gameFinished(game(T0 + 40, Player.WHITE, Player.BLACK, GameState.RESULT_SINGLE));
+        analytics.disconnected(T0 + 50);
+        // 10. dakikada 1 oyun
+        analytics.gameStarted(T0 + 10 * MINUTE);
+        analytics.abandoned(T0 + 10 * MINUTE + 5);
+
+        long now = T0 + 10 * MINUTE + 30_000; // 10.5 dakika sonra
+        GameAnalytics.Window last = analytics.window(now, 1);
+        assertEquals(1, last.gamesStarted);
+        assertEquals(0, last.gamesFinished);
+        assertEquals(1.0, last.abandonRate);
+
+        GameAnalytics.Window quarter = analytics.window(now, 15);
+        assertEquals(5, quarter.gamesStarted);
+        assertEquals(4, quarter.gamesFinished);
+        assertEquals(10.5, quarter.minutes, 1e-9); // açılıştan önceye uzanmaz
+        assertEquals(4 / 10.5, quarter.gamesPerMinute, 1e-9);
+        assertEquals(120.0, quarter.avgDurationSeconds, 1e-9);
+        assertEquals(40.0, quarter.avgTurns, 1e-9);
+        assertEquals(0.75, quarter.firstMoverWinRate, 1e-9);
+        assertEquals(0.5, quarter.gammonRate, 1e-9);
+        assertEquals(0.25, quarter.backgammonRate, 1e-9);
+        assertEquals(0.2, quarter.disconnectsPerGame, 1e-9);
+
+        // Bir saat sonra dakika halkası o oyunları unutmuş olmalı; toplamlar kalır
+        long later = T0 + 2 * HOUR;
+        assertEquals(0, analytics.window(later, GameAnalytics.MINUTES).gamesFinished);
+        assertEquals(0, analytics.window(later, GameAnalytics.MINUTES).gamesPerMinute);
+        GameAnalytics.Window total = analytics.total(later);
+        assertEquals(4, total.gamesFinished);
+        assertEquals(5, total.gamesStarted);
+        assertEquals(120.0, total.minutes, 1e-9);
+    }
+
+    @Test
+    void minuteSlot_isReusedForANewerMinute() {
+        GameAnalytics analytics = new GameAnalytics(T0);
+        analytics.gameStarted(T0);
+        // 60 dakika sonra aynı yuvaya düşer; eski sayaçlar yeni dakikaya taşınmamalı
+        analytics.gameStarted(T0 + 60 * MINUTE);
+        assertEquals(1, analytics.window(T0 + 60 * MINUTE, 1).gamesStarted);
+        assertEquals(1, analytics.window(T0 + 60 * MINUTE, GameAnalytics.MINUTES).gamesStarted);
+    }
+
+    @Test
+    void concurrency_isReportedPerHour() {
+        GameAnalytics analytics = new GameAnalytics(T0);
+        analytics.sampleConcurrency(T0, 10);
+        analytics.sampleConcurrency(T0 + MINUTE, 30);
+        analytics.sampleConcurrency(T0 + 3 * HOUR, 7);
+
+        GameAnalytics.Report report = analytics.report(T0 + 3 * HOUR + MINUTE);
+        assertEquals(4, report.windows.size());
+        assertEquals(2, report.concurrency.size());
+        GameAnalytics.Hour first = report.concurrency.get(0);
+        assertEquals(T0, first.hourStart);
+        assertEquals(30, first.peak);
+        assertEquals(20.0, first.average, 1e-9);
+        assertEquals(T0 + 3 * HOUR, report.concurrency.get(1).hourStart);
+        assertEquals(7, report.concurrency.get(1).peak);
+
+        // 24 saatten eski saatler rapordan düşer
+        assertTrue(analytics.report(T0 + 30 * HOUR).concurrency.isEmpty());
+    }
+
+    @Test
+    void concurrentWriters_areAllCounted_acrossMinuteRollover() throws Exception {
+        GameAnalytics analytics = new GameAnalytics(T0);
+        int threads = 4;
+        int perThread = 50_000;
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    // Dakika sınırını geçen olaylar: yuva değişimi sırasında da sayım kaybolmamalı
+                    long at = T0 + (long) i * 2 * MINUTE / perThread;
+                    analytics.gameStarted(at);
+                    analytics.gameFinished(game(at, Player.WHITE, Player.WHITE, GameState.RESULT_SINGLE));
+                }
+            }));
+        }
+        for (Thread w : workers) {
+            w.join();
+        }
+        assertEquals((long) threads * perThread, analytics.total(T0 + 2 * MINUTE).gamesFinished);
+        GameAnalytics.Window window = analytics.window(T0 + 2 * MINUTE - 1, 2);
+        assertEquals((long) threads * perThread, window.gamesStarted);
+        assertEquals((long) threads * perThread, window.gamesFinished);
+    }
+}
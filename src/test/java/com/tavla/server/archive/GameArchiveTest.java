@@ -0,0 +1,172 @@
+package com.tavla.server.archive;
+
+import com.tavla.core.GameRecorder;
+import com.tavla.core.GameState;
+import com.tavla.core.Player;
+import com.tavla.core.PositionId;
+import com.tavla.core.RandomGames;
+import com.tavla.core.TavlaGame;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Kompakt oyun kaydı ve index'li oyun arşivi testleri.
+ */
+public class GameArchiveTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+
+    @TempDir
+    Path dir;
+
+    private static GameRecord encodeDecode(GameRecord record) {
+        ByteBuffer buf = ByteBuffer.allocate(record.encodedSize());
+        record.encode(buf);
+        assertFalse(buf.hasRemaining());
+        buf.flip();
+        return GameRecord.decode(7, buf);
+    }
+
+    @Test
+    void record_replaysToSameFinalPosition_atOneBytePerAction() {
+        Random random = new Random(7);
+        for (int i = 0; i < 50; i++) {
+            TavlaGame game = RandomGames.finished(random, "ayşe", null, T0);
+            GameRecord decoded = encodeDecode(GameRecord.of("room" + i, game, T0 + 600_000));
+
+            assertEquals(7, decoded.gameId);
+            assertEquals("room" + i, decoded.roomId);
+            assertEquals("ayşe", decoded.getWhitePlayer());
+            assertNull(decoded.getBlackPlayer());
+            assertEquals(T0, decoded.getStartedAt());
+            assertEquals(T0 + 600_000, decoded.endedAt);
+            assertEquals(game.getWinner(), decoded.winner);
+            assertFalse(decoded.forfeit);
+
+            TavlaGame replayed = decoded.replay();
+            assertTrue(replayed.isGameOver());
+            assertEquals(game.getWinner(), replayed.getWinner());
+            assertEquals(PositionId.key(game.getInternalState()), PositionId.key(replayed.getInternalState()));
+
+            // Kayıt: zar ve taş hamlesi başına 1 byte, başlık birkaç on byte
+            assertTrue(decoded.encodedSize() < decoded.moves.length() + 32, decoded.toString());
+        }
+    }
+
+    @Test
+    void importedStartAndForfeit_roundTrip() {
+        TavlaGame source = new TavlaGame();
+        source.applyRoll(6, 5);
+        source.applyMove(23, 17, 6);
+        source.applyMove(17, 12, 5);
+        GameState imported = PositionId.toGameState(PositionId.key(source.getInternalState()), Player.BLACK, 3, 1);
+
+        GameRecorder recorder = new GameRecorder(T0, "p1", "p2").restartFrom(imported);
+        TavlaGame game = new TavlaGame(imported, recorder);
+        game.applyMove(0, 3, 3);
+        game.applyMove(0, 1, 1);
+        game.passIfBlocked();
+        game.forfeit(Player.WHITE);
+
+        GameRecord decoded = encodeDecode(GameRecord.of("r", game, T0 + 5_000));
+        assertTrue(decoded.forfeit);
+        assertEquals(Player.BLACK, decoded.winner);
+        assertEquals(Player.BLACK, decoded.moves.startPlayer);
+        assertEquals(3, decoded.moves.startDie1);
+
+        TavlaGame replayed = decoded.replay();
+        assertEquals(Player.BLACK, replayed.getWinner());
+        assertEquals(PositionId.key(game.getInternalState()), PositionId.key(replayed.getInternalState()));
+    }
+
+    @Test
+    void archive_rollsSegments_andFindsByIdPlayerAndTime() {
+        Random random = new Random(11);
+        GameArchive archive = GameArchive.open(dir, 4096);
+        int games = 120;
+        for (int i = 0; i < games; i++) {
+            TavlaGame game = RandomGames.finished(random, "p" + (i % 10), i % 3 == 0 ? null : "q" + (i % 7), T0 + i * 60_000L);
+            assertEquals(i + 1, archive.append(GameRecord.of("room" + i, game, T0 + i * 60_000L + 30_000)));
+        }
+        archive.flush();
+        assertEquals(games, archive.getGameCount());
+        verifyQueries(archive, games);
+        archive.close();
+
+        // Kapanmış segmentlerin index'i var; yeniden açınca aynı sonuçlar, id'ler kaldığı yerden devam
+        try (var files = Files.list(dir)) {
+            assertTrue(files.filter(p -> p.toString().endsWith(".idx")).count() > 2);
+        } catch (IOException e) {
+            fail(e);
+        }
+        GameArchive reopened = GameArchive.open(dir, 4096);
+        assertEquals(games, reopened.getGameCount());
+        verifyQueries(reopened, games);
+        assertEquals(games + 1, reopened.append(GameRecord.of("late", RandomGames.finished(random, "p1", null, T0),
+                T0 + games * 60_000L + 30_000)));
+        reopened.flush();
+        assertEquals("late", reopened.findByPlayer("p1", 1).get(0).roomId);
+        reopened.close();
+    }
+
+    private static void verifyQueries(GameArchive archive, int games) {
+        for (int id = 1; id <= games; id++) {
+            GameRecord record = archive.get(id);
+            assertEquals(id, record.gameId);
+            assertEquals("room" + (id - 1), record.roomId);
+            assertTrue(record.replay().isGameOver());
+        }
+        assertNull(archive.get(0));
+        assertNull(archive.get(games + 1));
+
+        // p3: 3, 13, 23, ... numaralı oyunlar, en yeni önce
+        List<GameRecord> p3 = archive.findByPlayer("p3", 5);
+        assertEquals(List.of("room113", "room103", "room93", "room83", "room73"),
+                p3.stream().map(r -> r.roomId).toList());
+        assertEquals(12, archive.findByPlayer("p3", 100).size());
+        assertEquals(archive.findByPlayer("q4", 100).size(),
+                (int) java.util.stream.IntStream.range(0, games).filter(i -> i % 3 != 0 && i % 7 == 4).count());
+        assertTrue(archive.findByPlayer("yok", 10).isEmpty());
+
+        // 10..19. dakikalarda biten oyunlar
+        List<GameRecord> range = archive.findByTime(T0 + 10 * 60_000L, T0 + 20 * 60_000L, 100);
+        assertEquals(10, range.size());
+        assertEquals("room10", range.get(0).roomId);
+        assertEquals("room19", range.get(9).roomId);
+        assertEquals(3, archive.findByTime(T0, T0 + games * 60_000L, 3).size());
+    }
+
+    @Test
+    void tornTail_isTruncatedOnOpen() throws IOException {
+        Random random = new Random(3);
+        GameArchive archive = GameArchive.open(dir);
+        for (int i = 0; i < 5; i++) {
+            archive.append(GameRecord.of("room" + i, RandomGames.finished(random, "p", null, T0), T0 + i * 1000L));
+        }
+        archive.close();
+
+        // Çökme anında yarım yazılmış kayıt: uzunluk var, gövdenin bir kısmı yok
+        Path data = dir.resolve(GameArchive.fileName(1, ".dat"));
+        Files.write(data, new byte[]{(byte) 0xC8, 0x01, 5, 9}, StandardOpenOption.APPEND);
+        long size = Files.size(data);
+
+        GameArchive reopened = GameArchive.open(dir);
+        assertEquals(5, reopened.getGameCount());
+        assertEquals(size - 4, Files.size(data));
+        assertEquals(6, reopened.append(GameRecord.of("room5", RandomGames.finished(random, "p", null, T0), T0 + 9000)));
+        reopened.flush();
+        assertEquals("room5", reopened.get(6).roomId);
+        assertEquals(6, reopened.findByPlayer("p", 10).size());
+        reopened.close();
+    }
+}
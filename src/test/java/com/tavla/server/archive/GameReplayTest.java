@@ -0,0 +1,99 @@
+package com.tavla.server.archive;
+
+import com.tavla.core.GameRecorder;
+import com.tavla.core.GameSnapshot;
+import com.tavla.core.GameState;
+import com.tavla.core.PositionId;
+import com.tavla.core.RandomGames;
+import com.tavla.core.TavlaGame;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Keyframe'li replay ve replay önbelleği testleri.
+ */
+public class GameReplayTest {
+
+    @TempDir
+    Path dir;
+
+    /** Oyunu oynar, her adımdan sonraki position key'i (adım 0 başlangıç) toplar. */
+    private static TavlaGame playRandomGame(Random random, List<String> keys) {
+        return RandomGames.moveByMove(random, new GameRecorder(0, "p", null), game -> keys.add(key(game)));
+    }
+
+    private static String key(TavlaGame game) {
+        GameState s = game.getInternalState();
+        return PositionId.key(s) + "/" + s.getCurrentPlayer() + "/" + s.getDice().getRemainingSteps();
+    }
+
+    @Test
+    void seekingAnyStep_matchesOriginalGame() {
+        Random random = new Random(5);
+        for (int g = 0; g < 10; g++) {
+            List<String> keys = new ArrayList<>();
+            TavlaGame game = playRandomGame(random, keys);
+            GameReplay replay = GameReplay.build(GameRecord.of("r", game, 0));
+
+            assertEquals(keys.size(), replay.getStepCount());
+            // Geriye doğru atlayarak: her adım kendi keyframe'inden kurulur
+            for (int step = replay.getStepCount() - 1; step >= 0; step--) {
+                TavlaGame at = new TavlaGame(replay.stateAt(step));
+                assertEquals(keys.get(step), key(at), "adım " + step);
+            }
+            assertTrue(replay.snapshotAt(replay.getStepCount() - 1).isGameOver());
+            assertThrows(IndexOutOfBoundsException.class, () -> replay.stateAt(replay.getStepCount()));
+        }
+    }
+
+    @Test
+    void service_decodesOnce_andSharesRenderedFrames() {
+        Random random = new Random(9);
+        GameArchive archive = GameArchive.open(dir);
+        ReplayService service = new ReplayService(archive, 2);
+        for (int i = 0; i < 3; i++) {
+            archive.append(GameRecord.of("room" + i, playRandomGame(random, new ArrayList<>()), 1000L * i));
+        }
+        archive.flush();
+
+        GameReplay first = service.get(1);
+        assertSame(first, service.get(1));
+        assertEquals(1, service.getMissCount());
+        assertEquals(1, service.getHitCount());
+        assertNull(service.get(99));
+
+        AtomicInteger renders = new AtomicInteger();
+        String a = first.frame(5, snapshot -> {
+            renders.incrementAndGet();
+            return "frame" + snapshot.getCurrentPlayer();
+        });
+        String b = service.get(1).frame(5, snapshot -> {
+            renders.incrementAndGet();
+            return "other";
+        });
+        assertSame(a, b);
+        assertEquals(1, renders.get());
+
+        // Kapasite 2: en uzun süre kullanılmayan düşer
+        service.get(2);
+        service.get(3);
+        assertEquals(2, service.getCachedCount());
+        assertNotSame(first, service.get(1));
+
+        // Aktif segment: map edildikten sonra eklenen oyun da okunabilir
+        archive.append(GameRecord.of("late", playRandomGame(random, new ArrayList<>()), 9000));
+        archive.flush();
+        GameSnapshot end = service.get(4).snapshotAt(service.get(4).getStepCount() - 1);
+        assertTrue(end.isGameOver());
+        assertEquals("late", service.get(4).record.roomId);
+        archive.close();
+    }
+}
@@ -0,0 +1,190 @@
+package com.tavla.server.bot;
+
+import com.tavla.core.GameLogic;
+import com.tavla.core.GameRecorder;
+import com.tavla.core.GameState;
+import com.tavla.core.GameStateCodec;
+import com.tavla.core.MatchScore;
+import com.tavla.core.Move;
+import com.tavla.core.Player;
+import com.tavla.core.TavlaGame;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Küp kuralları, maç skoru ve önceden hesaplanmış maç equity tablosu testleri.
+ */
+public class MatchEquityTest {
+
+    private final GameLogic logic = new GameLogic();
+
+    private static MatchScore score(int length, int white, int black, boolean crawford) {
+        return new MatchScore(length, white, black, crawford);
+    }
+
+    @Test
+    void cube_offerTakeDrop_followTheRules() {
+        TavlaGame game = new TavlaGame(new GameState(), new GameRecorder(0, null, null));
+        assertNull(game.validateDouble());
+        game.offerDouble();
+        assertTrue(game.isCubeOffered());
+        assertEquals(Player.BLACK, game.getPlayerToAct());
+        assertThrows(IllegalStateException.class, game::rollDice);
+        game.takeDouble();
+
+        GameState state = game.getInternalState();
+        assertEquals(2, state.getCubeValue());
+        assertEquals(Player.BLACK, state.getCubeOwner());
+        assertEquals(Player.WHITE, game.getCurrentPlayer());
+        // Küp rakipte: WHITE tekrar çeviremez
+        assertNotNull(game.validateDouble());
+
+        game.applyRoll(3, 1);
+        assertNotNull(game.validateDouble());
+        game.applyMove(7, 4, 3);
+        game.applyMove(5, 4, 1);
+        assertEquals(Player.BLACK, game.getCurrentPlayer());
+
+        // BLACK küpün sahibi: 4'e çevirir, WHITE reddeder
+        game.offerDouble();
+        game.dropDouble();
+        assertTrue(game.isGameOver());
+        assertEquals(Player.BLACK, game.getWinner());
+        assertEquals(GameState.RESULT_SINGLE, state.getResultKind());
+        assertEquals(2, game.getResultPoints());
+
+        // Kayıt küp olaylarını da tekrar oynatır
+        TavlaGame replayed = game.getRecorder().replay();
+        assertEquals(Player.BLACK, replayed.getWinner());
+        assertEquals(2, replayed.getResultPoints());
+        assertFalse(game.getRecorder().isForfeit());
+    }
+
+    @Test
+    void bearingOffAgainstAnOpponentWithNothingOff_isAGammon() {
+        GameState state = new GameState();
+        int[] counts = new int[24];
+        counts[0] = 1;
+        counts[12] = -15;
+        state.getBoard().setPosition(counts, 0, 0, 14, 0);
+        state.setCube(4, Player.WHITE, false);
+        state.getDice().roll(1, 2);
+        logic.applyMove(state, new Move(0, logic.targetIndex(Player.WHITE, 0, 1), 1));
+
+        assertEquals(Player.WHITE, state.getWinner());
+        assertEquals(GameState.RESULT_GAMMON, state.getResultKind());
+        assertEquals(8, state.getResultPoints());
+
+        // BLACK'in WHITE'ın evinde taşı varsa backgammon, bir taş topladıysa tek oyun
+        counts[12] = -14;
+        counts[3] = -1;
+        state.getBoard().setPosition(counts, 0, 0, 15, 0);
+        assertEquals(GameState.RESULT_BACKGAMMON, logic.resultKind(state.getBoard(), Player.WHITE));
+        counts[3] = 0;
+        state.getBoard().setPosition(counts, 0, 0, 15, 1);
+        assertEquals(GameState.RESULT_SINGLE, logic.resultKind(state.getBoard(), Player.WHITE));
+    }
+
+    @Test
+    void codec_keepsCubeAndResultInTheSameSize() {
+        GameState state = new GameState();
+        state.setCube(16, Player.BLACK, true);
+        ByteBuffer buf = ByteBuffer.allocate(GameStateCodec.ENCODED_BYTES);
+        GameStateCodec.encode(state, buf);
+        assertFalse(buf.hasRemaining());
+        buf.flip();
+        GameState decoded = GameStateCodec.decode(buf);
+        assertEquals(16, decoded.getCubeValue());
+        assertEquals(Player.BLACK, decoded.getCubeOwner());
+        assertTrue(decoded.isCubeOffered());
+
+        state.setCube(16, Player.BLACK, false);
+        state.endGame(Player.WHITE, GameState.RESULT_BACKGAMMON);
+        buf.clear();
+        GameStateCodec.encode(state, buf);
+        buf.flip();
+        decoded = GameStateCodec.decode(buf);
+        assertEquals(GameState.RESULT_BACKGAMMON, decoded.getResultKind());
+        assertEquals(48, decoded.getResultPoints());
+        assertEquals(Player.BLACK, decoded.getCubeOwner());
+    }
+
+    @Test
+    void matchScore_playsTheCrawfordGameOnce() {
+        MatchScore match = MatchScore.of(5);
+        match = match.after(Player.WHITE, 2);
+        assertFalse(match.crawford);
+        match = match.after(Player.WHITE, 2);
+        assertTrue(match.crawford, "WHITE 1 puan kaldı: Crawford oyunu");
+        assertFalse(match.isCubeAllowed());
+
+        match = match.after(Player.BLACK, 1);
+        assertFalse(match.crawford);
+        assertTrue(match.isPostCrawford());
+        match = match.after(Player.BLACK, 2);
+        assertFalse(match.crawford, "Crawford maçta bir kez oynanır");
+
+        match = match.after(Player.WHITE, 4);
+        assertTrue(match.isOver());
+        assertEquals(Player.WHITE, match.getWinner());
+        assertEquals(5, match.whiteScore);
+
+        // Süre aşımı maçı bırakmaktır
+        assertEquals(Player.BLACK, MatchScore.of(7).afterGame(Player.BLACK, 1, true).getWinner());
+        assertSame(MatchScore.MONEY, MatchScore.MONEY.after(Player.WHITE, 8));
+    }
+
+    @Test
+    void matchEquityTable_isSymmetricAndMatchesKnownValues() {
+        for (int a = 0; a < 9; a++) {
+            for (int b = 0; b < 9; b++) {
+                MatchScore s = score(9, a, b, false);
+                if (s.getAway(Player.WHITE) == 1 || s.getAway(Player.BLACK) == 1) {
+                    continue;
+                }
+                double white = MatchEquity.matchWinningChance(s, Player.WHITE);
+                double black = MatchEquity.matchWinningChance(s, Player.BLACK);
+                assertEquals(1.0, white + black, 1e-9, s.toString());
+                if (a > b) {
+                    assertTrue(white > 0.5, s.toString());
+                }
+            }
+        }
+        assertEquals(0.5, MatchEquity.matchWinningChance(score(3, 1, 1, false), Player.WHITE), 1e-9);
+        // Crawford: 1 puan kala, rakip 2 ve 3 puan kala (yayınlanmış tablolarda ~%70 ve ~%75)
+        assertEquals(0.70, MatchEquity.matchWinningChance(score(5, 4, 3, true), Player.WHITE), 0.03);
+        assertEquals(0.75, MatchEquity.matchWinningChance(score(5, 4, 2, true), Player.WHITE), 0.03);
+        // Post-Crawford 1 puan kala / 2 puan kala: geride olan hemen çevirir, ~%50
+        assertEquals(0.50, MatchEquity.matchWinningChance(score(5, 4, 3, false), Player.WHITE), 0.03);
+        assertEquals(1.0, MatchEquity.matchWinningChance(score(5, 5, 3, false), Player.WHITE));
+    }
+
+    @Test
+    void moneyCube_doublesAndTakesInsideTheWindow() {
+        GameState state = new GameState();
+        MatchScore money = MatchScore.MONEY;
+
+        assertFalse(MatchEquity.decide(money, state, 0.55).shouldDouble);
+        MatchEquity.CubeDecision good = MatchEquity.decide(money, state, 0.72);
+        assertTrue(good.shouldDouble, good.toString());
+        assertTrue(good.shouldTake, good.toString());
+        MatchEquity.CubeDecision tooGood = MatchEquity.decide(money, state, 0.85);
+        assertTrue(tooGood.shouldDouble, tooGood.toString());
+        assertFalse(tooGood.shouldTake, tooGood.toString());
+
+        // Küp rakipteyse ya da Crawford oyununda karar yok
+        state.setCube(2, Player.BLACK, false);
+        assertNull(MatchEquity.decide(money, state, 0.9));
+        assertNull(MatchEquity.decide(score(5, 4, 3, true), new GameState(), 0.9));
+
+        // Bot teklif bekleyen küpte kabul edene danışır
+        GameState offered = new GameState();
+        logic.offerDouble(offered);
+        BotPlayer.CubeAdvice advice = new BotPlayer(null).cubeAdvice(offered, money);
+        assertEquals(Player.BLACK, advice.player);
+        assertEquals(BotPlayer.TAKE, advice.action);
+    }
+}
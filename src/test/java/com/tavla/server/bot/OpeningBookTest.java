@@ -0,0 +1,145 @@
+package com.tavla.server.bot;
+
+import com.tavla.core.GameLogic;
+import com.tavla.core.GameState;
+import com.tavla.core.Move;
+import com.tavla.core.Player;
+import com.tavla.core.PositionId;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tam hamle dizisi üretimi, bot ve map edilmiş açılış kitabı testleri.
+ */
+public class OpeningBookTest {
+
+    @TempDir
+    Path dir;
+
+    private final GameLogic logic = new GameLogic();
+
+    private static GameState rolled(GameState state, int die1, int die2) {
+        GameState copy = state.copy();
+        copy.getDice().roll(die1, die2);
+        return copy;
+    }
+
+    @Test
+    void legalPlays_areValidAndLeadToDistinctPositions() {
+        // Açılışta 6-5: 24/18/13 ile 24/13 aynı pozisyon, bir kez gelir
+        List<List<Move>> opening = logic.legalPlays(rolled(new GameState(), 6, 5));
+        long runs = opening.stream()
+                .filter(p -> BotPlayer.afterPlay(logic, rolled(new GameState(), 6, 5), p)
+                        .getBoard().getPoint(12).getCount() == 6 && p.get(0).getFromIndex() == 23)
+                .count();
+        assertEquals(1, runs);
+
+        Random random = new Random(21);
+        GameState state = new GameState();
+        for (int turn = 0; turn < 200 && !state.isGameOver(); turn++) {
+            GameState position = rolled(state, random.nextInt(6) + 1, random.nextInt(6) + 1);
+            List<List<Move>> plays = logic.legalPlays(position);
+            Set<PositionId.Key> results = new HashSet<>();
+            for (List<Move> play : plays) {
+                assertNull(logic.validatePlay(position, play), play.toString());
+                assertTrue(results.add(PositionId.key(BotPlayer.afterPlay(logic, position, play).getBoard(),
+                        position.getCurrentPlayer())), "aynı pozisyon iki kez: " + play);
+            }
+            assertEquals(plays.isEmpty(), logic.maxPlayableSteps(position) == 0);
+            state = plays.isEmpty()
+                    ? BotPlayer.afterPlay(logic, position, List.of())
+                    : BotPlayer.afterPlay(logic, position, plays.get(random.nextInt(plays.size())));
+        }
+    }
+
+    @Test
+    void evaluator_prefersTheRaceLeaderAndTheBot_finishesGames() {
+        GameState race = new GameState();
+        int[] counts = new int[24];
+        counts[0] = 2;    // WHITE: 1. noktada 2 taş, 13'ü toplanmış
+        counts[23] = -10; // BLACK: kendi 1. noktasında 10 taş, 5'i toplanmış
+        race.getBoard().setPosition(counts, 0, 0, 13, 5);
+        assertTrue(PositionEvaluator.evaluate(race, Player.WHITE) > 0.5);
+        assertTrue(PositionEvaluator.evaluate(race, Player.BLACK) < -0.5);
+
+        // Bot kendine karşı oyunu bitirir; her seçimi kurallara uyar
+        BotPlayer bot = new BotPlayer(null);
+        Random random = new Random(4);
+        GameState state = new GameState();
+        int turns = 0;
+        while (!state.isGameOver()) {
+            GameState position = rolled(state, random.nextInt(6) + 1, random.nextInt(6) + 1);
+            BotPlayer.Choice choice = bot.choose(position);
+            if (choice == null) {
+                state = BotPlayer.afterPlay(logic, position, List.of());
+            } else {
+                assertNull(logic.validatePlay(position, choice.moves));
+                state = BotPlayer.afterPlay(logic, position, choice.moves);
+            }
+            assertTrue(++turns < 1000);
+        }
+    }
+
+    @Test
+    void builtBook_isMappedAndAnswersOpeningsForBothColours() throws Exception {
+        List<OpeningBook.Entry> entries = new OpeningBookBuilder(2, 6, 1, 2, 4, 2).build();
+        // 1. tur: 21 zar; 2. tur: her zarın en iyi devamında rakip için 21 zar (aynı pozisyonlar birleşir)
+        assertTrue(entries.size() > 21 && entries.size() <= 21 + 21 * 21, "kayıt: " + entries.size());
+
+        Path file = dir.resolve("opening.book");
+        OpeningBook.write(file, entries, 2, 6);
+        assertEquals(OpeningBook.HEADER_BYTES + (long) entries.size() * OpeningBook.ENTRY_BYTES, Files.size(file));
+
+        OpeningBook book = OpeningBook.open(file);
+        assertEquals(entries.size(), book.size());
+        BotPlayer bot = new BotPlayer(book);
+
+        for (OpeningBook.Entry expected : entries) {
+            OpeningBook.Entry found = book.lookup(expected.key, expected.lowDie, expected.highDie);
+            assertNotNull(found, expected.toString());
+            assertEquals(expected.equity, found.equity);
+        }
+
+        // Başlangıç dizilimi simetrik: BLACK da aynı kayıtları kendi yönünde kullanır
+        for (Player player : Player.values()) {
+            for (int d1 = 1; d1 <= 6; d1++) {
+                for (int d2 = 1; d2 <= 6; d2++) {
+                    GameState start = new GameState();
+                    if (player == Player.BLACK) {
+                        start.switchTurn();
+                    }
+                    GameState position = rolled(start, d1, d2);
+                    BotPlayer.Choice choice = bot.choose(position);
+                    assertTrue(choice.fromBook, d1 + "-" + d2);
+                    assertNull(logic.validatePlay(position, choice.moves));
+                }
+            }
+        }
+        assertEquals(72, bot.getBookHits());
+        assertEquals(0, bot.getSearches());
+
+        // Turun ortası ve kitapta olmayan pozisyon: arama
+        GameState midTurn = rolled(new GameState(), 6, 5);
+        logic.applyMove(midTurn, new Move(23, 17, 6));
+        assertNull(book.lookup(midTurn));
+        assertFalse(bot.choose(midTurn).fromBook);
+        assertEquals(1, bot.getSearches());
+    }
+
+    @Test
+    void corruptBook_isRejected() throws IOException {
+        Path file = dir.resolve("bad.book");
+        Files.write(file, new byte[]{'T', 'V', 'B', '1', 0, 0, 0, 5, 0, 0, 0, 0, 0, 0, 0, 0});
+        assertThrows(IllegalStateException.class, () -> OpeningBook.open(file));
+    }
+}
@@ -0,0 +1,125 @@
+package com.tavla.server.cluster;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.tavla.server.ws.TavlaWebSocketServer;
+import com.tavla.server.ws.WsTestClient;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Aynı makinede birkaç node'luk cluster: üyelik defalarca değişse de odalara yönlendirme
+ * (redirect) hep odayı açan node'u gösterir.
+ */
+public class ClusterRedirectTest {
+
+    private static final long PROBE_MS = 100;
+    private static final int ROOMS_PER_NODE = 8;
+
+    @Test
+    void redirectsReachTheCreatingNode_acrossSeveralRingChanges() throws Exception {
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            urls.add("ws://127.0.0.1:" + WsTestClient.freePort());
+        }
+        String a = urls.get(0), b = urls.get(1), c = urls.get(2), d = urls.get(3);
+        Map<String, Node> nodes = new HashMap<>();
+        try {
+            // 1) D kapalı: halka {A,B,C}
+            for (String url : List.of(a, b, c)) {
+                nodes.put(url, Node.start(url, urls));
+            }
+            awaitRing(nodes, Set.of(a, b, c));
+
+            Map<String, String> roomOwners = new HashMap<>(); // roomId -> açan node
+            Map<String, String> tokens = new HashMap<>();     // roomId -> WHITE token
+            for (String url : List.of(a, b, c)) {
+                for (int i = 0; i < ROOMS_PER_NODE; i++) {
+                    JsonNode created = WsTestClient.ask(url, "create_room", "null", "room_created");
+                    roomOwners.put(created.get("roomId").asText(), url);
+                    tokens.put(created.get("roomId").asText(), created.get("token").asText());
+                }
+            }
+
+            // 2) D açılır: {A,B,C,D}; 3) C kapanır: {A,B,D}
+            nodes.put(d, Node.start(d, urls));
+            awaitRing(nodes, Set.of(a, b, c, d));
+            nodes.remove(c).stop();
+            awaitRing(nodes, Set.of(a, b, d));
+
+            for (Map.Entry<String, String> room : roomOwners.entrySet()) {
+                String roomId = room.getKey();
+                String owner = room.getValue();
+                for (String entry : List.of(a, b, d)) {
+                    if (entry.equals(owner)) continue;
+                    String resume = "{\"token\":\"" + tokens.get(roomId) + "\"}";
+                    if (owner.equals(c)) {
+                        JsonNode error = WsTestClient.ask(entry, "resume", resume, "error");
+                        assertTrue(error.get("message").asText().contains("ulaşılamıyor"), roomId + ": " + error);
+                        continue;
+                    }
+                    JsonNode redirect = WsTestClient.ask(entry, "resume", resume, "redirect");
+                    assertEquals(owner, redirect.get("url").asText(), roomId + " @ " + entry);
+                    assertEquals("resume", redirect.get("retry").asText());
+                }
+                if (owner.equals(c)) continue;
+
+                // Yönlendirilen node'da oda gerçekten var
+                String other = owner.equals(a) ? b : a;
+                JsonNode redirect = WsTestClient.ask(other, "join_room", "{\"roomId\":\"" + roomId + "\"}", "redirect");
+                assertEquals(owner, redirect.get("url").asText());
+                assertEquals("join_room", redirect.get("retry").asText());
+                JsonNode joined = WsTestClient.ask(owner, "join_room", "{\"roomId\":\"" + roomId + "\",\"hops\":1}", "room_joined");
+                assertEquals(roomId, joined.get("roomId").asText());
+            }
+        } finally {
+            for (Node node : nodes.values()) {
+                node.stop();
+            }
+        }
+    }
+
+    /** Tüm node'ların canlı halkası beklenen üyeliğe gelene kadar bekler. */
+    private static void awaitRing(Map<String, Node> nodes, Set<String> expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        for (Node node : nodes.values()) {
+            while (!new TreeSet<>(node.cluster.getRing().getNodes()).equals(expected)) {
+                assertTrue(System.nanoTime() < deadline, node.cluster.getSelf() + " halkası: " + node.cluster.getRing());
+                Thread.sleep(PROBE_MS / 2);
+            }
+        }
+    }
+
+    private static final class Node {
+        final TavlaWebSocketServer server;
+        final ClusterMembership cluster;
+
+        private Node(TavlaWebSocketServer server, ClusterMembership cluster) {
+            this.server = server;
+            this.cluster = cluster;
+        }
+
+        static Node start(String self, List<String> all) throws InterruptedException {
+            int port = URI.create(self).getPort();
+            ClusterMembership cluster = new ClusterMembership(new ClusterConfig(self, all), PROBE_MS);
+            TavlaWebSocketServer server = new TavlaWebSocketServer(port, cluster, null);
+            server.setReuseAddr(true);
+            server.start();
+            WsTestClient.awaitListening(port);
+            return new Node(server, cluster);
+        }
+
+        void stop() throws InterruptedException {
+            server.stop(1_000);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.tavla.server.cluster;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tutarlı hash halkası için testler.
+ */
+public class HashRingTest {
+
+    private static final List<String> THREE = List.of("ws://a:1", "ws://b:2", "ws://c:3");
+
+    @Test
+    void sameMembership_givesSameOwner_regardlessOfOrder() {
+        HashRing r1 = new HashRing(THREE);
+        HashRing r2 = new HashRing(List.of("ws://c:3", "ws://a:1", "ws://b:2"));
+
+        for (int i = 0; i < 10_000; i++) {
+            String key = "room" + i;
+            assertEquals(r1.ownerOf(key), r2.ownerOf(key));
+        }
+    }
+
+    @Test
+    void keys_areSpreadAcrossNodes() {
+        HashRing ring = new HashRing(THREE);
+        Map<String, Integer> counts = new HashMap<>();
+        int total = 30_000;
+
+        for (int i = 0; i < total; i++) {
+            counts.merge(ring.ownerOf("room" + i), 1, Integer::sum);
+        }
+
+        for (String node : THREE) {
+            int c = counts.getOrDefault(node, 0);
+            // Her node kabaca üçte bir almalı
+            assertTrue(c > total / 5 && c < total / 2, node + " -> " + c);
+        }
+    }
+
+    @Test
+    void removingNode_onlyMovesItsOwnKeys() {
+        HashRing before = new HashRing(THREE);
+        HashRing after = new HashRing(List.of("ws://a:1", "ws://b:2"));
+
+        for (int i = 0; i < 10_000; i++) {
+            String key = "room" + i;
+            String oldOwner = before.ownerOf(key);
+            if (!oldOwner.equals("ws://c:3")) {
+                assertEquals(oldOwner, after.ownerOf(key), "Çıkan node'a ait olmayan anahtar taşındı");
+            }
+        }
+    }
+}
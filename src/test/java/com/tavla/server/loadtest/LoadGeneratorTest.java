@@ -0,0 +1,60 @@
+package com.tavla.server.loadtest;
+
+import com.tavla.server.ws.TavlaWebSocketServer;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Yük üreticisinin gerçek bir sunucuya karşı oyunları sonuna kadar oynatabildiğini doğrular.
+ */
+public class LoadGeneratorTest {
+
+    @Test
+    void playsCompleteGames_againstInProcessServer() throws Exception {
+        int port = LoadGenerator.freePort();
+        TavlaWebSocketServer server = new TavlaWebSocketServer(port, null, null);
+        server.setReuseAddr(true);
+        server.start();
+        try {
+            LoadGenerator.awaitListening(port);
+
+            LoadGenerator.Result result = new LoadGenerator(URI.create("ws://127.0.0.1:" + port), 8, 2)
+                    .run(60_000);
+
+            assertFalse(result.timedOut, "oyunlar zamanında bitmeli");
+            assertEquals(0, result.errors, "hata olmamalı: " + result.errorMessages);
+            assertEquals(8, result.completedGames);
+            assertEquals(0, result.failedGames);
+            assertEquals(8, result.latencies.get("create_room").getCount());
+            assertEquals(8, result.latencies.get("join_room").getCount());
+            assertTrue(result.latencies.get("move").getCount() > 8 * 15, "her oyunda en az 15 toplama hamlesi olur");
+        } finally {
+            server.stop(1_000);
+        }
+    }
+
+    @Test
+    void wholeTurnPlays_completeGames() throws Exception {
+        int port = LoadGenerator.freePort();
+        TavlaWebSocketServer server = new TavlaWebSocketServer(port, null, null);
+        server.setReuseAddr(true);
+        server.start();
+        try {
+            LoadGenerator.awaitListening(port);
+
+            LoadGenerator.Result result = new LoadGenerator(URI.create("ws://127.0.0.1:" + port), 8, 1, true)
+                    .run(60_000);
+
+            assertFalse(result.timedOut, "oyunlar zamanında bitmeli");
+            assertEquals(0, result.errors, "hata olmamalı: " + result.errorMessages);
+            assertEquals(4, result.completedGames);
+            // Her tur tek mesaj: play sayısı zar sayısını geçemez
+            assertTrue(result.latencies.get("play").getCount() <= result.latencies.get("roll").getCount());
+        } finally {
+            server.stop(1_000);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.tavla.server.log;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Log halka kuyruğu, JSON formatı ve hata hız sınırı testleri.
+ */
+public class LogRingTest {
+
+    private static LogEvent event(String message, Object... fields) {
+        return new LogEvent(0, LogLevel.INFO, "test", "main", message, fields, null, 0);
+    }
+
+    @Test
+    void concurrentProducers_noLossNoDuplicates() throws InterruptedException {
+        LogRing ring = new LogRing(1024);
+        int producers = 4;
+        int perProducer = 50_000;
+        CountDownLatch start = new CountDownLatch(1);
+
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            int id = p;
+            threads[p] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    LogEvent e = event("m", "p", id, "i", i);
+                    while (!ring.offer(e)) {
+                        Thread.onSpinWait(); // tüketici yetişsin
+                    }
+                }
+            });
+            threads[p].start();
+        }
+        start.countDown();
+
+        // Her üreticinin kayıtları kendi sırasıyla gelmeli
+        int[] next = new int[producers];
+        int received = 0;
+        while (received < producers * perProducer) {
+            LogEvent e = ring.poll();
+            if (e == null) {
+                Thread.onSpinWait();
+                continue;
+            }
+            int p = (Integer) e.fields[1];
+            int i = (Integer) e.fields[3];
+            assertEquals(next[p], i, "üretici " + p + " sırası bozuldu");
+            next[p]++;
+            received++;
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertNull(ring.poll());
+    }
+
+    @Test
+    void fullRing_rejectsUntilDrained() {
+        LogRing ring = new LogRing(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(event("m" + i)));
+        }
+        assertFalse(ring.offer(event("fazla")));
+
+        assertEquals("m0", ring.poll().message);
+        assertTrue(ring.offer(event("m4")));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals("m" + i, ring.poll().message);
+        }
+        assertNull(ring.poll());
+    }
+
+    @Test
+    void format_writesEscapedJsonLine() {
+        StringBuilder sb = new StringBuilder();
+        AsyncLogWriter.format(event("satır \"1\"\n", "count", 3, "ok", true, "name", "a\\b"), sb);
+
+        String line = sb.toString();
+        assertTrue(line.endsWith("}\n"));
+        assertTrue(line.startsWith("{\"ts\":\"1970-01-01T00:00:00Z\",\"level\":\"INFO\""));
+        assertTrue(line.contains("\"msg\":\"satır \\\"1\\\"\\n\""));
+        assertTrue(line.contains("\"count\":3,\"ok\":true,\"name\":\"a\\\\b\""));
+        assertEquals(1, line.chars().filter(c -> c == '\n').count());
+    }
+
+    @Test
+    void errorRateLimiter_countsSuppressed() {
+        ErrorRateLimiter limiter = new ErrorRateLimiter(2);
+        assertEquals(0, limiter.allow("k"));
+        assertEquals(0, limiter.allow("k"));
+        assertEquals(ErrorRateLimiter.DENY, limiter.allow("k"));
+        assertEquals(ErrorRateLimiter.DENY, limiter.allow("k"));
+
+        // Başka anahtar etkilenmez
+        assertEquals(0, limiter.allow("other"));
+    }
+}
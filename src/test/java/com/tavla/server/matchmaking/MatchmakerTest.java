@@ -0,0 +1,76 @@
+package com.tavla.server.matchmaking;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Rating havuzu eşleştirme testleri (sahte saat ile, tick elle çağrılır).
+ */
+public class MatchmakerTest {
+
+    private final AtomicLong now = new AtomicLong(0);
+    private final List<String[]> matches = new ArrayList<>();
+    private final Matchmaker<String> matchmaker = new Matchmaker<>(
+            (a, b) -> matches.add(new String[]{a.connection, b.connection}),
+            c -> true,
+            now::get);
+
+    @Test
+    void closeRatings_arePairedInOneTick() {
+        matchmaker.enqueue("a", null, 1500);
+        matchmaker.enqueue("b", null, 1520);
+        matchmaker.enqueue("c", null, 1800);
+        matchmaker.tick();
+
+        assertEquals(1, matches.size());
+        assertEquals(Set.of("a", "b"), Set.of(matches.get(0)));
+        assertEquals(1, matchmaker.getQueuedCount());
+    }
+
+    @Test
+    void windowWidensWithWaitTime() {
+        matchmaker.enqueue("a", null, 1500);
+        matchmaker.enqueue("b", null, 1700);
+        matchmaker.tick();
+        assertTrue(matches.isEmpty());
+
+        // 200 fark: BASE_WINDOW + WIDEN_PER_SECOND * t >= 200 olana kadar beklenir
+        now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        matchmaker.tick();
+        assertTrue(matches.isEmpty());
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        matchmaker.tick();
+        assertEquals(1, matches.size());
+        assertEquals(0, matchmaker.getQueuedCount());
+    }
+
+    @Test
+    void cancelledAndRequeuedPlayers_areHandled_atScale() {
+        int players = 40_000;
+        for (int i = 0; i < players; i++) {
+            matchmaker.enqueue("p" + i, null, 1000 + (i % 1000));
+        }
+        matchmaker.cancel("p0");
+        matchmaker.enqueue("p1", null, 3000); // önceki biletin yerine geçer
+        matchmaker.tick();
+
+        Set<String> seen = new HashSet<>();
+        for (String[] m : matches) {
+            assertTrue(seen.add(m[0]));
+            assertTrue(seen.add(m[1]));
+        }
+        assertFalse(seen.contains("p0"));
+        assertFalse(seen.contains("p1"));
+        assertEquals(players - 2, seen.size());
+        assertEquals(1, matchmaker.getQueuedCount());
+    }
+}
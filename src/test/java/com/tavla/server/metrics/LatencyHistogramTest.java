@@ -0,0 +1,58 @@
+package com.tavla.server.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Log-lineer histogram testleri.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    void bucketUpperBound_coversValue_withinRelativeError() {
+        for (long v = 0; v < 5_000_000; v += 1 + v / 7) {
+            int bucket = LatencyHistogram.bucketOf(v);
+            long upper = LatencyHistogram.upperBoundOf(bucket);
+            assertTrue(upper >= v, "üst sınır değerden küçük: " + v);
+            assertTrue(upper - v <= Math.max(1, v / 8), "hata çok büyük: " + v + " -> " + upper);
+            if (bucket > 0) {
+                assertTrue(LatencyHistogram.upperBoundOf(bucket - 1) < v);
+            }
+        }
+        assertEquals(LatencyHistogram.BUCKET_COUNT - 1, LatencyHistogram.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    void quantiles_matchUniformDistribution() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (int i = 1; i <= 100_000; i++) {
+            h.record(i * 1_000L); // 1 µs .. 100 ms
+        }
+
+        assertEquals(100_000, h.getCount());
+        assertEquals(50_000, h.valueAtQuantile(0.5) / 1_000, 50_000 / 8);
+        assertEquals(99_000, h.valueAtQuantile(0.99) / 1_000, 99_000 / 8);
+        assertEquals(99_900, h.valueAtQuantile(0.999) / 1_000, 99_900 / 8);
+    }
+
+    @Test
+    void concurrentRecording_losesNothing() throws InterruptedException {
+        LatencyHistogram h = new LatencyHistogram();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    h.record(i);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        assertEquals(800_000, h.getCount());
+        assertEquals(8L * (99_999L * 100_000L / 2), h.getSumNanos());
+    }
+}
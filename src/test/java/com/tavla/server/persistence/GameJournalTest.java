@@ -0,0 +1,244 @@
+package com.tavla.server.persistence;
+
+import com.tavla.core.Player;
+import com.tavla.core.PositionId;
+import com.tavla.core.TavlaGame;
+import com.tavla.server.rooms.Room;
+import com.tavla.server.rooms.RoomManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Journal yazma / okuma, snapshot ve oda kurtarma testleri.
+ */
+public class GameJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void importedPosition_isRecovered() {
+        // WHITE 24'ten 13'e koşmuş; pozisyon BLACK sırada ve 3-1 atılmış olarak yüklenir
+        TavlaGame source = new TavlaGame();
+        source.applyRoll(6, 5);
+        source.applyMove(23, 17, 6);
+        source.applyMove(17, 12, 5);
+        PositionId.Key key = PositionId.key(source.getInternalState());
+        assertNotEquals(PositionId.START, key.toString());
+
+        FileGameJournal journal = FileGameJournal.open(dir, 1);
+        journal.roomCreated("abc1234", "abc1234.w");
+        journal.playerJoined("abc1234", "abc1234.b");
+        journal.gameStarted("abc1234");
+        journal.positionImported("abc1234", key, Player.BLACK, 3, 1);
+        journal.move("abc1234", 0, 3, 3);
+        journal.close();
+
+        RoomManager manager = new RoomManager();
+        RoomRecovery.replay(dir, manager);
+        TavlaGame game = manager.getRoom("abc1234").getGame();
+        assertEquals(Player.BLACK, game.getCurrentPlayer());
+        assertEquals(List.of(1), game.getRemainingSteps());
+        assertEquals(1, game.getBoardSnapshot().points.get(0).count);
+        assertEquals(1, game.getBoardSnapshot().points.get(3).count);
+        assertEquals(6, game.getBoardSnapshot().points.get(12).count);
+    }
+
+    @Test
+    void writeFailure_retriesTheSameRecords_andRejectsAppendsMeanwhile() throws InterruptedException {
+        FileGameJournal journal = FileGameJournal.open(dir, 1);
+        journal.failNextWrites = Integer.MAX_VALUE;
+        journal.roomCreated("abc1234", "abc1234.w");
+        awaitTrue(journal::isFailing);
+
+        assertThrows(IllegalStateException.class, () -> journal.playerJoined("abc1234", "abc1234.b"));
+        assertEquals(0, journal.durableSeq());
+
+        journal.failNextWrites = 0;
+        awaitTrue(() -> !journal.isFailing());
+        assertEquals(1, journal.durableSeq());
+        assertTrue(journal.writeErrorCount() >= 1);
+        journal.playerJoined("abc1234", "abc1234.b");
+        journal.gameStarted("abc1234");
+        journal.close();
+
+        // Başarısız denemelerin dosyaya düşen byte'ları kesildi: her kayıt bir kez
+        List<JournalRecord> records = new ArrayList<>();
+        assertEquals(3, JournalReader.replay(dir, records::add));
+        assertEquals(List.of(JournalEventType.ROOM_CREATED, JournalEventType.PLAYER_JOINED,
+                JournalEventType.GAME_STARTED), records.stream().map(r -> r.type).toList());
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "koşul zamanında sağlanmadı");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void appendedEvents_areReplayedInOrder() {
+        FileGameJournal journal = FileGameJournal.open(dir, 1);
+        journal.roomCreated("abc1234", "abc1234.w");
+        journal.playerJoined("abc1234", "abc1234.b");
+        journal.gameStarted("abc1234");
+        journal.roll("abc1234", 6, 5);
+        journal.move("abc1234", 23, 17, 6);
+        journal.close();
+
+        List<JournalRecord> records = new ArrayList<>();
+        long lastSeq = JournalReader.replay(dir, records::add);
+
+        assertEquals(5, lastSeq);
+        assertEquals(5, records.size());
+        assertEquals(JournalEventType.ROOM_CREATED, records.get(0).type);
+        assertEquals("abc1234.w", records.get(0).token);
+        assertEquals(6, records.get(3).die1);
+        assertEquals(5, records.get(3).die2);
+        assertEquals(23, records.get(4).from);
+        assertEquals(17, records.get(4).to);
+        assertEquals(6, records.get(4).step);
+    }
+
+    @Test
+    void tornTail_isSkipped() throws Exception {
+        FileGameJournal journal = FileGameJournal.open(dir, 1);
+        journal.roomCreated("abc1234", "abc1234.w");
+        journal.gameStarted("abc1234");
+        journal.close();
+
+        // Çökme anında yarım yazılmış bir kayıt taklidi
+        Path segment = JournalReader.listSegments(dir).get(0);
+        Files.write(segment, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        List<JournalRecord> records = new ArrayList<>();
+        JournalReader.replay(dir, records::add);
+        assertEquals(2, records.size());
+    }
+
+    @Test
+    void recovery_rebuildsRoomState() {
+        FileGameJournal journal = FileGameJournal.open(dir, 1);
+        journal.roomCreated("abc1234", "abc1234.w");
+        journal.playerJoined("abc1234", "abc1234.b");
+        journal.gameStarted("abc1234");
+        journal.roll("abc1234", 6, 5);
+        journal.move("abc1234", 23, 17, 6);
+        journal.move("abc1234", 12, 7, 5);
+        journal.roomCreated("zzz9999", "zzz9999.w");
+        journal.roomRemoved("zzz9999");
+        journal.close();
+
+        RoomManager manager = new RoomManager();
+        RoomRecovery.Result result = RoomRecovery.replay(dir, manager);
+
+        assertEquals(1, result.rooms);
+        assertEquals(8, result.lastSeq);
+        assertNull(manager.getRoom("zzz9999"));
+
+        Room room = manager.getRoom("abc1234");
+        assertNotNull(room);
+        assertEquals(Player.BLACK, room.getPlayerByToken("abc1234.b"));
+
+        TavlaGame game = room.getGame();
+        assertEquals(Player.BLACK, game.getCurrentPlayer());
+        assertEquals(1, game.getBoardSnapshot().points.get(17).count);
+        assertEquals(4, game.getBoardSnapshot().points.get(7).count);
+    }
+
+    @Test
+    void snapshotPlusJournalTail_recoversLatestState() {
+        Path journalDir = dir.resolve("journal");
+        Path snapshotFile = dir.resolve("rooms.snap");
+        FileGameJournal journal = FileGameJournal.open(journalDir, 1);
+
+        // Canlı sunucudaki gibi: olay uygulanır, journal'a yazılır
+        RoomManager live = new RoomManager();
+        Room room = live.restoreRoom("abc1234");
+        room.restoreSeat("abc1234.w");
+        room.markJournaled(journal.roomCreated("abc1234", "abc1234.w"));
+        room.restoreSeat("abc1234.b");
+        room.markJournaled(journal.playerJoined("abc1234", "abc1234.b"));
+        room.startGame();
+        room.markJournaled(journal.gameStarted("abc1234"));
+        room.getGame().applyRoll(6, 5);
+        room.markJournaled(journal.roll("abc1234", 6, 5));
+        room.getGame().applyMove(23, 17, 6);
+        room.markJournaled(journal.move("abc1234", 23, 17, 6));
+        room.publish(); // canlıda her komutun sonunda yapılır
+
+        RoomSnapshotter snapshotter = new RoomSnapshotter(live, journal, snapshotFile, journalDir);
+        assertEquals(1, snapshotter.snapshotNow());
+
+        // Snapshot'tan sonra gelen hamle sadece journal'da
+        room.getGame().applyMove(12, 7, 5);
+        room.markJournaled(journal.move("abc1234", 12, 7, 5));
+        journal.close();
+
+        RoomManager restored = new RoomManager();
+        RoomRecovery.Result result = RoomRecovery.recover(snapshotFile, journalDir, restored);
+
+        assertEquals(1, result.snapshotRooms);
+        assertEquals(1, result.events);
+        TavlaGame game = restored.getRoom("abc1234").getGame();
+        assertEquals(Player.BLACK, game.getCurrentPlayer());
+        assertEquals(1, game.getBoardSnapshot().points.get(17).count);
+        assertEquals(4, game.getBoardSnapshot().points.get(7).count);
+    }
+
+    @Test
+    void largeRoomSet_snapshotsAndRestores_andPublishesTimings(TestReporter reporter) {
+        // Hedef: 100k oda bir saniyenin altında geri yüklenir. Süre CI makinesine bağlı olduğu
+        // için assert edilmez; snapshotMs/restoreMs test raporunda yayınlanır
+        int roomCount = 100_000;
+        Path journalDir = dir.resolve("journal");
+        Path snapshotFile = dir.resolve("rooms.snap");
+
+        RoomManager live = new RoomManager();
+        for (int i = 0; i < roomCount; i++) {
+            String roomId = "r" + i;
+            Room room = live.restoreRoom(roomId);
+            room.restoreSeat(roomId + ".w");
+            if (i % 2 == 0) { // yarısı rakip bekliyor, yarısında oyun sürüyor
+                room.restoreSeat(roomId + ".b");
+                room.startGame();
+                room.getGame().applyRoll(6, 5);
+                room.getGame().applyMove(23, 17, 6);
+            }
+            room.publish();
+        }
+
+        long start = System.nanoTime();
+        RoomSnapshotter snapshotter = new RoomSnapshotter(live, GameJournal.NOOP, snapshotFile, journalDir);
+        assertEquals(roomCount, snapshotter.snapshotNow());
+        long snapshotMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        start = System.nanoTime();
+        RoomManager restored = new RoomManager();
+        RoomRecovery.Result result = RoomRecovery.recover(snapshotFile, journalDir, restored);
+        long restoreMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        reporter.publishEntry(Map.of("rooms", String.valueOf(roomCount),
+                "snapshotMs", String.valueOf(snapshotMs), "restoreMs", String.valueOf(restoreMs)));
+
+        assertEquals(roomCount, result.snapshotRooms);
+        assertEquals(roomCount, restored.getRoomCount());
+        Room room = restored.getRoom("r" + (roomCount - 2));
+        assertEquals(Player.BLACK, room.getPlayerByToken("r" + (roomCount - 2) + ".b"));
+        assertEquals(List.of(5), room.getGame().getRemainingSteps());
+        assertEquals(1, room.getGame().getBoardSnapshot().points.get(17).count);
+        assertNull(restored.getRoom("r1").getGame());
+    }
+}
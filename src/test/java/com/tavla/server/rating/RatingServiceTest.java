@@ -0,0 +1,217 @@
+package com.tavla.server.rating;
+
+import com.tavla.core.GameRecorder;
+import com.tavla.core.Player;
+import com.tavla.core.PositionId;
+import com.tavla.server.archive.GameArchive;
+import com.tavla.server.archive.GameRecord;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Glicko-2 hesabı ve eşzamanlı güncellenen sıralama testleri.
+ */
+public class RatingServiceTest {
+
+    @Test
+    void glicko2_matchesGlickmansWorkedExample() {
+        Glicko2.Rating player = new Glicko2.Rating(1500, 200, 0.06);
+        Glicko2.Rating[] opponents = {
+                new Glicko2.Rating(1400, 30, 0.06),
+                new Glicko2.Rating(1550, 100, 0.06),
+                new Glicko2.Rating(1700, 300, 0.06)
+        };
+        Glicko2.Rating after = Glicko2.update(player, opponents, new double[]{1, 0, 0});
+
+        assertEquals(1464.06, after.rating, 0.01);
+        assertEquals(151.52, after.rd, 0.01);
+        assertEquals(0.05999, after.volatility, 0.00001);
+    }
+
+    @Test
+    void recordGame_movesBothRatings_andSkipsUnratedGames() {
+        RatingService ratings = new RatingService();
+        assertNull(ratings.recordGame(null, "b", Player.WHITE));
+        assertNull(ratings.recordGame("a", "a", Player.WHITE));
+        assertNull(ratings.recordGame("a", "b", null));
+        assertEquals(0, ratings.getLeaderboard().size());
+
+        RatingService.Update update = ratings.recordGame("a", "b", Player.BLACK);
+        assertNull(update.before(Player.WHITE));
+        assertTrue(update.after(Player.BLACK).rating.rating > Glicko2.DEFAULT_RATING);
+        assertTrue(update.after(Player.WHITE).rating.rating < Glicko2.DEFAULT_RATING);
+        assertTrue(update.after(Player.BLACK).rating.rd < Glicko2.DEFAULT_RD);
+
+        ratings.recordGame("b", "c", Player.WHITE);
+        Leaderboard.Entry b = ratings.get("b");
+        assertEquals(2, b.games);
+        assertEquals(2, b.wins);
+        assertEquals(1, ratings.rank("b"));
+        assertEquals(Set.of(2, 3), Set.of(ratings.rank("a"), ratings.rank("c")));
+        assertEquals(0, ratings.rank("yok"));
+        assertEquals(List.of(), ratings.around("yok", 3));
+    }
+
+    @Test
+    void gamesFromAnImportedPosition_areNotRated_liveOrOnReplay(@TempDir Path dir) {
+        GameRecord standard = record("a", "b", null);
+        GameRecord imported = record("a", "b", PositionId.START_KEY);
+
+        RatingService live = new RatingService();
+        assertNull(live.recordGame(imported), "yüklenmiş pozisyondan oyun sayılmaz");
+        assertEquals(0, live.getLeaderboard().size());
+        assertNotNull(live.recordGame(standard));
+
+        GameArchive archive = GameArchive.open(dir);
+        try {
+            archive.append(imported);
+            archive.append(standard);
+            archive.append(imported);
+            archive.flush();
+            RatingService replayed = new RatingService();
+            assertEquals(1, replayed.replay(archive));
+            assertEquals(1, replayed.get("a").games);
+            assertEquals(live.get("a").displayRating(), replayed.get("a").displayRating());
+        } finally {
+            archive.close();
+        }
+    }
+
+    @Test
+    void isRated_requiresTwoDistinctIdentifiedPlayers() {
+        assertTrue(RatingService.isRated("a", "b"));
+        assertFalse(RatingService.isRated("a", null));
+        assertFalse(RatingService.isRated(null, "b"));
+        assertFalse(RatingService.isRated("a", "a"));
+        assertNull(new RatingService().recordGame("a", null, Player.WHITE));
+    }
+
+    private static GameRecord record(String white, String black, PositionId.Key startPosition) {
+        GameRecorder moves = GameRecorder.of(1_700_000_000_000L, white, black, startPosition, Player.WHITE, 0, 0, new byte[0]);
+        return new GameRecord(0, "oda", 1_700_000_100_000L, Player.WHITE, false, moves);
+    }
+
+    @Test
+    void equalDisplayedRatings_shareARank() {
+        Leaderboard board = new Leaderboard();
+        board.put(entry("x", 1600.2));
+        board.put(entry("y", 1599.9));
+        board.put(entry("z", 1500));
+
+        List<Leaderboard.Ranked> top = board.top(10);
+        assertEquals(List.of("x", "y", "z"), top.stream().map(r -> r.entry.playerId).toList());
+        assertEquals(List.of(1, 1, 3), top.stream().map(r -> r.rank).toList());
+        assertEquals(1, board.rank("y"));
+
+        board.put(entry("y", 1700)); // sıra değişti: eski kayıt yeni konumdan silinmeli
+        assertEquals(List.of("y", "x", "z"), board.top(10).stream().map(r -> r.entry.playerId).toList());
+        assertEquals(2, board.rank("x"));
+        assertEquals(3, board.size());
+    }
+
+    @Test
+    void concurrentGames_leaveTheSameStandingsAsABruteForceSort() throws Exception {
+        RatingService ratings = new RatingService();
+        int players = 300;
+        int threads = 4;
+        int gamesPerThread = 5_000;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads + 1);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                SplittableRandom random = new SplittableRandom(t);
+                writers.add(pool.submit(() -> {
+                    for (int i = 0; i < gamesPerThread; i++) {
+                        int white = random.nextInt(players);
+                        int black = random.nextInt(players);
+                        // Güçlü oyuncular (küçük numara) daha çok kazansın ki rating'ler ayrışsın
+                        Player stronger = white < black ? Player.WHITE : Player.BLACK;
+                        Player winner = random.nextInt(players) >= Math.min(white, black) ? stronger : stronger.opponent();
+                        ratings.recordGame("p" + white, "p" + black, winner);
+                    }
+                }));
+            }
+            // Yazarlar çalışırken okumalar kilitlenmeden dönmeli
+            Future<?> reader = pool.submit(() -> {
+                while (!writers.stream().allMatch(Future::isDone)) {
+                    List<Leaderboard.Ranked> top = ratings.top(100);
+                    assertTrue(top.size() <= 100);
+                    ratings.around("p1", 5);
+                }
+            });
+            for (Future<?> w : writers) {
+                w.get();
+            }
+            reader.get();
+        } finally {
+            pool.shutdown();
+        }
+
+        List<Leaderboard.Entry> all = new ArrayList<>();
+        for (int p = 0; p < players; p++) {
+            Leaderboard.Entry e = ratings.get("p" + p);
+            if (e != null) all.add(e);
+        }
+        all.sort(Comparator.comparingDouble((Leaderboard.Entry e) -> -e.rating.rating)
+                .thenComparing(e -> e.playerId));
+        assertEquals(all.size(), ratings.getLeaderboard().size());
+        assertEquals(threads * gamesPerThread * 2, all.stream().mapToInt(e -> e.games).sum()
+                + 2 * selfGames(players, threads, gamesPerThread));
+
+        List<Leaderboard.Ranked> top = ratings.top(100);
+        assertEquals(Math.min(100, all.size()), top.size());
+        for (int i = 0; i < top.size(); i++) {
+            assertSame(all.get(i), top.get(i).entry);
+            assertEquals(bruteRank(all, all.get(i)), top.get(i).rank);
+        }
+        for (Leaderboard.Entry e : all) {
+            assertEquals(bruteRank(all, e), ratings.rank(e.playerId));
+        }
+
+        int index = all.size() / 2;
+        Leaderboard.Entry me = all.get(index);
+        List<Leaderboard.Ranked> around = ratings.around(me.playerId, 3);
+        assertEquals(all.subList(index - 3, index + 4), around.stream().map(r -> r.entry).toList());
+        assertEquals(3, ratings.around(all.get(0).playerId, 3).size() - 1);
+    }
+
+    /** Aynı oyuncunun kendisiyle eşleştiği (sayılmayan) oyunlar; yazarlardaki rastgele akışı tekrarlar. */
+    private static int selfGames(int players, int threads, int gamesPerThread) {
+        int count = 0;
+        for (int t = 0; t < threads; t++) {
+            SplittableRandom random = new SplittableRandom(t);
+            for (int i = 0; i < gamesPerThread; i++) {
+                int white = random.nextInt(players);
+                int black = random.nextInt(players);
+                random.nextInt(players);
+                if (white == black) count++;
+            }
+        }
+        return count;
+    }
+
+    private static int bruteRank(List<Leaderboard.Entry> sorted, Leaderboard.Entry e) {
+        int higher = 0;
+        for (Leaderboard.Entry other : sorted) {
+            if (other.displayRating() > e.displayRating()) higher++;
+        }
+        return higher + 1;
+    }
+
+    private static Leaderboard.Entry entry(String playerId, double rating) {
+        return new Leaderboard.Entry(playerId, new Glicko2.Rating(rating, 100, 0.06), 1, 0);
+    }
+}
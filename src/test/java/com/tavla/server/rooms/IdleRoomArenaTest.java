@@ -0,0 +1,199 @@
+package com.tavla.server.rooms;
+
+import com.tavla.core.GameRecorder;
+import com.tavla.core.GameSnapshot;
+import com.tavla.core.GameState;
+import com.tavla.core.Move;
+import com.tavla.core.Player;
+import com.tavla.core.RandomGames;
+import com.tavla.core.TavlaGame;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Heap dışı boşta oda arena'sı ve odanın sıkıştırılıp geri açılması testleri.
+ */
+public class IdleRoomArenaTest {
+
+    private static GameState playedState() {
+        TavlaGame game = new TavlaGame();
+        game.applyRoll(6, 5);
+        game.applyMove(23, 17, 6);
+        return game.getInternalState();
+    }
+
+    @Test
+    void storeAndTake_roundTripsState_andReusesSlots() {
+        IdleRoomArena arena = new IdleRoomArena(2);
+        long[] refs = new long[5];
+        for (int i = 0; i < refs.length; i++) {
+            refs[i] = arena.store(playedState());
+        }
+        assertEquals(5, arena.getUsedSlots());
+        assertEquals(3L * 2 * IdleRoomArena.SLOT_BYTES, arena.getReservedBytes());
+
+        GameState restored = arena.take(refs[4]).getInternalState();
+        assertEquals(1, restored.getBoard().getPoint(17).getCount());
+        assertEquals(Player.WHITE, restored.getBoard().getPoint(17).getOwner());
+        assertEquals(List.of(5), restored.getDice().getRemainingSteps());
+        assertEquals(Player.WHITE, restored.getCurrentPlayer());
+        assertEquals(4, arena.getUsedSlots());
+
+        // Boşalan yuva yeniden kullanılır, arena büyümez
+        arena.store(new GameState());
+        assertEquals(5, arena.getUsedSlots());
+        assertEquals(3L * 2 * IdleRoomArena.SLOT_BYTES, arena.getReservedBytes());
+    }
+
+    @Test
+    void staleReference_isDetected() {
+        IdleRoomArena arena = new IdleRoomArena(4);
+        long ref = arena.store(playedState());
+
+        GameSnapshot snap = arena.read(ref);
+        assertNotNull(snap);
+        assertEquals(1, snap.getCount(17));
+
+        arena.free(ref);
+        assertNull(arena.read(ref));
+
+        // Aynı yuva başka bir state'e verildi; eski referans onu okuyamaz
+        long reused = arena.store(new GameState());
+        assertEquals((int) ref, (int) reused);
+        assertNull(arena.read(ref));
+        assertThrows(IllegalStateException.class, () -> arena.take(ref));
+        assertEquals(2, arena.read(reused).getCount(23));
+    }
+
+    @Test
+    void room_compactsAndRehydratesOnNextAccess() {
+        IdleRoomArena arena = new IdleRoomArena(4);
+        Room room = new Room("r1", Runnable::run);
+        room.addPlayer(null, "r1.w");
+        room.addPlayer(null, "r1.b");
+        room.startGame();
+        room.getGame().applyRoll(6, 5);
+        room.getGame().applyMove(23, 17, 6);
+
+        assertTrue(room.compact(arena));
+        assertTrue(room.isCompacted());
+        assertTrue(room.hasStarted());
+
+        RoomView view = room.publish();
+        assertNull(view.game);
+        assertNull(view.record);
+        assertTrue(view.isCompacted());
+        assertEquals(1, view.readGame().getCount(17));
+        assertEquals(2, view.readRecord().length());
+
+        TavlaGame game = room.getGame();
+        assertFalse(room.isCompacted());
+        assertEquals(0, arena.getUsedSlots());
+        assertEquals(1, game.getBoardSnapshot().points.get(17).count);
+        assertTrue(game.isMoveLegal(12, 7, 5));
+
+        // Kayıt geri açılan oyuna bağlıdır ve yazılmaya devam eder
+        game.applyMove(12, 7, 5);
+        GameRecorder record = game.getRecorder();
+        assertEquals(3, record.length());
+        assertEquals(GameRecorder.ROLL_BASE + 5 * 6 + 4, record.codeAt(0));
+
+        // Uyanan odanın eski görünümü artık yuvayı okuyamaz
+        assertNull(view.readGame());
+        assertNull(view.readRecord());
+        assertFalse(room.publish().isCompacted());
+    }
+
+    @Test
+    void recordsOfEverySize_roundTripThroughTheirBlocks() {
+        IdleRoomArena arena = new IdleRoomArena(4);
+        Random random = new Random(40);
+        for (int i = 0; i < 30; i++) {
+            GameRecorder recorder = new GameRecorder(1_000L + i, "w" + i, "b" + "x".repeat(i * 8));
+            TavlaGame game = RandomGames.moveByMove(random, recorder, g -> { });
+            long ref = arena.store(game.getInternalState(), recorder);
+
+            GameRecorder copy = arena.readRecord(ref);
+            assertEquals(recorder.length(), copy.length());
+            assertEquals(recorder.blackPlayer, copy.blackPlayer);
+
+            TavlaGame restored = arena.take(ref);
+            assertEquals(recorder.length(), restored.getRecorder().length());
+            for (int c = 0; c < recorder.length(); c++) {
+                assertEquals(recorder.codeAt(c), restored.getRecorder().codeAt(c));
+            }
+            for (int point = 0; point < 24; point++) {
+                assertEquals(game.getBoardSnapshot().points.get(point).count,
+                        restored.getBoardSnapshot().points.get(point).count);
+            }
+        }
+        assertEquals(0, arena.getUsedSlots());
+    }
+
+    @Test
+    void compaction_releasesTheHeapOfGameAndRecord(TestReporter reporter) throws InterruptedException {
+        int roomCount = 20_000;
+        IdleRoomArena arena = new IdleRoomArena();
+        Random random = new Random(7);
+        Room[] rooms = new Room[roomCount];
+        for (int i = 0; i < roomCount; i++) {
+            rooms[i] = new Room("r" + i, Runnable::run);
+            rooms[i].addPlayer(null, "r" + i + ".w");
+            rooms[i].addPlayer(null, "r" + i + ".b");
+            rooms[i].publish();
+        }
+        long withoutGames = usedHeap();
+
+        for (Room room : rooms) {
+            room.startGame();
+            TavlaGame game = room.getGame();
+            for (int step = 0; step < 60 && !game.isGameOver(); step++) { // ~15 tur
+                if (game.getRemainingSteps().isEmpty()) {
+                    game.applyRoll(random.nextInt(6) + 1, random.nextInt(6) + 1);
+                } else {
+                    List<Move> moves = game.getLegalMoves();
+                    Move m = moves.get(random.nextInt(moves.size()));
+                    game.applyMove(m.getFromIndex(), m.getToIndex(), m.getStep());
+                }
+                game.passIfBlocked();
+            }
+            room.publish();
+        }
+        long hydrated = usedHeap();
+
+        for (Room room : rooms) {
+            assertTrue(room.compact(arena));
+            room.publish();
+        }
+        long compacted = usedHeap();
+
+        long hydratedPerRoom = (hydrated - withoutGames) / roomCount;
+        long compactedPerRoom = (compacted - withoutGames) / roomCount;
+        reporter.publishEntry(Map.of("hydratedHeapPerRoom", String.valueOf(hydratedPerRoom),
+                "compactedHeapPerRoom", String.valueOf(compactedPerRoom),
+                "arenaBytesPerRoom", String.valueOf(arena.getReservedBytes() / roomCount)));
+        assertTrue(hydratedPerRoom > 500, "açık oyun " + hydratedPerRoom + " B");
+        // Sıkıştırılmış odada oyun ve kayıt nesnesi kalmaz; oda ve görünümü taban ölçümde zaten var
+        assertTrue(compactedPerRoom < 64, "sıkıştırılmış oda " + compactedPerRoom + " B");
+        assertEquals(roomCount, arena.getUsedSlots());
+        Reference.reachabilityFence(rooms); // ölçümler sürerken odalar toplanmasın
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            Thread.sleep(20);
+            used = Math.min(used, ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed());
+        }
+        return used;
+    }
+}
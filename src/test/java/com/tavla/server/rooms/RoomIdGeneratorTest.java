@@ -0,0 +1,60 @@
+package com.tavla.server.rooms;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Oda ID üreticisi için testler.
+ */
+public class RoomIdGeneratorTest {
+
+    @Test
+    void ids_haveFixedLength_andAreUnique() {
+        RoomIdGenerator generator = new RoomIdGenerator(0L, 12345L);
+        Set<String> seen = new HashSet<>();
+
+        for (int i = 0; i < 200_000; i++) {
+            String id = generator.nextId();
+            assertEquals(RoomIdGenerator.ID_LENGTH, id.length());
+            assertTrue(seen.add(id), "Aynı ID iki kez üretildi: " + id);
+        }
+    }
+
+    @Test
+    void concurrentGeneration_neverCollides() throws InterruptedException {
+        RoomIdGenerator generator = new RoomIdGenerator();
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 25_000;
+
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    seen.add(generator.nextId());
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread w : workers) {
+            w.join();
+        }
+
+        assertEquals(threads * perThread, seen.size());
+    }
+
+    @Test
+    void permute_isInjectiveOnConsecutiveValues() {
+        Set<Long> seen = new HashSet<>();
+        for (long i = 0; i < 100_000; i++) {
+            long p = RoomIdGenerator.permute(i);
+            assertTrue(p >= 0 && p < (1L << 36));
+            assertTrue(seen.add(p));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.tavla.server.rooms;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Oda mailbox'ı için sıralama ve tek tüketici testleri.
+ */
+public class RoomMailboxTest {
+
+    @Test
+    void commandsFromOneProducer_runInSubmissionOrder() throws InterruptedException {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        RoomMailbox mailbox = new RoomMailbox(executor);
+        List<Integer> seen = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        for (int i = 0; i < 1000; i++) {
+            int value = i;
+            mailbox.submit(() -> seen.add(value));
+        }
+        mailbox.submit(done::countDown);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, seen.get(i));
+        }
+        executor.shutdown();
+    }
+
+    @Test
+    void commandsFromManyProducers_neverRunConcurrently() throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        RoomMailbox mailbox = new RoomMailbox(executor);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        int producers = 8;
+        int perProducer = 2000;
+        CountDownLatch done = new CountDownLatch(producers * perProducer);
+
+        Thread[] threads = new Thread[producers];
+        for (int t = 0; t < producers; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    mailbox.submit(() -> {
+                        if (running.incrementAndGet() != 1) {
+                            overlaps.incrementAndGet();
+                        }
+                        running.decrementAndGet();
+                        done.countDown();
+                    });
+                }
+            });
+            threads[t].start();
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(0, overlaps.get(), "Aynı anda birden fazla komut çalıştı");
+        executor.shutdown();
+    }
+
+    @Test
+    void commandThrowingAnError_doesNotStallTheMailbox() throws InterruptedException {
+        // Error drain thread'ini bitirir; test çıktısını kirletmesin diye sessizce yutulur
+        RoomMailbox mailbox = new RoomMailbox(task -> {
+            Thread t = new Thread(task);
+            t.setUncaughtExceptionHandler((thread, e) -> { });
+            t.start();
+        });
+        List<Integer> seen = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        mailbox.submit(() -> seen.add(1));
+        mailbox.submit(() -> {
+            throw new StackOverflowError("test");
+        });
+        mailbox.submit(() -> seen.add(2));
+        mailbox.submit(done::countDown);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS), "Error'dan sonraki komutlar çalışmadı");
+        assertEquals(List.of(1, 2), seen);
+
+        CountDownLatch again = new CountDownLatch(1);
+        mailbox.submit(again::countDown);
+        assertTrue(again.await(5, TimeUnit.SECONDS), "mailbox Error'dan sonra yeni komut almıyor");
+    }
+}
@@ -0,0 +1,141 @@
+package com.tavla.server.rooms;
+
+import com.tavla.core.Player;
+import org.java_websocket.WebSocket;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Shard'lı oda kaydının eşzamanlı kullanım testleri.
+ */
+public class RoomManagerTest {
+
+    /** Sadece kimliğiyle (map anahtarı olarak) kullanılan sahte socket. */
+    private static WebSocket socket() {
+        return (WebSocket) Proxy.newProxyInstance(WebSocket.class.getClassLoader(), new Class<?>[] {WebSocket.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "socket@" + Integer.toHexString(System.identityHashCode(proxy));
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    @Test
+    void concurrentCreateLookupAndRemove_keepTheRegistryConsistent() throws InterruptedException {
+        RoomManager manager = new RoomManager(16, new RoomIdGenerator(), Runnable::run);
+        int threads = 8;
+        int perThread = 5_000;
+
+        List<String> kept = new ArrayList<>();
+        List<String> removed = new ArrayList<>();
+        List<List<String>> keptPerThread = new ArrayList<>();
+        List<List<String>> removedPerThread = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            keptPerThread.add(new ArrayList<>());
+            removedPerThread.add(new ArrayList<>());
+        }
+        ConcurrentHashMap<String, Boolean> seen = new ConcurrentHashMap<>();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicInteger readerHits = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            List<String> myKept = keptPerThread.get(t);
+            List<String> myRemoved = removedPerThread.get(t);
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        WebSocket white = socket();
+                        WebSocket black = socket();
+                        Room room = manager.createRoom(white);
+                        String id = room.getRoomId();
+                        assertNull(seen.putIfAbsent(id, true), "aynı ID iki odaya verildi: " + id);
+                        manager.joinRoom(room, black);
+
+                        assertSame(room, manager.getRoom(id));
+                        assertSame(room, manager.getRoomBySocket(white));
+                        assertSame(room, manager.getRoomBySocket(black));
+                        assertSame(room, manager.getRoomByToken(room.getToken(Player.BLACK)));
+
+                        if (i % 2 == 0) {
+                            manager.removeRoom(room);
+                            assertNull(manager.getRoom(id));
+                            assertNull(manager.getRoomBySocket(white));
+                            assertNull(manager.getRoomBySocket(black));
+                            myRemoved.add(id);
+                        } else {
+                            myKept.add(id);
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+            workers[t].start();
+        }
+
+        // Yazmalar sürerken kilitsiz okuyucu: bulduğu oda hep istenen ID'yi taşımalı
+        Thread reader = new Thread(() -> {
+            while (writing.get()) {
+                for (String id : seen.keySet()) {
+                    Room room = manager.getRoom(id);
+                    if (room != null) {
+                        if (!room.getRoomId().equals(id)) {
+                            failure.compareAndSet(null, new AssertionError("yanlış oda: " + id));
+                        }
+                        readerHits.incrementAndGet();
+                    }
+                }
+            }
+        });
+        reader.start();
+
+        start.countDown();
+        for (Thread w : workers) {
+            w.join();
+        }
+        writing.set(false);
+        reader.join();
+        if (failure.get() != null) {
+            fail(failure.get());
+        }
+
+        keptPerThread.forEach(kept::addAll);
+        removedPerThread.forEach(removed::addAll);
+        assertEquals(threads * perThread / 2, kept.size());
+        assertEquals(kept.size(), manager.getRoomCount());
+        for (String id : kept) {
+            assertNotNull(manager.getRoom(id), id);
+        }
+        for (String id : removed) {
+            assertNull(manager.getRoom(id), id);
+        }
+        assertTrue(readerHits.get() > 0);
+
+        long created = 0, joined = 0, removedCount = 0, rooms = 0;
+        for (RoomManager.ShardStats st : manager.getShardStats()) {
+            created += st.created;
+            joined += st.joined;
+            removedCount += st.removed;
+            rooms += st.rooms;
+        }
+        assertEquals(threads * perThread, created);
+        assertEquals(threads * perThread, joined);
+        assertEquals(removed.size(), removedCount);
+        assertEquals(kept.size(), rooms);
+    }
+}
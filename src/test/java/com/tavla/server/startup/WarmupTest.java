@@ -0,0 +1,68 @@
+package com.tavla.server.startup;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Açılış ısınması ve açılış sürelerinin ölçümü.
+ */
+public class WarmupTest {
+
+    @Test
+    void steadyState_needsConsecutiveWindowsWithinTolerance() {
+        SteadyState steady = new SteadyState(2);
+        // Soğuk JVM: medyan her pencerede belirgin düşüyor
+        assertFalse(steady.offer(800_000));
+        assertFalse(steady.offer(400_000));
+        assertFalse(steady.offer(200_000));
+        // Oturdu ama arada bir sıçrama seriyi sıfırlar
+        assertFalse(steady.offer(190_000));
+        assertFalse(steady.offer(400_000));
+        assertFalse(steady.offer(210_000));
+        assertFalse(steady.offer(200_000));
+        assertTrue(steady.offer(220_000));
+        assertTrue(steady.isReached());
+        assertTrue(steady.offer(900_000), "kararlı noktaya bir kez varılır");
+    }
+
+    @Test
+    void tracker_startsMeasuringOnlyOnceListening() {
+        StartupTracker tracker = new StartupTracker();
+        tracker.connectionAccepted();
+        tracker.record(1_000);
+        assertEquals(-1, tracker.getFirstConnectionMs(), "ısınma bağlantıları sayılmaz");
+        assertEquals(-1, tracker.getWarmupMs());
+
+        tracker.listening();
+        tracker.connectionAccepted();
+        long first = tracker.getFirstConnectionMs();
+        assertTrue(first >= 0);
+        tracker.connectionAccepted();
+        assertEquals(first, tracker.getFirstConnectionMs());
+
+        // Az mesajlı pencere kapanmaz, birikmeye devam eder
+        tracker.record(50_000);
+        assertTrue(tracker.tick());
+
+        int ticks = 0;
+        do {
+            for (int i = 0; i < StartupTracker.MIN_WINDOW_SAMPLES; i++) {
+                tracker.record(50_000);
+            }
+            ticks++;
+        } while (tracker.tick());
+        assertEquals(4, ticks, "ilk pencere + art arda 3 kararlı pencere");
+        assertTrue(tracker.getSteadyStateMs() >= first);
+        assertFalse(tracker.tick());
+    }
+
+    @Test
+    void warmup_playsWholeGamesThroughAnInMemoryServer() {
+        Warmup.Result result = Warmup.run(Warmup.ROUND_GAMES, 60_000);
+        assertEquals(Warmup.ROUND_GAMES, result.games, "hata ya da süre sınırı olmadan bitmeli");
+        assertTrue(result.requests > 4L * Warmup.ROUND_GAMES, "oyun başına oda, zar ve hamle istekleri");
+        assertTrue(result.medianNanos > 0);
+        assertFalse(result.steady, "tek turla kararlılık ölçülemez");
+    }
+}
@@ -0,0 +1,69 @@
+package com.tavla.server.timer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Hashed timer wheel testleri (küçük tick ile, gerçek zamanlı).
+ */
+public class TimerWheelTest {
+
+    private final TimerWheel wheel = new TimerWheel("test-wheel", 5, 16);
+
+    @AfterEach
+    void tearDown() {
+        wheel.stop();
+    }
+
+    @Test
+    void firesAfterDelay_includingMultipleRounds() throws InterruptedException {
+        CountDownLatch latch = new CountDownLatch(2);
+        long start = System.nanoTime();
+        long[] firedAfterMs = new long[2];
+
+        // 16 yuva * 5 ms = 80 ms'lik tur; 200 ms en az 2 tur sürer
+        wheel.schedule(() -> {
+            firedAfterMs[0] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            latch.countDown();
+        }, 20, TimeUnit.MILLISECONDS);
+        wheel.schedule(() -> {
+            firedAfterMs[1] = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            latch.countDown();
+        }, 200, TimeUnit.MILLISECONDS);
+
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertTrue(firedAfterMs[0] >= 20, "erken ateşlendi: " + firedAfterMs[0]);
+        assertTrue(firedAfterMs[1] >= 200, "erken ateşlendi: " + firedAfterMs[1]);
+        assertEquals(0, wheel.getPendingCount());
+    }
+
+    @Test
+    void cancelledTimeouts_neverFire() throws InterruptedException {
+        AtomicInteger fired = new AtomicInteger();
+        int count = 100_000;
+        TimerWheel.Timeout[] timeouts = new TimerWheel.Timeout[count];
+        for (int i = 0; i < count; i++) {
+            timeouts[i] = wheel.schedule(fired::incrementAndGet, 500 + (i % 50), TimeUnit.MILLISECONDS);
+        }
+        // Yarısını iptal et
+        for (int i = 0; i < count; i += 2) {
+            assertTrue(timeouts[i].cancel());
+            assertFalse(timeouts[i].cancel());
+        }
+
+        CountDownLatch done = new CountDownLatch(1);
+        wheel.schedule(done::countDown, 700, TimeUnit.MILLISECONDS);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+
+        assertEquals(count / 2, fired.get());
+        assertTrue(timeouts[1].isExpired());
+        assertTrue(timeouts[0].isCancelled());
+        assertEquals(0, wheel.getPendingCount());
+    }
+}
@@ -0,0 +1,84 @@
+package com.tavla.server.tournament;
+
+import com.tavla.core.MatchScore;
+import com.tavla.core.TavlaGame;
+import com.tavla.server.bot.BotStrategies;
+import com.tavla.server.bot.BotStrategy;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Soketsiz bot turnuvası testleri.
+ */
+public class TournamentTest {
+
+    private static List<BotStrategy> bots(String... names) {
+        return Arrays.stream(names).map(BotStrategies::byName).toList();
+    }
+
+    @Test
+    void gamesFinish_withCubeAndMatchScore() {
+        MatchPlay play = new MatchPlay();
+        BotStrategy cube = BotStrategies.byName("eval-cube");
+        for (int seed = 0; seed < 20; seed++) {
+            TavlaGame game = play.playGame(cube, BotStrategies.random(), MatchScore.MONEY, new SplittableRandom(seed));
+            assertTrue(game.isGameOver());
+            assertTrue(game.getResultPoints() >= 1);
+        }
+        MatchPlay.Outcome match = play.play(cube, BotStrategies.byName("eval"), 5, new SplittableRandom(3));
+        assertEquals(1.0, Math.abs(match.whiteScore));
+        assertTrue(match.games >= 1 && match.games <= 9);
+    }
+
+    @Test
+    void roundRobin_ranksTheEvaluatorAboveRandom_andIsReproducibleAcrossThreadCounts() {
+        Tournament.Result one = new Tournament(bots("random", "pip", "eval"), Tournament.Format.ROUND_ROBIN,
+                1, 40, 0, 7, 1).run();
+        Tournament.Result four = new Tournament(bots("random", "pip", "eval"), Tournament.Format.ROUND_ROBIN,
+                1, 40, 0, 7, 4).run();
+
+        assertEquals(120, one.encounters);
+        assertEquals(120, one.games);
+        assertEquals("random", one.standings.get(2).name);
+        assertTrue(one.get("eval").meanScore > one.get("random").meanScore + one.get("random").meanError);
+        for (Tournament.Standing s : one.standings) {
+            assertEquals(80, s.played);
+            assertTrue(s.meanError > 0);
+            Tournament.Standing same = four.get(s.name);
+            assertEquals(s.wins, same.wins);
+            assertEquals(s.meanScore, same.meanScore, 1e-12);
+        }
+        // Sıfır toplamlı: bir botun kazandığını diğeri kaybeder
+        assertEquals(0.0, one.standings.stream().mapToDouble(s -> s.meanScore * s.played).sum(), 1e-9);
+    }
+
+    @Test
+    void swiss_givesEachBotAtMostOneBye() {
+        Tournament tournament = new Tournament(bots("random", "random", "pip", "pip", "eval"),
+                Tournament.Format.SWISS, 4, 2, 3, 11, 2);
+        Tournament.Result result = tournament.run();
+
+        // 5 bot, 4 tur: her turda 2 eşleşme x 2 maç, bir bot bay geçer
+        assertEquals(16, result.encounters);
+        assertTrue(result.games >= 16);
+        double pairingPoints = result.standings.stream().mapToDouble(s -> s.pairingPoints).sum();
+        assertEquals(4 * 2 + 4, pairingPoints, 1e-9);
+        // Bay geçen dört bot 3 turda 6, geçmeyen 4 turda 8 maç oynadı
+        assertEquals(4, result.standings.stream().filter(s -> s.played == 6).count());
+        assertEquals(1, result.standings.stream().filter(s -> s.played == 8).count());
+    }
+
+    @Test
+    void seedsOfNeighbouringEncounters_differ() {
+        assertNotEquals(Tournament.mix(1, 0), Tournament.mix(1, 1));
+        SplittableRandom a = new SplittableRandom(Tournament.mix(1, 0));
+        SplittableRandom b = new SplittableRandom(Tournament.mix(1, 1));
+        a.nextLong();
+        assertNotEquals(a.nextLong(), b.nextLong());
+    }
+}
@@ -0,0 +1,120 @@
+package com.tavla.server.ws;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.tavla.core.GameState;
+import com.tavla.core.PositionId;
+import com.tavla.core.TavlaGame;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * import_position'ın rakip onayı: teklif, accept_import / decline_import ve kabuldeki yeniden denetim
+ * gerçek bir sunucu üzerinden.
+ */
+public class ImportPositionTest {
+
+    private TavlaWebSocketServer server;
+    private String url;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        int port = WsTestClient.freePort();
+        server = new TavlaWebSocketServer(port);
+        server.setReuseAddr(true);
+        server.start();
+        WsTestClient.awaitListening(port);
+        url = "ws://127.0.0.1:" + port;
+    }
+
+    @AfterEach
+    void stopServer() throws Exception {
+        server.stop(1_000);
+    }
+
+    /** Başlamış bir oyun: WHITE ve BLACK bağlı, ikisi de ilk state'i aldı. */
+    private final class Game {
+        final WsTestClient white = WsTestClient.connect(url);
+        final WsTestClient black = WsTestClient.connect(url);
+
+        Game() throws InterruptedException {
+            white.send("create_room", "null");
+            String roomId = white.await("room_created").get("roomId").asText();
+            black.send("join_room", "{\"roomId\":\"" + roomId + "\"}");
+            black.await("room_joined");
+            white.await("state");
+            black.await("state");
+        }
+    }
+
+    /** Açılıştan farklı, zarı atılmamış bir pozisyon. */
+    private static String positionId() {
+        TavlaGame game = new TavlaGame();
+        game.applyRoll(6, 5);
+        game.applyMove(23, 17, 6);
+        game.applyMove(12, 7, 5);
+        return PositionId.encode(game.getInternalState());
+    }
+
+    private static String offer(String positionId) {
+        return "{\"positionId\":\"" + positionId + "\"}";
+    }
+
+    @Test
+    void importIsAppliedOnlyAfterTheOpponentAccepts() throws Exception {
+        Game game = new Game();
+        String id = positionId();
+
+        game.white.send("import_position", offer(id));
+        game.white.await("info");
+        JsonNode offered = game.black.await("import_offered");
+        assertEquals("WHITE", offered.get("player").asText());
+        assertEquals(id, offered.get("positionId").asText());
+        assertFalse(game.white.received("state"));
+
+        // Teklif eden kendi teklifini kabul edemez
+        game.white.send("accept_import", "null");
+        assertEquals("Cevap verilecek bir pozisyon teklifi yok.", game.white.await("error").get("message").asText());
+
+        game.black.send("accept_import", "null");
+        JsonNode points = game.white.await("state").get("board").get("points");
+        GameState expected = PositionId.decode(id, null);
+        for (int i = 0; i < 24; i++) {
+            assertEquals(expected.getBoard().getPoint(i).getCount(), points.get(i).get("count").asInt(), "nokta " + i);
+        }
+
+        // Teklif kullanıldı; ikinci kabul bir şey yüklemez
+        game.black.send("accept_import", "null");
+        assertEquals("Cevap verilecek bir pozisyon teklifi yok.", game.black.await("error").get("message").asText());
+    }
+
+    @Test
+    void declinedOffer_isDropped() throws Exception {
+        Game game = new Game();
+
+        game.white.send("import_position", offer(positionId()));
+        game.black.await("import_offered");
+        game.black.send("decline_import", "null");
+        assertEquals("BLACK", game.white.await("import_declined").get("player").asText());
+
+        game.black.send("accept_import", "null");
+        assertEquals("Cevap verilecek bir pozisyon teklifi yok.", game.black.await("error").get("message").asText());
+        assertFalse(game.white.received("state"));
+    }
+
+    @Test
+    void acceptAfterTheFirstRoll_isRejected() throws Exception {
+        Game game = new Game();
+
+        game.white.send("import_position", offer(positionId()));
+        game.black.await("import_offered");
+        game.white.send("roll", "null");
+        game.black.await("state");
+
+        game.black.send("accept_import", "null");
+        assertEquals("Pozisyon sadece oyun başlamadan (ilk zar atılmadan) yüklenebilir.",
+                game.black.await("error").get("message").asText());
+    }
+}
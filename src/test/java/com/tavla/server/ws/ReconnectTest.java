@@ -0,0 +1,156 @@
+package com.tavla.server.ws;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Kopan bağlantı, resume ve grace süresi: handleDisconnect / handleResume / expireSeat ile
+ * RoomManager.detachSocket / getRoomByToken / resume gerçek bir sunucu üzerinden.
+ */
+public class ReconnectTest {
+
+    private static final long GRACE_MS = 1_000;
+
+    private TavlaWebSocketServer server;
+    private String url;
+
+    @BeforeEach
+    void startServer() throws Exception {
+        int port = WsTestClient.freePort();
+        server = new TavlaWebSocketServer(port);
+        server.setReconnectGraceMs(GRACE_MS);
+        server.setReuseAddr(true);
+        server.start();
+        WsTestClient.awaitListening(port);
+        url = "ws://127.0.0.1:" + port;
+    }
+
+    @AfterEach
+    void stopServer() throws Exception {
+        server.stop(1_000);
+    }
+
+    /** Başlamış bir oyun: WHITE ve BLACK bağlı. */
+    private final class Game {
+        final WsTestClient white = WsTestClient.connect(url);
+        final WsTestClient black = WsTestClient.connect(url);
+        final String roomId;
+        final String blackToken;
+
+        Game() throws InterruptedException {
+            white.send("create_room", "null");
+            roomId = white.await("room_created").get("roomId").asText();
+            black.send("join_room", "{\"roomId\":\"" + roomId + "\"}");
+            blackToken = black.await("room_joined").get("token").asText();
+            white.await("state");
+        }
+    }
+
+    private static String resume(String token) {
+        return "{\"token\":\"" + token + "\"}";
+    }
+
+    @Test
+    void resumeWithinGrace_rebindsTheSeat() throws Exception {
+        Game game = new Game();
+        game.black.closeBlocking();
+        assertEquals("BLACK", game.white.await("opponent_disconnected").get("player").asText());
+
+        WsTestClient back = WsTestClient.connect(url);
+        back.send("resume", resume(game.blackToken));
+        JsonNode resumed = back.await("resumed");
+        assertEquals("BLACK", resumed.get("player").asText());
+        assertEquals(game.roomId, resumed.get("roomId").asText());
+        back.await("state");
+        game.white.await("opponent_reconnected");
+
+        // Grace süresi geçse de oda açık kalır ve koltuk yeni bağlantıya aittir
+        Thread.sleep(GRACE_MS + 500);
+        assertFalse(game.white.received("room_closed"));
+        assertSeatedAsBlack(back);
+    }
+
+    @Test
+    void secondResume_closesTheOldSocket() throws Exception {
+        Game game = new Game();
+        WsTestClient second = WsTestClient.connect(url);
+        second.send("resume", resume(game.blackToken));
+        assertEquals("BLACK", second.await("resumed").get("player").asText());
+        assertEquals(4001, game.black.awaitClose(), "eski bağlantı kapatılmalı");
+
+        WsTestClient third = WsTestClient.connect(url);
+        third.send("resume", resume(game.blackToken));
+        third.await("resumed");
+        assertEquals(4001, second.awaitClose());
+
+        // Eski bağlantının kapanması yeni bağlantıyı koltuktan düşürmez
+        Thread.sleep(GRACE_MS + 500);
+        assertFalse(game.white.received("room_closed"));
+        assertSeatedAsBlack(third);
+    }
+
+    @Test
+    void seatExpiresAfterGrace_andClosesTheRoom() throws Exception {
+        Game game = new Game();
+        game.black.closeBlocking();
+        game.white.await("opponent_disconnected");
+
+        JsonNode closed = game.white.await("room_closed");
+        assertEquals(game.roomId, closed.get("roomId").asText());
+
+        WsTestClient late = WsTestClient.connect(url);
+        late.send("resume", resume(game.blackToken));
+        assertEquals("Oturum bulunamadı veya süresi doldu.", late.await("error").get("message").asText());
+    }
+
+    @Test
+    void disconnectResumeDisconnect_doesNotExpireEarly() throws Exception {
+        Game game = new Game();
+        long start = System.nanoTime();
+        game.black.closeBlocking();
+        game.white.await("opponent_disconnected");
+
+        Thread.sleep(GRACE_MS / 2);
+        WsTestClient back = WsTestClient.connect(url);
+        back.send("resume", resume(game.blackToken));
+        back.await("resumed");
+        Thread.sleep(GRACE_MS / 5);
+        back.closeBlocking();
+
+        // İlk kopuşun zamanlayıcısı çalıştı ama ikinci kopuşun süresi dolmadı
+        Thread.sleep(GRACE_MS + 300 - (System.nanoTime() - start) / 1_000_000);
+        assertFalse(game.white.received("room_closed"), "ilk zamanlayıcı odayı kapatmamalı");
+        WsTestClient again = WsTestClient.connect(url);
+        again.send("resume", resume(game.blackToken));
+        again.await("resumed");
+    }
+
+    @Test
+    void invalidOrForeignTokens_areRejected() throws Exception {
+        Game game = new Game();
+        Game other = new Game();
+        String secret = other.blackToken.substring(other.blackToken.indexOf('.'));
+
+        for (String token : new String[] {"bozuk", ".abc", "yokoda.abc", game.roomId + secret, game.roomId + ".x"}) {
+            WsTestClient client = WsTestClient.connect(url);
+            client.send("resume", resume(token));
+            assertEquals("Oturum bulunamadı veya süresi doldu.", client.await("error").get("message").asText(), token);
+            client.closeBlocking();
+        }
+
+        // Reddedilen denemeler koltukları değiştirmez
+        assertSeatedAsBlack(game.black);
+        assertFalse(game.white.received("room_closed"));
+    }
+
+    /** İlk zarı WHITE atar; BLACK koltuğundaki bağlantı sırası olmadığını duyar. */
+    private static void assertSeatedAsBlack(WsTestClient client) throws InterruptedException {
+        client.send("roll", "null");
+        JsonNode error = client.await("error");
+        assertTrue(error.get("message").asText().startsWith("Sıra sende değil"), error.toString());
+    }
+}
@@ -0,0 +1,130 @@
+package com.tavla.server.ws;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.handshake.ServerHandshake;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URI;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sunucuya karşı testler için bloklayan istemci: gelen mesajları sırayla kuyruğa alır,
+ * beklenen tipteki mesajı bekler.
+ */
+public final class WsTestClient extends WebSocketClient {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final long TIMEOUT_MS = 5_000;
+
+    private final BlockingQueue<JsonNode> messages = new LinkedBlockingQueue<>();
+    private final CountDownLatch closed = new CountDownLatch(1);
+    private volatile int closeCode;
+
+    private WsTestClient(URI uri) {
+        super(uri);
+    }
+
+    public static WsTestClient connect(String url) throws InterruptedException {
+        WsTestClient client = new WsTestClient(URI.create(url));
+        assertTrue(client.connectBlocking(TIMEOUT_MS, TimeUnit.MILLISECONDS), "bağlanılamadı: " + url);
+        return client;
+    }
+
+    public static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    /** Sunucu portu dinlemeye başlayana kadar bekler. */
+    public static void awaitListening(int port) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS);
+        while (true) {
+            try (Socket socket = new Socket()) {
+                socket.connect(new InetSocketAddress("127.0.0.1", port), 200);
+                return;
+            } catch (IOException e) {
+                assertTrue(System.nanoTime() < deadline, "port açılmadı: " + port);
+                Thread.sleep(20);
+            }
+        }
+    }
+
+    /** Node'a bağlanıp tek istek gönderir, beklenen tipteki cevabın payload'ını döner. */
+    public static JsonNode ask(String url, String type, String payload, String expected) throws InterruptedException {
+        WsTestClient client = connect(url);
+        try {
+            client.send(type, payload);
+            return client.await(expected);
+        } finally {
+            client.closeBlocking();
+        }
+    }
+
+    public void send(String type, String payload) {
+        send("{\"type\":\"" + type + "\",\"payload\":" + payload + "}");
+    }
+
+    /** type tipindeki ilk mesajın payload'ı; arada gelen başka tipler (hata hariç) atlanır. */
+    public JsonNode await(String type) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS);
+        while (true) {
+            JsonNode msg = messages.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            assertNotNull(msg, type + " gelmedi");
+            String got = msg.get("type").asText();
+            if (got.equals(type)) {
+                return msg.get("payload");
+            }
+            assertNotEquals("error", got, "beklenmeyen hata: " + msg);
+        }
+    }
+
+    /** Şu ana kadar gelmiş mesajlarda type tipinde bir mesaj var mı (beklemeden, kuyruğu boşaltır)? */
+    public boolean received(String type) {
+        JsonNode msg;
+        boolean found = false;
+        while ((msg = messages.poll()) != null) {
+            found |= msg.get("type").asText().equals(type);
+        }
+        return found;
+    }
+
+    /** Sunucu bağlantıyı kapatana kadar bekler; kapanış kodunu döner. */
+    public int awaitClose() throws InterruptedException {
+        assertTrue(closed.await(TIMEOUT_MS, TimeUnit.MILLISECONDS), "bağlantı kapanmadı");
+        return closeCode;
+    }
+
+    @Override
+    public void onOpen(ServerHandshake handshake) {
+    }
+
+    @Override
+    public void onMessage(String message) {
+        try {
+            messages.add(MAPPER.readTree(message));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void onClose(int code, String reason, boolean remote) {
+        closeCode = code;
+        closed.countDown();
+    }
+
+    @Override
+    public void onError(Exception ex) {
+    }
+}